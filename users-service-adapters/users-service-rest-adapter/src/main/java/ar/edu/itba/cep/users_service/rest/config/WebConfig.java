@@ -1,9 +1,11 @@
 package ar.edu.itba.cep.users_service.rest.config;
 
+import ar.edu.itba.cep.users_service.rest.controller.throttling.LoginThrottlingProperties;
 import com.bellotapps.webapps_commons.config.EnableJerseyApplication;
 import com.bellotapps.webapps_commons.exceptions.CustomConstraintViolationException;
 import com.bellotapps.webapps_commons.validation.jersey.ConstraintViolationExceptionCreator;
 import com.bellotapps.webapps_commons.validation.jersey.EnableJerseyValidation;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -23,8 +25,10 @@ import org.springframework.web.filter.ForwardedHeaderFilter;
         "com.bellotapps.webapps_commons.data_transfer.jersey.providers",
 }, errorHandlersPackages = {
         "com.bellotapps.webapps_commons.error_handlers",
+        "ar.edu.itba.cep.users_service.rest.error_handlers",
 })
 @EnableJerseyValidation
+@EnableConfigurationProperties(LoginThrottlingProperties.class)
 public class WebConfig {
 
     /**
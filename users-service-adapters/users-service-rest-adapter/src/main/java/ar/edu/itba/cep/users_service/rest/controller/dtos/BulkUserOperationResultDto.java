@@ -0,0 +1,35 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.models.User;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object with the result of a bulk operation over {@link User}s.
+ */
+public class BulkUserOperationResultDto {
+
+    /**
+     * The amount of {@link User}s that were changed by the operation.
+     */
+    private final int changed;
+
+
+    /**
+     * Constructor.
+     *
+     * @param changed The amount of {@link User}s that were changed by the operation.
+     */
+    public BulkUserOperationResultDto(final int changed) {
+        this.changed = changed;
+    }
+
+
+    /**
+     * @return The amount of {@link User}s that were changed by the operation
+     * (i.e those selected {@link User}s that were already in the resulting state are not counted).
+     */
+    @JsonProperty(value = "changed", access = JsonProperty.Access.READ_ONLY)
+    public int getChanged() {
+        return changed;
+    }
+}
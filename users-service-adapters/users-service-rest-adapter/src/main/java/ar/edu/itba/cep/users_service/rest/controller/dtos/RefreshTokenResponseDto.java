@@ -1,6 +1,7 @@
 package ar.edu.itba.cep.users_service.rest.controller.dtos;
 
 import ar.edu.itba.cep.users_service.services.RawTokenContainer;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -13,9 +14,13 @@ public class RefreshTokenResponseDto {
      */
     private final String accessToken;
     /**
-     * A token to be used to refresh the access token.
+     * A token to be used to refresh the access token ({@code null} if no new refresh token was issued).
      */
     private final String refreshToken;
+    /**
+     * Indicates whether a new refresh token was issued.
+     */
+    private final boolean refreshTokenIssued;
 
 
     /**
@@ -26,6 +31,7 @@ public class RefreshTokenResponseDto {
     public RefreshTokenResponseDto(final RawTokenContainer rawTokenContainer) {
         this.accessToken = rawTokenContainer.getAccessToken();
         this.refreshToken = rawTokenContainer.getRefreshToken();
+        this.refreshTokenIssued = rawTokenContainer.getRefreshToken() != null;
     }
 
 
@@ -38,10 +44,20 @@ public class RefreshTokenResponseDto {
     }
 
     /**
-     * @return A token to be used to refresh the access token.
+     * @return A token to be used to refresh the access token
+     * (not included if no new refresh token was issued, in which case the previous one must still be used).
      */
     @JsonProperty(value = "refreshToken", access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String getRefreshToken() {
         return refreshToken;
     }
+
+    /**
+     * @return {@code true} if a new refresh token was issued, or {@code false} otherwise.
+     */
+    @JsonProperty(value = "refreshTokenIssued", access = JsonProperty.Access.READ_ONLY)
+    public boolean isRefreshTokenIssued() {
+        return refreshTokenIssued;
+    }
 }
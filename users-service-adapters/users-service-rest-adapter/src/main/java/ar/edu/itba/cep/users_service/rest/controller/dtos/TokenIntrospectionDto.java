@@ -0,0 +1,114 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.services.TokenIntrospection;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Data Transfer Object that wraps a {@link TokenIntrospection}, using the members defined in RFC 7662
+ * (i.e a token introspection response). Only the {@code active} and {@code jti} members are included
+ * for tokens that are not active.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionDto {
+
+    /**
+     * Whether the {@link AuthToken} is active.
+     */
+    private final boolean active;
+    /**
+     * The {@link AuthToken}'s id.
+     */
+    private final UUID jti;
+    /**
+     * The {@link AuthToken}'s owner.
+     */
+    private final String sub;
+    /**
+     * The {@link Role}s assigned to the {@link AuthToken}, separated by spaces.
+     */
+    private final String scope;
+    /**
+     * The {@link Instant} in which the {@link AuthToken} was created (as seconds since the epoch).
+     */
+    private final Long iat;
+    /**
+     * The {@link Instant} at which the {@link AuthToken} expires (as seconds since the epoch).
+     */
+    private final Long exp;
+
+
+    /**
+     * Constructor.
+     *
+     * @param introspection The {@link TokenIntrospection} being wrapped.
+     */
+    public TokenIntrospectionDto(final TokenIntrospection introspection) {
+        this.active = introspection.isActive();
+        this.jti = introspection.getTokenId();
+        this.sub = introspection.getOwner();
+        this.scope = introspection.isActive() ?
+                introspection.getRoles().stream().map(Role::name).collect(Collectors.joining(" ")) :
+                null;
+        this.iat = Optional.ofNullable(introspection.getIssuedAt()).map(Instant::getEpochSecond).orElse(null);
+        this.exp = Optional.ofNullable(introspection.getExpiresAt()).map(Instant::getEpochSecond).orElse(null);
+    }
+
+
+    /**
+     * @return Whether the {@link AuthToken} is active.
+     */
+    @JsonProperty(value = "active", access = JsonProperty.Access.READ_ONLY)
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return The {@link AuthToken}'s id.
+     */
+    @JsonProperty(value = "jti", access = JsonProperty.Access.READ_ONLY)
+    public UUID getJti() {
+        return jti;
+    }
+
+    /**
+     * @return The {@link AuthToken}'s owner.
+     */
+    @JsonProperty(value = "sub", access = JsonProperty.Access.READ_ONLY)
+    public String getSub() {
+        return sub;
+    }
+
+    /**
+     * @return The {@link Role}s assigned to the {@link AuthToken}, separated by spaces.
+     */
+    @JsonProperty(value = "scope", access = JsonProperty.Access.READ_ONLY)
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * @return The {@link Instant} in which the {@link AuthToken} was created
+     * (as seconds since the epoch).
+     */
+    @JsonProperty(value = "iat", access = JsonProperty.Access.READ_ONLY)
+    public Long getIat() {
+        return iat;
+    }
+
+    /**
+     * @return The {@link Instant} at which the {@link AuthToken} expires
+     * (as seconds since the epoch).
+     */
+    @JsonProperty(value = "exp", access = JsonProperty.Access.READ_ONLY)
+    public Long getExp() {
+        return exp;
+    }
+}
@@ -0,0 +1,38 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import com.bellotapps.webapps_commons.errors.ConstraintViolationError.ErrorCausePayload.MissingValue;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data transfer object indicating the {@link AuthToken}s to be introspected at once.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+public class TokenIntrospectionRequestDto {
+
+    /**
+     * The ids of the {@link AuthToken}s to be introspected.
+     */
+    @NotNull(message = "Token ids are missing.", payload = MissingValue.class)
+    private final List<@NotNull(message = "Null token id.", payload = MissingValue.class) UUID> tokenIds;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenIds The ids of the {@link AuthToken}s to be introspected.
+     */
+    @JsonCreator
+    public TokenIntrospectionRequestDto(
+            @JsonProperty(value = "tokenIds", access = JsonProperty.Access.WRITE_ONLY) final List<UUID> tokenIds) {
+        this.tokenIds = tokenIds;
+    }
+}
@@ -0,0 +1,66 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object that wraps a {@link TokenRevocation}.
+ */
+public class TokenRevocationDto {
+
+    /**
+     * The sequence number of the revocation (used to resume reading revocations after it).
+     */
+    private final long sequence;
+    /**
+     * The id of the revoked {@link AuthToken}.
+     */
+    private final UUID tokenId;
+    /**
+     * The {@link Instant} at which the {@link AuthToken} was revoked.
+     */
+    private final Instant revokedAt;
+
+
+    /**
+     * Constructor.
+     *
+     * @param revocation The {@link TokenRevocation} being wrapped.
+     */
+    public TokenRevocationDto(final TokenRevocation revocation) {
+        this.sequence = revocation.getSequence();
+        this.tokenId = revocation.getTokenId();
+        this.revokedAt = revocation.getRevokedAt();
+    }
+
+
+    /**
+     * @return The sequence number of the revocation (used to resume reading revocations after it).
+     */
+    @JsonProperty(value = "sequence", access = JsonProperty.Access.READ_ONLY)
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The id of the revoked {@link AuthToken}.
+     */
+    @JsonProperty(value = "tokenId", access = JsonProperty.Access.READ_ONLY)
+    public UUID getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * @return The {@link Instant} at which the {@link AuthToken} was revoked.
+     */
+    @JsonProperty(value = "revokedAt", access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS", timezone = "UTC")
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+}
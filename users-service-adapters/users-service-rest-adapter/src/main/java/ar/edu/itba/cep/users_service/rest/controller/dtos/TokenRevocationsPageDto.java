@@ -0,0 +1,52 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Data Transfer Object with a page of {@link TokenRevocation}s (i.e the result of a catch-up query).
+ */
+public class TokenRevocationsPageDto {
+
+    /**
+     * The {@link TokenRevocation}s in the page, ordered by sequence number.
+     */
+    private final List<TokenRevocationDto> revocations;
+    /**
+     * The sequence number after which the next page starts.
+     */
+    private final long next;
+
+
+    /**
+     * Constructor.
+     *
+     * @param since       The sequence number after which the page starts.
+     * @param revocations The {@link TokenRevocation}s in the page, ordered by sequence number.
+     */
+    public TokenRevocationsPageDto(final long since, final List<TokenRevocation> revocations) {
+        this.revocations = revocations.stream().map(TokenRevocationDto::new).collect(Collectors.toList());
+        this.next = revocations.isEmpty() ? since : revocations.get(revocations.size() - 1).getSequence();
+    }
+
+
+    /**
+     * @return The {@link TokenRevocation}s in the page, ordered by sequence number.
+     */
+    @JsonProperty(value = "revocations", access = JsonProperty.Access.READ_ONLY)
+    public List<TokenRevocationDto> getRevocations() {
+        return revocations;
+    }
+
+    /**
+     * @return The sequence number after which the next page starts
+     * (i.e the one of the last {@link TokenRevocation} in the page, or the requested one if the page is empty).
+     */
+    @JsonProperty(value = "next", access = JsonProperty.Access.READ_ONLY)
+    public long getNext() {
+        return next;
+    }
+}
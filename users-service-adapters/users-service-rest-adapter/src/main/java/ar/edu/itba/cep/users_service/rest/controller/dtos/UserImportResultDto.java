@@ -0,0 +1,61 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object that wraps a {@link UserImportResult}.
+ */
+public class UserImportResultDto {
+
+    /**
+     * The {@link UserImportResult} being wrapped.
+     */
+    private final UserImportResult result;
+
+
+    /**
+     * Constructor.
+     *
+     * @param result The {@link UserImportResult} being wrapped.
+     */
+    public UserImportResultDto(final UserImportResult result) {
+        this.result = result;
+    }
+
+
+    /**
+     * @return The line of the imported data to which the result belongs.
+     */
+    @JsonProperty(value = "line", access = JsonProperty.Access.READ_ONLY)
+    public long getLine() {
+        return result.getPosition();
+    }
+
+    /**
+     * @return The username in the said line (not included if it could not be read).
+     */
+    @JsonProperty(value = "username", access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getUsername() {
+        return result.getUsername();
+    }
+
+    /**
+     * @return The status of the import.
+     */
+    @JsonProperty(value = "status", access = JsonProperty.Access.READ_ONLY)
+    public UserImportResult.Status getStatus() {
+        return result.getStatus();
+    }
+
+    /**
+     * @return A message explaining why the user was not created (not included if it was created).
+     */
+    @JsonProperty(value = "message", access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getMessage() {
+        return result.getMessage();
+    }
+}
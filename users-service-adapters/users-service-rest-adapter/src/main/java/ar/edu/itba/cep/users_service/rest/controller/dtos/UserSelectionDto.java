@@ -0,0 +1,74 @@
+package ar.edu.itba.cep.users_service.rest.controller.dtos;
+
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserSelection;
+import com.bellotapps.webapps_commons.errors.ConstraintViolationError.ErrorCausePayload.IllegalValue;
+import com.bellotapps.webapps_commons.errors.ConstraintViolationError.ErrorCausePayload.MissingValue;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Data transfer object indicating the {@link User}s over which a bulk operation is performed.
+ * {@link User}s are selected either by listing their {@code usernames},
+ * or by the same {@code username} and {@code active} filters used to search {@link User}s
+ * (an empty object selects all the {@link User}s, which is rejected when removing roles or deactivating).
+ * The authenticated {@link User} is never affected by a bulk operation.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+public class UserSelectionDto {
+
+    /**
+     * The usernames of the selected {@link User}s.
+     */
+    private final List<@NotNull(message = "Null username.", payload = MissingValue.class) String> usernames;
+    /**
+     * A filter for the {@link User}'s username.
+     */
+    private final String username;
+    /**
+     * The {@link User}'s active flag state.
+     */
+    private final Boolean active;
+
+
+    /**
+     * Constructor.
+     *
+     * @param usernames The usernames of the selected {@link User}s.
+     * @param username  A filter for the {@link User}'s username.
+     * @param active    The {@link User}'s active flag state.
+     */
+    @JsonCreator
+    public UserSelectionDto(
+            @JsonProperty(value = "usernames", access = JsonProperty.Access.WRITE_ONLY) final List<String> usernames,
+            @JsonProperty(value = "username", access = JsonProperty.Access.WRITE_ONLY) final String username,
+            @JsonProperty(value = "active", access = JsonProperty.Access.WRITE_ONLY) final Boolean active) {
+        this.usernames = usernames;
+        this.username = username;
+        this.active = active;
+    }
+
+
+    /**
+     * @return {@code true} if the {@link User}s are selected either by usernames or by filters,
+     * or {@code false} if both are used.
+     */
+    @AssertTrue(message = "Users must be selected either by usernames or by filters.", payload = IllegalValue.class)
+    public boolean isUnambiguous() {
+        return usernames == null || (username == null && active == null);
+    }
+
+    /**
+     * @return The {@link UserSelection} represented by this data transfer object.
+     */
+    public UserSelection toUserSelection() {
+        return usernames != null ? UserSelection.ofUsernames(usernames) : UserSelection.matching(username, active);
+    }
+}
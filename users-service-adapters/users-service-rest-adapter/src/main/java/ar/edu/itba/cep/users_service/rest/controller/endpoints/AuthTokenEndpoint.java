@@ -5,6 +5,7 @@ import ar.edu.itba.cep.users_service.rest.controller.dtos.AuthTokenDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.IssueSubjectTokenRequestDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.IssueUserTokenRequestDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.RefreshTokenResponseDto;
+import ar.edu.itba.cep.users_service.rest.controller.throttling.LoginThrottler;
 import ar.edu.itba.cep.users_service.services.AuthTokenService;
 import com.bellotapps.webapps_commons.config.JerseyController;
 import com.bellotapps.webapps_commons.exceptions.IllegalParamValueException;
@@ -13,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
@@ -40,25 +42,36 @@ public class AuthTokenEndpoint {
      * The adapted {@link AuthTokenService}.
      */
     private final AuthTokenService authTokenService;
+    /**
+     * The {@link LoginThrottler} used to reject login attempts from clients performing too many of them.
+     */
+    private final LoginThrottler loginThrottler;
 
     /**
      * Constructor.
      *
      * @param authTokenService The adapted {@link AuthTokenService}.
+     * @param loginThrottler   The {@link LoginThrottler} used to reject login attempts
+     *                         from clients performing too many of them.
      */
     @Autowired
-    public AuthTokenEndpoint(final AuthTokenService authTokenService) {
+    public AuthTokenEndpoint(final AuthTokenService authTokenService, final LoginThrottler loginThrottler) {
         this.authTokenService = authTokenService;
+        this.loginThrottler = loginThrottler;
     }
 
 
     @POST
     @Path(Routes.TOKENS)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response issueUserToken(@Context final UriInfo uriInfo, @Valid final IssueUserTokenRequestDto dto) {
+    public Response issueUserToken(
+            @Context final UriInfo uriInfo,
+            @Context final HttpServletRequest request,
+            @Valid final IssueUserTokenRequestDto dto) {
         if (dto == null) {
             throw new MissingJsonException();
         }
+        loginThrottler.registerAttempt(dto.getUsername(), request);
         LOGGER.debug("Issuing token for user with username {}", dto.getUsername());
         final var tokenWrapper = authTokenService.issueTokenForUser(dto.getUsername(), dto.getPassword());
         final var location = uriInfo.getAbsolutePathBuilder().path(tokenWrapper.getId().toString()).build();
@@ -0,0 +1,134 @@
+package ar.edu.itba.cep.users_service.rest.controller.endpoints;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserSelection;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.BulkUserOperationResultDto;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.UserSelectionDto;
+import ar.edu.itba.cep.users_service.services.UserService;
+import com.bellotapps.webapps_commons.config.JerseyController;
+import com.bellotapps.webapps_commons.exceptions.IllegalParamValueException;
+import com.bellotapps.webapps_commons.exceptions.MissingJsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.validation.Valid;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.function.ToIntFunction;
+
+/**
+ * Rest Adapter of {@link UserService}, encapsulating bulk operations over {@link User}s
+ * (i.e operations performed over many {@link User}s at once, selected by usernames or by filters).
+ */
+@Path("")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@JerseyController
+public class BulkUserEndpoint {
+
+    /**
+     * The {@link UserService} that will be used to manage {@link User}s.
+     */
+    private final UserService userService;
+
+    /**
+     * The {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkUserEndpoint.class);
+
+    /**
+     * Constructor.
+     *
+     * @param userService The {@link UserService} that will be used to manage {@link User}s.
+     */
+    @Autowired
+    public BulkUserEndpoint(final UserService userService) {
+        this.userService = userService;
+    }
+
+
+    @POST
+    @Path(Routes.BULK_USERS_ROLE_ADDITION)
+    public Response addRole(@PathParam("role") final Role role, @Valid final UserSelectionDto selectionDto) {
+        if (role == null) {
+            throw new IllegalParamValueException(Collections.singletonList("role"));
+        }
+        return operateOverSelectedUsers(
+                selectionDto,
+                selection -> userService.addRole(selection, role),
+                "Adding role {} to users selected by {}",
+                role,
+                selectionDto
+        );
+    }
+
+    @POST
+    @Path(Routes.BULK_USERS_ROLE_REMOVAL)
+    public Response removeRole(@PathParam("role") final Role role, @Valid final UserSelectionDto selectionDto) {
+        if (role == null) {
+            throw new IllegalParamValueException(Collections.singletonList("role"));
+        }
+        return operateOverSelectedUsers(
+                selectionDto,
+                selection -> userService.removeRole(selection, role),
+                "Removing role {} from users selected by {}",
+                role,
+                selectionDto
+        );
+    }
+
+    @POST
+    @Path(Routes.BULK_USERS_ACTIVATION)
+    public Response activateUsers(@Valid final UserSelectionDto selectionDto) {
+        return operateOverSelectedUsers(
+                selectionDto,
+                userService::activate,
+                "Activating users selected by {}",
+                selectionDto
+        );
+    }
+
+    @POST
+    @Path(Routes.BULK_USERS_DEACTIVATION)
+    public Response deactivateUsers(@Valid final UserSelectionDto selectionDto) {
+        return operateOverSelectedUsers(
+                selectionDto,
+                userService::deactivate,
+                "Deactivating users selected by {}",
+                selectionDto
+        );
+    }
+
+
+    /**
+     * Performs a bulk operation over the selected {@link User}s,
+     * returning a 200 OK {@link Response} with the amount of {@link User}s that were changed.
+     *
+     * @param selectionDto  The {@link UserSelectionDto} indicating the {@link User}s to be affected.
+     * @param bulkOperation A {@link ToIntFunction} that takes the {@link UserSelection}, performs the operation,
+     *                      and returns the amount of {@link User}s that were changed.
+     * @param message       A message to be displayed in DEBUG mode by the logger.
+     * @param messageArgs   Arguments for the {@code message} to be logged.
+     * @return The {@link Response}.
+     */
+    private Response operateOverSelectedUsers(
+            final UserSelectionDto selectionDto,
+            final ToIntFunction<UserSelection> bulkOperation,
+            final String message,
+            final Object... messageArgs) {
+        if (selectionDto == null) {
+            throw new MissingJsonException();
+        }
+        LOGGER.debug(message, messageArgs);
+        final var changed = bulkOperation.applyAsInt(selectionDto.toUserSelection());
+        return Response.ok(new BulkUserOperationResultDto(changed)).build();
+    }
+}
@@ -18,6 +18,17 @@ public class Routes {
     public static final String USER_ACTIVATION = "/users/{username : .+}/active";
 
 
+    public static final String BULK_USERS = "/bulk/users";
+
+    public static final String BULK_USERS_ROLE_ADDITION = "/bulk/users/roles/{role : .+}/addition";
+
+    public static final String BULK_USERS_ROLE_REMOVAL = "/bulk/users/roles/{role : .+}/removal";
+
+    public static final String BULK_USERS_ACTIVATION = "/bulk/users/activation";
+
+    public static final String BULK_USERS_DEACTIVATION = "/bulk/users/deactivation";
+
+
     public static final String TOKENS = "/tokens";
 
     public static final String TOKEN_BY_ID = "/tokens/{id : .+}";
@@ -30,4 +41,13 @@ public class Routes {
 
 
     public static final String TOKENS_INTERNAL = "/internal/tokens";
+
+    public static final String TOKENS_INTROSPECTION = "/internal/tokens/introspection";
+
+    public static final String TOKEN_REVOCATIONS = "/internal/tokens/revocations";
+
+    public static final String TOKEN_REVOCATIONS_STREAM = "/internal/tokens/revocations/stream";
+
+
+    public static final String JWKS = "/.well-known/jwks.json";
 }
@@ -0,0 +1,60 @@
+package ar.edu.itba.cep.users_service.rest.controller.endpoints;
+
+import ar.edu.itba.cep.users_service.services.SigningKeysService;
+import com.bellotapps.webapps_commons.config.JerseyController;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Rest Adapter of {@link SigningKeysService}, publishing the keys with which issued tokens can be verified.
+ */
+@Path("")
+@Produces(MediaType.APPLICATION_JSON)
+@JerseyController
+public class SigningKeysEndpoint {
+
+    /**
+     * How long (in seconds) clients can cache the published keys.
+     */
+    private static final int MAX_AGE = 300;
+
+
+    /**
+     * The adapted {@link SigningKeysService}.
+     */
+    private final SigningKeysService signingKeysService;
+
+    /**
+     * Constructor.
+     *
+     * @param signingKeysService The adapted {@link SigningKeysService}.
+     */
+    @Autowired
+    public SigningKeysEndpoint(final SigningKeysService signingKeysService) {
+        this.signingKeysService = signingKeysService;
+    }
+
+
+    @GET
+    @Path(Routes.JWKS)
+    public Response getKeys(@Context final Request request) {
+        final var keySet = signingKeysService.getPublishedKeys();
+        final var entityTag = new EntityTag(keySet.getVersion());
+        final var cacheControl = new CacheControl();
+        cacheControl.setMaxAge(MAX_AGE);
+        final var notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(keySet.getJwks()).tag(entityTag).cacheControl(cacheControl).build();
+    }
+}
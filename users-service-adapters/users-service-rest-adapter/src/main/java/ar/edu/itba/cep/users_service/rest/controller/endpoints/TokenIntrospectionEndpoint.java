@@ -0,0 +1,102 @@
+package ar.edu.itba.cep.users_service.rest.controller.endpoints;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.TokenIntrospectionDto;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.TokenIntrospectionRequestDto;
+import ar.edu.itba.cep.users_service.services.TokenIntrospectionService;
+import com.bellotapps.webapps_commons.config.JerseyController;
+import com.bellotapps.webapps_commons.exceptions.IllegalParamValueException;
+import com.bellotapps.webapps_commons.exceptions.MissingJsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.validation.Valid;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Rest Adapter of {@link TokenIntrospectionService}, encapsulating {@link AuthToken} introspection
+ * (used by other services to check whether tokens are still active, as defined in RFC 7662).
+ */
+@Path("")
+@Produces(MediaType.APPLICATION_JSON)
+@JerseyController
+public class TokenIntrospectionEndpoint {
+
+    /**
+     * The {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenIntrospectionEndpoint.class);
+
+    /**
+     * The adapted {@link TokenIntrospectionService}.
+     */
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenIntrospectionService The adapted {@link TokenIntrospectionService}.
+     */
+    @Autowired
+    public TokenIntrospectionEndpoint(final TokenIntrospectionService tokenIntrospectionService) {
+        this.tokenIntrospectionService = tokenIntrospectionService;
+    }
+
+
+    /**
+     * Introspects a single token, as defined in RFC 7662 (i.e with a form containing the {@code token} parameter),
+     * except that the {@code token} parameter is the token's id (i.e its {@code jti} claim).
+     *
+     * @param token The id of the token to be introspected.
+     * @return A {@link Response} with the token's {@link TokenIntrospectionDto}.
+     */
+    @POST
+    @Path(Routes.TOKENS_INTROSPECTION)
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    public Response introspectToken(@FormParam("token") final String token) {
+        if (token == null) {
+            throw new IllegalParamValueException(List.of("token"));
+        }
+        final UUID tokenId;
+        try {
+            tokenId = UUID.fromString(token);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalParamValueException(List.of("token"));
+        }
+        LOGGER.debug("Introspecting token with id {}", tokenId);
+        final var introspection = tokenIntrospectionService.introspect(List.of(tokenId)).get(0);
+        return Response.ok(new TokenIntrospectionDto(introspection)).build();
+    }
+
+    /**
+     * Introspects many tokens at once.
+     *
+     * @param requestDto The {@link TokenIntrospectionRequestDto} with the ids of the tokens to be introspected.
+     * @return A {@link Response} with the {@link TokenIntrospectionDto}s of the tokens, in the requested order.
+     */
+    @POST
+    @Path(Routes.TOKENS_INTROSPECTION)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response introspectTokens(@Valid final TokenIntrospectionRequestDto requestDto) {
+        if (requestDto == null) {
+            throw new MissingJsonException();
+        }
+        LOGGER.debug("Introspecting {} tokens", requestDto.getTokenIds().size());
+        final var introspections = tokenIntrospectionService.introspect(requestDto.getTokenIds())
+                .stream()
+                .map(TokenIntrospectionDto::new)
+                .collect(Collectors.toList());
+        return Response.ok(introspections).build();
+    }
+}
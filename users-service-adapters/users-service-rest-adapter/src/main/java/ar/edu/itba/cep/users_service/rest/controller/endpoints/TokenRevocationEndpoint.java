@@ -0,0 +1,152 @@
+package ar.edu.itba.cep.users_service.rest.controller.endpoints;
+
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.TokenRevocationDto;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.TokenRevocationsPageDto;
+import ar.edu.itba.cep.users_service.services.TokenRevocationService;
+import com.bellotapps.webapps_commons.config.JerseyController;
+import com.bellotapps.webapps_commons.data_transfer.json.ApiObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Rest Adapter of {@link TokenRevocationService}, encapsulating access to the revocations log
+ * (used by other services to keep a local deny-list of revoked tokens).
+ */
+@Path("")
+@JerseyController
+public class TokenRevocationEndpoint {
+
+    /**
+     * The newline delimited JSON media type.
+     */
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * The amount of {@link TokenRevocation}s returned by default by catch-up queries.
+     */
+    private static final String DEFAULT_LIMIT = "500";
+
+    /**
+     * The {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationEndpoint.class);
+
+
+    /**
+     * The adapted {@link TokenRevocationService}.
+     */
+    private final TokenRevocationService tokenRevocationService;
+    /**
+     * The {@link ApiObjectMapper} used to write streamed revocations (one JSON document per line).
+     */
+    private final ApiObjectMapper objectMapper;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenRevocationService The adapted {@link TokenRevocationService}.
+     * @param objectMapper           The {@link ApiObjectMapper} used to write streamed revocations.
+     */
+    @Autowired
+    public TokenRevocationEndpoint(
+            final TokenRevocationService tokenRevocationService,
+            final ApiObjectMapper objectMapper) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+    }
+
+
+    @GET
+    @Path(Routes.TOKEN_REVOCATIONS)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRevocationsSince(
+            @QueryParam("since") @DefaultValue("0") final long since,
+            @QueryParam("limit") @DefaultValue(DEFAULT_LIMIT) final int limit) {
+        LOGGER.debug("Getting token revocations since {}", since);
+        final var revocations = tokenRevocationService.getRevocationsSince(since, limit);
+        return Response.ok(new TokenRevocationsPageDto(since, revocations)).build();
+    }
+
+    /**
+     * Streams the token revocations logged after the given {@code since} sequence number (as newline delimited JSON),
+     * first those already logged, and then the new ones, as they are logged. The response never ends
+     * (unless the client disconnects, or it does not keep up with the log, in which case the response is closed).
+     * Blank lines are sent as heartbeats when nothing is logged for a while.
+     * Clients that reconnect should use the sequence number of the last received revocation,
+     * so nothing is lost nor received twice. The revocations already logged are read and written lazily
+     * (i.e not by the request thread), page by page, as the client reads them.
+     *
+     * @param since The sequence number after which revocations are streamed.
+     * @return The {@link ChunkedOutput} through which revocations are streamed.
+     */
+    @GET
+    @Path(Routes.TOKEN_REVOCATIONS_STREAM)
+    @Produces(APPLICATION_NDJSON)
+    public ChunkedOutput<String> streamRevocations(@QueryParam("since") @DefaultValue("0") final long since) {
+        LOGGER.debug("Streaming token revocations since {}", since);
+        final var output = new ChunkedOutput<String>(String.class);
+        // Revocations written before the output is returned (and thus connected) are queued in it until then.
+        tokenRevocationService.subscribe(since, revocations -> write(output, revocations), () -> closeQuietly(output));
+        return output;
+    }
+
+
+    /**
+     * Writes the given {@code revocations} into the given {@code output}, one per line (or a blank line if empty).
+     *
+     * @param output      The {@link ChunkedOutput}.
+     * @param revocations The {@link TokenRevocation}s to be written.
+     * @throws UncheckedIOException If the {@code output} is closed (i.e the client disconnected),
+     *                              or if it can not be written.
+     */
+    private void write(final ChunkedOutput<String> output, final List<TokenRevocation> revocations)
+            throws UncheckedIOException {
+        if (output.isClosed()) {
+            throw new UncheckedIOException(new IOException("The revocations stream is closed"));
+        }
+        final var chunk = new StringBuilder();
+        try {
+            for (final var revocation : revocations) {
+                chunk.append(objectMapper.writeValueAsString(new TokenRevocationDto(revocation))).append('\n');
+            }
+            if (revocations.isEmpty()) {
+                chunk.append('\n');
+            }
+            output.write(chunk.toString());
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (final IOException e) {
+            closeQuietly(output);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the given {@code output}, ignoring failures (i.e the client might be already gone).
+     *
+     * @param output The {@link ChunkedOutput} to be closed.
+     */
+    private static void closeQuietly(final ChunkedOutput<String> output) {
+        try {
+            output.close();
+        } catch (final IOException e) {
+            LOGGER.trace("Could not close revocations stream", e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import ar.edu.itba.cep.users_service.rest.controller.dtos.NoRolesUserDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.PasswordChangeRequestDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.UserCreationRequestDto;
 import ar.edu.itba.cep.users_service.rest.controller.dtos.WithRolesUserDto;
+import ar.edu.itba.cep.users_service.services.UserSeekOrder;
 import ar.edu.itba.cep.users_service.services.UserService;
 import com.bellotapps.webapps_commons.config.JerseyController;
 import com.bellotapps.webapps_commons.data_transfer.date_time.DateTimeFormatters;
@@ -46,6 +47,17 @@ public class UserEndpoint {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(UserEndpoint.class);
 
+    /**
+     * Name of the header with the continuation token from which the next page of {@link User}s can be retrieved
+     * (when seeking). It is not included in the last page.
+     */
+    private static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    /**
+     * The amount of {@link User}s returned by default in each page when seeking.
+     */
+    private static final String DEFAULT_SEEK_LIMIT = "50";
+
     /**
      * Constructor.
      *
@@ -64,7 +76,18 @@ public class UserEndpoint {
                                  @SuppressWarnings("RestParamTypeInspection")
                                  @Java8Time(formatter = DateTimeFormatters.ISO_LOCAL_DATE)
                                  @QueryParam("date") final LocalDate date,
+                                 @QueryParam("orderBy") final UserSeekOrder orderBy,
+                                 @QueryParam("continuation") final String continuationToken,
+                                 @QueryParam("limit") @DefaultValue(DEFAULT_SEEK_LIMIT) final int limit,
                                  @PaginationParam final PagingRequest pagingRequest) {
+        if (orderBy != null || continuationToken != null) {
+            LOGGER.debug("Getting users matching, seeking by {}", orderBy);
+            final var page = userService.findMatching(username, active, orderBy, continuationToken, limit)
+                    .map(NoRolesUserDto::new);
+            return Response.ok(page.getContent())
+                    .header(CONTINUATION_TOKEN_HEADER, page.getContinuationToken())
+                    .build();
+        }
         LOGGER.debug("Getting users matching");
         final var users = userService.findMatching(username, active, pagingRequest)
                 .map(NoRolesUserDto::new)
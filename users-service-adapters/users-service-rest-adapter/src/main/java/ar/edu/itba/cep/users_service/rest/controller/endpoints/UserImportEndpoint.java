@@ -0,0 +1,120 @@
+package ar.edu.itba.cep.users_service.rest.controller.endpoints;
+
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.rest.controller.dtos.UserImportResultDto;
+import ar.edu.itba.cep.users_service.rest.controller.imports.UserImportReader;
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import ar.edu.itba.cep.users_service.services.UserImportService;
+import com.bellotapps.webapps_commons.config.JerseyController;
+import com.bellotapps.webapps_commons.data_transfer.json.ApiObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Rest Adapter of {@link UserImportService}, encapsulating bulk {@link User} imports.
+ */
+@Path("")
+@JerseyController
+public class UserImportEndpoint {
+
+    /**
+     * The newline delimited JSON media type.
+     */
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    /**
+     * The comma separated values media type.
+     */
+    private static final String TEXT_CSV = "text/csv";
+
+    /**
+     * The {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportEndpoint.class);
+
+
+    /**
+     * The {@link UserImportService} that will be used to import {@link User}s.
+     */
+    private final UserImportService userImportService;
+    /**
+     * The {@link ApiObjectMapper} used to read imported data and write results (one JSON document per line).
+     */
+    private final ApiObjectMapper objectMapper;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userImportService The {@link UserImportService} that will be used to import {@link User}s.
+     * @param objectMapper      The {@link ApiObjectMapper} used to read imported data and write results.
+     */
+    @Autowired
+    public UserImportEndpoint(final UserImportService userImportService, final ApiObjectMapper objectMapper) {
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+    }
+
+
+    /**
+     * Imports the {@link User}s in the request body (one per line), streaming back the result of each line
+     * (as newline delimited JSON) as soon as it is known.
+     * Lines that can not be read are reported right away, so results might not follow the lines order.
+     *
+     * @param contentType The media type of the request body (newline delimited JSON, or CSV).
+     * @param body        The request body.
+     * @return The {@link Response}.
+     */
+    @POST
+    @Path(Routes.BULK_USERS)
+    @Consumes({APPLICATION_NDJSON, TEXT_CSV})
+    @Produces(APPLICATION_NDJSON)
+    public Response importUsers(
+            @HeaderParam(HttpHeaders.CONTENT_TYPE) final MediaType contentType,
+            final InputStream body) {
+        final var format = contentType != null && contentType.isCompatible(MediaType.valueOf(TEXT_CSV)) ?
+                UserImportReader.Format.CSV :
+                UserImportReader.Format.NDJSON;
+        LOGGER.debug("Importing users from {} data", format);
+        final StreamingOutput output = outputStream -> {
+            final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            final Consumer<UserImportResult> resultHandler = result -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(new UserImportResultDto(result)));
+                    writer.write('\n');
+                    writer.flush();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            final var reader = new UserImportReader(
+                    new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                    format,
+                    objectMapper,
+                    resultHandler
+            );
+            userImportService.importUsers(reader, resultHandler);
+            writer.flush();
+        };
+        return Response.ok(output, APPLICATION_NDJSON).build();
+    }
+}
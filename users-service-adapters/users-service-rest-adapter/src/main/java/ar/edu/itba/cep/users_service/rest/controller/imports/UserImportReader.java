@@ -0,0 +1,195 @@
+package ar.edu.itba.cep.users_service.rest.controller.imports;
+
+import ar.edu.itba.cep.users_service.services.UserImportEntry;
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * An {@link Iterator} of {@link UserImportEntry}s that lazily reads them (one per line) from a {@link BufferedReader}.
+ * Blank lines are skipped, and lines that can not be read are reported as {@link UserImportResult.Status#INVALID}
+ * right away (i.e they are not returned by this iterator).
+ */
+public class UserImportReader implements Iterator<UserImportEntry> {
+
+    /**
+     * The header that CSV data might start with.
+     */
+    private static final String CSV_HEADER = "username,password";
+
+
+    /**
+     * The {@link BufferedReader} from which lines are read.
+     */
+    private final BufferedReader reader;
+    /**
+     * The {@link Format} of the lines.
+     */
+    private final Format format;
+    /**
+     * The {@link ObjectMapper} used to read JSON lines.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * A {@link Consumer} of the {@link UserImportResult}s of the lines that can not be read.
+     */
+    private final Consumer<UserImportResult> malformedLineHandler;
+    /**
+     * The number of the last line read.
+     */
+    private long lineNumber;
+    /**
+     * The next {@link UserImportEntry} to be returned ({@code null} if it has not been read yet).
+     */
+    private UserImportEntry next;
+
+
+    /**
+     * Constructor.
+     *
+     * @param reader               The {@link BufferedReader} from which lines are read.
+     * @param format               The {@link Format} of the lines.
+     * @param objectMapper         The {@link ObjectMapper} used to read JSON lines.
+     * @param malformedLineHandler A {@link Consumer} of the {@link UserImportResult}s
+     *                             of the lines that can not be read.
+     * @throws IllegalArgumentException If any argument is {@code null}.
+     */
+    public UserImportReader(
+            final BufferedReader reader,
+            final Format format,
+            final ObjectMapper objectMapper,
+            final Consumer<UserImportResult> malformedLineHandler) throws IllegalArgumentException {
+        Assert.notNull(reader, "The reader must not be null");
+        Assert.notNull(format, "The format must not be null");
+        Assert.notNull(objectMapper, "The object mapper must not be null");
+        Assert.notNull(malformedLineHandler, "The malformed line handler must not be null");
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.malformedLineHandler = malformedLineHandler;
+        this.lineNumber = 0;
+        this.next = null;
+    }
+
+
+    @Override
+    public boolean hasNext() throws UncheckedIOException {
+        while (next == null) {
+            final String line;
+            try {
+                line = reader.readLine();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+            if (line.isBlank() || isCsvHeader(line)) {
+                continue;
+            }
+            next = format == Format.CSV ? readCsv(line) : readJson(line);
+        }
+        return true;
+    }
+
+    @Override
+    public UserImportEntry next() throws NoSuchElementException, UncheckedIOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final var entry = next;
+        next = null;
+        return entry;
+    }
+
+
+    /**
+     * Indicates whether the given {@code line} is the header of CSV data.
+     *
+     * @param line The line.
+     * @return {@code true} if the {@code line} is the first one of CSV data, and it is the {@link #CSV_HEADER}.
+     */
+    private boolean isCsvHeader(final String line) {
+        return format == Format.CSV && lineNumber == 1 && CSV_HEADER.equalsIgnoreCase(line.strip());
+    }
+
+    /**
+     * Reads a CSV line (i.e {@code username,password}). The username ends at the first comma,
+     * so passwords can contain commas.
+     *
+     * @param line The line.
+     * @return The read {@link UserImportEntry}, or {@code null} if the line can not be read.
+     */
+    private UserImportEntry readCsv(final String line) {
+        final var separator = line.indexOf(',');
+        if (separator < 0) {
+            malformed("Expected a username and a password, separated by a comma");
+            return null;
+        }
+        return new UserImportEntry(lineNumber, line.substring(0, separator), line.substring(separator + 1));
+    }
+
+    /**
+     * Reads a JSON line (i.e {@code {"username": "...", "password": "..."}}).
+     *
+     * @param line The line.
+     * @return The read {@link UserImportEntry}, or {@code null} if the line can not be read.
+     */
+    private UserImportEntry readJson(final String line) {
+        try {
+            final var node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                malformed("Expected a JSON object");
+                return null;
+            }
+            final var username = node.path("username");
+            final var password = node.path("password");
+            return new UserImportEntry(
+                    lineNumber,
+                    username.isTextual() ? username.asText() : null,
+                    password.isTextual() ? password.asText() : null
+            );
+        } catch (final JsonProcessingException e) {
+            malformed("Malformed JSON");
+            return null;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reports the last line read as malformed.
+     *
+     * @param message A message explaining why it can not be read.
+     */
+    private void malformed(final String message) {
+        malformedLineHandler.accept(
+                new UserImportResult(lineNumber, null, UserImportResult.Status.INVALID, message)
+        );
+    }
+
+
+    /**
+     * The formats in which {@link UserImportEntry}s can be read.
+     */
+    public enum Format {
+        /**
+         * Newline delimited JSON (one {@code {"username": "...", "password": "..."}} object per line).
+         */
+        NDJSON,
+        /**
+         * Comma separated values (one {@code username,password} pair per line, optionally with a header line).
+         */
+        CSV,
+        ;
+    }
+}
@@ -0,0 +1,159 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Clock;
+
+/**
+ * A component in charge of throttling login attempts, both per username and per client address,
+ * so that credentials are not checked (i.e no database access and no password hashing is performed)
+ * for clients performing too many attempts.
+ * <p>
+ * Note that the per username limit is shared by all clients, so anyone can temporarily lock a user out by performing
+ * login attempts with its username (at most for the window's duration after the attempts stop).
+ * This is accepted in order to limit distributed attacks against a single user (i.e from many addresses),
+ * and can be mitigated with a higher username limit (or disabled by setting it as high as the address limit).
+ */
+@Component
+public class LoginThrottler {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginThrottler.class);
+
+    /**
+     * The header appended by proxies with the address of the client that sent them the request.
+     */
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+
+    /**
+     * Indicates whether login attempts are throttled.
+     */
+    private final boolean enabled;
+    /**
+     * The {@link SlidingWindowRateLimiter} for usernames.
+     */
+    private final SlidingWindowRateLimiter usernameLimiter;
+    /**
+     * The {@link SlidingWindowRateLimiter} for client addresses.
+     */
+    private final SlidingWindowRateLimiter addressLimiter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param properties The {@link LoginThrottlingProperties} with configuration data.
+     */
+    @Autowired
+    public LoginThrottler(final LoginThrottlingProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param properties The {@link LoginThrottlingProperties} with configuration data.
+     * @param clock      The {@link Clock} used by the rate limiters.
+     */
+    /* package */ LoginThrottler(final LoginThrottlingProperties properties, final Clock clock) {
+        this.enabled = properties.isEnabled();
+        this.usernameLimiter = new SlidingWindowRateLimiter(
+                properties.getUsernameLimit(),
+                properties.getWindow(),
+                properties.getMaxTrackedKeys(),
+                clock
+        );
+        this.addressLimiter = new SlidingWindowRateLimiter(
+                properties.getAddressLimit(),
+                properties.getWindow(),
+                properties.getMaxTrackedKeys(),
+                clock
+        );
+    }
+
+
+    /**
+     * Registers a login attempt for the given {@code username} from the client that sent the given {@code request}.
+     *
+     * @param username The username with which the login is attempted.
+     * @param request  The {@link HttpServletRequest} with which the login is attempted.
+     * @throws TooManyRequestsException If too many attempts were performed for the username or from the client.
+     */
+    public void registerAttempt(final String username, final HttpServletRequest request)
+            throws TooManyRequestsException {
+        if (!enabled) {
+            return;
+        }
+        final var address = clientAddress(request);
+        // Both limits are checked before registering the attempt in any of them,
+        // so an attempt rejected by one of the limits does not count against the other one.
+        // Concurrent attempts might still be registered in the address limit and then rejected by the username one.
+        if (!addressLimiter.isAllowed(address)) {
+            throw tooManyAttemptsFrom(address);
+        }
+        if (!usernameLimiter.isAllowed(username)) {
+            throw tooManyAttemptsFor(username);
+        }
+        if (!addressLimiter.tryAcquire(address)) {
+            throw tooManyAttemptsFrom(address);
+        }
+        if (!usernameLimiter.tryAcquire(username)) {
+            throw tooManyAttemptsFor(username);
+        }
+    }
+
+
+    /**
+     * Creates a {@link TooManyRequestsException} for the case in which the given {@code address} has reached its limit.
+     *
+     * @param address The client address.
+     * @return The {@link TooManyRequestsException}.
+     */
+    private TooManyRequestsException tooManyAttemptsFrom(final String address) {
+        LOGGER.debug("Too many login attempts from {}", address);
+        return new TooManyRequestsException("Too many login attempts", addressLimiter.timeUntilNextWindow());
+    }
+
+    /**
+     * Creates a {@link TooManyRequestsException} for the case in which the given {@code username}
+     * has reached its limit.
+     *
+     * @param username The username.
+     * @return The {@link TooManyRequestsException}.
+     */
+    private TooManyRequestsException tooManyAttemptsFor(final String username) {
+        LOGGER.debug("Too many login attempts for username {}", username);
+        return new TooManyRequestsException("Too many login attempts", usernameLimiter.timeUntilNextWindow());
+    }
+
+
+    /**
+     * Gets the address of the client that sent the given {@code request}.
+     * As forwarded headers are trusted (they are processed by the {@link ForwardedHeaderFilter}),
+     * the last address in the {@code X-Forwarded-For} header (i.e the one appended by the proxy in front of the
+     * service, which can't be forged by clients) is used, if present. Otherwise, the remote address is used.
+     *
+     * @param request The {@link HttpServletRequest}.
+     * @return The client address.
+     */
+    /* package */ static String clientAddress(final HttpServletRequest request) {
+        final var forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (StringUtils.hasText(forwardedFor)) {
+            final var addresses = StringUtils.commaDelimitedListToStringArray(forwardedFor);
+            final var address = addresses[addresses.length - 1].trim();
+            if (!address.isEmpty()) {
+                return address;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
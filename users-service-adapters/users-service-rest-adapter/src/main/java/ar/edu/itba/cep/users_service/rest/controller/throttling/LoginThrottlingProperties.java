@@ -0,0 +1,41 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Properties for configuring the throttling of login attempts.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users-service.login-throttling")
+public class LoginThrottlingProperties {
+
+    /**
+     * Indicates whether login attempts are throttled.
+     */
+    private boolean enabled = true;
+    /**
+     * The sliding window's size, in seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration window = Duration.ofMinutes(1);
+    /**
+     * The maximum amount of login attempts allowed for a username within the window.
+     * Note that this limit is shared by all clients, so reaching it locks the user out until the window slides.
+     */
+    private int usernameLimit = 10;
+    /**
+     * The maximum amount of login attempts allowed for a client address within the window.
+     */
+    private int addressLimit = 50;
+    /**
+     * The amount of tracked usernames (or addresses) above which those not recently used are evicted.
+     */
+    private int maxTrackedKeys = 100_000;
+}
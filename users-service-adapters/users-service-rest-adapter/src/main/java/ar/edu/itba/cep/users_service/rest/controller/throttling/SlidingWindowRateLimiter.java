@@ -0,0 +1,209 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free rate limiter that allows up to a given amount of attempts per key within a sliding window.
+ * <p>
+ * The sliding window is approximated with two fixed windows: the amount of attempts in the previous window is
+ * weighted by how much of it overlaps the sliding window, and added to the amount of attempts in the actual window.
+ * The state of each key (the actual window, and both counts) is packed into a single {@code long},
+ * which is updated with compare-and-set, so no locks are taken and no objects are allocated per attempt
+ * (the {@link ConcurrentMap} holding the keys is already striped).
+ * <p>
+ * Keys not used during the last two windows are evicted when the amount of tracked keys exceeds a threshold.
+ */
+/* package */ class SlidingWindowRateLimiter {
+
+    /**
+     * The maximum value of each count (they are packed into 16 bits).
+     */
+    private static final int MAX_COUNT = 0xFFFF;
+
+    /**
+     * The maximum amount of attempts allowed within the window.
+     */
+    private final int limit;
+    /**
+     * The window's size, in milliseconds.
+     */
+    private final long windowMillis;
+    /**
+     * The amount of tracked keys above which stale keys are evicted.
+     */
+    private final int maxKeys;
+    /**
+     * The {@link Clock} used to get the actual time.
+     */
+    private final Clock clock;
+    /**
+     * Holds the packed state of each key.
+     */
+    private final ConcurrentMap<String, AtomicLong> states;
+    /**
+     * The last window in which stale keys were evicted (in order to do it at most once per window).
+     */
+    private final AtomicLong lastEvictionWindow;
+
+
+    /**
+     * Constructor.
+     *
+     * @param limit   The maximum amount of attempts allowed within the window.
+     * @param window  The window's {@link Duration}.
+     * @param maxKeys The amount of tracked keys above which stale keys are evicted.
+     * @param clock   The {@link Clock} used to get the actual time.
+     * @throws IllegalArgumentException If any of the arguments is not valid.
+     */
+    /* package */ SlidingWindowRateLimiter(
+            final int limit,
+            final Duration window,
+            final int maxKeys,
+            final Clock clock) throws IllegalArgumentException {
+        Assert.isTrue(limit > 0 && limit < MAX_COUNT, "The limit must be positive and less than " + MAX_COUNT);
+        Assert.notNull(window, "The window must not be null");
+        // The window index is packed into 32 bits, so windows must not be too small.
+        Assert.isTrue(window.getSeconds() > 0, "The window must be at least one second");
+        Assert.isTrue(maxKeys > 0, "The maximum amount of keys must be positive");
+        Assert.notNull(clock, "The clock must not be null");
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.states = new ConcurrentHashMap<>();
+        this.lastEvictionWindow = new AtomicLong();
+    }
+
+
+    /**
+     * Indicates whether an attempt for the given {@code key} would be allowed, without registering it.
+     *
+     * @param key The key.
+     * @return {@code true} if an attempt would be allowed, or {@code false} if the limit has been reached.
+     */
+    /* package */ boolean isAllowed(final String key) {
+        final var state = states.get(key);
+        if (state == null) {
+            return true;
+        }
+        final var now = clock.millis();
+        final var window = now / windowMillis;
+        final var actual = state.get();
+        return previousCount(actual, window) * previousWeight(now) + currentCount(actual, window) < limit;
+    }
+
+    /**
+     * Registers an attempt for the given {@code key}, only if it is allowed.
+     *
+     * @param key The key.
+     * @return {@code true} if the attempt is allowed, or {@code false} if the limit has been reached.
+     */
+    /* package */ boolean tryAcquire(final String key) {
+        final var now = clock.millis();
+        final var window = now / windowMillis;
+        final var previousWeight = previousWeight(now);
+        final var state = states.computeIfAbsent(key, ignored -> new AtomicLong(pack(window, 0, 0)));
+        while (true) {
+            final var actual = state.get();
+            final var previous = previousCount(actual, window);
+            final var current = currentCount(actual, window);
+            if (previous * previousWeight + current >= limit) {
+                return false;
+            }
+            if (state.compareAndSet(actual, pack(window, previous, current + 1))) {
+                evictIfNeeded(window);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Duration} until the actual window ends
+     * (i.e a hint of how much time must pass before attempts are allowed again).
+     *
+     * @return The {@link Duration} until the actual window ends.
+     */
+    /* package */ Duration timeUntilNextWindow() {
+        return Duration.ofMillis(windowMillis - clock.millis() % windowMillis);
+    }
+
+
+    /**
+     * Evicts the keys not used during the last two windows if there are too many keys being tracked.
+     * Eviction is performed at most once per window.
+     * Note that an attempt registered concurrently for an evicted key might be lost,
+     * which is harmless as the key was not used during the last two windows.
+     *
+     * @param window The actual window.
+     */
+    private void evictIfNeeded(final long window) {
+        final var lastEviction = lastEvictionWindow.get();
+        if (states.size() <= maxKeys || lastEviction == window) {
+            return;
+        }
+        if (!lastEvictionWindow.compareAndSet(lastEviction, window)) {
+            return; // Another thread is evicting keys.
+        }
+        states.values().removeIf(state -> (state.get() >>> 32) < window - 1);
+    }
+
+    /**
+     * Returns the weight of the previous window at the given instant
+     * (i.e how much of it is still within the sliding window).
+     *
+     * @param now The actual instant, in milliseconds.
+     * @return The weight of the previous window (between 0 and 1).
+     */
+    private double previousWeight(final long now) {
+        return 1 - (double) (now % windowMillis) / windowMillis;
+    }
+
+    /**
+     * Returns the amount of attempts registered in the window previous to the given {@code window},
+     * according to the given packed {@code state}.
+     *
+     * @param state  The packed state of a key.
+     * @param window The actual window.
+     * @return The amount of attempts in the previous window.
+     */
+    private static int previousCount(final long state, final long window) {
+        final var stateWindow = state >>> 32;
+        if (stateWindow == window) {
+            return (int) (state >>> 16) & MAX_COUNT;
+        }
+        if (stateWindow == window - 1) {
+            return (int) state & MAX_COUNT;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the amount of attempts registered in the given {@code window},
+     * according to the given packed {@code state}.
+     *
+     * @param state  The packed state of a key.
+     * @param window The actual window.
+     * @return The amount of attempts in the actual window.
+     */
+    private static int currentCount(final long state, final long window) {
+        return (state >>> 32) == window ? (int) state & MAX_COUNT : 0;
+    }
+
+    /**
+     * Packs the state of a key into a {@code long}.
+     *
+     * @param window   The window.
+     * @param previous The amount of attempts in the previous window.
+     * @param current  The amount of attempts in the given window.
+     * @return The packed state.
+     */
+    private static long pack(final long window, final int previous, final int current) {
+        return window << 32 | (long) previous << 16 | current;
+    }
+}
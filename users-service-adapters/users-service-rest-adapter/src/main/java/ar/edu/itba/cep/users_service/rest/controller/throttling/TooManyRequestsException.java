@@ -0,0 +1,30 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is rejected because the client performed too many of them.
+ * The request can be retried later.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * A hint of how much time the client should wait before retrying the request.
+     */
+    private final Duration retryAfter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param message    The detail message.
+     * @param retryAfter A hint of how much time the client should wait before retrying the request.
+     */
+    public TooManyRequestsException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,23 @@
+package ar.edu.itba.cep.users_service.rest.error_handlers;
+
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * {@link ExceptionMapper} in charge of handling {@link ServiceOverloadedException}s.
+ * Will result in a <b>503 Service Unavailable</b> response, including a {@code Retry-After} header.
+ */
+@Provider
+public class ServiceOverloadedExceptionHandler implements ExceptionMapper<ServiceOverloadedException> {
+
+    @Override
+    public Response toResponse(final ServiceOverloadedException exception) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Math.max(1, exception.getRetryAfter().getSeconds()))
+                .build();
+    }
+}
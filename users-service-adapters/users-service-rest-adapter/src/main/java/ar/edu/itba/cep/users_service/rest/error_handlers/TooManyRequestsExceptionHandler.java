@@ -0,0 +1,23 @@
+package ar.edu.itba.cep.users_service.rest.error_handlers;
+
+import ar.edu.itba.cep.users_service.rest.controller.throttling.TooManyRequestsException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * {@link ExceptionMapper} in charge of handling {@link TooManyRequestsException}s.
+ * Will result in a <b>429 Too Many Requests</b> response, including a {@code Retry-After} header.
+ */
+@Provider
+public class TooManyRequestsExceptionHandler implements ExceptionMapper<TooManyRequestsException> {
+
+    @Override
+    public Response toResponse(final TooManyRequestsException exception) {
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Math.max(1, exception.getRetryAfter().getSeconds()))
+                .build();
+    }
+}
@@ -7,6 +7,9 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuration class for security aspects at the web layer.
+ * <p>
+ * Incoming jwt are verified with a single public key, so the key ring that signs tokens must be configured with the
+ * id of that key as its verification key ({@code authentication.jwt.users-service.key-ring.verification-key-id}).
  */
 @Configuration
 @EnableRestSecurity
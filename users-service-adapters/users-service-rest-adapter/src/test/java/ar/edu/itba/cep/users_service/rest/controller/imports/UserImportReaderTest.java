@@ -0,0 +1,158 @@
+package ar.edu.itba.cep.users_service.rest.controller.imports;
+
+import ar.edu.itba.cep.users_service.services.UserImportEntry;
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Test class for the {@link UserImportReader}.
+ */
+class UserImportReaderTest {
+
+    /**
+     * The results of the malformed lines reported by the reader being tested.
+     */
+    private final List<UserImportResult> malformed = new ArrayList<>();
+
+
+    /**
+     * Tests that CSV lines are split on the first comma (so passwords can contain commas),
+     * and that the position of each entry is its line number.
+     */
+    @Test
+    void testCsvIsSplitOnTheFirstComma() {
+        final var entries = readAll(UserImportReader.Format.CSV, "alice,pass,with,commas\nbob,,\n");
+        Assertions.assertAll(
+                "CSV lines are not split on the first comma",
+                () -> assertEntry(entries.get(0), 1, "alice", "pass,with,commas"),
+                () -> assertEntry(entries.get(1), 2, "bob", ",")
+        );
+        Assertions.assertTrue(malformed.isEmpty(), "Valid lines are reported as malformed");
+    }
+
+    /**
+     * Tests that the CSV header is skipped only if it is the first line, and that blank lines are skipped.
+     */
+    @Test
+    void testCsvHeaderAndBlankLinesAreSkipped() {
+        final var entries = readAll(
+                UserImportReader.Format.CSV,
+                "Username,Password\n\n   \nalice,secret\nusername,password\n"
+        );
+        Assertions.assertEquals(2, entries.size(), "Unexpected amount of entries");
+        Assertions.assertAll(
+                "The header or blank lines are not skipped",
+                () -> assertEntry(entries.get(0), 4, "alice", "secret"),
+                () -> assertEntry(entries.get(1), 5, "username", "password")
+        );
+    }
+
+    /**
+     * Tests that CSV lines without a comma are reported as malformed (with their line number),
+     * and that reading continues with the next line.
+     */
+    @Test
+    void testCsvLinesWithoutCommaAreMalformed() {
+        final var entries = readAll(UserImportReader.Format.CSV, "no-comma\nalice,secret\n");
+        Assertions.assertEquals(1, entries.size(), "Unexpected amount of entries");
+        assertEntry(entries.get(0), 2, "alice", "secret");
+        Assertions.assertEquals(1, malformed.size(), "The malformed line is not reported");
+        Assertions.assertAll(
+                "The malformed line is not reported as expected",
+                () -> Assertions.assertEquals(1, malformed.get(0).getPosition(), "Wrong position"),
+                () -> Assertions.assertEquals(
+                        UserImportResult.Status.INVALID,
+                        malformed.get(0).getStatus(),
+                        "Wrong status"
+                )
+        );
+    }
+
+    /**
+     * Tests that NDJSON lines are read, that non textual fields are read as {@code null},
+     * and that lines that are not JSON objects are reported as malformed.
+     */
+    @Test
+    void testNdjson() {
+        final var entries = readAll(
+                UserImportReader.Format.NDJSON,
+                "{\"username\": \"alice\", \"password\": \"a,b\"}\n" +
+                        "{\"username\": 1}\n" +
+                        "[]\n" +
+                        "{not json\n"
+        );
+        Assertions.assertEquals(2, entries.size(), "Unexpected amount of entries");
+        Assertions.assertAll(
+                "NDJSON lines are not read as expected",
+                () -> assertEntry(entries.get(0), 1, "alice", "a,b"),
+                () -> assertEntry(entries.get(1), 2, null, null)
+        );
+        Assertions.assertEquals(2, malformed.size(), "The malformed lines are not reported");
+    }
+
+    /**
+     * Tests that {@link UserImportReader#next()} throws a {@link NoSuchElementException} when there are no more entries.
+     */
+    @Test
+    void testNextWithNoMoreEntries() {
+        final var reader = reader(UserImportReader.Format.CSV, "\n");
+        Assertions.assertFalse(reader.hasNext(), "There are entries in a blank input");
+        Assertions.assertThrows(NoSuchElementException.class, reader::next, "next() did not throw");
+    }
+
+
+    /**
+     * Creates a {@link UserImportReader} for the given {@code input}.
+     *
+     * @param format The {@link UserImportReader.Format} of the input.
+     * @param input  The input.
+     * @return The created {@link UserImportReader}.
+     */
+    private UserImportReader reader(final UserImportReader.Format format, final String input) {
+        return new UserImportReader(
+                new BufferedReader(new StringReader(input)),
+                format,
+                new ObjectMapper(),
+                malformed::add
+        );
+    }
+
+    /**
+     * Reads all the entries in the given {@code input}.
+     *
+     * @param format The {@link UserImportReader.Format} of the input.
+     * @param input  The input.
+     * @return The read {@link UserImportEntry}s.
+     */
+    private List<UserImportEntry> readAll(final UserImportReader.Format format, final String input) {
+        final var entries = new ArrayList<UserImportEntry>();
+        reader(format, input).forEachRemaining(entries::add);
+        return entries;
+    }
+
+    /**
+     * Asserts that the given {@code entry} has the given values.
+     *
+     * @param entry    The {@link UserImportEntry} to be checked.
+     * @param position The expected position.
+     * @param username The expected username.
+     * @param password The expected password.
+     */
+    private static void assertEntry(
+            final UserImportEntry entry,
+            final long position,
+            final String username,
+            final String password) {
+        Assertions.assertEquals(position, entry.getPosition(), "Wrong position");
+        Assertions.assertEquals(username, entry.getUsername(), "Wrong username");
+        Assertions.assertEquals(password, entry.getPassword(), "Wrong password");
+    }
+}
@@ -0,0 +1,166 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Test class for the {@link LoginThrottler}.
+ */
+class LoginThrottlerTest {
+
+    /**
+     * The window used by the tests.
+     */
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+
+    /**
+     * The {@link MutableClock} used by the throttler (starts at the beginning of a window).
+     */
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(WINDOW.toMillis() * 1000));
+
+
+    /**
+     * Tests that the last address of the {@code X-Forwarded-For} header is used as the client address.
+     */
+    @Test
+    void testLastForwardedAddressIsUsed() {
+        final var request = request("10.0.0.1", "1.1.1.1, 2.2.2.2 , 3.3.3.3");
+        Assertions.assertEquals(
+                "3.3.3.3",
+                LoginThrottler.clientAddress(request),
+                "The last forwarded address is not being used"
+        );
+    }
+
+    /**
+     * Tests that the remote address is used when there is no {@code X-Forwarded-For} header.
+     */
+    @Test
+    void testRemoteAddressIsUsedWithoutForwardedHeader() {
+        Assertions.assertEquals(
+                "10.0.0.1",
+                LoginThrottler.clientAddress(request("10.0.0.1", null)),
+                "The remote address is not being used"
+        );
+    }
+
+    /**
+     * Tests that the remote address is used when the last entry of the {@code X-Forwarded-For} header is empty.
+     */
+    @Test
+    void testRemoteAddressIsUsedWithEmptyForwardedEntry() {
+        Assertions.assertEquals(
+                "10.0.0.1",
+                LoginThrottler.clientAddress(request("10.0.0.1", "1.1.1.1, ")),
+                "The remote address is not being used"
+        );
+    }
+
+    /**
+     * Tests that attempts are rejected with the time until the next window once the username limit is reached,
+     * and that attempts rejected by the address limit do not count against the username limit.
+     */
+    @Test
+    void testRejectedAttemptsDoNotCountAgainstTheOtherLimit() {
+        final var throttler = new LoginThrottler(properties(2, 1), clock);
+        final var throttledClient = request("10.0.0.1", null);
+        throttler.registerAttempt("user", throttledClient);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(
+                    TooManyRequestsException.class,
+                    () -> throttler.registerAttempt("user", throttledClient),
+                    "The address limit is not being enforced"
+            );
+        }
+        // Only the first attempt counts against the username.
+        throttler.registerAttempt("user", request("10.0.0.2", null));
+        clock.advance(Duration.ofSeconds(20));
+        final var exception = Assertions.assertThrows(
+                TooManyRequestsException.class,
+                () -> throttler.registerAttempt("user", request("10.0.0.3", null)),
+                "The username limit is not being enforced"
+        );
+        Assertions.assertEquals(
+                Duration.ofSeconds(40),
+                exception.getRetryAfter(),
+                "The retry after is not the time until the next window"
+        );
+    }
+
+    /**
+     * Tests that attempts rejected by the username limit do not count against the address limit.
+     */
+    @Test
+    void testUsernameRejectionsDoNotCountAgainstTheAddress() {
+        final var throttler = new LoginThrottler(properties(1, 2), clock);
+        final var client = request("10.0.0.1", null);
+        throttler.registerAttempt("user", client);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(
+                    TooManyRequestsException.class,
+                    () -> throttler.registerAttempt("user", client),
+                    "The username limit is not being enforced"
+            );
+        }
+        Assertions.assertDoesNotThrow(
+                () -> throttler.registerAttempt("another-user", client),
+                "Attempts rejected by the username limit are counted against the address"
+        );
+    }
+
+    /**
+     * Tests that nothing is throttled when throttling is disabled.
+     */
+    @Test
+    void testDisabled() {
+        final var properties = properties(1, 1);
+        properties.setEnabled(false);
+        final var throttler = new LoginThrottler(properties, clock);
+        final var client = request("10.0.0.1", null);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertDoesNotThrow(
+                    () -> throttler.registerAttempt("user", client),
+                    "Attempts are being throttled when disabled"
+            );
+        }
+    }
+
+
+    /**
+     * Creates the {@link LoginThrottlingProperties} for the tests.
+     *
+     * @param usernameLimit The limit per username.
+     * @param addressLimit  The limit per address.
+     * @return The created {@link LoginThrottlingProperties}.
+     */
+    private static LoginThrottlingProperties properties(final int usernameLimit, final int addressLimit) {
+        final var properties = new LoginThrottlingProperties();
+        properties.setEnabled(true);
+        properties.setWindow(WINDOW);
+        properties.setUsernameLimit(usernameLimit);
+        properties.setAddressLimit(addressLimit);
+        properties.setMaxTrackedKeys(100);
+        return properties;
+    }
+
+    /**
+     * Creates a request.
+     *
+     * @param remoteAddress The remote address of the request.
+     * @param forwardedFor  The value of the {@code X-Forwarded-For} header (or {@code null} to not include it).
+     * @return The created {@link MockHttpServletRequest}.
+     */
+    private static MockHttpServletRequest request(final String remoteAddress, final String forwardedFor) {
+        final var request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A {@link Clock} whose time is only changed when it is explicitly advanced, used to control windows in tests.
+ */
+/* package */ class MutableClock extends Clock {
+
+    /**
+     * The actual instant.
+     */
+    private volatile Instant instant;
+
+
+    /**
+     * Constructor.
+     *
+     * @param instant The initial instant.
+     */
+    /* package */ MutableClock(final Instant instant) {
+        this.instant = instant;
+    }
+
+
+    /**
+     * Advances this clock by the given {@code duration}.
+     *
+     * @param duration The {@link Duration} by which the clock is advanced.
+     */
+    /* package */ void advance(final Duration duration) {
+        this.instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
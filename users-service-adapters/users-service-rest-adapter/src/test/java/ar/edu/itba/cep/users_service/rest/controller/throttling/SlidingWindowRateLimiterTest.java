@@ -0,0 +1,144 @@
+package ar.edu.itba.cep.users_service.rest.controller.throttling;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test class for the {@link SlidingWindowRateLimiter}.
+ */
+class SlidingWindowRateLimiterTest {
+
+    /**
+     * The window used by the tests.
+     */
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    /**
+     * The key used by the tests.
+     */
+    private static final String KEY = "key";
+
+
+    /**
+     * The {@link MutableClock} used by the rate limiter (starts at the beginning of a window).
+     */
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(WINDOW.toMillis() * 1000));
+
+
+    /**
+     * Tests that attempts are allowed up to the limit within a window, and that keys are limited independently.
+     */
+    @Test
+    void testAttemptsAreAllowedUpToTheLimit() {
+        final var limiter = new SlidingWindowRateLimiter(3, WINDOW, 100, clock);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(limiter.tryAcquire(KEY), "An attempt within the limit was rejected");
+        }
+        Assertions.assertAll(
+                "Attempts after reaching the limit are not being rejected",
+                () -> Assertions.assertFalse(limiter.isAllowed(KEY), "The key is reported as allowed"),
+                () -> Assertions.assertFalse(limiter.tryAcquire(KEY), "The attempt was allowed")
+        );
+        Assertions.assertTrue(limiter.tryAcquire("another-key"), "Keys are not being limited independently");
+    }
+
+    /**
+     * Tests that the attempts of the previous window are weighted by how much of it overlaps the sliding window.
+     */
+    @Test
+    void testPreviousWindowIsWeighted() {
+        final var limiter = new SlidingWindowRateLimiter(4, WINDOW, 100, clock);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(KEY);
+        }
+        // Half of the next window: the 4 attempts of the previous window count as 2.
+        clock.advance(WINDOW.plus(WINDOW.dividedBy(2)));
+        Assertions.assertAll(
+                "The previous window is not being weighted",
+                () -> Assertions.assertTrue(limiter.tryAcquire(KEY), "The first attempt was rejected"),
+                () -> Assertions.assertTrue(limiter.tryAcquire(KEY), "The second attempt was rejected"),
+                () -> Assertions.assertFalse(limiter.tryAcquire(KEY), "The third attempt was allowed")
+        );
+    }
+
+    /**
+     * Tests that attempts older than the previous window are not taken into account.
+     */
+    @Test
+    void testOldWindowsAreNotTakenIntoAccount() {
+        final var limiter = new SlidingWindowRateLimiter(2, WINDOW, 100, clock);
+        limiter.tryAcquire(KEY);
+        limiter.tryAcquire(KEY);
+        clock.advance(WINDOW.multipliedBy(2));
+        Assertions.assertAll(
+                "Attempts from old windows are being taken into account",
+                () -> Assertions.assertTrue(limiter.tryAcquire(KEY), "The first attempt was rejected"),
+                () -> Assertions.assertTrue(limiter.tryAcquire(KEY), "The second attempt was rejected")
+        );
+    }
+
+    /**
+     * Tests that checking whether an attempt is allowed does not register it.
+     */
+    @Test
+    void testCheckingDoesNotRegisterAttempts() {
+        final var limiter = new SlidingWindowRateLimiter(1, WINDOW, 100, clock);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.isAllowed(KEY), "A key without attempts is reported as not allowed");
+        }
+        Assertions.assertTrue(limiter.tryAcquire(KEY), "Checking the key registered attempts");
+    }
+
+    /**
+     * Tests that the time until the next window is calculated according to the clock.
+     */
+    @Test
+    void testTimeUntilNextWindow() {
+        final var limiter = new SlidingWindowRateLimiter(1, WINDOW, 100, clock);
+        clock.advance(Duration.ofSeconds(45));
+        Assertions.assertEquals(
+                Duration.ofSeconds(15),
+                limiter.timeUntilNextWindow(),
+                "The time until the next window is not the expected"
+        );
+    }
+
+    /**
+     * Tests that concurrent attempts never exceed the limit (i.e the compare-and-set loop does not lose updates).
+     *
+     * @throws InterruptedException If interrupted while waiting for the attempts to finish.
+     * @throws ExecutionException   Never (attempts do not throw exceptions).
+     */
+    @Test
+    void testConcurrentAttemptsDoNotExceedTheLimit() throws InterruptedException, ExecutionException {
+        final var limit = 1000;
+        final var threads = 8;
+        final var attemptsPerThread = 10_000;
+        final var limiter = new SlidingWindowRateLimiter(limit, WINDOW, 100, clock);
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final var tasks = IntStream.range(0, threads)
+                    .mapToObj(ignored -> (Callable<Integer>) () -> (int) IntStream.range(0, attemptsPerThread)
+                            .filter(i -> limiter.tryAcquire(KEY))
+                            .count())
+                    .collect(Collectors.toList());
+            var allowed = 0;
+            for (final Future<Integer> result : executor.invokeAll(tasks)) {
+                allowed += result.get();
+            }
+            Assertions.assertEquals(limit, allowed, "The amount of allowed attempts is not the limit");
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ar.edu.itba.cep.users_service.rest.error_handlers;
+
+import ar.edu.itba.cep.users_service.rest.controller.throttling.TooManyRequestsException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+
+/**
+ * Test class for the {@link TooManyRequestsExceptionHandler}.
+ */
+class TooManyRequestsExceptionHandlerTest {
+
+    private final TooManyRequestsExceptionHandler handler = new TooManyRequestsExceptionHandler();
+
+
+    /**
+     * Tests that the exception is mapped to a 429 response with the retry after seconds.
+     */
+    @Test
+    void testTooManyRequestsWithRetryAfter() {
+        final var response = handler.toResponse(new TooManyRequestsException("message", Duration.ofSeconds(40)));
+        Assertions.assertAll(
+                "The response is not the expected",
+                () -> Assertions.assertEquals(
+                        Response.Status.TOO_MANY_REQUESTS.getStatusCode(),
+                        response.getStatus(),
+                        "The status is not 429"
+                ),
+                () -> Assertions.assertEquals(
+                        "40",
+                        response.getHeaderString(HttpHeaders.RETRY_AFTER),
+                        "The Retry-After header is not the expected"
+                )
+        );
+    }
+
+    /**
+     * Tests that the retry after is at least one second (so clients do not retry immediately).
+     */
+    @Test
+    void testRetryAfterIsAtLeastOneSecond() {
+        final var response = handler.toResponse(new TooManyRequestsException("message", Duration.ofMillis(300)));
+        Assertions.assertEquals(
+                "1",
+                response.getHeaderString(HttpHeaders.RETRY_AFTER),
+                "The Retry-After header is less than one second"
+        );
+    }
+}
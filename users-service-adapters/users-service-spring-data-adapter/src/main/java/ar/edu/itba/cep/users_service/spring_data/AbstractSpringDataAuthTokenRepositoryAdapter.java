@@ -7,7 +7,11 @@ import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataAuthTokenR
 import com.bellotapps.webapps_commons.persistence.spring_data.repository_utils_adapters.repositories.BasicRepositoryAdapter;
 import lombok.AllArgsConstructor;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 
 /**
@@ -27,4 +31,38 @@ public abstract class AbstractSpringDataAuthTokenRepositoryAdapter<T extends Aut
     public R getCrudRepository() {
         return repository;
     }
+
+
+    // ================================================================================================================
+    // AuthTokenRepository specific methods
+    // ================================================================================================================
+
+    @Override
+    public List<T> findAllByIds(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findByIdIn(ids);
+    }
+
+    @Override
+    public List<UUID> getRevokedTokenIds() {
+        return repository.findInvalidTokenIds();
+    }
+
+    @Override
+    public List<UUID> deleteNotRefreshedSince(final Instant instant, final int limit) {
+        return toUuids(repository.deleteNotRefreshedSince(instant, limit));
+    }
+
+
+    /**
+     * Converts the given {@code ids} (returned as {@link String}s by native queries) into {@link UUID}s.
+     *
+     * @param ids The ids to be converted.
+     * @return A {@link List} containing the converted ids.
+     */
+    protected static List<UUID> toUuids(final List<String> ids) {
+        return ids.stream().map(UUID::fromString).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,74 @@
+package ar.edu.itba.cep.users_service.spring_data;
+
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import ar.edu.itba.cep.users_service.repositories.OutboxMessageRepository;
+import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataOutboxMessageRepository;
+import com.bellotapps.webapps_commons.persistence.spring_data.repository_utils_adapters.repositories.BasicRepositoryAdapter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * A concrete implementation of a {@link OutboxMessageRepository}
+ * which acts as an adapter for a {@link SpringDataOutboxMessageRepository}.
+ */
+@Repository
+public class SpringDataOutboxMessageRepositoryAdapter
+        implements OutboxMessageRepository, BasicRepositoryAdapter<OutboxMessage, Long> {
+
+    /**
+     * A {@link SpringDataOutboxMessageRepository} to which all operations are delegated.
+     */
+    private final SpringDataOutboxMessageRepository repository;
+
+    /**
+     * Constructor.
+     *
+     * @param repository A {@link SpringDataOutboxMessageRepository} to which all operations are delegated.
+     */
+    @Autowired
+    public SpringDataOutboxMessageRepositoryAdapter(final SpringDataOutboxMessageRepository repository) {
+        this.repository = repository;
+    }
+
+
+    // ================================================================================================================
+    // RepositoryAdapter
+    // ================================================================================================================
+
+    @Override
+    public SpringDataOutboxMessageRepository getCrudRepository() {
+        return repository;
+    }
+
+
+    // ================================================================================================================
+    // OutboxMessageRepository specific methods
+    // ================================================================================================================
+
+    @Override
+    public List<OutboxMessage> lockOldest(final int limit) {
+        return repository.lockOldest(limit);
+    }
+
+    @Override
+    public void deleteByIds(final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        repository.deleteByIds(ids);
+    }
+
+    @Override
+    public void registerFailedAttempt(final long id) {
+        repository.registerFailedAttempt(id);
+    }
+
+    @Override
+    public boolean deadLetterIfExhausted(final long id, final int maxAttempts) {
+        return repository.deadLetterIfExhausted(id, maxAttempts) > 0;
+    }
+}
@@ -1,6 +1,7 @@
 package ar.edu.itba.cep.users_service.spring_data;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.SubjectAuthToken;
 import ar.edu.itba.cep.users_service.repositories.SubjectAuthTokenRepository;
 import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataAuthTokenRepository;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.UUID;
 
 
 /**
@@ -42,6 +44,16 @@ public class SpringDataSubjectAuthTokenRepositoryAdapter
 
     @Override
     public List<SubjectAuthToken> getSubjectTokensWithRole(final String subject, final Role role) {
-        return getCrudRepository().findBySubjectAndRole(subject, role);
+        return getCrudRepository().findBySubjectAndRole(subject, RoleBitmask.of(role));
+    }
+
+    @Override
+    public List<UUID> invalidateSubjectTokens(final String subject) {
+        return toUuids(getCrudRepository().invalidateBySubject(subject));
+    }
+
+    @Override
+    public List<UUID> invalidateSubjectTokensWithRole(final String subject, final Role role) {
+        return toUuids(getCrudRepository().invalidateBySubjectAndRole(subject, RoleBitmask.of(role)));
     }
 }
@@ -0,0 +1,83 @@
+package ar.edu.itba.cep.users_service.spring_data;
+
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.repositories.TokenRevocationRepository;
+import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataTokenRevocationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * A concrete implementation of a {@link TokenRevocationRepository}
+ * which acts as an adapter for a {@link SpringDataTokenRevocationRepository}.
+ */
+@Repository
+public class SpringDataTokenRevocationRepositoryAdapter implements TokenRevocationRepository {
+
+    /**
+     * The amount of statements sent together when appending {@link TokenRevocation}s in batches.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Locks the revocations log until the transaction ends, so appenders are serialized
+     * (and thus sequence numbers are committed in order). Readers are not blocked by this lock.
+     */
+    private static final String LOCK_LOG = "LOCK TABLE token_revocations IN EXCLUSIVE MODE";
+
+    /**
+     * Inserts the revocation of a token, unless it was already logged, or the token does not exist anymore.
+     */
+    private static final String INSERT_REVOCATION = "INSERT INTO token_revocations (token_id, revoked_at) " +
+            "SELECT t.id, ? FROM auth_tokens t WHERE t.id = ? " +
+            "ON CONFLICT (token_id) DO NOTHING";
+
+    /**
+     * A {@link SpringDataTokenRevocationRepository} to which read operations are delegated.
+     */
+    private final SpringDataTokenRevocationRepository repository;
+    /**
+     * The {@link JdbcTemplate} used to append {@link TokenRevocation}s in JDBC batches.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param repository   A {@link SpringDataTokenRevocationRepository} to which read operations are delegated.
+     * @param jdbcTemplate The {@link JdbcTemplate} used to append {@link TokenRevocation}s in JDBC batches.
+     */
+    @Autowired
+    public SpringDataTokenRevocationRepositoryAdapter(
+            final SpringDataTokenRevocationRepository repository,
+            final JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+
+    @Override
+    public void appendAll(final Collection<UUID> tokenIds) {
+        if (tokenIds.isEmpty()) {
+            return;
+        }
+        final var revokedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.execute(LOCK_LOG);
+        jdbcTemplate.batchUpdate(INSERT_REVOCATION, tokenIds, BATCH_SIZE, (ps, tokenId) -> {
+            ps.setTimestamp(1, revokedAt);
+            ps.setObject(2, tokenId);
+        });
+    }
+
+    @Override
+    public List<TokenRevocation> findSince(final long sequence, final int limit) {
+        return repository.findSince(sequence, limit);
+    }
+}
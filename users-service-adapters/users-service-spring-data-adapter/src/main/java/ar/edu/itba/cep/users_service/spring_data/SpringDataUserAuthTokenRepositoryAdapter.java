@@ -1,6 +1,7 @@
 package ar.edu.itba.cep.users_service.spring_data;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserAuthToken;
 import ar.edu.itba.cep.users_service.repositories.UserAuthTokenRepository;
@@ -9,7 +10,12 @@ import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataUserAuthTo
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
 
 /**
@@ -21,6 +27,12 @@ public class SpringDataUserAuthTokenRepositoryAdapter
         extends AbstractSpringDataAuthTokenRepositoryAdapter<UserAuthToken, SpringDataUserAuthTokenRepository>
         implements UserAuthTokenRepository {
 
+    /**
+     * The maximum amount of usernames sent as parameters of a single statement
+     * (PostgreSQL limits the amount of parameters in a statement).
+     */
+    private static final int USERNAMES_CHUNK_SIZE = 1000;
+
     /**
      * Constructor.
      *
@@ -36,6 +48,15 @@ public class SpringDataUserAuthTokenRepositoryAdapter
     // AuthTokenRepository specific methods
     // ================================================================================================================
 
+    @Override
+    public List<UserAuthToken> findAllByIds(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Load the users in the same query, as they are needed to get the tokens' owners.
+        return getCrudRepository().findWithUserByIdIn(ids);
+    }
+
     @Override
     public List<UserAuthToken> getUserTokens(final User user) {
         return getCrudRepository().findByUser(user);
@@ -43,6 +64,55 @@ public class SpringDataUserAuthTokenRepositoryAdapter
 
     @Override
     public List<UserAuthToken> getUserTokensWithRole(final User user, final Role role) {
-        return getCrudRepository().findByUserAndRole(user, role);
+        return getCrudRepository().findByUserAndRole(user, RoleBitmask.of(role));
+    }
+
+    @Override
+    public List<UUID> invalidateUserTokens(final User user) {
+        return toUuids(getCrudRepository().invalidateByUser(user.getId()));
+    }
+
+    @Override
+    public List<UUID> invalidateUserTokensWithRole(final User user, final Role role) {
+        return toUuids(getCrudRepository().invalidateByUserAndRole(user.getId(), RoleBitmask.of(role)));
+    }
+
+    @Override
+    public List<UUID> invalidateUsersTokens(final Collection<String> usernames, final Instant issuedBefore) {
+        return inChunks(usernames, chunk -> getCrudRepository().invalidateByUsernames(chunk, issuedBefore));
+    }
+
+    @Override
+    public List<UUID> invalidateUsersTokensWithRole(
+            final Collection<String> usernames,
+            final Role role,
+            final Instant issuedBefore) {
+        final var roleBitmask = RoleBitmask.of(role);
+        return inChunks(
+                usernames,
+                chunk -> getCrudRepository().invalidateByUsernamesAndRole(chunk, roleBitmask, issuedBefore)
+        );
+    }
+
+
+    /**
+     * Performs the given {@code invalidation} over chunks of at most {@link #USERNAMES_CHUNK_SIZE} usernames,
+     * joining the ids of the invalidated {@link UserAuthToken}s.
+     *
+     * @param usernames    The usernames to be split in chunks.
+     * @param invalidation A {@link Function} that takes a chunk of usernames, invalidates their tokens,
+     *                     and returns the ids (as {@link String}s) of the invalidated {@link UserAuthToken}s.
+     * @return A {@link List} containing the ids of all the invalidated {@link UserAuthToken}s.
+     */
+    private static List<UUID> inChunks(
+            final Collection<String> usernames,
+            final Function<List<String>, List<String>> invalidation) {
+        final var all = List.copyOf(usernames);
+        final var ids = new ArrayList<UUID>();
+        for (int from = 0; from < all.size(); from += USERNAMES_CHUNK_SIZE) {
+            final var chunk = all.subList(from, Math.min(from + USERNAMES_CHUNK_SIZE, all.size()));
+            ids.addAll(toUuids(invalidation.apply(chunk)));
+        }
+        return ids;
     }
 }
@@ -50,8 +50,24 @@ public class SpringDataUserCredentialRepositoryAdapter
     // ================================================================================================================
 
     @Override
-    public Optional<UserCredential> findLastForUser(final User user) {
-        return repository.findTopByUserOrderByCreatedAtDesc(user);
+    public Optional<UserCredential> findCurrentForUser(final User user) {
+        return repository.findByUserAndCurrentTrue(user);
+    }
+
+    @Override
+    public Optional<UserCredential> findCurrentWithUserByUsername(final String username) {
+        return repository.findCurrentWithUserByUsername(username);
+    }
+
+    @Override
+    public void retireCurrentForUser(final User user) {
+        repository.retireCurrent(user);
+    }
+
+    @Override
+    public void compactHistory(final User user, final int historySize) {
+        // A negative LIMIT is rejected by the database, and keeping no credentials is equivalent in this case.
+        repository.deleteOlderThanLast(user.getId(), Math.max(historySize, 0));
     }
 
     @Override
@@ -1,7 +1,10 @@
 package ar.edu.itba.cep.users_service.spring_data;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.models.UserSelection;
 import ar.edu.itba.cep.users_service.repositories.UserRepository;
 import ar.edu.itba.cep.users_service.spring_data.interfaces.SpringDataUserRepository;
 import com.bellotapps.webapps_commons.persistence.jpa.PredicateBuilders;
@@ -12,12 +15,23 @@ import com.bellotapps.webapps_commons.persistence.spring_data.repository_utils_a
 import com.bellotapps.webapps_commons.persistence.spring_data.repository_utils_adapters.repositories.WriterRepositoryAdapter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.EntityManager;
 import javax.persistence.criteria.Predicate;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 /**
@@ -27,19 +41,62 @@ import java.util.Optional;
 @Repository
 public class SpringDataUserRepositoryAdapter implements UserRepository, WriterRepositoryAdapter<User, Long> {
 
+    /**
+     * The character used to escape wildcards in "like" patterns.
+     */
+    private static final char LIKE_ESCAPE_CHARACTER = '\\';
+
+    /**
+     * The amount of statements sent together when saving {@link User}s in batches.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Inserts a {@link User}, unless its username is already in use.
+     */
+    private static final String INSERT_USER = "INSERT INTO users (username, active, roles) VALUES (?, ?, ?) " +
+            "ON CONFLICT (username) DO NOTHING";
+
+    /**
+     * Inserts the current {@link UserCredential} of the {@link User} with a given username,
+     * unless it already has credentials (i.e it is not a {@link User} that has just been inserted).
+     */
+    private static final String INSERT_CREDENTIAL = "INSERT INTO user_credentials " +
+            "(user_id, hashed_password, created_at, is_current) " +
+            "SELECT u.id, ?, ?, TRUE FROM users u " +
+            "WHERE u.username = ? " +
+            "  AND NOT EXISTS (SELECT 1 FROM user_credentials uc WHERE uc.user_id = u.id)";
+
     /**
      * A {@link SpringDataUserRepository} to which all operations are delegated.
      */
     private final SpringDataUserRepository repository;
+    /**
+     * The {@link EntityManager} used to perform keyset paginated queries
+     * (which can't be expressed with a {@link SpringDataUserRepository}, as they need a limit and no count query).
+     */
+    private final EntityManager entityManager;
+    /**
+     * The {@link JdbcTemplate} used to save {@link User}s in JDBC batches
+     * (which Hibernate does not do for entities with identity generated ids).
+     */
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Constructor.
      *
-     * @param repository A {@link SpringDataUserRepository} to which all operations are delegated.
+     * @param repository    A {@link SpringDataUserRepository} to which all operations are delegated.
+     * @param entityManager The {@link EntityManager} used to perform keyset paginated queries.
+     * @param jdbcTemplate  The {@link JdbcTemplate} used to save {@link User}s in JDBC batches.
      */
     @Autowired
-    public SpringDataUserRepositoryAdapter(final SpringDataUserRepository repository) {
+    public SpringDataUserRepositoryAdapter(
+            final SpringDataUserRepository repository,
+            final EntityManager entityManager,
+            final JdbcTemplate jdbcTemplate) {
         this.repository = repository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
 
@@ -67,23 +124,118 @@ public class SpringDataUserRepositoryAdapter implements UserRepository, WriterRe
         return repository.existsByUsername(username);
     }
 
+    @Override
+    public Set<String> findExistingUsernames(final Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        return repository.findExistingUsernames(usernames);
+    }
+
+    @Override
+    public List<UserCredential> saveAllWithCredentials(final List<UserCredential> credentials) {
+        final var users = credentials.stream().map(UserCredential::getUser).collect(Collectors.toList());
+        final var userCounts = jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (ps, user) -> {
+            ps.setString(1, user.getUsername());
+            ps.setBoolean(2, user.isActive());
+            ps.setLong(3, RoleBitmask.encode(user.getRoles()));
+        });
+        // Update counts are returned per batch. A zero count means that the username was already in use.
+        final var inserted = Arrays.stream(userCounts).flatMapToInt(Arrays::stream).toArray();
+        final var saved = IntStream.range(0, credentials.size())
+                .filter(i -> inserted[i] != 0)
+                .mapToObj(credentials::get)
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_CREDENTIAL, saved, BATCH_SIZE, (ps, credential) -> {
+            ps.setString(1, credential.getHashedPassword());
+            ps.setTimestamp(2, Timestamp.from(credential.getCreatedAt()));
+            ps.setString(3, credential.getUser().getUsername());
+        });
+        return saved;
+    }
+
+    @Override
+    public List<String> getAllUsernames() {
+        return repository.findAllUsernames();
+    }
+
+    @Override
+    public long getLastId() {
+        return repository.findLastId();
+    }
+
+    @Override
+    public boolean existsWithUsernameAfter(final String username, final long id) {
+        return repository.existsByUsernameAndIdGreaterThan(username, id);
+    }
+
     @Override
     public Page<User> findFiltering(final String username, final Boolean active, final PagingRequest pagingRequest) {
         final var pageable = PagingMapper.map(pagingRequest);
         PageableValidator.validatePageable(pageable, User.class);
-        final Specification<User> specification = (root, query, cb) -> {
+        return PagingMapper.map(repository.findAll(filtering(username, active), pageable));
+    }
+
+    @Override
+    public List<User> findFilteringAfterUsername(
+            final String username,
+            final Boolean active,
+            final String afterUsername,
+            final int limit) {
+        return seek(filtering(username, active), "username", afterUsername, limit);
+    }
+
+    @Override
+    public List<User> findFilteringAfterId(
+            final String username,
+            final Boolean active,
+            final Long afterId,
+            final int limit) {
+        return seek(filtering(username, active), "id", afterId, limit);
+    }
+
+    @Override
+    public boolean existsWithRole(final Role role) {
+        return repository.existsWithRole(RoleBitmask.of(role));
+    }
+
+    @Override
+    public List<String> addRoleToAll(final UserSelection selection, final Role role) {
+        final var roleBitmask = RoleBitmask.of(role);
+        return updateSelected("roles = roles | ?", "(roles & ?) = 0", selection, roleBitmask, roleBitmask);
+    }
+
+    @Override
+    public List<String> removeRoleFromAll(final UserSelection selection, final Role role) {
+        final var roleBitmask = RoleBitmask.of(role);
+        return updateSelected("roles = roles & ~?", "(roles & ?) <> 0", selection, roleBitmask, roleBitmask);
+    }
+
+    @Override
+    public List<String> setActiveToAll(final UserSelection selection, final boolean active) {
+        return updateSelected("active = ?", "active <> ?", selection, active, active);
+    }
+
+
+    /**
+     * Creates a {@link Specification} applying "like" username and active flag filters.
+     *
+     * @param username A username pattern.
+     * @param active   The active flag.
+     * @return The {@link Specification}.
+     * @apiNote Those parameter that are {@code null} will not be taken into account.
+     */
+    private static Specification<User> filtering(final String username, final Boolean active) {
+        return (root, query, cb) -> {
 
             final List<Predicate> predicates = new LinkedList<>();
-            // Filter name
+            // Filter name (lower(username) LIKE '%term%', so it is resolved with the username trigram index)
             Optional.ofNullable(username)
                     .map(str ->
-                            PredicateBuilders.like(
-                                    cb,
-                                    root,
-                                    "username",
-                                    str,
-                                    PredicateBuilders.LikeMatchMode.ANYWHERE,
-                                    false
+                            cb.like(
+                                    cb.lower(root.<String>get("username")),
+                                    containing(str),
+                                    LIKE_ESCAPE_CHARACTER
                             )
                     )
                     .ifPresent(predicates::add);
@@ -100,11 +252,118 @@ public class SpringDataUserRepositoryAdapter implements UserRepository, WriterRe
                     .ifPresent(predicates::add);
             return predicates.stream().reduce(cb.and(), cb::and);
         };
-        return PagingMapper.map(repository.findAll(specification, pageable));
     }
 
-    @Override
-    public boolean existsWithRole(final Role role) {
-        return repository.existsByRolesContains(role);
+    /**
+     * Builds the "like" pattern matching lowercase usernames containing the given {@code username}
+     * (case insensitive).
+     *
+     * @param username The username to be matched.
+     * @return The "like" pattern.
+     */
+    private static String containing(final String username) {
+        return "%" + escapeLikePattern(username.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    /**
+     * Escapes the wildcards (and the escape character) in the given {@code str},
+     * so it is matched literally in a "like" pattern.
+     *
+     * @param str The {@link String} to be escaped.
+     * @return The escaped {@link String}.
+     */
+    private static String escapeLikePattern(final String str) {
+        final var escape = String.valueOf(LIKE_ESCAPE_CHARACTER);
+        return str.replace(escape, escape + escape)
+                .replace("%", escape + "%")
+                .replace("_", escape + "_");
+    }
+
+    /**
+     * Retrieves at most {@code limit} {@link User}s satisfying the given {@code specification},
+     * ordered by the given unique {@code key}, and whose said {@code key} is greater than {@code after}.
+     * The {@code key} index is used to seek the first {@link User}, so no rows are skipped nor counted.
+     *
+     * @param specification The {@link Specification} to be satisfied.
+     * @param key           The name of the unique attribute by which {@link User}s are ordered.
+     * @param after         The value of the {@code key} after which the results start,
+     *                      or {@code null} to start from the first one.
+     * @param limit         The maximum amount of {@link User}s to be returned.
+     * @param <K>           The concrete type of the {@code key}.
+     * @return A {@link List} containing the {@link User}s.
+     */
+    private <K extends Comparable<? super K>> List<User> seek(
+            final Specification<User> specification,
+            final String key,
+            final K after,
+            final int limit) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(User.class);
+        final var root = query.from(User.class);
+        final var predicate = specification.toPredicate(root, query, cb);
+        query.select(root)
+                .where(
+                        Optional.ofNullable(after)
+                                .map(value -> cb.and(predicate, cb.greaterThan(root.<K>get(key), value)))
+                                .orElse(predicate)
+                )
+                .orderBy(cb.asc(root.get(key)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Updates all the {@link User}s selected by the given {@code selection} that satisfy the given {@code condition}
+     * in a single statement, returning the usernames of those that were updated.
+     * Filters are applied the same way as in {@link #filtering(String, Boolean)},
+     * so the same indexes are used to resolve them. The excluded {@link User} (if any) is never updated.
+     *
+     * @param assignment The SQL assignment to be performed (i.e the "SET" clause).
+     * @param condition  The SQL condition to be satisfied by the {@link User}s being updated
+     *                   (i.e those that would not change are excluded).
+     * @param selection  The {@link UserSelection} indicating the {@link User}s to be updated.
+     * @param args       The arguments of the {@code assignment} and the {@code condition} (in that order).
+     * @return A {@link List} containing the usernames of the updated {@link User}s.
+     */
+    private List<String> updateSelected(
+            final String assignment,
+            final String condition,
+            final UserSelection selection,
+            final Object... args) {
+        if (selection.isByUsernames() && selection.getUsernames().isEmpty()) {
+            return List.of();
+        }
+        final var where = new StringJoiner(" AND ").add(condition);
+        final var params = new ArrayList<>(Arrays.asList(args));
+        Optional.ofNullable(selection.getExcluded()).ifPresent(excluded -> {
+            where.add("username <> ?");
+            params.add(excluded);
+        });
+        if (selection.isByUsernames()) {
+            where.add("username = ANY (?)"); // A single array parameter, regardless of the amount of usernames.
+        } else {
+            Optional.ofNullable(selection.getUsername()).ifPresent(username -> {
+                where.add("lower(username) LIKE ? ESCAPE '" + LIKE_ESCAPE_CHARACTER + "'");
+                params.add(containing(username));
+            });
+            Optional.ofNullable(selection.getActive()).ifPresent(active -> {
+                where.add("active = ?");
+                params.add(active);
+            });
+        }
+        final var sql = "UPDATE users SET " + assignment + " WHERE " + where + " RETURNING username";
+        return jdbcTemplate.query(
+                sql,
+                ps -> {
+                    var index = 1;
+                    for (final var param : params) {
+                        ps.setObject(index++, param);
+                    }
+                    if (selection.isByUsernames()) {
+                        final var usernames = selection.getUsernames().toArray();
+                        ps.setArray(index, ps.getConnection().createArrayOf("varchar", usernames));
+                    }
+                },
+                (rs, rowNum) -> rs.getString("username")
+        );
     }
 }
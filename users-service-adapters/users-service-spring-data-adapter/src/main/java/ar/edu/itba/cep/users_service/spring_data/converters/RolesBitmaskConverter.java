@@ -0,0 +1,27 @@
+package ar.edu.itba.cep.users_service.spring_data.converters;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.Set;
+
+/**
+ * An {@link AttributeConverter} that stores {@link Set}s of {@link Role}s as bitmasks (encoded with
+ * {@link RoleBitmask}), so they are saved and loaded together with the row owning them
+ * (i.e with no collection tables, extra statements nor joins).
+ */
+@Converter
+public class RolesBitmaskConverter implements AttributeConverter<Set<Role>, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(final Set<Role> roles) {
+        return RoleBitmask.encode(roles);
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(final Long bitmask) {
+        return RoleBitmask.decode(bitmask == null ? 0 : bitmask);
+    }
+}
@@ -1,9 +1,15 @@
 package ar.edu.itba.cep.users_service.spring_data.interfaces;
 
 import ar.edu.itba.cep.users_service.models.AuthToken;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -11,4 +17,40 @@ import java.util.UUID;
  */
 @Repository
 public interface AbstractSpringDataAuthTokenRepository<T extends AuthToken> extends CrudRepository<T, UUID> {
+
+    /**
+     * Finds the {@link AuthToken}s with the given {@code ids}.
+     *
+     * @param ids The ids of the {@link AuthToken}s to be retrieved.
+     * @return A {@link List} containing the existing {@link AuthToken}s with the given {@code ids}.
+     */
+    @Query(value = "SELECT at FROM #{#entityName} at WHERE at.id IN :ids")
+    List<T> findByIdIn(@Param("ids") final Collection<UUID> ids);
+
+    /**
+     * Lists the ids of all the {@link AuthToken}s that are not valid.
+     *
+     * @return A {@link List} containing the ids of the non valid {@link AuthToken}s.
+     */
+    @Query(value = "SELECT at.id FROM #{#entityName} at WHERE at.valid = false")
+    List<UUID> findInvalidTokenIds();
+
+    /**
+     * Deletes up to {@code limit} {@link AuthToken}s that have not been refreshed since the given {@code instant}.
+     * Rows being locked by other transactions are skipped.
+     *
+     * @param instant The {@link Instant} used to select the {@link AuthToken}s to be deleted.
+     * @param limit   The maximum amount of {@link AuthToken}s to be deleted.
+     * @return A {@link List} containing the ids (as {@link String}s) of the deleted {@link AuthToken}s.
+     */
+    @Transactional
+    @Query(value = "DELETE FROM auth_tokens " +
+            "       WHERE id IN (SELECT at.id " +
+            "                    FROM auth_tokens at " +
+            "                    WHERE at.refreshed_at < :instant " +
+            "                    LIMIT :limit " +
+            "                    FOR UPDATE SKIP LOCKED)" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> deleteNotRefreshedSince(@Param("instant") final Instant instant, @Param("limit") final int limit);
 }
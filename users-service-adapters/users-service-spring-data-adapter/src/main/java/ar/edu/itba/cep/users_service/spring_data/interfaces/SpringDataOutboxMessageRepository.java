@@ -0,0 +1,72 @@
+package ar.edu.itba.cep.users_service.spring_data.interfaces;
+
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link CrudRepository} for {@link OutboxMessage}s.
+ */
+@Repository
+public interface SpringDataOutboxMessageRepository extends CrudRepository<OutboxMessage, Long> {
+
+    /**
+     * Retrieves (and locks) up to {@code limit} {@link OutboxMessage}s, ordered by id.
+     * Rows being locked by other transactions are skipped.
+     *
+     * @param limit The maximum amount of {@link OutboxMessage}s to be retrieved.
+     * @return A {@link List} containing the locked {@link OutboxMessage}s.
+     */
+    @Query(value = "SELECT * " +
+            "       FROM event_outbox " +
+            "       ORDER BY id " +
+            "       LIMIT :limit " +
+            "       FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxMessage> lockOldest(@Param("limit") final int limit);
+
+    /**
+     * Deletes the {@link OutboxMessage}s with the given {@code ids}.
+     *
+     * @param ids The ids of the {@link OutboxMessage}s to be deleted.
+     * @return The amount of deleted {@link OutboxMessage}s.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") final Collection<Long> ids);
+
+    /**
+     * Increments the amount of failed attempts of the {@link OutboxMessage} with the given {@code id}.
+     *
+     * @param id The id of the {@link OutboxMessage}.
+     * @return The amount of updated {@link OutboxMessage}s.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_outbox SET attempts = attempts + 1 WHERE id = :id", nativeQuery = true)
+    int registerFailedAttempt(@Param("id") final long id);
+
+    /**
+     * Moves the {@link OutboxMessage} with the given {@code id} to the dead letters table (in a single statement),
+     * if its amount of failed attempts reached the given {@code maxAttempts}.
+     *
+     * @param id          The id of the {@link OutboxMessage}.
+     * @param maxAttempts The amount of failed attempts after which the {@link OutboxMessage} is moved.
+     * @return The amount of moved {@link OutboxMessage}s.
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+            "           DELETE FROM event_outbox " +
+            "           WHERE id = :id AND attempts >= :maxAttempts " +
+            "           RETURNING id, type, payload, created_at, attempts" +
+            "       ) " +
+            "       INSERT INTO event_outbox_dead_letters (id, type, payload, created_at, attempts, failed_at) " +
+            "       SELECT id, type, payload, created_at, attempts, now() FROM moved",
+            nativeQuery = true)
+    int deadLetterIfExhausted(@Param("id") final long id, @Param("maxAttempts") final int maxAttempts);
+}
@@ -2,12 +2,14 @@ package ar.edu.itba.cep.users_service.spring_data.interfaces;
 
 import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.SubjectAuthToken;
 import ar.edu.itba.cep.users_service.models.User;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -23,24 +25,60 @@ public interface SpringDataSubjectAuthTokenRepository extends AbstractSpringData
      * @param subject The subject owning the returned {@link SubjectAuthToken}s.
      * @return A {@link List} containing al the given {@link User}'s {@link SubjectAuthToken}s.
      */
-    @Query(value = "SELECT DISTINCT at " +
+    @Query(value = "SELECT at " +
             "       FROM SubjectAuthToken at " +
-            "           LEFT JOIN FETCH at.rolesAssigned" +
             "       WHERE at.subject = :subject" +
             "       ORDER BY at.createdAt")
     List<SubjectAuthToken> findBySubject(@Param("subject") final String subject);
 
     /**
-     * Lists all the given {@link User}'s {@link SubjectAuthToken}'s that contain the given {@code role}.
+     * Lists all the given {@link User}'s {@link SubjectAuthToken}'s that contain the {@link Role}
+     * with the given {@code roleBitmask}.
      *
-     * @param subject The subject owning the returned {@link SubjectAuthToken}s.
-     * @param role    The {@link Role} to be matched.
+     * @param subject     The subject owning the returned {@link SubjectAuthToken}s.
+     * @param roleBitmask The bitmask of the {@link Role} to be matched (as returned by {@link RoleBitmask#of(Role)}).
      * @return A {@link List} containing the matched {@link SubjectAuthToken}s.
      */
-    @Query(value = "SELECT DISTINCT at " +
+    @Query(value = "SELECT at " +
             "       FROM SubjectAuthToken at " +
-            "           LEFT JOIN FETCH at.rolesAssigned" +
-            "       WHERE at.subject = :subject AND :role MEMBER OF at.rolesAssigned" +
+            "       WHERE at.subject = :subject AND FUNCTION('bitand', at.rolesAssigned, :roleBitmask) <> 0" +
             "       ORDER BY at.createdAt")
-    List<SubjectAuthToken> findBySubjectAndRole(@Param("subject") final String subject, @Param("role") final Role role);
+    List<SubjectAuthToken> findBySubjectAndRole(
+            @Param("subject") final String subject,
+            @Param("roleBitmask") final long roleBitmask);
+
+    /**
+     * Invalidates all the valid {@link SubjectAuthToken}s belonging to the given {@code subject}.
+     *
+     * @param subject The subject owning the {@link SubjectAuthToken}s to be invalidated.
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link SubjectAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND id IN (SELECT sat.token_id FROM subject_auth_tokens sat WHERE sat.subject = :subject)" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateBySubject(@Param("subject") final String subject);
+
+    /**
+     * Invalidates all the valid {@link SubjectAuthToken}s belonging to the given {@code subject},
+     * that contain the {@link Role} with the given {@code roleBitmask}.
+     *
+     * @param subject     The subject owning the {@link SubjectAuthToken}s to be invalidated.
+     * @param roleBitmask The bitmask of the {@link Role} to be matched (as returned by {@link RoleBitmask#of(Role)}).
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link SubjectAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND (roles & :roleBitmask) <> 0 " +
+            "           AND id IN (SELECT sat.token_id FROM subject_auth_tokens sat WHERE sat.subject = :subject)" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateBySubjectAndRole(
+            @Param("subject") final String subject,
+            @Param("roleBitmask") final long roleBitmask);
 }
@@ -0,0 +1,32 @@
+package ar.edu.itba.cep.users_service.spring_data.interfaces;
+
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * A {@link CrudRepository} for {@link TokenRevocation}s.
+ */
+@Repository
+public interface SpringDataTokenRevocationRepository extends CrudRepository<TokenRevocation, Long> {
+
+    /**
+     * Retrieves up to {@code limit} {@link TokenRevocation}s with a sequence number greater than the given one,
+     * ordered by sequence number.
+     *
+     * @param sequence The sequence number after which {@link TokenRevocation}s are retrieved.
+     * @param limit    The maximum amount of {@link TokenRevocation}s to be retrieved.
+     * @return A {@link List} containing the retrieved {@link TokenRevocation}s.
+     */
+    @Query(value = "SELECT * " +
+            "       FROM token_revocations " +
+            "       WHERE sequence > :sequence " +
+            "       ORDER BY sequence " +
+            "       LIMIT :limit",
+            nativeQuery = true)
+    List<TokenRevocation> findSince(@Param("sequence") final long sequence, @Param("limit") final int limit);
+}
@@ -2,14 +2,19 @@ package ar.edu.itba.cep.users_service.spring_data.interfaces;
 
 import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserAuthToken;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A {@link CrudRepository} for {@link AuthToken}s.
@@ -23,24 +28,117 @@ public interface SpringDataUserAuthTokenRepository extends AbstractSpringDataAut
      * @param user The {@link User} owning the returned {@link UserAuthToken}s.
      * @return A {@link List} containing al the given {@link User}'s {@link UserAuthToken}s.
      */
-    @Query(value = "SELECT DISTINCT at " +
+    @Query(value = "SELECT at " +
             "       FROM UserAuthToken at " +
-            "           LEFT JOIN FETCH at.rolesAssigned" +
             "       WHERE at.user = :user" +
             "       ORDER BY at.createdAt")
     List<UserAuthToken> findByUser(@Param("user") final User user);
 
     /**
-     * Lists all the given {@link User}'s {@link UserAuthToken}'s that contain the given {@code role}.
+     * Lists all the given {@link User}'s {@link UserAuthToken}'s that contain the {@link Role}
+     * with the given {@code roleBitmask}.
      *
-     * @param user The {@link User} owning the returned {@link UserAuthToken}s.
-     * @param role The {@link Role} to be matched.
+     * @param user        The {@link User} owning the returned {@link UserAuthToken}s.
+     * @param roleBitmask The bitmask of the {@link Role} to be matched (as returned by {@link RoleBitmask#of(Role)}).
      * @return A {@link List} containing the matched {@link UserAuthToken}s.
      */
-    @Query(value = "SELECT DISTINCT at " +
+    @Query(value = "SELECT at " +
             "       FROM UserAuthToken at " +
-            "           LEFT JOIN FETCH at.rolesAssigned" +
-            "       WHERE at.user = :user AND :role MEMBER OF at.rolesAssigned" +
+            "       WHERE at.user = :user AND FUNCTION('bitand', at.rolesAssigned, :roleBitmask) <> 0" +
             "       ORDER BY at.createdAt")
-    List<UserAuthToken> findByUserAndRole(@Param("user") final User user, @Param("role") final Role role);
+    List<UserAuthToken> findByUserAndRole(@Param("user") final User user, @Param("roleBitmask") final long roleBitmask);
+
+    /**
+     * Finds the {@link UserAuthToken}s with the given {@code ids}, together with their {@link User}s.
+     *
+     * @param ids The ids of the {@link UserAuthToken}s to be retrieved.
+     * @return A {@link List} containing the existing {@link UserAuthToken}s with the given {@code ids}.
+     */
+    @Query(value = "SELECT at " +
+            "       FROM UserAuthToken at JOIN FETCH at.user " +
+            "       WHERE at.id IN :ids")
+    List<UserAuthToken> findWithUserByIdIn(@Param("ids") final Collection<UUID> ids);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s belonging to the {@link User} with the given {@code userId}.
+     *
+     * @param userId The id of the {@link User} owning the {@link UserAuthToken}s to be invalidated.
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link UserAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND id IN (SELECT uat.token_id FROM user_auth_tokens uat WHERE uat.user_id = :userId)" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateByUser(@Param("userId") final long userId);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s belonging to the {@link User} with the given {@code userId},
+     * that contain the {@link Role} with the given {@code roleBitmask}.
+     *
+     * @param userId      The id of the {@link User} owning the {@link UserAuthToken}s to be invalidated.
+     * @param roleBitmask The bitmask of the {@link Role} to be matched (as returned by {@link RoleBitmask#of(Role)}).
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link UserAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND (roles & :roleBitmask) <> 0 " +
+            "           AND id IN (SELECT uat.token_id FROM user_auth_tokens uat WHERE uat.user_id = :userId)" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateByUserAndRole(
+            @Param("userId") final long userId,
+            @Param("roleBitmask") final long roleBitmask);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s belonging to the {@link User}s with the given
+     * {@code usernames}, that were issued before the given {@link Instant}.
+     *
+     * @param usernames    The usernames of the {@link User}s owning the {@link UserAuthToken}s to be invalidated.
+     * @param issuedBefore The {@link Instant} until which matching {@link UserAuthToken}s are invalidated.
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link UserAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND created_at <= :issuedBefore " +
+            "           AND id IN (SELECT uat.token_id " +
+            "                      FROM user_auth_tokens uat JOIN users u ON u.id = uat.user_id " +
+            "                      WHERE u.username IN (:usernames))" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateByUsernames(
+            @Param("usernames") final Collection<String> usernames,
+            @Param("issuedBefore") final Instant issuedBefore);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s belonging to the {@link User}s with the given
+     * {@code usernames}, that contain the {@link Role} with the given {@code roleBitmask},
+     * and that were issued before the given {@link Instant}.
+     *
+     * @param usernames    The usernames of the {@link User}s owning the {@link UserAuthToken}s to be invalidated.
+     * @param roleBitmask  The bitmask of the {@link Role} to be matched (as returned by {@link RoleBitmask#of(Role)}).
+     * @param issuedBefore The {@link Instant} until which matching {@link UserAuthToken}s are invalidated.
+     * @return A {@link List} containing the ids (as {@link String}s) of the invalidated {@link UserAuthToken}s.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_tokens " +
+            "       SET valid = false " +
+            "       WHERE valid = true " +
+            "           AND (roles & :roleBitmask) <> 0 " +
+            "           AND created_at <= :issuedBefore " +
+            "           AND id IN (SELECT uat.token_id " +
+            "                      FROM user_auth_tokens uat JOIN users u ON u.id = uat.user_id " +
+            "                      WHERE u.username IN (:usernames))" +
+            "       RETURNING CAST(id AS VARCHAR)",
+            nativeQuery = true)
+    List<String> invalidateByUsernamesAndRole(
+            @Param("usernames") final Collection<String> usernames,
+            @Param("roleBitmask") final long roleBitmask,
+            @Param("issuedBefore") final Instant issuedBefore);
 }
@@ -2,7 +2,10 @@ package ar.edu.itba.cep.users_service.spring_data.interfaces;
 
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserCredential;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,12 +17,57 @@ import java.util.Optional;
 public interface SpringDataUserCredentialRepository extends CrudRepository<UserCredential, Long> {
 
     /**
-     * Retrieves the last {@link UserCredential} created for the given {@code user}.
+     * Retrieves the current {@link UserCredential} of the given {@code user}.
      *
      * @param user The {@link User} owning the {@link UserCredential}.
-     * @return The lastly created {@link UserCredential} created for the given {@code user}.
+     * @return The current {@link UserCredential} of the given {@code user}.
      */
-    Optional<UserCredential> findTopByUserOrderByCreatedAtDesc(final User user);
+    Optional<UserCredential> findByUserAndCurrentTrue(final User user);
+
+    /**
+     * Retrieves the current {@link UserCredential} of the {@link User} with the given {@code username},
+     * fetching the said {@link User} (together with its roles) in the same query.
+     *
+     * @param username The username of the {@link User} owning the {@link UserCredential}.
+     * @return The current {@link UserCredential} of the {@link User} with the given {@code username}.
+     */
+    @Query(value = "SELECT uc FROM UserCredential uc " +
+            "JOIN FETCH uc.user u " +
+            "WHERE u.username = :username AND uc.current = true")
+    Optional<UserCredential> findCurrentWithUserByUsername(@Param("username") final String username);
+
+    /**
+     * Marks the current {@link UserCredential} of the given {@code user} as not current.
+     *
+     * @param user The {@link User} owning the {@link UserCredential}.
+     * @return The amount of updated {@link UserCredential}s.
+     * @implNote This is performed as a bulk update so it is executed before the new credential is inserted
+     * (otherwise the "one current credential per user" constraint would be violated on flush).
+     */
+    @Modifying
+    @Query(value = "UPDATE UserCredential uc SET uc.current = false WHERE uc.user = :user AND uc.current = true")
+    int retireCurrent(@Param("user") final User user);
+
+    /**
+     * Removes the {@link UserCredential}s of the {@link User} with the given {@code userId},
+     * except the current one and the lastly created {@code historySize} ones.
+     *
+     * @param userId      The id of the {@link User} owning the {@link UserCredential}s.
+     * @param historySize The amount of {@link UserCredential}s to be kept.
+     * @return The amount of removed {@link UserCredential}s.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_credentials " +
+            "WHERE user_id = :userId " +
+            "  AND NOT is_current " +
+            "  AND id NOT IN (" +
+            "    SELECT kept.id FROM user_credentials kept " +
+            "    WHERE kept.user_id = :userId " +
+            "    ORDER BY kept.created_at DESC, kept.id DESC " +
+            "    LIMIT :historySize" +
+            ")",
+            nativeQuery = true)
+    int deleteOlderThanLast(@Param("userId") final long userId, @Param("historySize") final int historySize);
 
     /**
      * Removes all {@link UserCredential} of a given {@link User}.
@@ -1,11 +1,17 @@
 package ar.edu.itba.cep.users_service.spring_data.interfaces;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.RoleBitmask;
 import ar.edu.itba.cep.users_service.models.User;
 import com.bellotapps.webapps_commons.persistence.spring_data.ExtendedJpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * An {@link ExtendedJpaRepository} for {@link User}s.
@@ -31,10 +37,47 @@ public interface SpringDataUserRepository extends ExtendedJpaRepository<User, Lo
     boolean existsByUsername(final String username);
 
     /**
-     * Indicates whether a {@link User} exists with the given {@code role}.
+     * Retrieves which of the given {@code usernames} are in use.
      *
-     * @param role The {@link Role} to be checked.
-     * @return {@code true} if there is a {@link User} with the given {@code role}, or {@code false} otherwise.
+     * @param usernames The usernames to be checked.
+     * @return A {@link Set} containing those of the given {@code usernames} that are in use.
      */
-    boolean existsByRolesContains(final Role role);
+    @Query(value = "SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") final Collection<String> usernames);
+
+    /**
+     * Lists the usernames of all the {@link User}s.
+     *
+     * @return A {@link List} containing the usernames of all the {@link User}s.
+     */
+    @Query(value = "SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    /**
+     * Returns the greatest id of the existing {@link User}s.
+     *
+     * @return The greatest id, or zero if there are no {@link User}s.
+     */
+    @Query(value = "SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findLastId();
+
+    /**
+     * Checks if a {@link User} exists with the given {@code username} and an id greater than the given {@code id}.
+     *
+     * @param username The username to check if a {@link User} exists with.
+     * @param id       The id that the {@link User}'s id must be greater than.
+     * @return {@code true} if such a {@link User} exists, or {@code false} otherwise.
+     */
+    boolean existsByUsernameAndIdGreaterThan(final String username, final long id);
+
+    /**
+     * Indicates whether a {@link User} exists with the {@link Role} with the given {@code roleBitmask}.
+     *
+     * @param roleBitmask The bitmask of the {@link Role} to be checked (as returned by {@link RoleBitmask#of(Role)}).
+     * @return {@code true} if there is a {@link User} with the said {@link Role}, or {@code false} otherwise.
+     */
+    @Query(value = "SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END " +
+            "FROM User u " +
+            "WHERE FUNCTION('bitand', u.roles, :roleBitmask) <> 0")
+    boolean existsWithRole(@Param("roleBitmask") final long roleBitmask);
 }
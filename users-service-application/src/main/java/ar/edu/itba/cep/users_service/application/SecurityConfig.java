@@ -1,11 +1,12 @@
 package ar.edu.itba.cep.users_service.application;
 
+import ar.edu.itba.cep.users_service.security.authentication.SigningAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
 import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * Security configuration class.
@@ -17,13 +18,16 @@ import java.security.NoSuchAlgorithmException;
 public class SecurityConfig {
 
     /**
-     * Creates a bean of a {@link KeyFactory}.
+     * Creates a bean of a {@link KeyFactory}, used to load the key with which jwt are verified.
+     * The {@link KeyFactory} matches the algorithm with which this service signs tokens.
      *
+     * @param signingAlgorithm The {@link SigningAlgorithm} with which tokens are signed.
      * @return A {@link KeyFactory} bean.
-     * @throws NoSuchAlgorithmException Never.
      */
     @Bean
-    public KeyFactory rsaKeyFactory() throws NoSuchAlgorithmException {
-        return KeyFactory.getInstance("RSA");
+    public KeyFactory keyFactory(
+            @Value("${authentication.jwt.users-service.signing-algorithm:RS512}")
+            final SigningAlgorithm signingAlgorithm) {
+        return signingAlgorithm.keyFactory();
     }
 }
@@ -0,0 +1,29 @@
+-- Primary keys for the token sub-tables (used by the polymorphic token lookups)
+ALTER TABLE user_auth_tokens
+    ADD PRIMARY KEY (token_id);
+
+ALTER TABLE subject_auth_tokens
+    ADD PRIMARY KEY (token_id);
+
+-- Last credential lookup (performed on each login)
+CREATE INDEX user_credentials_user_id_created_at_index
+    ON user_credentials (user_id, created_at DESC);
+
+-- Tokens by owner
+CREATE INDEX user_auth_tokens_user_id_index
+    ON user_auth_tokens (user_id);
+
+CREATE INDEX subject_auth_tokens_subject_index
+    ON subject_auth_tokens (subject);
+
+-- Element collections
+CREATE INDEX token_roles_token_id_role_index
+    ON token_roles (token_id, role);
+
+CREATE INDEX user_roles_user_id_role_index
+    ON user_roles (user_id, role);
+
+-- Revoked tokens (used to warm the revoked tokens index)
+CREATE INDEX auth_tokens_revoked_index
+    ON auth_tokens (id)
+    WHERE valid = FALSE;
@@ -0,0 +1,12 @@
+ALTER TABLE auth_tokens
+    ADD COLUMN refreshed_at TIMESTAMP;
+
+UPDATE auth_tokens
+SET refreshed_at = COALESCE(created_at, now());
+
+ALTER TABLE auth_tokens
+    ALTER COLUMN refreshed_at SET NOT NULL;
+
+-- Used by the expired tokens reaper
+CREATE INDEX auth_tokens_refreshed_at_index
+    ON auth_tokens (refreshed_at);
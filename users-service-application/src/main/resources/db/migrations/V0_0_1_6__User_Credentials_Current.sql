@@ -0,0 +1,13 @@
+ALTER TABLE user_credentials
+    ADD COLUMN is_current BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE user_credentials
+SET is_current = TRUE
+WHERE id IN (SELECT DISTINCT ON (user_id) id
+             FROM user_credentials
+             ORDER BY user_id, created_at DESC, id DESC);
+
+-- At most one current credential per user. Also used to look for the current credential when logging in.
+CREATE UNIQUE INDEX user_credentials_current_index
+    ON user_credentials (user_id)
+    WHERE is_current;
@@ -0,0 +1,43 @@
+-- Moves the roles assigned to each token into a bitmask column, so saving a token does not require an insert per role,
+-- and tokens can be loaded with no joins.
+ALTER TABLE auth_tokens
+    ADD COLUMN roles BIGINT NOT NULL DEFAULT 0;
+
+-- Roles without a bit would be lost when dropping the old table, so the migration is aborted if there is any.
+DO
+$$
+    DECLARE
+        unknown_role VARCHAR;
+    BEGIN
+        SELECT role
+        INTO unknown_role
+        FROM token_roles
+        WHERE role IS NULL
+           OR role NOT IN ('ADMIN', 'USER', 'TEACHER', 'STUDENT')
+        LIMIT 1;
+        IF FOUND THEN
+            RAISE EXCEPTION 'There is no bit assigned to role %', coalesce(unknown_role, 'NULL');
+        END IF;
+    END
+$$;
+
+-- The bit of each role is frozen here. It must match the one assigned in RoleBitmask, which must never change.
+UPDATE auth_tokens at
+SET roles = tr.roles
+FROM (SELECT token_id,
+             bit_or(CASE role
+                        WHEN 'ADMIN' THEN CAST(1 AS BIGINT)
+                        WHEN 'USER' THEN CAST(2 AS BIGINT)
+                        WHEN 'TEACHER' THEN CAST(4 AS BIGINT)
+                        WHEN 'STUDENT' THEN CAST(8 AS BIGINT)
+                 END) AS roles
+      FROM token_roles
+      GROUP BY token_id) tr
+WHERE at.id = tr.token_id;
+
+DROP TABLE token_roles;
+
+-- So bitmasks can be checked in JPQL queries.
+CREATE FUNCTION bitand(BIGINT, BIGINT) RETURNS BIGINT
+AS
+'SELECT $1 & $2' LANGUAGE SQL IMMUTABLE;
@@ -0,0 +1,39 @@
+-- Moves the roles of each user into a bitmask column, so users are loaded with their roles with no extra queries
+-- nor joins.
+ALTER TABLE users
+    ADD COLUMN roles BIGINT NOT NULL DEFAULT 0;
+
+-- Roles without a bit would be lost when dropping the old table, so the migration is aborted if there is any.
+DO
+$$
+    DECLARE
+        unknown_role VARCHAR;
+    BEGIN
+        SELECT role
+        INTO unknown_role
+        FROM user_roles
+        WHERE role IS NULL
+           OR role NOT IN ('ADMIN', 'USER', 'TEACHER', 'STUDENT')
+        LIMIT 1;
+        IF FOUND THEN
+            RAISE EXCEPTION 'There is no bit assigned to role %', coalesce(unknown_role, 'NULL');
+        END IF;
+    END
+$$;
+
+-- The bit of each role is frozen here. It must match the one assigned in RoleBitmask, which must never change
+-- (it is the same mapping used for auth_tokens in V0_0_1_7).
+UPDATE users u
+SET roles = ur.roles
+FROM (SELECT user_id,
+             bit_or(CASE role
+                        WHEN 'ADMIN' THEN CAST(1 AS BIGINT)
+                        WHEN 'USER' THEN CAST(2 AS BIGINT)
+                        WHEN 'TEACHER' THEN CAST(4 AS BIGINT)
+                        WHEN 'STUDENT' THEN CAST(8 AS BIGINT)
+                 END) AS roles
+      FROM user_roles
+      GROUP BY user_id) ur
+WHERE u.id = ur.user_id;
+
+DROP TABLE user_roles;
@@ -0,0 +1,9 @@
+-- Case insensitive substring (i.e "like" matching anywhere) username search.
+-- A btree index can't serve a '%term%' pattern, but a trigram index can (for terms of at least three characters).
+-- Creating the extension requires privileges the application's database user might not have
+-- (superuser, or CREATE on the database in PostgreSQL 13+ as it is a trusted extension).
+-- In that case, install it beforehand (e.g "CREATE EXTENSION pg_trgm;" as a superuser), and this becomes a no-op.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX users_username_trigram_index
+    ON users USING gin (lower(username) gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- Events to be dispatched asynchronously (i.e the transactional outbox).
+-- Rows are written in the same transaction as the change they describe, and deleted once dispatched.
+CREATE TABLE event_outbox
+(
+    id         BIGSERIAL PRIMARY KEY NOT NULL,
+    type       VARCHAR(64)           NOT NULL,
+    payload    TEXT                  NOT NULL,
+    created_at TIMESTAMP             NOT NULL
+);
@@ -0,0 +1,10 @@
+-- Log of revoked tokens, read by downstream verifiers to keep their deny-lists (i.e resuming from a sequence number).
+-- Rows are appended in sequence order (appenders lock the table), so a reader never skips a row committed later.
+-- Revocations are deleted together with their tokens (i.e once they expire).
+CREATE TABLE token_revocations
+(
+    sequence   BIGSERIAL PRIMARY KEY NOT NULL,
+    token_id   UUID UNIQUE           NOT NULL,
+    revoked_at TIMESTAMP             NOT NULL,
+    FOREIGN KEY (token_id) REFERENCES auth_tokens (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
@@ -0,0 +1,15 @@
+-- Amount of times each event failed to be dispatched (i.e its dispatching transaction was rolled back).
+ALTER TABLE event_outbox
+    ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Events that failed to be dispatched too many times (i.e poison messages), moved out of the outbox
+-- so they do not block the events written after them. They are kept to be inspected (and requeued) manually.
+CREATE TABLE event_outbox_dead_letters
+(
+    id         BIGINT PRIMARY KEY NOT NULL,
+    type       VARCHAR(64)        NOT NULL,
+    payload    TEXT               NOT NULL,
+    created_at TIMESTAMP          NOT NULL,
+    attempts   INTEGER            NOT NULL,
+    failed_at  TIMESTAMP          NOT NULL
+);
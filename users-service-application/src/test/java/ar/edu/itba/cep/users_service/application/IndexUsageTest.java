@@ -0,0 +1,397 @@
+package ar.edu.itba.cep.users_service.application;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserAuthToken;
+import ar.edu.itba.cep.users_service.repositories.SubjectAuthTokenRepository;
+import ar.edu.itba.cep.users_service.repositories.UserAuthTokenRepository;
+import ar.edu.itba.cep.users_service.repositories.UserCredentialRepository;
+import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import ar.edu.itba.cep.users_service.spring_data.SpringDataAuthTokenRepositoryAdapter;
+import ar.edu.itba.cep.users_service.spring_data.config.SpringDataConfig;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Tests that the queries performed by the repositories in the {@code ar.edu.itba.cep.users_service.spring_data}
+ * package are resolved through index scans once the database migrations are applied.
+ * <p>
+ * The repositories are executed against a PostgreSQL database, and the statements they send (i.e the SQL generated by
+ * Hibernate or written in the adapters, with their actual parameters) are recorded and explained.
+ * The migrations are applied in a dedicated schema of the database indicated by the
+ * {@code USERS_SERVICE_TEST_DATABASE_URL}, {@code USERS_SERVICE_TEST_DATABASE_USERNAME} and
+ * {@code USERS_SERVICE_TEST_DATABASE_PASSWORD} environment variables, which is dropped afterwards.
+ * The test is skipped if no database is configured.
+ * Tables are seeded with enough rows for the planner to prefer indexes over sequential scans when they can be used.
+ * The amount of statements performed to log in a user is also checked against the same database.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "USERS_SERVICE_TEST_DATABASE_URL", matches = ".+")
+class IndexUsageTest {
+
+    /**
+     * The schema in which migrations are applied.
+     */
+    private static final String SCHEMA = "index_usage_test";
+
+
+    private ConfigurableApplicationContext context;
+    private StatementRecorder statementRecorder;
+    private TransactionTemplate transactionTemplate;
+
+    private UserRepository userRepository;
+    private UserCredentialRepository userCredentialRepository;
+    private SpringDataAuthTokenRepositoryAdapter authTokenRepository;
+    private UserAuthTokenRepository userAuthTokenRepository;
+    private SubjectAuthTokenRepository subjectAuthTokenRepository;
+
+    /**
+     * A seeded {@link User}.
+     */
+    private User user;
+    /**
+     * The id of a seeded user token.
+     */
+    private UUID userTokenId;
+    /**
+     * The id of a seeded subject token.
+     */
+    private UUID subjectTokenId;
+
+
+    /**
+     * Starts the repositories (applying the migrations in the test schema), and seeds the database.
+     */
+    @BeforeAll
+    void setUp() {
+        this.context = new SpringApplicationBuilder(RepositoriesConfig.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.flyway.locations=classpath:db/migrations",
+                        "spring.flyway.schemas=" + SCHEMA,
+                        "spring.jpa.properties.hibernate.generate_statistics=true"
+                )
+                .run();
+        this.statementRecorder = context.getBean(StatementRecorder.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.userCredentialRepository = context.getBean(UserCredentialRepository.class);
+        this.authTokenRepository = context.getBean(SpringDataAuthTokenRepositoryAdapter.class);
+        this.userAuthTokenRepository = context.getBean(UserAuthTokenRepository.class);
+        this.subjectAuthTokenRepository = context.getBean(SubjectAuthTokenRepository.class);
+
+        final var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("INSERT INTO users (username, active, roles) " +
+                "SELECT 'user' || i, TRUE, 2 FROM generate_series(1, 10000) i");
+        jdbcTemplate.execute("INSERT INTO user_credentials (user_id, hashed_password, created_at, is_current) " +
+                "SELECT u.id, 'hash', now() - (i || ' days')::INTERVAL, i = 1 " +
+                "FROM users u CROSS JOIN generate_series(1, 5) i");
+        jdbcTemplate.execute("INSERT INTO auth_tokens (id, created_at, valid, roles) " +
+                "SELECT md5(i::TEXT)::UUID, now(), i % 100 <> 0, 2 FROM generate_series(1, 200000) i");
+        jdbcTemplate.execute("INSERT INTO user_auth_tokens (token_id, user_id) " +
+                "SELECT md5(i::TEXT)::UUID, (i % 10000) + 1 FROM generate_series(1, 100000) i");
+        jdbcTemplate.execute("INSERT INTO subject_auth_tokens (token_id, subject) " +
+                "SELECT md5(i::TEXT)::UUID, 'subject' || (i % 1000) FROM generate_series(100001, 200000) i");
+        jdbcTemplate.execute("ANALYZE");
+
+        this.user = transactionTemplate.execute(status -> userRepository.findByUsername("user10").orElseThrow());
+        this.userTokenId = jdbcTemplate.queryForObject("SELECT md5('10')::UUID", UUID.class);
+        this.subjectTokenId = jdbcTemplate.queryForObject("SELECT md5('150000')::UUID", UUID.class);
+    }
+
+    /**
+     * Drops the test schema, and closes the context.
+     */
+    @AfterAll
+    void tearDown() {
+        if (context != null) {
+            context.getBean(Flyway.class).clean();
+            context.close();
+        }
+    }
+
+
+    /**
+     * Tests that the statements executed by the given {@code call} are resolved using the given {@code index},
+     * with no sequential scans.
+     *
+     * @param description A description of the repository call.
+     * @param index       The name of the index that must be used.
+     * @param call        The {@link RepositoryCall} to be checked.
+     * @throws SQLException If any error occurs when accessing the database.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void testRepositoryCallUsesIndex(final String description, final String index, final RepositoryCall call)
+            throws SQLException {
+        // Modifying calls are rolled back, so they do not affect other calls.
+        final var statements = statementRecorder.record(() -> transactionTemplate.execute(status -> {
+            call.perform(this);
+            status.setRollbackOnly();
+            return null;
+        }));
+        Assertions.assertFalse(statements.isEmpty(), description + " does not execute any statement");
+        final var plan = new ArrayList<String>();
+        for (final var statement : statements) {
+            plan.addAll(explain(statement));
+        }
+        Assertions.assertAll(
+                description + " is not using an index",
+                () -> Assertions.assertTrue(
+                        plan.stream().anyMatch(line -> line.contains(index)),
+                        "The index " + index + " is not used. Statements: " + statements + ". Plan: " + plan
+                ),
+                () -> Assertions.assertTrue(
+                        plan.stream().noneMatch(line -> line.contains("Seq Scan")),
+                        "There are sequential scans. Statements: " + statements + ". Plan: " + plan
+                )
+        );
+    }
+
+    /**
+     * Tests that the data needed to log in a user (the user, its roles and its current credential)
+     * is loaded with a single statement (i.e nothing is lazily loaded afterwards),
+     * and that saving the issued token does not load the user again.
+     * Statements are counted with the Hibernate {@link Statistics}.
+     */
+    @Test
+    void testLoginLoadsUserWithASingleStatement() {
+        final var statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        final var readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        // Same accesses as AuthTokenManager#issueTokenForUser, which reads the candidate in a read-only transaction.
+        statistics.clear();
+        final var candidate = readOnlyTransactionTemplate.execute(status ->
+                userCredentialRepository.findCurrentWithUserByUsername("user10")
+                        .filter(credential -> credential.getUser().isActive())
+                        .map(credential -> {
+                            Assertions.assertNotNull(credential.getHashedPassword(), "The credential was not loaded");
+                            return credential.getUser();
+                        })
+                        .orElseThrow()
+        );
+        Assertions.assertEquals(
+                1,
+                statistics.getPrepareStatementCount(),
+                "Loading the login candidate prepares more than one statement"
+        );
+
+        // The token is built and saved with the detached user (roles included).
+        final var statements = statementRecorder.record(() -> transactionTemplate.execute(status -> {
+            final var token = userAuthTokenRepository.save(UserAuthToken.forUser(candidate));
+            Assertions.assertEquals(candidate.getRoles(), token.getRolesAssigned(), "The token roles are wrong");
+            Assertions.assertEquals(candidate.getUsername(), token.getOwner(), "The token owner is wrong");
+            status.setRollbackOnly();
+            return null;
+        }));
+        Assertions.assertTrue(
+                statements.stream()
+                        .map(statement -> statement.getSql().toLowerCase(Locale.ROOT))
+                        .noneMatch(sql -> sql.startsWith("select") && sql.matches(".* from (users|user_credentials) .*")),
+                "Saving the token loads the user again. Statements: " + statements
+        );
+    }
+
+
+    /**
+     * @return A {@link Stream} of {@link Arguments} containing a description of each repository call, the name of the
+     * index that must be used to resolve it, and the {@link RepositoryCall} itself.
+     */
+    private static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                Arguments.of(
+                        "Current credential for user (UserCredentialRepository#findCurrentForUser)",
+                        "user_credentials_current_index",
+                        (RepositoryCall) test -> test.userCredentialRepository.findCurrentForUser(test.user)
+                ),
+                Arguments.of(
+                        "Credentials history compaction (UserCredentialRepository#compactHistory)",
+                        "user_credentials_user_id_created_at_index",
+                        (RepositoryCall) test -> test.userCredentialRepository.compactHistory(test.user, 3)
+                ),
+                Arguments.of(
+                        "User by username (UserRepository#findByUsername)",
+                        "users_username_unique_index",
+                        (RepositoryCall) test -> test.userRepository.findByUsername("user10")
+                ),
+                Arguments.of(
+                        "Recently created user by username (UserRepository#existsWithUsernameAfter)",
+                        "users_username_unique_index",
+                        (RepositoryCall) test -> test.userRepository.existsWithUsernameAfter("user10", 5)
+                ),
+                Arguments.of(
+                        "Users by username substring (UserRepository#findFilteringAfterUsername)",
+                        "users_username_trigram_index",
+                        (RepositoryCall) test -> test.userRepository
+                                .findFilteringAfterUsername("ser1234", null, null, 10)
+                ),
+                Arguments.of(
+                        "Token by id (AuthTokenRepository#findById)",
+                        "subject_auth_tokens_pkey",
+                        (RepositoryCall) test -> test.authTokenRepository.findById(test.subjectTokenId)
+                ),
+                Arguments.of(
+                        "User token by id (UserAuthTokenRepository#findById)",
+                        "user_auth_tokens_pkey",
+                        (RepositoryCall) test -> test.userAuthTokenRepository.findById(test.userTokenId)
+                ),
+                Arguments.of(
+                        "User tokens (UserAuthTokenRepository#getUserTokens)",
+                        "user_auth_tokens_user_id_index",
+                        (RepositoryCall) test -> test.userAuthTokenRepository.getUserTokens(test.user)
+                ),
+                Arguments.of(
+                        "User tokens with role (UserAuthTokenRepository#getUserTokensWithRole)",
+                        "user_auth_tokens_user_id_index",
+                        (RepositoryCall) test -> test.userAuthTokenRepository
+                                .getUserTokensWithRole(test.user, Role.USER)
+                ),
+                Arguments.of(
+                        "Subject tokens (SubjectAuthTokenRepository#getSubjectTokens)",
+                        "subject_auth_tokens_subject_index",
+                        (RepositoryCall) test -> test.subjectAuthTokenRepository.getSubjectTokens("subject10")
+                ),
+                Arguments.of(
+                        "Invalid token ids (AuthTokenRepository#getRevokedTokenIds)",
+                        "auth_tokens_revoked_index",
+                        (RepositoryCall) test -> test.authTokenRepository.getRevokedTokenIds()
+                ),
+                Arguments.of(
+                        "Invalidate user tokens (UserAuthTokenRepository#invalidateUserTokens)",
+                        "user_auth_tokens_user_id_index",
+                        (RepositoryCall) test -> test.userAuthTokenRepository.invalidateUserTokens(test.user)
+                ),
+                Arguments.of(
+                        "Invalidate subject tokens (SubjectAuthTokenRepository#invalidateSubjectTokens)",
+                        "subject_auth_tokens_subject_index",
+                        (RepositoryCall) test -> test.subjectAuthTokenRepository.invalidateSubjectTokens("subject10")
+                )
+        );
+    }
+
+    /**
+     * Gets the execution plan of the given {@code statement} (without executing it),
+     * using the parameters with which it was executed.
+     *
+     * @param statement The {@link StatementRecorder.RecordedStatement} to be explained.
+     * @return The lines of the plan.
+     * @throws SQLException If any error occurs when accessing the database.
+     */
+    private List<String> explain(final StatementRecorder.RecordedStatement statement) throws SQLException {
+        try (final var connection = context.getBean(DataSource.class).getConnection();
+             final var explain = statement.prepare(connection, "EXPLAIN ");
+             final var resultSet = explain.executeQuery()) {
+            final var plan = new ArrayList<String>();
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+            return plan;
+        }
+    }
+
+
+    /**
+     * A call to a repository whose statements are checked.
+     */
+    @FunctionalInterface
+    private interface RepositoryCall {
+
+        /**
+         * Performs the call.
+         *
+         * @param test The {@link IndexUsageTest} instance (holding the repositories and the seeded data).
+         */
+        void perform(final IndexUsageTest test);
+    }
+
+    /**
+     * Configuration for the context in which repositories are tested.
+     * It includes the persistence auto-configuration, and the Spring Data adapters.
+     */
+    @Configuration
+    @ImportAutoConfiguration({
+            FlywayAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            TransactionAutoConfiguration.class,
+    })
+    @Import(SpringDataConfig.class)
+    static class RepositoriesConfig {
+
+        /**
+         * @return The {@link StatementRecorder} that records the statements executed through the {@link DataSource}.
+         */
+        @Bean
+        public StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        /**
+         * Creates the {@link DataSource} for the database indicated by the environment,
+         * using the test schema, and recording statements through the given {@code statementRecorder}.
+         *
+         * @param statementRecorder The {@link StatementRecorder}.
+         * @return The created {@link DataSource}.
+         */
+        @Bean
+        public DataSource dataSource(final StatementRecorder statementRecorder) {
+            final var dataSource = new DriverManagerDataSource(
+                    System.getenv("USERS_SERVICE_TEST_DATABASE_URL"),
+                    System.getenv("USERS_SERVICE_TEST_DATABASE_USERNAME"),
+                    System.getenv("USERS_SERVICE_TEST_DATABASE_PASSWORD")
+            );
+            dataSource.setSchema(SCHEMA);
+            return statementRecorder.wrap(dataSource);
+        }
+
+        /**
+         * @return A {@link FlywayMigrationStrategy} that cleans the test schema before applying the migrations.
+         */
+        @Bean
+        public FlywayMigrationStrategy cleanMigrateStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+}
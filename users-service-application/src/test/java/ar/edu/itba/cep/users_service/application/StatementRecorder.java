@@ -0,0 +1,257 @@
+package ar.edu.itba.cep.users_service.application;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL statements (together with their parameters) that are executed through a {@link DataSource},
+ * so they can be inspected (e.g explained) afterwards exactly as they were sent to the database.
+ */
+final class StatementRecorder {
+
+    /**
+     * Names of the {@link PreparedStatement} methods that execute the statement.
+     */
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+
+    /**
+     * The recorded statements.
+     */
+    private final List<RecordedStatement> statements;
+    /**
+     * Indicates whether statements are being recorded.
+     */
+    private volatile boolean recording;
+
+
+    /**
+     * Constructor.
+     */
+    StatementRecorder() {
+        this.statements = new CopyOnWriteArrayList<>();
+        this.recording = false;
+    }
+
+
+    /**
+     * Wraps the given {@code dataSource} so the statements executed through it can be recorded.
+     *
+     * @param dataSource The {@link DataSource} to be wrapped.
+     * @return The wrapping {@link DataSource}.
+     */
+    DataSource wrap(final DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection ? connection((Connection) result) : result
+        );
+    }
+
+    /**
+     * Performs the given {@code action}, recording the statements it executes.
+     *
+     * @param action The action to be performed.
+     * @return The statements executed by the {@code action}, in execution order.
+     */
+    List<RecordedStatement> record(final Runnable action) {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(statements);
+    }
+
+
+    /**
+     * Wraps the given {@code connection} so the {@link PreparedStatement}s created through it are recorded.
+     *
+     * @param connection The {@link Connection} to be wrapped.
+     * @return The wrapping {@link Connection}.
+     */
+    private Connection connection(final Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                "prepareStatement".equals(method.getName()) ?
+                        statement((String) args[0], (PreparedStatement) result) :
+                        result
+        );
+    }
+
+    /**
+     * Wraps the given {@code statement} so it is recorded (together with the parameters set to it) when executed.
+     *
+     * @param sql       The SQL of the statement.
+     * @param statement The {@link PreparedStatement} to be wrapped.
+     * @return The wrapping {@link PreparedStatement}.
+     */
+    private PreparedStatement statement(final String sql, final PreparedStatement statement) {
+        final var parameters = new ArrayList<ParameterSetting>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            if (method.getName().startsWith("set")
+                    && method.getParameterCount() > 1
+                    && method.getParameterTypes()[0] == int.class) {
+                parameters.add(new ParameterSetting(method, args));
+            } else if ("clearParameters".equals(method.getName())) {
+                parameters.clear();
+            } else if (recording && EXECUTE_METHODS.contains(method.getName()) && method.getParameterCount() == 0) {
+                statements.add(new RecordedStatement(sql, List.copyOf(parameters)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates a proxy of the given {@code type} that delegates to the given {@code target},
+     * passing the results through the given {@code interceptor}.
+     *
+     * @param type        The interface being proxied.
+     * @param target      The proxied object.
+     * @param interceptor The {@link Interceptor} that can inspect/replace results.
+     * @param <T>         The concrete type of the proxied interface.
+     * @return The proxy.
+     */
+    private static <T> T proxy(final Class<T> type, final T target, final Interceptor interceptor) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    final Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (final InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return interceptor.intercept(method, args, result);
+                }
+        ));
+    }
+
+
+    /**
+     * Intercepts the result of a proxied method.
+     */
+    @FunctionalInterface
+    private interface Interceptor {
+
+        /**
+         * Intercepts the result of the given {@code method}.
+         *
+         * @param method The invoked {@link Method}.
+         * @param args   The arguments of the invocation.
+         * @param result The result of the invocation.
+         * @return The result to be returned to the caller.
+         */
+        Object intercept(final Method method, final Object[] args, final Object result);
+    }
+
+    /**
+     * A parameter set to a {@link PreparedStatement} (i.e an invocation of one of its {@code setXxx} methods).
+     */
+    private static final class ParameterSetting {
+
+        /**
+         * The invoked {@code setXxx} {@link Method}.
+         */
+        private final Method method;
+        /**
+         * The arguments of the invocation.
+         */
+        private final Object[] args;
+
+        /**
+         * Constructor.
+         *
+         * @param method The invoked {@code setXxx} {@link Method}.
+         * @param args   The arguments of the invocation.
+         */
+        private ParameterSetting(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args.clone();
+        }
+
+        /**
+         * Sets this parameter to the given {@code statement}.
+         *
+         * @param statement The {@link PreparedStatement} to which the parameter must be set.
+         * @throws SQLException If the parameter can not be set.
+         */
+        private void apply(final PreparedStatement statement) throws SQLException {
+            try {
+                method.invoke(statement, args);
+            } catch (final InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * A statement that was executed while recording.
+     */
+    static final class RecordedStatement {
+
+        /**
+         * The SQL of the statement.
+         */
+        private final String sql;
+        /**
+         * The parameters set to the statement when it was executed.
+         */
+        private final List<ParameterSetting> parameters;
+
+        /**
+         * Constructor.
+         *
+         * @param sql        The SQL of the statement.
+         * @param parameters The parameters set to the statement when it was executed.
+         */
+        private RecordedStatement(final String sql, final List<ParameterSetting> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @return The SQL of the statement.
+         */
+        String getSql() {
+            return sql;
+        }
+
+        /**
+         * Prepares this statement (prefixed with the given {@code prefix}, e.g {@code EXPLAIN})
+         * in the given {@code connection}, with the same parameters it was executed with.
+         *
+         * @param connection The {@link Connection} in which the statement is prepared.
+         * @param prefix     A prefix for the statement's SQL.
+         * @return The {@link PreparedStatement}.
+         * @throws SQLException If any error occurs when preparing the statement.
+         */
+        PreparedStatement prepare(final Connection connection, final String prefix) throws SQLException {
+            final var statement = connection.prepareStatement(prefix + sql);
+            for (final var parameter : parameters) {
+                parameter.apply(statement);
+            }
+            return statement;
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ar.edu.itba.cep.users_service.application;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the case insensitive substring username search (i.e the query performed by
+ * {@code SpringDataUserRepositoryAdapter#findFiltering}) with and without the {@code users_username_trigram_index}.
+ * <p>
+ * This is not executed as part of the test suite. Run it with the {@link #main(String[])} method
+ * (from the IDE, or with the {@code exec:java} goal using test classpath scope).
+ * The migrations are applied in a dedicated schema of the PostgreSQL database indicated by
+ * the {@code USERS_SERVICE_TEST_DATABASE_URL}, {@code USERS_SERVICE_TEST_DATABASE_USERNAME} and
+ * {@code USERS_SERVICE_TEST_DATABASE_PASSWORD} environment variables, which is seeded with
+ * {@value DatabaseState#USERS} users, and dropped afterwards.
+ * Note that the database user must be allowed to create the {@code pg_trgm} extension
+ * (or it must be already installed in the database).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameSearchBenchmark {
+
+    /**
+     * Searches a page of users whose username contains the term.
+     *
+     * @param state     The {@link DatabaseState}.
+     * @param blackhole A {@link Blackhole} that consumes the usernames.
+     * @throws SQLException If any error occurs when accessing the database.
+     */
+    @Benchmark
+    public void search(final DatabaseState state, final Blackhole blackhole) throws SQLException {
+        try (final var resultSet = state.statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getString("username"));
+            }
+        }
+    }
+
+
+    /**
+     * State for the {@link #search(DatabaseState, Blackhole)} benchmark.
+     * The database is seeded once per trial (i.e per combination of parameters).
+     */
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+
+        /**
+         * The schema in which migrations are applied.
+         */
+        private static final String SCHEMA = "username_search_benchmark";
+        /**
+         * The amount of users with which the table is seeded.
+         */
+        private static final int USERS = 500_000;
+        /**
+         * The query that is measured (a page of users whose username contains the term).
+         */
+        private static final String QUERY = "SELECT * FROM users WHERE lower(username) LIKE ? ESCAPE '\\' " +
+                "ORDER BY username LIMIT 20";
+
+        /**
+         * Whether the {@code users_username_trigram_index} is kept.
+         */
+        @Param({"true", "false"})
+        private boolean trigramIndex;
+        /**
+         * The term searched (as typed in the admin console's search box).
+         */
+        @Param({"stu", "stud", "dent12", "12345", "Student4999"})
+        private String term;
+
+        private Flyway flyway;
+        private Connection connection;
+        private PreparedStatement statement;
+
+        @Setup
+        public void setup() throws SQLException {
+            final var url = System.getenv("USERS_SERVICE_TEST_DATABASE_URL");
+            final var username = System.getenv("USERS_SERVICE_TEST_DATABASE_USERNAME");
+            final var password = System.getenv("USERS_SERVICE_TEST_DATABASE_PASSWORD");
+            this.flyway = Flyway.configure()
+                    .dataSource(url, username, password)
+                    .schemas(SCHEMA)
+                    .locations("classpath:db/migrations")
+                    .load();
+            flyway.clean();
+            flyway.migrate();
+            this.connection = DriverManager.getConnection(url, username, password);
+            try (final var setup = connection.createStatement()) {
+                setup.execute("SET search_path TO " + SCHEMA + ", public");
+                setup.execute("INSERT INTO users (username, active, roles) " +
+                        "SELECT 'Student' || i, TRUE, 2 FROM generate_series(1, " + USERS + ") i");
+                if (!trigramIndex) {
+                    setup.execute("DROP INDEX users_username_trigram_index");
+                }
+                setup.execute("ANALYZE users");
+            }
+            this.statement = connection.prepareStatement(QUERY);
+            statement.setString(1, "%" + term.toLowerCase(Locale.ROOT) + "%");
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            try {
+                statement.close();
+                connection.close();
+            } finally {
+                flyway.clean();
+            }
+        }
+    }
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Ignored.
+     * @throws RunnerException If the benchmark fails.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UsernameSearchBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -1,27 +1,48 @@
 package ar.edu.itba.cep.users_service.domain;
 
 import ar.edu.itba.cep.roles.Role;
-import ar.edu.itba.cep.users_service.domain.events.UserDeactivatedEvent;
+import ar.edu.itba.cep.users_service.domain.config.CredentialHistoryProperties;
+import ar.edu.itba.cep.users_service.domain.events.TokensRevokedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserDeletedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserEvent;
-import ar.edu.itba.cep.users_service.domain.events.UserRoleRemovedEvent;
+import ar.edu.itba.cep.users_service.domain.introspection.TokenIntrospectionIndex;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessage;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessageBatch;
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.domain.usernames.KnownUsernamesIndex;
 import ar.edu.itba.cep.users_service.models.*;
 import ar.edu.itba.cep.users_service.repositories.*;
+import ar.edu.itba.cep.users_service.security.authentication.PasswordHashingExecutor;
 import ar.edu.itba.cep.users_service.security.authentication.TokenEncoder;
+import ar.edu.itba.cep.users_service.security.authentication.UpgradablePasswordEncoder;
 import ar.edu.itba.cep.users_service.services.AuthTokenService;
 import ar.edu.itba.cep.users_service.services.RawTokenContainer;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
 import com.bellotapps.webapps_commons.exceptions.NoSuchEntityException;
 import com.bellotapps.webapps_commons.exceptions.UnauthenticatedException;
 import com.bellotapps.webapps_commons.exceptions.UnauthorizedException;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -32,27 +53,122 @@ import static ar.edu.itba.cep.users_service.security.authentication.Constants.RE
  */
 @Service
 @Transactional(readOnly = true)
-@AllArgsConstructor
 public class AuthTokenManager implements AuthTokenService {
 
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthTokenManager.class);
+
+    /**
+     * The message of the {@link AccessDeniedException}s thrown when accessing a token owned by someone else.
+     */
+    private static final String NOT_OWNER_MESSAGE = "The token does not belong to the authenticated principal";
+
     private final UserRepository userRepository;
     private final UserCredentialRepository userCredentialRepository;
     private final AuthTokenRepository<AuthToken> authTokenRepository;
     private final UserAuthTokenRepository userAuthTokenRepository;
     private final SubjectAuthTokenRepository subjectAuthTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UpgradablePasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final TokenEncoder tokenEncoder;
+    private final RevokedTokensIndex revokedTokensIndex;
+    private final TokenIntrospectionIndex tokenIntrospectionIndex;
+    private final KnownUsernamesIndex knownUsernamesIndex;
+    private final CredentialHistoryProperties credentialHistoryProperties;
+    private final ApplicationEventPublisher publisher;
+    /**
+     * A {@link TransactionTemplate} used to perform (short) read-only transactions programmatically.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    /**
+     * A {@link TransactionTemplate} used to perform (short) transactions programmatically.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * A password hashed with the actual settings, used to spend the same time checking credentials for users that
+     * can not login as for those that can (lazily initialized).
+     */
+    private volatile String dummyHashedPassword;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository              The {@link UserRepository}.
+     * @param userCredentialRepository    The {@link UserCredentialRepository}.
+     * @param authTokenRepository         The {@link AuthTokenRepository}.
+     * @param userAuthTokenRepository     The {@link UserAuthTokenRepository}.
+     * @param subjectAuthTokenRepository  The {@link SubjectAuthTokenRepository}.
+     * @param passwordEncoder             The {@link UpgradablePasswordEncoder} used to check (and upgrade) passwords.
+     * @param passwordHashingExecutor     The {@link PasswordHashingExecutor} in which password checks are performed.
+     * @param tokenEncoder                The {@link TokenEncoder} used to encode the issued tokens.
+     * @param revokedTokensIndex          The {@link RevokedTokensIndex} used to reject revoked tokens in memory.
+     * @param tokenIntrospectionIndex     The {@link TokenIntrospectionIndex} to which issued tokens are added.
+     * @param knownUsernamesIndex         The {@link KnownUsernamesIndex} used to reject unknown usernames in memory.
+     * @param credentialHistoryProperties The {@link CredentialHistoryProperties} indicating how many credentials
+     *                                    are kept when an upgraded one is saved.
+     * @param publisher                   The {@link ApplicationEventPublisher} used to publish
+     *                                    {@link TokensRevokedEvent}s.
+     * @param transactionManager          The {@link PlatformTransactionManager} used to demarcate transactions
+     *                                    programmatically.
+     */
+    public AuthTokenManager(
+            final UserRepository userRepository,
+            final UserCredentialRepository userCredentialRepository,
+            final AuthTokenRepository<AuthToken> authTokenRepository,
+            final UserAuthTokenRepository userAuthTokenRepository,
+            final SubjectAuthTokenRepository subjectAuthTokenRepository,
+            final UpgradablePasswordEncoder passwordEncoder,
+            final PasswordHashingExecutor passwordHashingExecutor,
+            final TokenEncoder tokenEncoder,
+            final RevokedTokensIndex revokedTokensIndex,
+            final TokenIntrospectionIndex tokenIntrospectionIndex,
+            final KnownUsernamesIndex knownUsernamesIndex,
+            final CredentialHistoryProperties credentialHistoryProperties,
+            final ApplicationEventPublisher publisher,
+            final PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userCredentialRepository = userCredentialRepository;
+        this.authTokenRepository = authTokenRepository;
+        this.userAuthTokenRepository = userAuthTokenRepository;
+        this.subjectAuthTokenRepository = subjectAuthTokenRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.tokenEncoder = tokenEncoder;
+        this.revokedTokensIndex = revokedTokensIndex;
+        this.tokenIntrospectionIndex = tokenIntrospectionIndex;
+        this.knownUsernamesIndex = knownUsernamesIndex;
+        this.credentialHistoryProperties = credentialHistoryProperties;
+        this.publisher = publisher;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
 
     @Override
-    @Transactional
-    public RawTokenContainer issueTokenForUser(final String username, final String password) throws UnauthenticatedException {
-        return userRepository
-                .findByUsername(username)
-                .filter(User::isActive) // Check if the user can login
-                .filter(user -> validPassword(user, password))
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Transactions are demarcated programmatically.
+    public RawTokenContainer issueTokenForUser(final String username, final String password)
+            throws UnauthenticatedException, ServiceOverloadedException {
+        // Unknown usernames are mostly rejected without accessing the database.
+        // The password is checked with no transaction (i.e no connection) being held,
+        // as hashing is a CPU bound operation that might take a while.
+        final var loginCandidate = knownUsernamesIndex.mightExist(username) ?
+                readOnlyTransactionTemplate.execute(status -> findLoginCandidate(username)) :
+                Optional.<LoginCandidate>empty();
+        if (loginCandidate.isEmpty()) {
+            spendPasswordCheck(password); // Do not reveal (by timing) whether the user can login.
+            throw new UnauthenticatedException();
+        }
+        return loginCandidate
+                .filter(candidate -> validPassword(candidate, password))
+                .map(LoginCandidate::getUser)
                 .map(UserAuthToken::forUser)
-                .map(userAuthTokenRepository::save) // Save the token and use the saved instance from now on.
+                // Save the token and use the saved instance from now on.
+                .map(token -> transactionTemplate.execute(status -> userAuthTokenRepository.save(token)))
+                .map(this::issued)
                 .map(this::buildTokens)
                 .orElseThrow(UnauthenticatedException::new)
                 ;
@@ -62,7 +178,7 @@ public class AuthTokenManager implements AuthTokenService {
     @Transactional
     public RawTokenContainer issueTokenForSubject(final String subject, final Set<Role> roles) {
         final var token = subjectAuthTokenRepository.save(new SubjectAuthToken(subject, roles));
-        return buildTokens(token);
+        return buildTokens(issued(token));
     }
 
     @Override
@@ -78,54 +194,50 @@ public class AuthTokenManager implements AuthTokenService {
     }
 
     @Override
-    @PreAuthorize("hasAuthority('" + REFRESH_GRANT + "') and @authTokenAuthorizationProvider.isOwner(#id, principal)")
+    @Transactional
+    @PreAuthorize("hasAuthority('" + REFRESH_GRANT + "')")
     public RawTokenContainer refreshToken(final UUID id) throws UnauthorizedException {
-        // TODO: check that the REFRESH role is set and permissions (user, token id, etc).
+        if (revokedTokensIndex.isRevoked(id)) {
+            throw new UnauthorizedException();
+        }
+        // Ownership is checked with the token loaded here, so it is loaded only once.
         return authTokenRepository.findById(id)
+                .map(AuthTokenManager::checkOwnership)
                 .filter(AuthToken::isValid)
                 // Should not happen, but just in case...
                 .filter(t -> !(t instanceof UserAuthToken) || ((UserAuthToken) t).getUser().isActive())
-                .map(this::buildTokens)
+                .map(this::refreshTokens)
                 .orElseThrow(UnauthorizedException::new);
     }
 
     @Override
     @Transactional
-    @PreAuthorize("hasAuthority('ADMIN') or @authTokenAuthorizationProvider.isOwner(#id, principal)")
+    @PreAuthorize("isAuthenticated()")
     public void blacklistToken(final UUID id) {
+        final var admin = currentAuthentication().getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ADMIN"::equals);
+        if (!admin) {
+            // Ownership is checked with the token loaded here, so it is loaded only once.
+            final var token = authTokenRepository.findById(id)
+                    .map(AuthTokenManager::checkOwnership)
+                    .orElseThrow(() -> new AccessDeniedException(NOT_OWNER_MESSAGE));
+            blacklistToken(token);
+            return;
+        }
+        if (revokedTokensIndex.isRevoked(id)) {
+            return; // Already blacklisted.
+        }
         authTokenRepository.findById(id).ifPresent(this::blacklistToken);
     }
 
 
     /**
-     * An {@link EventListener} that can handle {@link UserRoleRemovedEvent}s.
-     * It will blacklist all the {@link AuthToken} belonging to the {@link User} being affected,
-     * that contains the {@link Role} being removed.
-     *
-     * @param userRoleRemovedEvent The {@link UserRoleRemovedEvent} being handled.
-     * @throws IllegalArgumentException If the {@code userRoleRemovedEvent} is {@code null},
-     *                                  or if it contains a {@code null} {@link User} or {@link Role}.
-     */
-    @Transactional
-    @EventListener(
-            classes = {
-                    UserRoleRemovedEvent.class,
-            }
-    )
-    public void removeAllUserTokensWithRole(final UserRoleRemovedEvent userRoleRemovedEvent)
-            throws IllegalArgumentException {
-        Assert.notNull(userRoleRemovedEvent, "The event is null");
-        final var user = userRoleRemovedEvent.getUser();
-        final var role = userRoleRemovedEvent.getRole();
-        Assert.notNull(user, "The user in the event must not be null");
-        Assert.notNull(role, "The role in the event must not be null");
-        userAuthTokenRepository.getUserTokensWithRole(user, role).forEach(this::blacklistToken);
-    }
-
-    /**
-     * An {@link EventListener} that can handle {@link UserDeactivatedEvent}s and {@link UserDeletedEvent}s.
+     * An {@link EventListener} that can handle {@link UserDeletedEvent}s.
      * It will blacklist all the {@link AuthToken} belonging to the {@link User} being affected
      * (indicated in the received event).
+     * This is performed in the deleting transaction (and not when the event is dispatched from the outbox),
+     * as the {@link UserAuthToken}s are detached from the {@link User} once it is deleted.
      *
      * @param userEvent The {@link UserEvent} being handled.
      * @throws IllegalArgumentException If the {@code userEvent} is {@code null},
@@ -134,7 +246,6 @@ public class AuthTokenManager implements AuthTokenService {
     @Transactional
     @EventListener(
             classes = {
-                    UserDeactivatedEvent.class,
                     UserDeletedEvent.class,
             }
     )
@@ -142,23 +253,158 @@ public class AuthTokenManager implements AuthTokenService {
         Assert.notNull(userEvent, "The event is null");
         final var user = userEvent.getUser();
         Assert.notNull(user, "The user in the event must not be null");
-        userAuthTokenRepository.getUserTokens(userEvent.getUser()).forEach(this::blacklistToken);
+        revoked(userAuthTokenRepository.invalidateUserTokens(user));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link EventMessageBatch}es (i.e events dispatched from the outbox).
+     * For each {@link EventMessage.Type#USERS_DEACTIVATED} message, it will blacklist all the {@link AuthToken}
+     * belonging to the {@link User}s being affected, and for each {@link EventMessage.Type#USERS_ROLE_REMOVED} one,
+     * those that contain the {@link Role} being removed.
+     * Only {@link AuthToken}s issued before the event occurred are blacklisted (i.e not those issued after the
+     * {@link User}s were activated again, or after the {@link Role} was added again).
+     *
+     * @param batch The {@link EventMessageBatch} being handled.
+     * @throws IllegalArgumentException If the {@code batch} is {@code null}.
+     * @apiNote This is an idempotent operation (i.e messages can be dispatched more than once).
+     */
+    @Transactional
+    @EventListener(EventMessageBatch.class)
+    public void revokeUsersTokens(final EventMessageBatch batch) throws IllegalArgumentException {
+        Assert.notNull(batch, "The batch is null");
+        final var revoked = new ArrayList<UUID>();
+        for (final var message : batch.getMessages()) {
+            final var usernames = message.getUsernames();
+            final var occurredAt = message.getOccurredAt();
+            if (message.getType() == EventMessage.Type.USERS_DEACTIVATED) {
+                revoked.addAll(userAuthTokenRepository.invalidateUsersTokens(usernames, occurredAt));
+            } else if (message.getType() == EventMessage.Type.USERS_ROLE_REMOVED) {
+                final var role = message.getRole();
+                revoked.addAll(userAuthTokenRepository.invalidateUsersTokensWithRole(usernames, role, occurredAt));
+            }
+        }
+        revoked(revoked);
     }
 
 
     /**
-     * Checks whether the given {@code password} matches the given {@code user}'s password.
+     * Searches for the {@link User} with the given {@code username} that can login (i.e is active and has a
+     * {@link UserCredential}), together with its actual hashed password.
+     * The {@link User}, its roles and its current {@link UserCredential} are loaded in a single query.
      *
-     * @param user     The {@link User} whose password must be checked.
-     * @param password The password to be evaluated.
+     * @param username The username.
+     * @return An {@link Optional} containing the {@link LoginCandidate} if there is a {@link User} that can login with
+     * the given {@code username}, or empty otherwise.
+     */
+    private Optional<LoginCandidate> findLoginCandidate(final String username) {
+        return userCredentialRepository.findCurrentWithUserByUsername(username)
+                .filter(credential -> credential.getUser().isActive()) // Check if the user can login
+                .map(credential -> new LoginCandidate(credential.getUser(), credential.getHashedPassword()));
+    }
+
+    /**
+     * Checks whether the given {@code password} matches the given {@code candidate}'s password.
+     * The check is performed in the {@link PasswordHashingExecutor}.
+     * If the password matches, but its hash is outdated, the password is hashed again in background.
+     *
+     * @param candidate The {@link LoginCandidate} whose password must be checked.
+     * @param password  The password to be evaluated.
      * @return {@code true} if the passwords match, or {@code false} otherwise.
+     * @throws ServiceOverloadedException If there is no capacity to check the password at the moment.
      */
-    private boolean validPassword(final User user, final String password) {
-        return userCredentialRepository.findLastForUser(user)
-                .map(UserCredential::getHashedPassword)
-                .filter(hashedPassword -> passwordEncoder.matches(password, hashedPassword))
-                .isPresent()
-                ;
+    private boolean validPassword(final LoginCandidate candidate, final String password)
+            throws ServiceOverloadedException {
+        final boolean matches = passwordHashingExecutor.execute(
+                () -> passwordEncoder.matches(password, candidate.getHashedPassword())
+        );
+        if (matches && passwordEncoder.upgradeEncoding(candidate.getHashedPassword())) {
+            upgradeCredential(candidate, password);
+        }
+        return matches;
+    }
+
+    /**
+     * Checks the given {@code password} against a dummy hashed password (in the {@link PasswordHashingExecutor}),
+     * so that rejecting a login because the user can not login takes as long as rejecting it because of a wrong
+     * password (i.e existing usernames can not be discovered by timing login attempts).
+     *
+     * @param password The password to be evaluated.
+     * @throws ServiceOverloadedException If there is no capacity to check the password at the moment.
+     */
+    private void spendPasswordCheck(final String password) throws ServiceOverloadedException {
+        passwordHashingExecutor.execute(() -> passwordEncoder.matches(password, dummyHashedPassword()));
+    }
+
+    /**
+     * Returns the dummy hashed password, hashing it if it was not hashed yet.
+     * Note that it might be hashed more than once by concurrent callers, which is harmless.
+     *
+     * @return The dummy hashed password.
+     */
+    private String dummyHashedPassword() {
+        var hashedPassword = this.dummyHashedPassword;
+        if (hashedPassword == null) {
+            hashedPassword = passwordEncoder.encode(UUID.randomUUID().toString());
+            this.dummyHashedPassword = hashedPassword;
+        }
+        return hashedPassword;
+    }
+
+    /**
+     * Creates a new {@link UserCredential} for the given {@code candidate}'s {@link User}, hashing the given
+     * {@code password} with the actual settings. This is performed in background (and in a best effort way),
+     * so the login is not delayed.
+     *
+     * @param candidate The {@link LoginCandidate} whose password must be hashed again.
+     * @param password  The (already checked) password.
+     * @implNote The new {@link UserCredential} is only saved if the credential used to login is still the current
+     * one (i.e the password was not changed meanwhile).
+     */
+    private void upgradeCredential(final LoginCandidate candidate, final String password) {
+        final var user = candidate.getUser();
+        final var accepted = passwordHashingExecutor.submit(() -> {
+            final UserCredential credential;
+            try {
+                credential = UserCredential.buildCredential(user, password, passwordEncoder::encode);
+            } catch (final IllegalArgumentException e) {
+                LOGGER.debug("Could not upgrade password hash for user {}: {}", user.getUsername(), e.getMessage());
+                return;
+            }
+            transactionTemplate.execute(status -> userCredentialRepository.findCurrentForUser(user)
+                    .map(UserCredential::getHashedPassword)
+                    .filter(candidate.getHashedPassword()::equals)
+                    .map(ignored -> {
+                        userCredentialRepository.retireCurrentForUser(user);
+                        final var saved = userCredentialRepository.save(credential);
+                        userCredentialRepository.compactHistory(user, credentialHistoryProperties.getSize());
+                        return saved;
+                    })
+            );
+        });
+        if (!accepted) {
+            LOGGER.debug("Password hash upgrade for user {} was discarded", user.getUsername());
+        }
+    }
+
+    /**
+     * Builds a {@link RawTokenContainer} for the given {@code authToken}, which is being refreshed.
+     * If a new refresh token is issued, it is registered that the {@code authToken} has been refreshed,
+     * so it is not deleted until its new refresh window elapses.
+     *
+     * @param authToken The {@link AuthToken} being refreshed.
+     * @return The built {@link RawTokenContainer}.
+     */
+    private RawTokenContainer refreshTokens(final AuthToken authToken) {
+        final var wrapper = tokenEncoder.refresh(authToken);
+        if (wrapper.getRefreshToken() != null) {
+            authToken.refreshed();
+            authTokenRepository.save(authToken);
+        }
+        return new RawTokenContainer(
+                authToken,
+                wrapper.getAccessToken(),
+                wrapper.getRefreshToken()
+        );
     }
 
     /**
@@ -176,6 +422,46 @@ public class AuthTokenManager implements AuthTokenService {
         );
     }
 
+    /**
+     * Registers that the given {@code authToken} has been issued (in the {@link TokenIntrospectionIndex}).
+     *
+     * @param authToken The issued (and saved) {@link AuthToken}.
+     * @param <T>       The concrete type of {@link AuthToken}.
+     * @return The given {@code authToken}.
+     */
+    private <T extends AuthToken> T issued(final T authToken) {
+        tokenIntrospectionIndex.issued(authToken);
+        return authToken;
+    }
+
+    /**
+     * Checks that the given {@code authToken} belongs to the currently authenticated principal.
+     * This is performed here (and not in a {@code @PreAuthorize} expression) in order to reuse the already loaded
+     * {@link AuthToken} instead of loading it again in the authorization check.
+     *
+     * @param authToken The {@link AuthToken} being accessed.
+     * @return The given {@code authToken}.
+     * @throws AccessDeniedException If the {@code authToken} does not belong to the authenticated principal.
+     */
+    private static AuthToken checkOwnership(final AuthToken authToken) throws AccessDeniedException {
+        if (!Objects.equals(authToken.getOwner(), currentAuthentication().getPrincipal())) {
+            throw new AccessDeniedException(NOT_OWNER_MESSAGE);
+        }
+        return authToken;
+    }
+
+    /**
+     * @return The {@link Authentication} of the one performing the actual operation.
+     * @throws AccessDeniedException If there is no authenticated principal.
+     */
+    private static Authentication currentAuthentication() throws AccessDeniedException {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new AccessDeniedException("There is no authenticated principal");
+        }
+        return authentication;
+    }
+
     /**
      * Blacklist's the given {@code authToken}.
      *
@@ -186,7 +472,40 @@ public class AuthTokenManager implements AuthTokenService {
         if (authToken.isValid()) {
             authToken.invalidate();
             authTokenRepository.save(authToken);
-            // TODO: stream token blacklisted event.
+            revokedTokensIndex.revoked(authToken.getId());
+            publisher.publishEvent(new TokensRevokedEvent(List.of(authToken.getId())));
+        }
+    }
+
+    /**
+     * Registers that the {@link AuthToken}s with the given {@code ids} have been revoked, in the
+     * {@link RevokedTokensIndex} and in other services (through a {@link TokensRevokedEvent}).
+     *
+     * @param ids The ids of the revoked {@link AuthToken}s.
+     */
+    private void revoked(final List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
         }
+        revokedTokensIndex.revokedAll(ids);
+        publisher.publishEvent(new TokensRevokedEvent(ids));
+    }
+
+
+    /**
+     * Wraps a {@link User} that is trying to login, together with its actual hashed password.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class LoginCandidate {
+
+        /**
+         * The {@link User} trying to login.
+         */
+        private final User user;
+        /**
+         * The {@link User}'s actual hashed password.
+         */
+        private final String hashedPassword;
     }
 }
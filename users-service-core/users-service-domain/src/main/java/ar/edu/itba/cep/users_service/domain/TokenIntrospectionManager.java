@@ -0,0 +1,137 @@
+package ar.edu.itba.cep.users_service.domain;
+
+import ar.edu.itba.cep.users_service.domain.config.TokenIntrospectionProperties;
+import ar.edu.itba.cep.users_service.domain.introspection.TokenIntrospectionIndex;
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.repositories.SubjectAuthTokenRepository;
+import ar.edu.itba.cep.users_service.repositories.UserAuthTokenRepository;
+import ar.edu.itba.cep.users_service.security.authentication.TokenEncoder;
+import ar.edu.itba.cep.users_service.services.TokenIntrospection;
+import ar.edu.itba.cep.users_service.services.TokenIntrospectionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Manager for {@link TokenIntrospectionService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TokenIntrospectionManager implements TokenIntrospectionService {
+
+    private final UserAuthTokenRepository userAuthTokenRepository;
+    private final SubjectAuthTokenRepository subjectAuthTokenRepository;
+    private final TokenIntrospectionIndex tokenIntrospectionIndex;
+    private final RevokedTokensIndex revokedTokensIndex;
+    private final TokenEncoder tokenEncoder;
+    /**
+     * A {@link TransactionTemplate} used to load the tokens not in the index in (short) read-only transactions.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    /**
+     * The maximum amount of {@link AuthToken}s introspected at once.
+     */
+    private final int maxBatchSize;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userAuthTokenRepository    The {@link UserAuthTokenRepository}.
+     * @param subjectAuthTokenRepository The {@link SubjectAuthTokenRepository}.
+     * @param tokenIntrospectionIndex    The {@link TokenIntrospectionIndex} used to answer from memory.
+     * @param revokedTokensIndex         The {@link RevokedTokensIndex} used to reject tokens revoked
+     *                                   by this application instance right away.
+     * @param tokenEncoder               The {@link TokenEncoder} used to know when {@link AuthToken}s expire.
+     * @param properties                 The {@link TokenIntrospectionProperties} with configuration data.
+     * @param transactionManager         The {@link PlatformTransactionManager} used to demarcate transactions
+     *                                   programmatically.
+     */
+    public TokenIntrospectionManager(
+            final UserAuthTokenRepository userAuthTokenRepository,
+            final SubjectAuthTokenRepository subjectAuthTokenRepository,
+            final TokenIntrospectionIndex tokenIntrospectionIndex,
+            final RevokedTokensIndex revokedTokensIndex,
+            final TokenEncoder tokenEncoder,
+            final TokenIntrospectionProperties properties,
+            final PlatformTransactionManager transactionManager) {
+        this.userAuthTokenRepository = userAuthTokenRepository;
+        this.subjectAuthTokenRepository = subjectAuthTokenRepository;
+        this.tokenIntrospectionIndex = tokenIntrospectionIndex;
+        this.revokedTokensIndex = revokedTokensIndex;
+        this.tokenEncoder = tokenEncoder;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.maxBatchSize = properties.getMaxBatchSize();
+    }
+
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Only tokens not in the index are read, if any.
+    public List<TokenIntrospection> introspect(final Collection<UUID> tokenIds) throws IllegalArgumentException {
+        Assert.notNull(tokenIds, "The token ids must not be null");
+        Assert.isTrue(tokenIds.size() <= maxBatchSize, "At most " + maxBatchSize + " tokens can be introspected");
+        Assert.isTrue(tokenIds.stream().noneMatch(Objects::isNull), "The token ids must not contain nulls");
+        if (tokenIds.isEmpty()) {
+            return List.of();
+        }
+        final var introspections = tokenIntrospectionIndex.getAll(tokenIds, this::load);
+        return tokenIds.stream()
+                // Revocations performed by this instance are seen before they reach the revocations log.
+                .map(tokenId -> revokedTokensIndex.isRevoked(tokenId) ?
+                        TokenIntrospection.inactive(tokenId) :
+                        introspections.get(tokenId))
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Loads the {@link TokenIntrospection}s of the {@link AuthToken}s with the given {@code tokenIds}
+     * (with, at most, a query for each type of {@link AuthToken}).
+     *
+     * @param tokenIds The ids of the {@link AuthToken}s.
+     * @return A {@link Map} holding the {@link TokenIntrospection} of each of the given {@code tokenIds}
+     * (those of non existing {@link AuthToken}s are not active).
+     */
+    private Map<UUID, TokenIntrospection> load(final Set<UUID> tokenIds) {
+        final var introspections = Optional.ofNullable(readOnlyTransactionTemplate.execute(status -> {
+            final var loaded = new HashMap<UUID, TokenIntrospection>();
+            userAuthTokenRepository.findAllByIds(tokenIds)
+                    .forEach(token -> loaded.put(token.getId(), introspection(token)));
+            if (loaded.size() < tokenIds.size()) {
+                final var remaining = new HashSet<>(tokenIds);
+                remaining.removeAll(loaded.keySet());
+                subjectAuthTokenRepository.findAllByIds(remaining)
+                        .forEach(token -> loaded.put(token.getId(), introspection(token)));
+            }
+            return loaded;
+        })).orElseGet(HashMap::new);
+        tokenIds.forEach(tokenId -> introspections.computeIfAbsent(tokenId, TokenIntrospection::inactive));
+        return introspections;
+    }
+
+    /**
+     * Creates the {@link TokenIntrospection} of the given {@code authToken}.
+     *
+     * @param authToken The {@link AuthToken}.
+     * @return The {@link TokenIntrospection} (not active if the {@code authToken} is not valid, or it has expired).
+     */
+    private TokenIntrospection introspection(final AuthToken authToken) {
+        return TokenIntrospection.of(authToken, tokenEncoder.expiration(authToken));
+    }
+}
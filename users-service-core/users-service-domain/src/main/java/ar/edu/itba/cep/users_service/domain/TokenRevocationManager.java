@@ -0,0 +1,91 @@
+package ar.edu.itba.cep.users_service.domain;
+
+import ar.edu.itba.cep.users_service.domain.config.TokenRevocationFeedProperties;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessage;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessageBatch;
+import ar.edu.itba.cep.users_service.domain.revocation.TokenRevocationFeed;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.repositories.TokenRevocationRepository;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import ar.edu.itba.cep.users_service.services.TokenRevocationService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Manager for {@link TokenRevocationService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TokenRevocationManager implements TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final TokenRevocationFeed tokenRevocationFeed;
+    /**
+     * The maximum amount of {@link TokenRevocation}s retrieved at once.
+     */
+    private final int maxLimit;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenRevocationRepository The {@link TokenRevocationRepository}.
+     * @param tokenRevocationFeed       The {@link TokenRevocationFeed} to which subscribers are subscribed.
+     * @param properties                The {@link TokenRevocationFeedProperties} with configuration data.
+     */
+    public TokenRevocationManager(
+            final TokenRevocationRepository tokenRevocationRepository,
+            final TokenRevocationFeed tokenRevocationFeed,
+            final TokenRevocationFeedProperties properties) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenRevocationFeed = tokenRevocationFeed;
+        this.maxLimit = properties.getPageSize();
+    }
+
+
+    @Override
+    public List<TokenRevocation> getRevocationsSince(final long sequence, final int limit)
+            throws IllegalArgumentException {
+        Assert.isTrue(sequence >= 0, "The sequence number must not be negative");
+        Assert.isTrue(limit > 0 && limit <= maxLimit, "The limit must be between 1 and " + maxLimit);
+        return tokenRevocationRepository.findSince(sequence, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The feed reads the log in transactions of its own.
+    public Runnable subscribe(
+            final long sequence,
+            final Consumer<List<TokenRevocation>> subscriber,
+            final Runnable onDropped) throws IllegalArgumentException, ServiceOverloadedException {
+        return tokenRevocationFeed.subscribe(sequence, subscriber, onDropped);
+    }
+
+
+    /**
+     * An {@link EventListener} that can handle {@link EventMessageBatch}es (i.e events dispatched from the outbox).
+     * It will append the {@link AuthToken}s revoked in each {@link EventMessage.Type#TOKENS_REVOKED} message
+     * to the revocations log.
+     *
+     * @param batch The {@link EventMessageBatch} being handled.
+     * @throws IllegalArgumentException If the {@code batch} is {@code null}.
+     * @apiNote This is an idempotent operation (i.e messages can be dispatched more than once).
+     */
+    @Transactional
+    @EventListener(EventMessageBatch.class)
+    public void logRevocations(final EventMessageBatch batch) throws IllegalArgumentException {
+        Assert.notNull(batch, "The batch is null");
+        final var tokenIds = batch.ofType(EventMessage.Type.TOKENS_REVOKED).stream()
+                .flatMap(message -> message.getTokenIds().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        tokenRevocationRepository.appendAll(tokenIds);
+    }
+}
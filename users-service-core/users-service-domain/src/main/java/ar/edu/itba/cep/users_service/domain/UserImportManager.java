@@ -0,0 +1,257 @@
+package ar.edu.itba.cep.users_service.domain;
+
+import ar.edu.itba.cep.users_service.domain.config.UserImportProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import ar.edu.itba.cep.users_service.services.UserImportEntry;
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import ar.edu.itba.cep.users_service.services.UserImportResult.Status;
+import ar.edu.itba.cep.users_service.services.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Manager for {@link UserImportService}.
+ */
+@Service
+public class UserImportManager implements UserImportService, DisposableBean {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportManager.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher publisher;
+    /**
+     * The amount of entries processed together.
+     */
+    private final int batchSize;
+    /**
+     * The {@link ExecutorService} in which passwords of imported {@link User}s are hashed.
+     */
+    private final ExecutorService hashingExecutor;
+    /**
+     * A {@link TransactionTemplate} used to save each batch in a transaction of its own.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository     The {@link UserRepository}.
+     * @param passwordEncoder    The {@link PasswordEncoder} used to hash the passwords.
+     * @param publisher          The {@link ApplicationEventPublisher} used to publish the {@link BulkUserEvent}s.
+     * @param properties         The {@link UserImportProperties} with configuration data.
+     * @param transactionManager The {@link PlatformTransactionManager} used to demarcate transactions
+     *                           programmatically.
+     * @throws IllegalArgumentException If the {@code properties} contain invalid values.
+     */
+    public UserImportManager(
+            final UserRepository userRepository,
+            final PasswordEncoder passwordEncoder,
+            final ApplicationEventPublisher publisher,
+            final UserImportProperties properties,
+            final PlatformTransactionManager transactionManager) throws IllegalArgumentException {
+        Assert.isTrue(properties.getBatchSize() > 0, "The batch size must be positive");
+        Assert.isTrue(properties.getHashingThreads() > 0, "The amount of hashing threads must be positive");
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.publisher = publisher;
+        this.batchSize = properties.getBatchSize();
+        this.hashingExecutor = Executors.newFixedThreadPool(
+                properties.getHashingThreads(),
+                new CustomizableThreadFactory("user-import-hashing-")
+        );
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    @Override
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void importUsers(final Iterator<UserImportEntry> entries, final Consumer<UserImportResult> resultHandler)
+            throws IllegalArgumentException {
+        Assert.notNull(entries, "The entries must not be null");
+        Assert.notNull(resultHandler, "The result handler must not be null");
+        final var seenUsernames = new HashSet<String>();
+        var created = 0L;
+        while (entries.hasNext()) {
+            final var batch = new ArrayList<UserImportEntry>(batchSize);
+            while (entries.hasNext() && batch.size() < batchSize) {
+                batch.add(entries.next());
+            }
+            final var results = importBatch(batch, seenUsernames);
+            created += results.stream().filter(result -> result.getStatus() == Status.CREATED).count();
+            results.forEach(resultHandler);
+        }
+        LOGGER.info("Imported {} users", created);
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+
+
+    /**
+     * Imports the given {@code batch} of {@link UserImportEntry}s.
+     * An entry is reported as {@link Status#DUPLICATED} only if a previous entry with the same username
+     * was submitted for saving (i.e entries that are not valid, or whose username is in use, are not taken into
+     * account), so a username can be fixed by a later entry.
+     *
+     * @param batch         The {@link UserImportEntry}s to be imported.
+     * @param seenUsernames The usernames of the entries already submitted for saving in the import
+     *                      (updated with those submitted in the batch).
+     * @return A {@link List} with the {@link UserImportResult} of each entry, in the same order.
+     */
+    private List<UserImportResult> importBatch(final List<UserImportEntry> batch, final Set<String> seenUsernames) {
+        final var results = new UserImportResult[batch.size()];
+
+        // First, validate the usernames, and discard those already submitted in previous batches.
+        final var candidates = new LinkedHashMap<Integer, User>();
+        for (int i = 0; i < batch.size(); i++) {
+            final var entry = batch.get(i);
+            try {
+                final var user = new User(entry.getUsername());
+                if (seenUsernames.contains(user.getUsername())) {
+                    results[i] = result(entry, Status.DUPLICATED, DUPLICATED);
+                } else {
+                    candidates.put(i, user);
+                }
+            } catch (final IllegalArgumentException e) {
+                results[i] = result(entry, Status.INVALID, e.getMessage());
+            }
+        }
+
+        // Then, check the uniqueness of all of them at once.
+        final var inUse = userRepository.findExistingUsernames(
+                candidates.values().stream().map(User::getUsername).distinct().collect(Collectors.toList())
+        );
+        final var iterator = candidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final var candidate = iterator.next();
+            if (inUse.contains(candidate.getValue().getUsername())) {
+                final var entry = batch.get(candidate.getKey());
+                results[candidate.getKey()] = result(entry, Status.USERNAME_IN_USE, USERNAME_IN_USE);
+                iterator.remove();
+            }
+        }
+
+        // Then, validate and hash the passwords in parallel.
+        final var credentials = hashPasswords(batch, candidates, results);
+
+        // Then, submit the first valid entry of each username (the rest of them are duplicates).
+        final var submitted = new LinkedHashMap<Integer, UserCredential>();
+        credentials.forEach((index, credential) -> {
+            if (seenUsernames.add(credential.getUser().getUsername())) {
+                submitted.put(index, credential);
+            } else {
+                results[index] = result(batch.get(index), Status.DUPLICATED, DUPLICATED);
+            }
+        });
+
+        // Finally, save the users (those whose username was taken in the meantime are skipped).
+        final var saved = transactionTemplate.execute(status -> {
+            final var savedUsernames = userRepository.saveAllWithCredentials(List.copyOf(submitted.values()))
+                    .stream()
+                    .map(UserCredential::getUser)
+                    .map(User::getUsername)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!savedUsernames.isEmpty()) {
+                publisher.publishEvent(BulkUserEvent.registered(savedUsernames)); // A single event for the batch.
+            }
+            return savedUsernames;
+        });
+        submitted.forEach((index, credential) ->
+                results[index] = saved.contains(credential.getUser().getUsername()) ?
+                        result(batch.get(index), Status.CREATED, null) :
+                        result(batch.get(index), Status.USERNAME_IN_USE, USERNAME_IN_USE)
+        );
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Validates and hashes (in the {@link #hashingExecutor}) the passwords of the given {@code candidates}.
+     *
+     * @param batch      The batch of {@link UserImportEntry}s being imported.
+     * @param candidates A {@link Map} from the index of an entry in the {@code batch},
+     *                   to the {@link User} to be created for it.
+     * @param results    The results of the entries in the {@code batch}
+     *                   (updated with those whose password is not a valid one).
+     * @return A {@link Map} from the index of an entry in the {@code batch},
+     * to the {@link UserCredential} to be created for it (only for those whose password is valid).
+     */
+    private Map<Integer, UserCredential> hashPasswords(
+            final List<UserImportEntry> batch,
+            final Map<Integer, User> candidates,
+            final UserImportResult[] results) {
+        final var futures = new LinkedHashMap<Integer, CompletableFuture<UserCredential>>();
+        candidates.forEach((index, user) -> futures.put(index, CompletableFuture.supplyAsync(
+                () -> UserCredential.buildCredential(user, batch.get(index).getPassword(), passwordEncoder::encode),
+                hashingExecutor
+        )));
+        final var credentials = new LinkedHashMap<Integer, UserCredential>();
+        futures.forEach((index, future) -> {
+            try {
+                credentials.put(index, future.join());
+            } catch (final CompletionException e) {
+                if (!(e.getCause() instanceof IllegalArgumentException)) {
+                    throw e;
+                }
+                results[index] = result(batch.get(index), Status.INVALID, e.getCause().getMessage());
+            }
+        });
+        return credentials;
+    }
+
+    /**
+     * Creates a {@link UserImportResult} for the given {@code entry}.
+     *
+     * @param entry   The {@link UserImportEntry}.
+     * @param status  The {@link Status} of the import.
+     * @param message A message explaining why the {@link User} was not created.
+     * @return The created {@link UserImportResult}.
+     */
+    private static UserImportResult result(final UserImportEntry entry, final Status status, final String message) {
+        return new UserImportResult(entry.getPosition(), entry.getUsername(), status, message);
+    }
+
+
+    /**
+     * Message to be used when a username is already taken.
+     */
+    private static final String USERNAME_IN_USE = "The username is already in use";
+    /**
+     * Message to be used when a username was already submitted in the import.
+     */
+    private static final String DUPLICATED = "The username appears more than once";
+}
@@ -1,12 +1,19 @@
 package ar.edu.itba.cep.users_service.domain;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.cache.UserWithRolesCache;
+import ar.edu.itba.cep.users_service.domain.config.CredentialHistoryProperties;
 import ar.edu.itba.cep.users_service.domain.config.FirstUserConfigurationProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.domain.paging.UserContinuationToken;
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.models.UserSelection;
 import ar.edu.itba.cep.users_service.repositories.UserCredentialRepository;
 import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import ar.edu.itba.cep.users_service.services.SeekPage;
+import ar.edu.itba.cep.users_service.services.UserSeekOrder;
 import ar.edu.itba.cep.users_service.services.UserService;
 import ar.edu.itba.cep.users_service.services.UserWithNoRoles;
 import ar.edu.itba.cep.users_service.services.UserWithRoles;
@@ -22,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,6 +41,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Manager for {@link User}s.
@@ -50,6 +59,8 @@ public class UserManager implements UserService, InitializingBean {
     private final ApplicationEventPublisher publisher;
     private final PasswordEncoder passwordEncoder;
     private final FirstUserConfigurationProperties firstUserProperties;
+    private final CredentialHistoryProperties credentialHistoryProperties;
+    private final UserWithRolesCache userWithRolesCache;
 
 
     @Override
@@ -68,6 +79,47 @@ public class UserManager implements UserService, InitializingBean {
                 .map(UserWithNoRoles::new);
     }
 
+    @Override
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public SeekPage<UserWithNoRoles> findMatching(
+            final String username,
+            final Boolean active,
+            final UserSeekOrder order,
+            final String continuationToken,
+            final int size) throws IllegalArgumentException {
+        Assert.isTrue(
+                size > 0 && size <= MAX_SEEK_PAGE_SIZE,
+                "The page size must be between 1 and " + MAX_SEEK_PAGE_SIZE
+        );
+        final var after = Optional.ofNullable(continuationToken).map(UserContinuationToken::decode);
+        final var actualOrder = Optional.ofNullable(order)
+                .or(() -> after.map(UserContinuationToken::getOrder))
+                .orElse(UserSeekOrder.USERNAME);
+        after.map(UserContinuationToken::getOrder).ifPresent(tokenOrder ->
+                Assert.isTrue(tokenOrder == actualOrder, "The continuation token was issued for another order")
+        );
+        // One extra user is retrieved in order to know if there is a next page
+        final var users = actualOrder == UserSeekOrder.USERNAME ?
+                userRepository.findFilteringAfterUsername(
+                        username,
+                        active,
+                        after.map(UserContinuationToken::getUsername).orElse(null),
+                        size + 1
+                ) :
+                userRepository.findFilteringAfterId(
+                        username,
+                        active,
+                        after.map(UserContinuationToken::getId).orElse(null),
+                        size + 1
+                );
+        if (users.size() <= size) {
+            return new SeekPage<>(users, null).map(UserWithNoRoles::new);
+        }
+        final var content = users.subList(0, size);
+        final var next = UserContinuationToken.after(actualOrder, content.get(size - 1)).encode();
+        return new SeekPage<>(content, next).map(UserWithNoRoles::new);
+    }
+
     @Override
     @PreAuthorize("hasAuthority('ADMIN') or (isFullyAuthenticated() and principal == #username)")
     public Optional<UserWithRoles> getByUsername(final String username) {
@@ -77,11 +129,7 @@ public class UserManager implements UserService, InitializingBean {
     @Override
     @PreAuthorize("isFullyAuthenticated()")
     public Optional<UserWithRoles> getActualUser() {
-        final var principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (!ClassUtils.isAssignable(String.class, principal.getClass())) {
-            throw new RuntimeException("The authentication principal must be a String!");
-        }
-        return findWithRoles((String) principal);
+        return authenticatedUsername().flatMap(this::findWithRoles);
     }
 
 
@@ -97,6 +145,7 @@ public class UserManager implements UserService, InitializingBean {
 
         final User user = userRepository.save(new User(username)); // Create a new User, and save it.
         createCredential(user, password); // Then, create the initial credential for it
+        publisher.publishEvent(UserEvent.registered(user));
         return new UserWithNoRoles(user);
     }
 
@@ -108,7 +157,7 @@ public class UserManager implements UserService, InitializingBean {
             final String currentPassword,
             final String newPassword) throws NoSuchEntityException, UnauthorizedException, IllegalArgumentException {
         final var user = loadUser(username);
-        final var actualCredential = userCredentialRepository.findLastForUser(user)
+        final var actualCredential = userCredentialRepository.findCurrentForUser(user)
                 .orElseThrow(() -> new RuntimeException("Invalid system state. This should not happen."));
         // Check that the currentPassword matches the actual password
         Optional.ofNullable(currentPassword)
@@ -123,7 +172,10 @@ public class UserManager implements UserService, InitializingBean {
     @PreAuthorize("hasAuthority('ADMIN')")
     public void addRole(final String username, final Role role)
             throws NoSuchEntityException, IllegalArgumentException {
-        operateOverUserWithUsername(username, user -> user.addRole(role));
+        operateOverUserWithUsername(username, user -> {
+            user.addRole(role);
+            publisher.publishEvent(UserEvent.roleAdded(user, role));
+        });
     }
 
     @Override
@@ -140,7 +192,10 @@ public class UserManager implements UserService, InitializingBean {
     @Transactional
     @PreAuthorize("hasAuthority('ADMIN')")
     public void activate(final String username) throws NoSuchEntityException {
-        operateOverUserWithUsername(username, User::activate);
+        operateOverUserWithUsername(username, user -> {
+            user.activate();
+            publisher.publishEvent(UserEvent.activated(user));
+        });
     }
 
     @Override
@@ -160,19 +215,106 @@ public class UserManager implements UserService, InitializingBean {
         userRepository.findByUsername(username).ifPresent(this::deleteUser);
     }
 
+    @Override
+    @Transactional
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public int addRole(final UserSelection selection, final Role role) throws IllegalArgumentException {
+        Assert.notNull(role, "The role is missing");
+        return operateOverSelectedUsers(
+                selection,
+                s -> userRepository.addRoleToAll(s, role),
+                usernames -> BulkUserEvent.roleAdded(usernames, role)
+        );
+    }
+
+    @Override
+    @Transactional
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public int removeRole(final UserSelection selection, final Role role) throws IllegalArgumentException {
+        Assert.notNull(role, "The role is missing");
+        assertRestricted(selection);
+        return operateOverSelectedUsers(
+                selection,
+                s -> userRepository.removeRoleFromAll(s, role),
+                usernames -> BulkUserEvent.roleRemoved(usernames, role)
+        );
+    }
+
+    @Override
+    @Transactional
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public int activate(final UserSelection selection) throws IllegalArgumentException {
+        return operateOverSelectedUsers(
+                selection,
+                s -> userRepository.setActiveToAll(s, true),
+                BulkUserEvent::activated
+        );
+    }
+
+    @Override
+    @Transactional
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public int deactivate(final UserSelection selection) throws IllegalArgumentException {
+        assertRestricted(selection);
+        return operateOverSelectedUsers(
+                selection,
+                s -> userRepository.setActiveToAll(s, false),
+                BulkUserEvent::deactivated
+        );
+    }
+
+
+    /**
+     * Retrieves the username of the currently authenticated {@link User}.
+     *
+     * @return An {@link Optional} containing the username of the currently authenticated {@link User},
+     * or empty if there is no authentication.
+     */
+    private static Optional<String> authenticatedUsername() {
+        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .map(Authentication::getPrincipal)
+                .map(principal -> {
+                    if (!ClassUtils.isAssignable(String.class, principal.getClass())) {
+                        throw new RuntimeException("The authentication principal must be a String!");
+                    }
+                    return (String) principal;
+                });
+    }
+
+    /**
+     * Checks that the given {@code selection} restricts the selected {@link User}s,
+     * so destructive bulk operations can not be performed over all the {@link User}s by sending an empty selection.
+     *
+     * @param selection The {@link UserSelection} to be checked.
+     * @throws IllegalArgumentException If the {@code selection} is {@code null} or unrestricted.
+     */
+    private static void assertRestricted(final UserSelection selection) throws IllegalArgumentException {
+        Assert.notNull(selection, "The selection must not be null");
+        Assert.isTrue(!selection.isUnrestricted(), "Users must be selected either by usernames or by filters");
+    }
 
     /**
      * Searches for the {@link User} with the given {@code username}, wrapping it in a {@link UserWithRoles} instance.
+     * The {@link UserWithRolesCache} is checked first, and the database is only accessed if it is not cached.
      *
      * @param username The username used to search.
      * @return An {@link Optional} with the {@link UserWithRoles} wrapping the {@link User}
      * with the given {@code username} if it exists, or {@code null} otherwise.
      */
     private Optional<UserWithRoles> findWithRoles(final String username) {
-        return userRepository.findByUsername(username).map(user -> {
-            user.getRoles().size(); // Initialize Lazy Collection
-            return new UserWithRoles(user);
-        });
+        return userWithRolesCache.get(username, this::loadWithRoles);
+    }
+
+    /**
+     * Loads the {@link User} with the given {@code username} from the database,
+     * wrapping it in a {@link UserWithRoles} instance.
+     *
+     * @param username The username used to search.
+     * @return An {@link Optional} with the {@link UserWithRoles} wrapping the {@link User}
+     * with the given {@code username} if it exists, or {@code null} otherwise.
+     */
+    private Optional<UserWithRoles> loadWithRoles(final String username) {
+        return userRepository.findByUsername(username).map(UserWithRoles::new);
     }
 
     /**
@@ -203,8 +345,35 @@ public class UserManager implements UserService, InitializingBean {
         userRepository.save(user);
     }
 
+    /**
+     * Performs a bulk operation over the selected {@link User}s (in a single statement),
+     * and then publishes a single {@link BulkUserEvent} for all the {@link User}s that were actually changed.
+     * The authenticated {@link User} is excluded from the selection, so administrators can not lock themselves out.
+     *
+     * @param selection     The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param bulkOperation A {@link Function} that takes the {@code selection}, performs the operation,
+     *                      and returns the usernames of the {@link User}s that were changed.
+     * @param eventFactory  A {@link Function} that takes the said usernames, and creates the {@link BulkUserEvent}.
+     * @return The amount of {@link User}s that were changed.
+     * @throws IllegalArgumentException If the {@code selection} is {@code null}.
+     */
+    private int operateOverSelectedUsers(
+            final UserSelection selection,
+            final Function<UserSelection, List<String>> bulkOperation,
+            final Function<List<String>, BulkUserEvent> eventFactory) throws IllegalArgumentException {
+        Assert.notNull(selection, "The selection must not be null");
+        final var actualSelection = authenticatedUsername().map(selection::excluding).orElse(selection);
+        final var usernames = bulkOperation.apply(actualSelection);
+        if (!usernames.isEmpty()) {
+            publisher.publishEvent(eventFactory.apply(usernames));
+        }
+        return usernames.size();
+    }
+
     /**
      * Creates a new credential for the given {@link User} using the given {@code password}.
+     * The new credential replaces the current one (if any),
+     * and the oldest ones are removed according to the {@link CredentialHistoryProperties}.
      *
      * @param user     The {@link User} owning the new credential.
      * @param password The password for the credential.
@@ -213,7 +382,9 @@ public class UserManager implements UserService, InitializingBean {
         Assert.notNull(user, "The user must not be null");
         final var credential = UserCredential
                 .buildCredential(user, password, passwordEncoder::encode);
+        userCredentialRepository.retireCurrentForUser(user);
         userCredentialRepository.save(credential);
+        userCredentialRepository.compactHistory(user, credentialHistoryProperties.getSize());
     }
 
     /**
@@ -242,6 +413,8 @@ public class UserManager implements UserService, InitializingBean {
             user.addRole(Role.ADMIN);
             final User savedUser = userRepository.save(user);
             createCredential(savedUser, password);
+            // No event is published, as listeners are not registered yet while initializing this bean
+            // (the known usernames index picks up the user when it is warmed).
             LOGGER.info("Created admin user with username {} and password {}", username, password);
         }
     }
@@ -262,6 +435,11 @@ public class UserManager implements UserService, InitializingBean {
     }
 
 
+    /**
+     * The maximum amount of {@link User}s that can be retrieved in a {@link SeekPage}.
+     */
+    private static final int MAX_SEEK_PAGE_SIZE = 1000;
+
     /**
      * {@link UniqueViolationError} to be used when a username is already taken.
      */
@@ -0,0 +1,113 @@
+package ar.edu.itba.cep.users_service.domain.cache;
+
+import ar.edu.itba.cep.users_service.domain.config.UserCacheProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.domain.transactions.TransactionCallbacks;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.services.UserWithRoles;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A bounded in-memory cache of {@link UserWithRoles}, keyed by username, used to serve user lookups without accessing
+ * the database. Entries are invalidated each time a {@link UserEvent} (or {@link BulkUserEvent})
+ * is published by this application instance
+ * (and expire after a while, so changes performed by other instances are eventually seen).
+ * <p>
+ * The cached {@link UserWithRoles} are immutable snapshots (i.e they do not hold the managed {@link User}),
+ * so they can be shared by concurrent requests, and changes not yet committed are never seen through them.
+ * <p>
+ * Hits, misses and evictions are published as metrics with name {@value #CACHE_NAME}.
+ * Note that non existing users are not cached.
+ */
+@Component
+public class UserWithRolesCache {
+
+    /**
+     * The name with which the cache metrics are published.
+     */
+    private static final String CACHE_NAME = "users-with-roles";
+
+
+    /**
+     * The {@link Cache} holding the {@link UserWithRoles}.
+     */
+    private final Cache<String, UserWithRoles> cache;
+
+
+    /**
+     * Constructor.
+     *
+     * @param properties    The {@link UserCacheProperties} with configuration data.
+     * @param meterRegistry The {@link MeterRegistry} in which the cache metrics are published.
+     */
+    public UserWithRolesCache(final UserCacheProperties properties, final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+
+    /**
+     * Returns the {@link UserWithRoles} with the given {@code username},
+     * using the given {@code loader} to load it if it is not cached.
+     * The {@code loader} is executed at most once at a time for the same username.
+     *
+     * @param username The username.
+     * @param loader   A {@link Function} that takes the username, and loads the {@link UserWithRoles}.
+     * @return An {@link Optional} with the {@link UserWithRoles} with the given {@code username} if it exists,
+     * or empty otherwise.
+     */
+    public Optional<UserWithRoles> get(
+            final String username,
+            final Function<String, Optional<UserWithRoles>> loader) {
+        if (username == null) {
+            return loader.apply(null);
+        }
+        return Optional.ofNullable(cache.get(username, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link UserEvent}s, invalidating the affected {@link User}.
+     * The entry is invalidated right away (so the changes are seen during the active transaction),
+     * and again after the active transaction commits (so an entry loaded concurrently with the old state is not kept).
+     *
+     * @param event The {@link UserEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @EventListener(UserEvent.class)
+    public void userChanged(final UserEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event is null");
+        final var username = event.getUser().getUsername();
+        cache.invalidate(username);
+        TransactionCallbacks.afterCommit(() -> cache.invalidate(username));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link BulkUserEvent}s, invalidating all the affected {@link User}s
+     * (the same way as {@link #userChanged(UserEvent)} does).
+     *
+     * @param event The {@link BulkUserEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @EventListener(BulkUserEvent.class)
+    public void usersChanged(final BulkUserEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event is null");
+        final var usernames = event.getUsernames();
+        cache.invalidateAll(usernames);
+        TransactionCallbacks.afterCommit(() -> cache.invalidateAll(usernames));
+    }
+}
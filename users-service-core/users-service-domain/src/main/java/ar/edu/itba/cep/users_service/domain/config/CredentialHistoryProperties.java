@@ -0,0 +1,30 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
+
+/**
+ * Configuration properties indicating how many credentials of each user are kept
+ * (the current one, together with the lastly replaced ones).
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.credential-history")
+public final class CredentialHistoryProperties {
+    /**
+     * The amount of credentials kept for each user (including the current one).
+     * The current credential is always kept, even if this value is zero.
+     */
+    private int size = 5;
+
+    /**
+     * Sets the amount of credentials kept for each user.
+     *
+     * @param size The amount of credentials kept for each user.
+     * @throws IllegalArgumentException If the {@code size} is negative.
+     */
+    public void setSize(final int size) throws IllegalArgumentException {
+        Assert.isTrue(size >= 0, "The credential history size must not be negative");
+        this.size = size;
+    }
+}
@@ -1,6 +1,10 @@
 package ar.edu.itba.cep.users_service.domain.config;
 
+import ar.edu.itba.cep.users_service.domain.outbox.EventBroker;
+import ar.edu.itba.cep.users_service.domain.outbox.InMemoryEventBroker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +15,28 @@ import org.springframework.context.annotation.Configuration;
 @ComponentScan(basePackages = {
         "ar.edu.itba.cep.users_service.domain"
 })
-@EnableConfigurationProperties(FirstUserConfigurationProperties.class)
+@EnableConfigurationProperties({
+        FirstUserConfigurationProperties.class,
+        CredentialHistoryProperties.class,
+        KnownUsernamesProperties.class,
+        UserCacheProperties.class,
+        UserImportProperties.class,
+        EventOutboxProperties.class,
+        TokenRevocationFeedProperties.class,
+        TokenIntrospectionProperties.class,
+})
 public class DomainConfig {
+
+    /**
+     * Creates the {@link EventBroker} used when no other one is configured,
+     * which keeps the events in memory (i.e they do not leave the application).
+     *
+     * @param properties The {@link EventOutboxProperties} with configuration data.
+     * @return The created {@link EventBroker}.
+     */
+    @Bean
+    @ConditionalOnMissingBean(EventBroker.class)
+    public InMemoryEventBroker inMemoryEventBroker(final EventOutboxProperties properties) {
+        return new InMemoryEventBroker(properties.getInMemoryBrokerHistorySize());
+    }
 }
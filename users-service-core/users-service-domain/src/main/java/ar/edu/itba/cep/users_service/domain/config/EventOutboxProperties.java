@@ -0,0 +1,44 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Configuration properties for the dispatching of the events written in the transactional outbox.
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.event-outbox")
+public final class EventOutboxProperties {
+    /**
+     * Indicates whether this instance dispatches the events in the outbox
+     * (events are written by every instance anyway, and can be dispatched by any of them).
+     */
+    private boolean enabled = true;
+    /**
+     * The amount of time between the end of a run and the start of the next one, in milliseconds.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration delay = Duration.ofMillis(500);
+    /**
+     * The maximum amount of events dispatched in a single transaction.
+     */
+    private int batchSize = 500;
+    /**
+     * The maximum amount of batches dispatched in a single run.
+     */
+    private int maxBatches = 20;
+    /**
+     * The amount of times an event can fail to be dispatched before it is moved out of the outbox
+     * (i.e to the dead letters table), so it does not block the events written after it.
+     * Note that failures caused by the broker being unavailable are also counted.
+     */
+    private int maxAttempts = 20;
+    /**
+     * The maximum amount of events kept in memory by the in-memory broker (used when no other broker is configured).
+     */
+    private int inMemoryBrokerHistorySize = 1000;
+}
@@ -0,0 +1,40 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Configuration properties for the in-memory index of known usernames,
+ * used to reject login attempts with unknown usernames without accessing the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.known-usernames")
+public final class KnownUsernamesProperties {
+    /**
+     * Indicates whether the index is used. If not, all usernames are looked up in the database.
+     * If it is, usernames not in the index are still looked up among the users created since the index was warmed
+     * (so users registered by other application instances are not rejected).
+     */
+    private boolean enabled = false;
+    /**
+     * The amount of usernames the index is sized for (more usernames can be stored, increasing false positives).
+     */
+    private int expectedUsernames = 100_000;
+    /**
+     * The rate of unknown usernames that are still looked up in the database
+     * (when the expected amount of usernames is stored).
+     */
+    private double falsePositiveRate = 0.01;
+    /**
+     * The amount of time between re-warmings of the index, in seconds (zero to never re-warm it).
+     * Re-warming picks up the usernames registered by other application instances (until then, those usernames
+     * are looked up in the database by this instance), and drops those of deleted users.
+     * If the index is never re-warmed, all usernames not in it are looked up in the database.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration rewarmInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,29 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for token introspection, and for the in-memory index of tokens' state
+ * used to answer introspection requests without accessing the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.token-introspection")
+public final class TokenIntrospectionProperties {
+    /**
+     * The maximum amount of tokens kept in the index (zero disables it).
+     */
+    private long maximumSize = 100_000;
+    /**
+     * The time a token's state is kept in the index since it was loaded. Revocations are applied right away
+     * (or when read from the revocations log if performed by other instances), so this only bounds how long
+     * the state of deleted tokens is kept.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+    /**
+     * The maximum amount of tokens that can be introspected in a single request.
+     */
+    private int maxBatchSize = 1000;
+}
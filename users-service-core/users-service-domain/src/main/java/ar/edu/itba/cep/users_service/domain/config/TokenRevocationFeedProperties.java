@@ -0,0 +1,40 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Configuration properties for the feed of token revocations (i.e the revocations log read by other services).
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.token-revocation-feed")
+public final class TokenRevocationFeedProperties {
+    /**
+     * The amount of time between the end of a read of the log and the start of the next one, in milliseconds
+     * (the log is read once per application instance, no matter how many subscribers there are).
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration pollDelay = Duration.ofSeconds(1);
+    /**
+     * The amount of time after which subscribers receive a heartbeat if nothing was logged meanwhile, in seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+    /**
+     * The maximum amount of revocations read from the log at once (also the maximum page size of catch-up queries).
+     */
+    private int pageSize = 1000;
+    /**
+     * The maximum amount of subscribers per application instance.
+     */
+    private int maxSubscribers = 500;
+    /**
+     * The maximum amount of pending deliveries (i.e pages of revocations, or heartbeats) queued for a subscriber.
+     * Subscribers that fall further behind (e.g because their clients do not read) are dropped.
+     */
+    private int subscriberQueueSize = 100;
+}
@@ -0,0 +1,24 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory cache of users (together with their roles),
+ * used to serve user lookups without accessing the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.user-cache")
+public final class UserCacheProperties {
+    /**
+     * The maximum amount of users kept in the cache (zero disables caching).
+     */
+    private long maximumSize = 10_000;
+    /**
+     * The time a user is kept in the cache since it was loaded. Changes performed by this application instance are
+     * applied right away, so this bounds how long changes performed by other instances take to be seen.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,21 @@
+package ar.edu.itba.cep.users_service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for bulk user imports.
+ */
+@Data
+@ConfigurationProperties(prefix = "users-service.user-import")
+public final class UserImportProperties {
+    /**
+     * The amount of users validated, hashed and saved together (each batch is saved in a transaction of its own).
+     */
+    private int batchSize = 500;
+    /**
+     * The amount of threads that hash the passwords of imported users. These are not the threads that hash passwords
+     * when logging in, so imports do not slow down logins more than by competing for the processors.
+     */
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,26 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+
+/**
+ * A {@link BulkUserEvent} that indicates that many {@link User}s are being deactivated.
+ */
+@Getter
+@ToString(doNotUseGetters = true, callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class BulkUserDeactivatedEvent extends BulkUserEvent {
+
+    /**
+     * Constructor.
+     *
+     * @param usernames The usernames of the {@link User}s being deactivated.
+     */
+    /* package */ BulkUserDeactivatedEvent(final Collection<String> usernames) {
+        super(usernames);
+    }
+}
@@ -0,0 +1,91 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Base class for events affecting many {@link User}s at once (i.e bulk operations).
+ * A single event is published for all the affected {@link User}s, instead of a {@link UserEvent} for each of them,
+ * so listeners can handle them in a single pass.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public abstract class BulkUserEvent {
+
+    /**
+     * The usernames of the {@link User}s being affected.
+     */
+    private final List<String> usernames;
+
+
+    /**
+     * Constructor.
+     *
+     * @param usernames The usernames of the {@link User}s being affected.
+     */
+    /* package */ BulkUserEvent(final Collection<String> usernames) {
+        Assert.notNull(usernames, "The usernames must not be null");
+        this.usernames = List.copyOf(usernames);
+    }
+
+
+    /**
+     * Creates a {@link BulkUserRegisteredEvent}.
+     *
+     * @param usernames The usernames of the {@link User}s being registered.
+     * @return The created {@link BulkUserRegisteredEvent}.
+     */
+    public static BulkUserRegisteredEvent registered(final Collection<String> usernames) {
+        return new BulkUserRegisteredEvent(usernames);
+    }
+
+    /**
+     * Creates a {@link BulkUserRoleAddedEvent}.
+     *
+     * @param usernames The usernames of the {@link User}s being affected.
+     * @param role      The {@link Role} being added.
+     * @return The created {@link BulkUserRoleAddedEvent}.
+     */
+    public static BulkUserRoleAddedEvent roleAdded(final Collection<String> usernames, final Role role) {
+        return new BulkUserRoleAddedEvent(usernames, role);
+    }
+
+    /**
+     * Creates a {@link BulkUserRoleRemovedEvent}.
+     *
+     * @param usernames The usernames of the {@link User}s being affected.
+     * @param role      The {@link Role} being removed.
+     * @return The created {@link BulkUserRoleRemovedEvent}.
+     */
+    public static BulkUserRoleRemovedEvent roleRemoved(final Collection<String> usernames, final Role role) {
+        return new BulkUserRoleRemovedEvent(usernames, role);
+    }
+
+    /**
+     * Creates a {@link BulkUserActivatedEvent}.
+     *
+     * @param usernames The usernames of the {@link User}s being activated.
+     * @return The created {@link BulkUserActivatedEvent}.
+     */
+    public static BulkUserActivatedEvent activated(final Collection<String> usernames) {
+        return new BulkUserActivatedEvent(usernames);
+    }
+
+    /**
+     * Creates a {@link BulkUserDeactivatedEvent}.
+     *
+     * @param usernames The usernames of the {@link User}s being deactivated.
+     * @return The created {@link BulkUserDeactivatedEvent}.
+     */
+    public static BulkUserDeactivatedEvent deactivated(final Collection<String> usernames) {
+        return new BulkUserDeactivatedEvent(usernames);
+    }
+}
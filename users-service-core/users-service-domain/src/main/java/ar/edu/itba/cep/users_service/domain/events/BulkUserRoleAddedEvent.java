@@ -0,0 +1,35 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+
+/**
+ * A {@link BulkUserEvent} that indicates that a {@link Role} was added to many {@link User}s.
+ */
+@Getter
+@ToString(doNotUseGetters = true, callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class BulkUserRoleAddedEvent extends BulkUserEvent {
+
+    /**
+     * The {@link Role} being added.
+     */
+    private final Role role;
+
+
+    /**
+     * Constructor.
+     *
+     * @param usernames The usernames of the {@link User}s being affected.
+     * @param role      The {@link Role} being added.
+     */
+    /* package */ BulkUserRoleAddedEvent(final Collection<String> usernames, final Role role) {
+        super(usernames);
+        this.role = role;
+    }
+}
@@ -0,0 +1,35 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+
+/**
+ * A {@link BulkUserEvent} that indicates that a {@link Role} was removed from many {@link User}s.
+ */
+@Getter
+@ToString(doNotUseGetters = true, callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class BulkUserRoleRemovedEvent extends BulkUserEvent {
+
+    /**
+     * The {@link Role} being removed.
+     */
+    private final Role role;
+
+
+    /**
+     * Constructor.
+     *
+     * @param usernames The usernames of the {@link User}s being affected.
+     * @param role      The {@link Role} being removed.
+     */
+    /* package */ BulkUserRoleRemovedEvent(final Collection<String> usernames, final Role role) {
+        super(usernames);
+        this.role = role;
+    }
+}
@@ -0,0 +1,36 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An event that indicates that {@link AuthToken}s are being revoked (i.e blacklisted).
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public class TokensRevokedEvent {
+
+    /**
+     * The ids of the {@link AuthToken}s being revoked.
+     */
+    private final List<UUID> tokenIds;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenIds The ids of the {@link AuthToken}s being revoked.
+     */
+    public TokensRevokedEvent(final Collection<UUID> tokenIds) {
+        Assert.notNull(tokenIds, "The token ids must not be null");
+        this.tokenIds = List.copyOf(tokenIds);
+    }
+}
@@ -32,6 +32,27 @@ public abstract class UserEvent {
     }
 
 
+    /**
+     * Creates a {@link UserRegisteredEvent}.
+     *
+     * @param user The {@link User} being registered.
+     * @return The created {@link UserRegisteredEvent}.
+     */
+    public static UserRegisteredEvent registered(final User user) {
+        return new UserRegisteredEvent(user);
+    }
+
+    /**
+     * Creates a {@link UserRoleAddedEvent}.
+     *
+     * @param user The {@link User} being affected.
+     * @param role The {@link Role} being added.
+     * @return The created {@link UserRoleAddedEvent}.
+     */
+    public static UserRoleAddedEvent roleAdded(final User user, final Role role) {
+        return new UserRoleAddedEvent(user, role);
+    }
+
     /**
      * Creates a {@link UserRoleRemovedEvent}.
      *
@@ -43,6 +64,16 @@ public abstract class UserEvent {
         return new UserRoleRemovedEvent(user, role);
     }
 
+    /**
+     * Creates a {@link UserActivatedEvent}.
+     *
+     * @param user The {@link User} being activated.
+     * @return The created {@link UserActivatedEvent}.
+     */
+    public static UserActivatedEvent activated(final User user) {
+        return new UserActivatedEvent(user);
+    }
+
     /**
      * Creates a {@link UserDeactivatedEvent}.
      *
@@ -0,0 +1,33 @@
+package ar.edu.itba.cep.users_service.domain.events;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A {@link UserEvent} that indicates that a {@link Role} was added to a {@link User}.
+ */
+@Getter
+@ToString(doNotUseGetters = true, callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class UserRoleAddedEvent extends UserEvent {
+
+    /**
+     * The {@link Role} being added.
+     */
+    private final Role role;
+
+
+    /**
+     * Constructor.
+     *
+     * @param user The {@link User} being affected.
+     * @param role The {@link Role} being added.
+     */
+    /* package */ UserRoleAddedEvent(final User user, final Role role) {
+        super(user);
+        this.role = role;
+    }
+}
@@ -0,0 +1,208 @@
+package ar.edu.itba.cep.users_service.domain.introspection;
+
+import ar.edu.itba.cep.users_service.domain.config.TokenIntrospectionProperties;
+import ar.edu.itba.cep.users_service.domain.revocation.TokenRevocationFeed;
+import ar.edu.itba.cep.users_service.domain.transactions.TransactionCallbacks;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.security.authentication.TokenEncoder;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import ar.edu.itba.cep.users_service.services.TokenIntrospection;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded in-memory index of {@link TokenIntrospection}s, keyed by token id, used to answer introspection requests
+ * without accessing the database. {@link AuthToken}s issued by this application instance are added as soon as they
+ * are issued, and any other one is added the first time it is introspected.
+ * <p>
+ * As the only state of an {@link AuthToken} that can change is its validity (which can only be lost),
+ * entries are kept up to date by following the revocations log (through the {@link TokenRevocationFeed}),
+ * so revocations performed by any application instance are seen within the log polling delay.
+ * While the revocations log is not being followed, active entries are not used (they might have been revoked),
+ * and neither are those of {@link AuthToken}s that have expired since they were added (they might have been
+ * refreshed), so they are loaded again. Entries expire after a while, so deleted {@link AuthToken}s are eventually
+ * forgotten.
+ * <p>
+ * Hits, misses and evictions are published as metrics with name {@value #CACHE_NAME}.
+ */
+@Component
+public class TokenIntrospectionIndex {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenIntrospectionIndex.class);
+
+    /**
+     * The name with which the index metrics are published.
+     */
+    private static final String CACHE_NAME = "token-introspections";
+
+
+    /**
+     * The {@link Cache} holding the {@link TokenIntrospection}s.
+     */
+    private final Cache<UUID, TokenIntrospection> cache;
+    /**
+     * The {@link TokenRevocationFeed} from which revocations are received.
+     */
+    private final TokenRevocationFeed tokenRevocationFeed;
+    /**
+     * The {@link TokenEncoder} used to know when issued {@link AuthToken}s expire.
+     */
+    private final TokenEncoder tokenEncoder;
+    /**
+     * The amount of revocations received so far, used to detect revocations received while loading entries
+     * (which might have been loaded before being revoked).
+     */
+    private final AtomicLong revocations;
+    /**
+     * Whether the revocations log is being followed (i.e active entries can be used).
+     */
+    private volatile boolean following;
+
+
+    /**
+     * Constructor.
+     *
+     * @param properties          The {@link TokenIntrospectionProperties} with configuration data.
+     * @param tokenRevocationFeed The {@link TokenRevocationFeed} from which revocations are received.
+     * @param tokenEncoder        The {@link TokenEncoder} used to know when issued {@link AuthToken}s expire.
+     * @param meterRegistry       The {@link MeterRegistry} in which the index metrics are published.
+     */
+    public TokenIntrospectionIndex(
+            final TokenIntrospectionProperties properties,
+            final TokenRevocationFeed tokenRevocationFeed,
+            final TokenEncoder tokenEncoder,
+            final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        this.tokenRevocationFeed = tokenRevocationFeed;
+        this.tokenEncoder = tokenEncoder;
+        this.revocations = new AtomicLong();
+        this.following = false;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+
+    /**
+     * Starts following the revocations log, once the application is ready.
+     * Active entries are not used until then, nor if the feed stops delivering revocations to this index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void followRevocations() {
+        try {
+            // Set before subscribing, as the feed might drop the subscription right away.
+            following = true;
+            tokenRevocationFeed.subscribe(0, this::revokedAll, this::stopFollowing);
+        } catch (final ServiceOverloadedException e) {
+            following = false;
+            LOGGER.warn("Could not follow the revocations log. Active tokens will be introspected from the database");
+        }
+    }
+
+    /**
+     * Returns the {@link TokenIntrospection}s of the given {@code tokenIds},
+     * using the given {@code loader} to load those that are not in the index, or whose entries can't be used
+     * (all of them at once).
+     *
+     * @param tokenIds The ids of the tokens.
+     * @param loader   A {@link Function} that takes the ids of the tokens not in the index, and loads their
+     *                 {@link TokenIntrospection}s (including those of non existing tokens).
+     * @return A {@link Map} holding the {@link TokenIntrospection} of each of the given {@code tokenIds}.
+     */
+    public Map<UUID, TokenIntrospection> getAll(
+            final Collection<UUID> tokenIds,
+            final Function<Set<UUID>, Map<UUID, TokenIntrospection>> loader) {
+        final var following = this.following;
+        final var now = Instant.now();
+        final var introspections = new HashMap<UUID, TokenIntrospection>();
+        cache.getAllPresent(tokenIds).forEach((tokenId, introspection) -> {
+            if (!introspection.isActive() || (following && !introspection.isStaleAt(now))) {
+                introspections.put(tokenId, introspection);
+            }
+        });
+        if (introspections.size() == tokenIds.size()) {
+            return introspections;
+        }
+        final var missing = tokenIds.stream()
+                .filter(tokenId -> !introspections.containsKey(tokenId))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return introspections; // There were repeated ids.
+        }
+        final var revocationsBefore = revocations.get();
+        final var loaded = loader.apply(missing);
+        cache.putAll(loaded);
+        if (revocations.get() != revocationsBefore) {
+            // Something was revoked while loading, maybe before the revocation could be applied to the index.
+            // The loaded state is still returned, as it is as fresh as the database read.
+            cache.invalidateAll(loaded.keySet());
+        }
+        introspections.putAll(loaded);
+        return introspections;
+    }
+
+    /**
+     * Adds the given (just issued) {@code authToken} to this index. If there is an active transaction,
+     * the {@link AuthToken} is added only after it commits.
+     *
+     * @param authToken The issued {@link AuthToken}.
+     * @throws IllegalArgumentException If the {@code authToken} is {@code null}.
+     */
+    public void issued(final AuthToken authToken) throws IllegalArgumentException {
+        Assert.notNull(authToken, "The token must not be null");
+        final var introspection = TokenIntrospection.of(authToken, tokenEncoder.expiration(authToken));
+        TransactionCallbacks.afterCommit(() -> cache.put(introspection.getTokenId(), introspection));
+    }
+
+
+    /**
+     * Stops using active entries, as revocations are not being received anymore.
+     */
+    private void stopFollowing() {
+        following = false;
+        LOGGER.warn("Stopped following the revocations log. Active tokens will be introspected from the database");
+    }
+
+    /**
+     * Marks the {@link AuthToken}s revoked in the given {@code tokenRevocations} as not active
+     * (only those in the index, as any other one is loaded with its actual state).
+     *
+     * @param tokenRevocations The {@link TokenRevocation}s (empty for heartbeats).
+     */
+    private void revokedAll(final List<TokenRevocation> tokenRevocations) {
+        for (final var revocation : tokenRevocations) {
+            // Count first, so that entries being loaded meanwhile are not kept if the revocation is not applied.
+            revocations.incrementAndGet();
+            cache.asMap().computeIfPresent(
+                    revocation.getTokenId(),
+                    (tokenId, introspection) -> TokenIntrospection.inactive(tokenId)
+            );
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import java.util.List;
+
+/**
+ * A port out of the application through which {@link EventMessage}s are delivered to other services
+ * (e.g a message broker).
+ */
+public interface EventBroker {
+
+    /**
+     * Publishes the given {@code messages}. When this method returns, they must have been accepted by the broker
+     * (i.e they are removed from the outbox afterwards). If it throws an exception, they are published again later
+     * (one by one, until one of them fails too many times and is moved out of the outbox).
+     *
+     * @param messages The {@link EventMessage}s to be published, ordered by id.
+     * @apiNote Messages can be published more than once (i.e delivery is at least once),
+     * so receivers must discard duplicates (e.g by their ids). Ids are unique, but messages are not guaranteed
+     * to be published in the order in which their events occurred.
+     */
+    void publish(final List<EventMessage> messages);
+}
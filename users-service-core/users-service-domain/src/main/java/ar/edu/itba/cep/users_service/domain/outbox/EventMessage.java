@@ -0,0 +1,326 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserActivatedEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserDeactivatedEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRegisteredEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRoleAddedEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRoleRemovedEvent;
+import ar.edu.itba.cep.users_service.domain.events.TokensRevokedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserActivatedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserDeactivatedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserDeletedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRegisteredEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRoleAddedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRoleRemovedEvent;
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * An event dispatched asynchronously through the transactional outbox (i.e after the transaction that produced it
+ * commits), to in-process listeners (as part of an {@link EventMessageBatch}) and to the {@link EventBroker}.
+ * Unlike {@link UserEvent}s, it does not hold entities (only usernames and token ids),
+ * so it can be stored and dispatched by any application instance.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public final class EventMessage {
+
+    /**
+     * The {@link ObjectMapper} used to encode and decode the messages' payloads.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+
+    /**
+     * The message id (i.e the id of the {@link OutboxMessage} from which it was read),
+     * or {@code 0} for messages not yet written. Ids are taken from a sequence when messages are written,
+     * and transactions can commit in a different order, so they do not reflect the order of the events
+     * (i.e a message can be dispatched after another one with a greater id).
+     * Note that a message might be dispatched more than once (e.g if the dispatching transaction fails after the
+     * {@link EventBroker} accepted it), so receivers can use this id to discard duplicates.
+     */
+    private final long id;
+    /**
+     * The message {@link Type}.
+     */
+    private final Type type;
+    /**
+     * The usernames of the affected users (empty for {@link Type#TOKENS_REVOKED} messages).
+     */
+    private final List<String> usernames;
+    /**
+     * The role being added or removed ({@code null} for messages that do not involve a role).
+     */
+    private final Role role;
+    /**
+     * The ids of the revoked tokens (empty for messages other than {@link Type#TOKENS_REVOKED} ones).
+     */
+    private final List<UUID> tokenIds;
+    /**
+     * The {@link Instant} at which the event occurred (i.e at which the message was written).
+     */
+    private final Instant occurredAt;
+
+
+    /**
+     * Private constructor.
+     *
+     * @param id         The message id.
+     * @param type       The message {@link Type}.
+     * @param usernames  The usernames of the affected users.
+     * @param role       The role being added or removed.
+     * @param tokenIds   The ids of the revoked tokens.
+     * @param occurredAt The {@link Instant} at which the event occurred.
+     */
+    private EventMessage(
+            final long id,
+            final Type type,
+            final Collection<String> usernames,
+            final Role role,
+            final Collection<UUID> tokenIds,
+            final Instant occurredAt) {
+        this.id = id;
+        this.type = type;
+        this.usernames = List.copyOf(usernames);
+        this.role = role;
+        this.tokenIds = List.copyOf(tokenIds);
+        this.occurredAt = occurredAt;
+    }
+
+
+    /**
+     * Creates the {@link OutboxMessage} with which this message is written to the outbox.
+     *
+     * @return The created {@link OutboxMessage}.
+     */
+    public OutboxMessage toOutboxMessage() {
+        try {
+            return new OutboxMessage(type.name(), OBJECT_MAPPER.writeValueAsString(new Payload(this)));
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Creates an {@link EventMessage} for the given {@code event}.
+     *
+     * @param event The {@link UserEvent}.
+     * @return The created {@link EventMessage}.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}, or of an unsupported type.
+     */
+    public static EventMessage of(final UserEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event must not be null");
+        final var usernames = List.of(event.getUser().getUsername());
+        if (event instanceof UserRegisteredEvent) {
+            return newMessage(Type.USERS_REGISTERED, usernames, null, List.of());
+        }
+        if (event instanceof UserRoleAddedEvent) {
+            return newMessage(Type.USERS_ROLE_ADDED, usernames, ((UserRoleAddedEvent) event).getRole(), List.of());
+        }
+        if (event instanceof UserRoleRemovedEvent) {
+            return newMessage(Type.USERS_ROLE_REMOVED, usernames, ((UserRoleRemovedEvent) event).getRole(), List.of());
+        }
+        if (event instanceof UserActivatedEvent) {
+            return newMessage(Type.USERS_ACTIVATED, usernames, null, List.of());
+        }
+        if (event instanceof UserDeactivatedEvent) {
+            return newMessage(Type.USERS_DEACTIVATED, usernames, null, List.of());
+        }
+        if (event instanceof UserDeletedEvent) {
+            return newMessage(Type.USERS_DELETED, usernames, null, List.of());
+        }
+        throw new IllegalArgumentException("Unsupported event: " + event.getClass().getName());
+    }
+
+    /**
+     * Creates an {@link EventMessage} for the given {@code event}.
+     *
+     * @param event The {@link BulkUserEvent}.
+     * @return The created {@link EventMessage}.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}, or of an unsupported type.
+     */
+    public static EventMessage of(final BulkUserEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event must not be null");
+        final var usernames = event.getUsernames();
+        if (event instanceof BulkUserRegisteredEvent) {
+            return newMessage(Type.USERS_REGISTERED, usernames, null, List.of());
+        }
+        if (event instanceof BulkUserRoleAddedEvent) {
+            return newMessage(Type.USERS_ROLE_ADDED, usernames, ((BulkUserRoleAddedEvent) event).getRole(), List.of());
+        }
+        if (event instanceof BulkUserRoleRemovedEvent) {
+            final var role = ((BulkUserRoleRemovedEvent) event).getRole();
+            return newMessage(Type.USERS_ROLE_REMOVED, usernames, role, List.of());
+        }
+        if (event instanceof BulkUserActivatedEvent) {
+            return newMessage(Type.USERS_ACTIVATED, usernames, null, List.of());
+        }
+        if (event instanceof BulkUserDeactivatedEvent) {
+            return newMessage(Type.USERS_DEACTIVATED, usernames, null, List.of());
+        }
+        throw new IllegalArgumentException("Unsupported event: " + event.getClass().getName());
+    }
+
+    /**
+     * Creates an {@link EventMessage} for the given {@code event}.
+     *
+     * @param event The {@link TokensRevokedEvent}.
+     * @return The created {@link EventMessage}.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    public static EventMessage of(final TokensRevokedEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event must not be null");
+        return newMessage(Type.TOKENS_REVOKED, List.of(), null, event.getTokenIds());
+    }
+
+    /**
+     * Reads the {@link EventMessage} written in the given {@code outboxMessage}.
+     *
+     * @param outboxMessage The {@link OutboxMessage}.
+     * @return The read {@link EventMessage}.
+     * @throws IllegalArgumentException If the {@code outboxMessage} is {@code null}, or of an unknown type.
+     * @throws UncheckedIOException     If the {@code outboxMessage}'s payload can not be decoded.
+     */
+    public static EventMessage fromOutboxMessage(final OutboxMessage outboxMessage)
+            throws IllegalArgumentException, UncheckedIOException {
+        Assert.notNull(outboxMessage, "The outbox message must not be null");
+        final Payload payload;
+        try {
+            payload = OBJECT_MAPPER.readValue(outboxMessage.getPayload(), Payload.class);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EventMessage(
+                outboxMessage.getId(),
+                Type.valueOf(outboxMessage.getType()),
+                Optional.ofNullable(payload.usernames).orElse(List.of()),
+                payload.role,
+                Optional.ofNullable(payload.tokenIds).orElse(List.of()),
+                outboxMessage.getCreatedAt()
+        );
+    }
+
+    /**
+     * Creates a new {@link EventMessage} (i.e not yet written), occurring now.
+     *
+     * @param type      The message {@link Type}.
+     * @param usernames The usernames of the affected users.
+     * @param role      The role being added or removed.
+     * @param tokenIds  The ids of the revoked tokens.
+     * @return The created {@link EventMessage}.
+     */
+    private static EventMessage newMessage(
+            final Type type,
+            final Collection<String> usernames,
+            final Role role,
+            final Collection<UUID> tokenIds) {
+        return new EventMessage(0, type, usernames, role, tokenIds, Instant.now());
+    }
+
+
+    /**
+     * The types of {@link EventMessage}. Single user and bulk events are dispatched with the same type
+     * (i.e the former just affect one user).
+     */
+    public enum Type {
+        /**
+         * Users were registered.
+         */
+        USERS_REGISTERED,
+        /**
+         * A role was added to users.
+         */
+        USERS_ROLE_ADDED,
+        /**
+         * A role was removed from users.
+         */
+        USERS_ROLE_REMOVED,
+        /**
+         * Users were activated.
+         */
+        USERS_ACTIVATED,
+        /**
+         * Users were deactivated.
+         */
+        USERS_DEACTIVATED,
+        /**
+         * Users were deleted.
+         */
+        USERS_DELETED,
+        /**
+         * Tokens were revoked.
+         */
+        TOKENS_REVOKED,
+    }
+
+    /**
+     * The payload of the {@link OutboxMessage} in which an {@link EventMessage} is written
+     * (i.e its data, except for those fields that are stored in their own columns).
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private static final class Payload {
+
+        /**
+         * The usernames of the affected users.
+         */
+        @JsonProperty("usernames")
+        private final List<String> usernames;
+        /**
+         * The role being added or removed.
+         */
+        @JsonProperty("role")
+        private final Role role;
+        /**
+         * The ids of the revoked tokens.
+         */
+        @JsonProperty("tokenIds")
+        private final List<UUID> tokenIds;
+
+        /**
+         * Constructor.
+         *
+         * @param usernames The usernames of the affected users.
+         * @param role      The role being added or removed.
+         * @param tokenIds  The ids of the revoked tokens.
+         */
+        @JsonCreator
+        private Payload(
+                @JsonProperty("usernames") final List<String> usernames,
+                @JsonProperty("role") final Role role,
+                @JsonProperty("tokenIds") final List<UUID> tokenIds) {
+            this.usernames = usernames;
+            this.role = role;
+            this.tokenIds = tokenIds;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param message The {@link EventMessage} whose payload is being built.
+         */
+        private Payload(final EventMessage message) {
+            this(message.usernames, message.role, message.tokenIds);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An event published in-process by the {@link EventOutboxDispatcher} with a batch of {@link EventMessage}s
+ * read from the outbox. Listeners are executed in the dispatching transaction (i.e if any of them fails,
+ * the whole batch is dispatched again later), so they must be idempotent.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public class EventMessageBatch {
+
+    /**
+     * The {@link EventMessage}s in the batch, ordered by id.
+     */
+    private final List<EventMessage> messages;
+
+
+    /**
+     * Constructor.
+     *
+     * @param messages The {@link EventMessage}s in the batch, ordered by id.
+     * @throws IllegalArgumentException If the {@code messages} {@link Collection} is {@code null}.
+     */
+    public EventMessageBatch(final Collection<EventMessage> messages) throws IllegalArgumentException {
+        Assert.notNull(messages, "The messages must not be null");
+        this.messages = List.copyOf(messages);
+    }
+
+
+    /**
+     * Retrieves the {@link EventMessage}s in the batch of the given {@code type}.
+     *
+     * @param type The {@link EventMessage.Type}.
+     * @return The {@link EventMessage}s of the given {@code type}, ordered by id.
+     */
+    public List<EventMessage> ofType(final EventMessage.Type type) {
+        return messages.stream().filter(message -> message.getType() == type).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.TokensRevokedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import ar.edu.itba.cep.users_service.repositories.OutboxMessageRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A component that writes the events published in-process into the transactional outbox
+ * (i.e as {@link OutboxMessage}s saved in the same transaction as the change they describe),
+ * so they are dispatched asynchronously by the {@link EventOutboxDispatcher} once (and only if) it commits.
+ */
+@Component
+public class EventOutbox {
+
+    /**
+     * The {@link OutboxMessageRepository} in which the {@link OutboxMessage}s are saved.
+     */
+    private final OutboxMessageRepository outboxMessageRepository;
+
+
+    /**
+     * Constructor.
+     *
+     * @param outboxMessageRepository The {@link OutboxMessageRepository} in which the {@link OutboxMessage}s are saved.
+     */
+    public EventOutbox(final OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+
+    /**
+     * An {@link EventListener} that can handle {@link UserEvent}s, writing them into the outbox.
+     *
+     * @param event The {@link UserEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @EventListener(UserEvent.class)
+    public void userChanged(final UserEvent event) throws IllegalArgumentException {
+        write(EventMessage.of(event));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link BulkUserEvent}s, writing them into the outbox.
+     *
+     * @param event The {@link BulkUserEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @EventListener(BulkUserEvent.class)
+    public void usersChanged(final BulkUserEvent event) throws IllegalArgumentException {
+        write(EventMessage.of(event));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link TokensRevokedEvent}s, writing them into the outbox
+     * (unless no token was revoked).
+     *
+     * @param event The {@link TokensRevokedEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @EventListener(TokensRevokedEvent.class)
+    public void tokensRevoked(final TokensRevokedEvent event) throws IllegalArgumentException {
+        final var message = EventMessage.of(event);
+        if (!message.getTokenIds().isEmpty()) {
+            write(message);
+        }
+    }
+
+
+    /**
+     * Writes the given {@code message} into the outbox.
+     *
+     * @param message The {@link EventMessage} to be written.
+     */
+    private void write(final EventMessage message) {
+        outboxMessageRepository.save(message.toOutboxMessage());
+    }
+}
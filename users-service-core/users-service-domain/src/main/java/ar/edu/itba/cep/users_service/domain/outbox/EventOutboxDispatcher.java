@@ -0,0 +1,215 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import ar.edu.itba.cep.users_service.domain.config.EventOutboxProperties;
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import ar.edu.itba.cep.users_service.repositories.OutboxMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A component in charge of periodically dispatching the {@link EventMessage}s written in the outbox,
+ * in bounded batches (each of them in its own transaction), ordered by id. Note that ids are taken when messages
+ * are written, and transactions can commit in a different order, so no ordering between events is guaranteed.
+ * Each batch is published in-process (as an {@link EventMessageBatch}) and to the {@link EventBroker},
+ * and then removed from the outbox. If any of these steps fails, the messages in the batch are dispatched
+ * one by one, until one of them fails. The failed attempt is registered for that message, and it is dispatched
+ * again in the next run (i.e delivery is at least once). Once a message fails too many times, it is moved out of
+ * the outbox (i.e to the dead letters), so a message that can never be dispatched does not block the others.
+ * <p>
+ * Batches are locked while being dispatched, and locked messages are skipped,
+ * so many application instances can dispatch the outbox at the same time without dispatching the same messages.
+ */
+@Component
+public class EventOutboxDispatcher implements SchedulingConfigurer {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutboxDispatcher.class);
+
+
+    /**
+     * The {@link OutboxMessageRepository} from which the {@link OutboxMessage}s are read (and then removed).
+     */
+    private final OutboxMessageRepository outboxMessageRepository;
+    /**
+     * The {@link ApplicationEventPublisher} through which {@link EventMessageBatch}es are published in-process.
+     */
+    private final ApplicationEventPublisher publisher;
+    /**
+     * The {@link EventBroker} to which the {@link EventMessage}s are delivered.
+     */
+    private final EventBroker eventBroker;
+    /**
+     * The {@link TransactionTemplate} used to dispatch each batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * The {@link EventOutboxProperties} with configuration data.
+     */
+    private final EventOutboxProperties properties;
+
+
+    /**
+     * Constructor.
+     *
+     * @param outboxMessageRepository The {@link OutboxMessageRepository} from which the {@link OutboxMessage}s
+     *                                are read (and then removed).
+     * @param publisher               The {@link ApplicationEventPublisher} through which {@link EventMessageBatch}es
+     *                                are published in-process.
+     * @param eventBroker             The {@link EventBroker} to which the {@link EventMessage}s are delivered.
+     * @param transactionManager      The {@link PlatformTransactionManager} used to demarcate each batch's
+     *                                transaction.
+     * @param properties              The {@link EventOutboxProperties} with configuration data.
+     */
+    public EventOutboxDispatcher(
+            final OutboxMessageRepository outboxMessageRepository,
+            final ApplicationEventPublisher publisher,
+            final EventBroker eventBroker,
+            final PlatformTransactionManager transactionManager,
+            final EventOutboxProperties properties) {
+        Assert.isTrue(properties.getBatchSize() > 0, "The batch size must be positive");
+        Assert.isTrue(properties.getMaxBatches() > 0, "The maximum amount of batches must be positive");
+        Assert.isTrue(properties.getMaxAttempts() > 0, "The maximum amount of attempts must be positive");
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.publisher = publisher;
+        this.eventBroker = eventBroker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (!properties.isEnabled()) {
+            LOGGER.info("Event outbox dispatcher is disabled");
+            return;
+        }
+        taskRegistrar.addFixedDelayTask(this::dispatch, properties.getDelay().toMillis());
+    }
+
+    /**
+     * Dispatches the {@link EventMessage}s in the outbox.
+     * Stops when there are no more messages to be dispatched, when the maximum amount of batches is reached,
+     * or when a message fails to be dispatched.
+     *
+     * @return The amount of dispatched {@link EventMessage}s.
+     */
+    /* package */ int dispatch() {
+        final var batchSize = properties.getBatchSize();
+        var total = 0;
+        for (int i = 0; i < properties.getMaxBatches(); i++) {
+            final var lockedIds = new ArrayList<Long>(batchSize);
+            final Integer dispatched;
+            try {
+                dispatched = transactionTemplate.execute(status -> dispatchBatch(batchSize, lockedIds));
+            } catch (final RuntimeException e) {
+                if (lockedIds.isEmpty()) {
+                    throw e; // The outbox could not even be read.
+                }
+                if (lockedIds.size() == 1) {
+                    registerFailure(lockedIds.get(0), e);
+                } else {
+                    LOGGER.warn("Could not dispatch a batch of {} events. Dispatching them one by one",
+                            lockedIds.size(), e);
+                    total += dispatchOneByOne(lockedIds.size());
+                }
+                break;
+            }
+            final var amount = dispatched == null ? 0 : dispatched;
+            total += amount;
+            if (amount < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            LOGGER.debug("Dispatched {} events", total);
+        }
+        return total;
+    }
+
+    /**
+     * Dispatches up to {@code amount} {@link EventMessage}s, each of them in its own transaction,
+     * stopping at the first one that fails (whose failed attempt is registered).
+     *
+     * @param amount The maximum amount of {@link EventMessage}s to be dispatched.
+     * @return The amount of dispatched {@link EventMessage}s.
+     */
+    private int dispatchOneByOne(final int amount) {
+        var total = 0;
+        while (total < amount) {
+            final var lockedIds = new ArrayList<Long>(1);
+            final Integer dispatched;
+            try {
+                dispatched = transactionTemplate.execute(status -> dispatchBatch(1, lockedIds));
+            } catch (final RuntimeException e) {
+                if (lockedIds.isEmpty()) {
+                    throw e; // The outbox could not even be read.
+                }
+                registerFailure(lockedIds.get(0), e);
+                break;
+            }
+            if (dispatched == null || dispatched == 0) {
+                break;
+            }
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Registers a failed attempt of dispatching the {@link EventMessage} with the given {@code id},
+     * moving it out of the outbox if it failed too many times.
+     *
+     * @param id    The id of the {@link EventMessage} that could not be dispatched.
+     * @param cause The {@link RuntimeException} that caused the failure.
+     */
+    private void registerFailure(final long id, final RuntimeException cause) {
+        LOGGER.warn("Could not dispatch event {}", id, cause);
+        final var maxAttempts = properties.getMaxAttempts();
+        final var deadLettered = transactionTemplate.execute(status -> {
+            outboxMessageRepository.registerFailedAttempt(id);
+            return outboxMessageRepository.deadLetterIfExhausted(id, maxAttempts);
+        });
+        if (Boolean.TRUE.equals(deadLettered)) {
+            LOGGER.error("Event {} failed to be dispatched {} times. It was moved to the dead letters",
+                    id, maxAttempts);
+        }
+    }
+
+    /**
+     * Dispatches the oldest {@link EventMessage}s in the outbox (that are not being dispatched by others).
+     *
+     * @param batchSize The maximum amount of {@link EventMessage}s to be dispatched.
+     * @param lockedIds A {@link List} to which the ids of the locked {@link EventMessage}s are added
+     *                  (so they are known even if the transaction fails).
+     * @return The amount of dispatched {@link EventMessage}s.
+     */
+    private int dispatchBatch(final int batchSize, final List<Long> lockedIds) {
+        final var outboxMessages = outboxMessageRepository.lockOldest(batchSize);
+        if (outboxMessages.isEmpty()) {
+            return 0;
+        }
+        outboxMessages.stream().map(OutboxMessage::getId).forEach(lockedIds::add);
+        final var messages = outboxMessages.stream()
+                .map(EventMessage::fromOutboxMessage)
+                .collect(Collectors.toList());
+        publisher.publishEvent(new EventMessageBatch(messages));
+        eventBroker.publish(messages);
+        outboxMessageRepository.deleteByIds(
+                outboxMessages.stream().map(OutboxMessage::getId).collect(Collectors.toList())
+        );
+        return outboxMessages.size();
+    }
+}
@@ -0,0 +1,83 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An {@link EventBroker} that keeps the published {@link EventMessage}s in memory, and hands them to subscribers
+ * in the same process. It is used when no other {@link EventBroker} is configured (e.g in tests or development),
+ * in which case events do not leave the application.
+ */
+public class InMemoryEventBroker implements EventBroker {
+
+    /**
+     * The maximum amount of {@link EventMessage}s kept in the history.
+     */
+    private final int historySize;
+    /**
+     * The last published {@link EventMessage}s (at most {@link #historySize}), from the oldest to the newest one.
+     */
+    private final Deque<EventMessage> history;
+    /**
+     * The subscribers to which published {@link EventMessage}s are handed.
+     */
+    private final List<Consumer<EventMessage>> subscribers;
+
+
+    /**
+     * Constructor.
+     *
+     * @param historySize The maximum amount of {@link EventMessage}s kept in the history.
+     * @throws IllegalArgumentException If the {@code historySize} is negative.
+     */
+    public InMemoryEventBroker(final int historySize) throws IllegalArgumentException {
+        Assert.isTrue(historySize >= 0, "The history size must not be negative");
+        this.historySize = historySize;
+        this.history = new ArrayDeque<>(historySize);
+        this.subscribers = new CopyOnWriteArrayList<>();
+    }
+
+
+    @Override
+    public void publish(final List<EventMessage> messages) {
+        Assert.notNull(messages, "The messages must not be null");
+        synchronized (history) {
+            for (final var message : messages) {
+                if (historySize > 0) {
+                    if (history.size() == historySize) {
+                        history.removeFirst();
+                    }
+                    history.addLast(message);
+                }
+            }
+        }
+        messages.forEach(message -> subscribers.forEach(subscriber -> subscriber.accept(message)));
+    }
+
+    /**
+     * Subscribes the given {@code subscriber}, which will receive the {@link EventMessage}s published from now on.
+     *
+     * @param subscriber The subscriber.
+     * @throws IllegalArgumentException If the {@code subscriber} is {@code null}.
+     */
+    public void subscribe(final Consumer<EventMessage> subscriber) throws IllegalArgumentException {
+        Assert.notNull(subscriber, "The subscriber must not be null");
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Retrieves the last published {@link EventMessage}s.
+     *
+     * @return The last published {@link EventMessage}s, from the oldest to the newest one.
+     */
+    public List<EventMessage> getHistory() {
+        synchronized (history) {
+            return List.copyOf(history);
+        }
+    }
+}
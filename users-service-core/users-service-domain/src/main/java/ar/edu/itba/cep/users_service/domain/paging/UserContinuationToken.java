@@ -0,0 +1,115 @@
+package ar.edu.itba.cep.users_service.domain.paging;
+
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.services.UserSeekOrder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A continuation token used to retrieve {@link User}s with keyset (i.e seek) pagination.
+ * It holds the {@link UserSeekOrder} and the key of the last {@link User} of a page
+ * (i.e its username or id, according to the said {@link UserSeekOrder}).
+ * <p>
+ * Tokens are encoded as url-safe base64 strings, so they are opaque for clients.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UserContinuationToken {
+
+    /**
+     * Separates the {@link UserSeekOrder} from the key in an encoded token.
+     */
+    private static final char SEPARATOR = ':';
+
+    /**
+     * The {@link UserSeekOrder} in which {@link User}s are being retrieved.
+     */
+    private final UserSeekOrder order;
+    /**
+     * The key of the last {@link User} of a page.
+     */
+    private final String key;
+
+
+    /**
+     * @return The username of the last {@link User} of a page.
+     * @throws IllegalStateException If this token was not created for the {@link UserSeekOrder#USERNAME} order.
+     */
+    public String getUsername() throws IllegalStateException {
+        Assert.state(order == UserSeekOrder.USERNAME, "Not a token for users ordered by username");
+        return key;
+    }
+
+    /**
+     * @return The id of the last {@link User} of a page.
+     * @throws IllegalStateException If this token was not created for the {@link UserSeekOrder#ID} order.
+     */
+    public long getId() throws IllegalStateException {
+        Assert.state(order == UserSeekOrder.ID, "Not a token for users ordered by id");
+        return Long.parseLong(key);
+    }
+
+    /**
+     * @return The encoded token.
+     */
+    public String encode() {
+        final var raw = order.name() + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Creates a {@link UserContinuationToken} for the page ending with the given {@code user}.
+     *
+     * @param order The {@link UserSeekOrder} in which {@link User}s are being retrieved.
+     * @param user  The last {@link User} of a page.
+     * @return The created {@link UserContinuationToken}.
+     * @throws IllegalArgumentException If any argument is {@code null}.
+     */
+    public static UserContinuationToken after(final UserSeekOrder order, final User user)
+            throws IllegalArgumentException {
+        Assert.notNull(order, "The order must not be null");
+        Assert.notNull(user, "The user must not be null");
+        switch (order) {
+            case USERNAME:
+                return new UserContinuationToken(order, user.getUsername());
+            case ID:
+                return new UserContinuationToken(order, Long.toString(user.getId()));
+            default:
+                throw new IllegalArgumentException("Unknown order " + order);
+        }
+    }
+
+    /**
+     * Decodes the given {@code token}.
+     *
+     * @param token The encoded token.
+     * @return The decoded {@link UserContinuationToken}.
+     * @throws IllegalArgumentException If the {@code token} is not a valid one.
+     */
+    public static UserContinuationToken decode(final String token) throws IllegalArgumentException {
+        Assert.hasText(token, "The continuation token must not be blank");
+        try {
+            final var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var separatorIndex = raw.indexOf(SEPARATOR);
+            Assert.isTrue(separatorIndex > 0, "Invalid continuation token");
+            final var order = UserSeekOrder.valueOf(raw.substring(0, separatorIndex));
+            final var key = raw.substring(separatorIndex + 1);
+            if (order == UserSeekOrder.ID) {
+                Long.parseLong(key); // Fails with a NumberFormatException (an IllegalArgumentException) if not a long
+            }
+            return new UserContinuationToken(order, key);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ar.edu.itba.cep.users_service.domain.revocation;
+
+import ar.edu.itba.cep.users_service.domain.transactions.TransactionCallbacks;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.repositories.AuthTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index of revoked (i.e blacklisted) {@link AuthToken}s, used to reject them without accessing the
+ * database. It is warmed with the revoked {@link AuthToken}s when the application is ready,
+ * and kept in sync each time an {@link AuthToken} is revoked by this application instance.
+ * <p>
+ * Note that this index can only be used to state that a token is revoked
+ * (i.e if a token is not in the index, it must still be checked against the database).
+ */
+@Component
+public class RevokedTokensIndex {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevokedTokensIndex.class);
+
+
+    /**
+     * The {@link AuthTokenRepository} used to load the revoked {@link AuthToken}s ids.
+     */
+    private final AuthTokenRepository<AuthToken> authTokenRepository;
+    /**
+     * The {@link UuidHashSet} holding the revoked {@link AuthToken}s ids.
+     */
+    private final UuidHashSet revokedIds;
+    /**
+     * A {@link ReadWriteLock} used to synchronize access to the {@link #revokedIds} set.
+     */
+    private final ReadWriteLock lock;
+
+
+    /**
+     * Constructor.
+     *
+     * @param authTokenRepository The {@link AuthTokenRepository} used to load the revoked {@link AuthToken}s ids.
+     */
+    public RevokedTokensIndex(final AuthTokenRepository<AuthToken> authTokenRepository) {
+        this.authTokenRepository = authTokenRepository;
+        this.revokedIds = new UuidHashSet();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+
+    /**
+     * Warms this index with the ids of the revoked {@link AuthToken}s stored in the database.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        final var ids = authTokenRepository.getRevokedTokenIds();
+        addAll(ids);
+        LOGGER.info("Revoked tokens index warmed with {} tokens", ids.size());
+    }
+
+    /**
+     * Indicates whether the {@link AuthToken} with the given {@code tokenId} is known to be revoked.
+     *
+     * @param tokenId The {@link AuthToken}'s id.
+     * @return {@code true} if the {@link AuthToken} is known to be revoked, or {@code false} otherwise
+     * (in which case it might still be revoked).
+     */
+    public boolean isRevoked(final UUID tokenId) {
+        Assert.notNull(tokenId, "The token id must not be null");
+        lock.readLock().lock();
+        try {
+            return revokedIds.contains(tokenId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the given {@code tokenId} to this index. If there is an active transaction,
+     * the id is added only after it commits.
+     *
+     * @param tokenId The id of the revoked {@link AuthToken}.
+     */
+    public void revoked(final UUID tokenId) {
+        Assert.notNull(tokenId, "The token id must not be null");
+        revokedAll(List.of(tokenId));
+    }
+
+    /**
+     * Adds the given {@code tokenIds} to this index. If there is an active transaction,
+     * the ids are added only after it commits.
+     *
+     * @param tokenIds The ids of the revoked {@link AuthToken}s.
+     */
+    public void revokedAll(final Collection<UUID> tokenIds) {
+        Assert.notNull(tokenIds, "The token ids must not be null");
+        if (tokenIds.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> addAll(tokenIds));
+    }
+
+    /**
+     * Removes the given {@code tokenIds} from this index (e.g because the {@link AuthToken}s were deleted).
+     * If there is an active transaction, the ids are removed only after it commits.
+     *
+     * @param tokenIds The ids of the {@link AuthToken}s to be removed.
+     */
+    public void forgetAll(final Collection<UUID> tokenIds) {
+        Assert.notNull(tokenIds, "The token ids must not be null");
+        if (tokenIds.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> removeAll(tokenIds));
+    }
+
+
+    /**
+     * Adds the given {@code tokenIds} to the {@link #revokedIds} set.
+     *
+     * @param tokenIds The ids to be added.
+     */
+    private void addAll(final Collection<UUID> tokenIds) {
+        lock.writeLock().lock();
+        try {
+            tokenIds.forEach(revokedIds::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the given {@code tokenIds} from the {@link #revokedIds} set.
+     *
+     * @param tokenIds The ids to be removed.
+     */
+    private void removeAll(final Collection<UUID> tokenIds) {
+        lock.writeLock().lock();
+        try {
+            tokenIds.forEach(revokedIds::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package ar.edu.itba.cep.users_service.domain.revocation;
+
+import ar.edu.itba.cep.users_service.domain.config.TokenRevocationFeedProperties;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.repositories.TokenRevocationRepository;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A component that hands the {@link TokenRevocation}s in the revocations log to in-process subscribers,
+ * as they are logged. The log is read periodically (by a single reader, no matter how many subscribers there are),
+ * starting after the last {@link TokenRevocation} read.
+ * <p>
+ * Each subscriber has its own cursor (i.e the sequence number of the last {@link TokenRevocation} it was handed),
+ * so it never receives a {@link TokenRevocation} twice. As entries are appended to the log in sequence order,
+ * no {@link TokenRevocation} is skipped either.
+ * <p>
+ * The reader never delivers anything itself: it just queues what it reads in each subscriber's bounded queue.
+ * Each subscriber is delivered its queue by a task of its own (in the delivery executor), which also catches it up
+ * with the {@link TokenRevocation}s already logged when it subscribes, so a slow subscriber (or a long catch-up)
+ * does not delay the others. Subscribers whose queue gets full (i.e that fall too far behind) are dropped.
+ */
+@Component
+public class TokenRevocationFeed implements SchedulingConfigurer, DisposableBean {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationFeed.class);
+
+    /**
+     * The time that clients are suggested to wait before subscribing again when there are too many subscribers.
+     */
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+
+    /**
+     * The {@link TokenRevocationRepository} from which the log is read.
+     */
+    private final TokenRevocationRepository tokenRevocationRepository;
+    /**
+     * A {@link TransactionTemplate} used to read the log in (short) read-only transactions.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    /**
+     * The {@link TokenRevocationFeedProperties} with configuration data.
+     */
+    private final TokenRevocationFeedProperties properties;
+    /**
+     * The {@link Executor} in which {@link TokenRevocation}s are delivered to subscribers
+     * (at most one task per subscriber at a time).
+     */
+    private final Executor deliveryExecutor;
+    /**
+     * The actual subscribers (guarded by itself, which is also held while the log is read and queued,
+     * so subscribers are handed {@link TokenRevocation}s in order).
+     */
+    private final List<Subscriber> subscribers;
+    /**
+     * The sequence number of the last {@link TokenRevocation} read by the feed (guarded by {@link #subscribers}).
+     */
+    private long cursor;
+    /**
+     * The {@link Instant} at which something was last queued for subscribers (guarded by {@link #subscribers}).
+     */
+    private Instant lastDelivery;
+
+
+    /**
+     * Constructor.
+     *
+     * @param tokenRevocationRepository The {@link TokenRevocationRepository} from which the log is read.
+     * @param transactionManager        The {@link PlatformTransactionManager} used to demarcate the reads.
+     * @param properties                The {@link TokenRevocationFeedProperties} with configuration data.
+     */
+    public TokenRevocationFeed(
+            final TokenRevocationRepository tokenRevocationRepository,
+            final PlatformTransactionManager transactionManager,
+            final TokenRevocationFeedProperties properties) {
+        // A thread per delivering subscriber, so a subscriber blocked writing to its client blocks nobody else
+        // (threads are bounded by the maximum amount of subscribers, as each of them has at most one task).
+        this(
+                tokenRevocationRepository,
+                transactionManager,
+                properties,
+                Executors.newCachedThreadPool(new CustomizableThreadFactory("token-revocation-feed-"))
+        );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tokenRevocationRepository The {@link TokenRevocationRepository} from which the log is read.
+     * @param transactionManager        The {@link PlatformTransactionManager} used to demarcate the reads.
+     * @param properties                The {@link TokenRevocationFeedProperties} with configuration data.
+     * @param deliveryExecutor          The {@link Executor} in which {@link TokenRevocation}s are delivered.
+     */
+    /* package */ TokenRevocationFeed(
+            final TokenRevocationRepository tokenRevocationRepository,
+            final PlatformTransactionManager transactionManager,
+            final TokenRevocationFeedProperties properties,
+            final Executor deliveryExecutor) {
+        Assert.isTrue(properties.getPageSize() > 0, "The page size must be positive");
+        Assert.isTrue(properties.getMaxSubscribers() >= 0, "The maximum amount of subscribers must not be negative");
+        Assert.isTrue(properties.getSubscriberQueueSize() > 0, "The subscriber queue size must be positive");
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.deliveryExecutor = deliveryExecutor;
+        this.subscribers = new ArrayList<>();
+        this.cursor = 0;
+        this.lastDelivery = Instant.now();
+    }
+
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::poll, properties.getPollDelay().toMillis());
+    }
+
+    @Override
+    public void destroy() {
+        if (deliveryExecutor instanceof ExecutorService) {
+            ((ExecutorService) deliveryExecutor).shutdownNow(); // Interrupts the deliveries blocked writing.
+        }
+    }
+
+    /**
+     * Subscribes the given {@code subscriber}, starting after the given {@code sequence} number.
+     * The {@link TokenRevocation}s already logged are read and delivered afterwards, in the delivery executor
+     * (i.e the calling thread does not read the log).
+     *
+     * @param sequence   The sequence number after which {@link TokenRevocation}s are received.
+     * @param subscriber A {@link Consumer} that receives the {@link TokenRevocation}s, ordered by sequence number
+     *                   (or an empty {@link List} as a heartbeat).
+     * @param onDropped  A {@link Runnable} executed (in the delivery executor) if the {@code subscriber} is
+     *                   unsubscribed by the feed (i.e because it failed, or because it fell too far behind).
+     * @return A {@link Runnable} that unsubscribes the {@code subscriber} when executed.
+     * @throws IllegalArgumentException   If the {@code sequence} is negative, or if the {@code subscriber}
+     *                                    or the {@code onDropped} {@link Runnable} are {@code null}.
+     * @throws ServiceOverloadedException If there are too many subscribers at the moment.
+     */
+    public Runnable subscribe(
+            final long sequence,
+            final Consumer<List<TokenRevocation>> subscriber,
+            final Runnable onDropped) throws IllegalArgumentException, ServiceOverloadedException {
+        Assert.isTrue(sequence >= 0, "The sequence number must not be negative");
+        Assert.notNull(subscriber, "The subscriber must not be null");
+        Assert.notNull(onDropped, "The on dropped callback must not be null");
+        final var newSubscriber = new Subscriber(sequence, subscriber, onDropped, properties.getSubscriberQueueSize());
+        synchronized (subscribers) {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                throw new ServiceOverloadedException("Too many revocation feed subscribers", RETRY_AFTER);
+            }
+            subscribers.add(newSubscriber);
+        }
+        scheduleDelivery(newSubscriber);
+        return () -> unsubscribe(newSubscriber);
+    }
+
+    /**
+     * Reads the {@link TokenRevocation}s logged since the last read, queueing them for the live subscribers
+     * (or queues them a heartbeat if nothing was logged for a while). Nothing is delivered by this method.
+     * Does nothing if there are no live subscribers (i.e that finished catching up).
+     */
+    /* package */ void poll() {
+        final var toDeliver = new LinkedHashSet<Subscriber>();
+        try {
+            synchronized (subscribers) {
+                if (subscribers.stream().noneMatch(Subscriber::isLive)) {
+                    return;
+                }
+                List<TokenRevocation> page;
+                do {
+                    page = read(cursor);
+                    if (!page.isEmpty()) {
+                        queue(page, toDeliver);
+                        cursor = page.get(page.size() - 1).getSequence();
+                    }
+                } while (page.size() == properties.getPageSize());
+                if (Duration.between(lastDelivery, Instant.now()).compareTo(properties.getHeartbeatInterval()) >= 0) {
+                    queue(List.of(), toDeliver);
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Could not read the revocations log", e);
+        }
+        toDeliver.forEach(this::scheduleDelivery); // Once the lock is released.
+    }
+
+
+    /**
+     * Reads a page of {@link TokenRevocation}s from the log.
+     *
+     * @param sequence The sequence number after which {@link TokenRevocation}s are read.
+     * @return The read {@link TokenRevocation}s.
+     */
+    private List<TokenRevocation> read(final long sequence) {
+        return Optional.ofNullable(
+                readOnlyTransactionTemplate.execute(
+                        status -> tokenRevocationRepository.findSince(sequence, properties.getPageSize())
+                )
+        ).orElse(List.of());
+    }
+
+    /**
+     * Queues the given {@code revocations} for all the live subscribers (must be called while holding the lock),
+     * dropping those whose queue is full.
+     *
+     * @param revocations The {@link TokenRevocation}s to be queued.
+     * @param toDeliver   A {@link Set} to which the {@link Subscriber}s whose queue changed (or that were dropped)
+     *                    are added, so their deliveries are scheduled afterwards.
+     */
+    private void queue(final List<TokenRevocation> revocations, final Set<Subscriber> toDeliver) {
+        final var iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            final var subscriber = iterator.next();
+            if (!subscriber.isLive()) {
+                continue; // It will read these revocations while catching up.
+            }
+            if (!subscriber.queue(revocations)) {
+                LOGGER.debug("Revocation feed subscriber fell too far behind. Dropping it...");
+                iterator.remove();
+                subscriber.state = State.DROPPED;
+            }
+            toDeliver.add(subscriber);
+        }
+        lastDelivery = Instant.now();
+    }
+
+    /**
+     * Schedules a delivery task for the given {@code subscriber}, unless it already has one.
+     *
+     * @param subscriber The {@link Subscriber}.
+     */
+    private void scheduleDelivery(final Subscriber subscriber) {
+        if (subscriber.delivering.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> deliver(subscriber));
+        }
+    }
+
+    /**
+     * Delivers to the given {@code subscriber} everything in its queue (catching it up first if it has just
+     * subscribed), executing its on dropped {@link Runnable} if it was dropped.
+     * Executed in the delivery executor, by at most one task at a time for each {@link Subscriber}.
+     *
+     * @param subscriber The {@link Subscriber}.
+     */
+    private void deliver(final Subscriber subscriber) {
+        try {
+            while (true) {
+                List<TokenRevocation> revocations;
+                while (subscriber.isSubscribed() && (revocations = subscriber.pending.poll()) != null) {
+                    subscriber.consumer.accept(revocations);
+                }
+                if (subscriber.state != State.CATCHING_UP) {
+                    break;
+                }
+                catchUp(subscriber);
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Revocation feed subscriber failed. Unsubscribing it...", e);
+            if (unsubscribe(subscriber)) {
+                subscriber.state = State.DROPPED;
+            }
+        }
+        if (subscriber.state == State.DROPPED) {
+            subscriber.pending.clear();
+            subscriber.onDropped.run();
+            return; // The delivering flag is never cleared, so nothing else is delivered.
+        }
+        subscriber.delivering.set(false);
+        // Something might have been queued (or the subscriber dropped) after the last check,
+        // but before the flag was cleared.
+        if (subscriber.state == State.DROPPED
+                || (subscriber.state == State.LIVE && !subscriber.pending.isEmpty())) {
+            scheduleDelivery(subscriber);
+        }
+    }
+
+    /**
+     * Delivers the next page of {@link TokenRevocation}s logged after the given {@code subscriber}'s cursor to it.
+     * If it is the last page, the {@code subscriber} becomes live (i.e it starts being handed what the feed reads),
+     * once what the feed read meanwhile is queued for it.
+     *
+     * @param subscriber The {@link Subscriber} that is catching up (with an empty queue).
+     */
+    private void catchUp(final Subscriber subscriber) {
+        final var page = read(subscriber.cursor);
+        if (!page.isEmpty()) {
+            subscriber.consumer.accept(page);
+            subscriber.cursor = page.get(page.size() - 1).getSequence();
+            subscriber.lastRead = subscriber.cursor;
+        }
+        if (page.size() == properties.getPageSize()) {
+            return;
+        }
+        synchronized (subscribers) {
+            if (subscriber.state != State.CATCHING_UP) {
+                return; // Unsubscribed meanwhile.
+            }
+            if (subscribers.stream().noneMatch(Subscriber::isLive)) {
+                // Nobody is following the log, so the feed resumes from the last revocation actually read
+                // (never from the subscriber's cursor, which might be past the end of the log).
+                cursor = Math.max(cursor, subscriber.lastRead);
+            }
+            // The feed might have read past the subscriber's cursor since the last page was read.
+            // That is queued (not delivered) while holding the lock, and delivered afterwards.
+            while (subscriber.cursor < cursor) {
+                final var missed = read(subscriber.cursor);
+                if (missed.isEmpty()) {
+                    break;
+                }
+                if (!subscriber.queue(missed)) {
+                    return; // The queue is full. It is delivered before trying again.
+                }
+                if (missed.size() < properties.getPageSize()) {
+                    break;
+                }
+            }
+            subscriber.state = State.LIVE;
+        }
+    }
+
+    /**
+     * Unsubscribes the given {@code subscriber}.
+     *
+     * @param subscriber The {@link Subscriber} to be unsubscribed.
+     * @return {@code true} if the {@code subscriber} was subscribed, or {@code false} otherwise.
+     */
+    private boolean unsubscribe(final Subscriber subscriber) {
+        synchronized (subscribers) {
+            if (!subscribers.remove(subscriber)) {
+                return false;
+            }
+            subscriber.state = State.UNSUBSCRIBED;
+            return true;
+        }
+    }
+
+
+    /**
+     * The states of a {@link Subscriber}.
+     */
+    private enum State {
+        /**
+         * The subscriber is reading the {@link TokenRevocation}s logged before it subscribed.
+         */
+        CATCHING_UP,
+        /**
+         * The subscriber is handed the {@link TokenRevocation}s read by the feed.
+         */
+        LIVE,
+        /**
+         * The subscriber was unsubscribed by the feed (i.e it failed, or it fell too far behind).
+         */
+        DROPPED,
+        /**
+         * The subscriber was unsubscribed.
+         */
+        UNSUBSCRIBED,
+    }
+
+    /**
+     * A subscriber of the feed, together with its cursor and its queue of pending deliveries.
+     */
+    private static final class Subscriber {
+
+        /**
+         * The {@link Consumer} that receives the {@link TokenRevocation}s.
+         */
+        private final Consumer<List<TokenRevocation>> consumer;
+        /**
+         * The {@link Runnable} executed if this subscriber is dropped.
+         */
+        private final Runnable onDropped;
+        /**
+         * The {@link TokenRevocation}s (or heartbeats) queued for this subscriber and not delivered yet.
+         */
+        private final BlockingQueue<List<TokenRevocation>> pending;
+        /**
+         * Indicates whether this subscriber has a delivery task (scheduled or running).
+         */
+        private final AtomicBoolean delivering;
+        /**
+         * The sequence number of the last {@link TokenRevocation} handed to this subscriber (modified by its delivery
+         * task while catching up, and while holding the feed's lock afterwards).
+         */
+        private long cursor;
+        /**
+         * The sequence number of the last {@link TokenRevocation} read while catching up ({@code 0} if none).
+         */
+        private long lastRead;
+        /**
+         * The subscriber's {@link State} (modified while holding the feed's lock).
+         */
+        private volatile State state;
+
+        /**
+         * Constructor.
+         *
+         * @param cursor    The sequence number after which {@link TokenRevocation}s are received.
+         * @param consumer  The {@link Consumer} that receives the {@link TokenRevocation}s.
+         * @param onDropped The {@link Runnable} executed if this subscriber is dropped.
+         * @param queueSize The maximum amount of pending deliveries.
+         */
+        private Subscriber(
+                final long cursor,
+                final Consumer<List<TokenRevocation>> consumer,
+                final Runnable onDropped,
+                final int queueSize) {
+            this.consumer = consumer;
+            this.onDropped = onDropped;
+            this.pending = new ArrayBlockingQueue<>(queueSize);
+            this.delivering = new AtomicBoolean(false);
+            this.cursor = cursor;
+            this.lastRead = 0;
+            this.state = State.CATCHING_UP;
+        }
+
+        /**
+         * @return {@code true} if this subscriber is live (i.e it is handed what the feed reads),
+         * or {@code false} otherwise.
+         */
+        private boolean isLive() {
+            return state == State.LIVE;
+        }
+
+        /**
+         * @return {@code true} if this subscriber is still subscribed (i.e catching up or live),
+         * or {@code false} otherwise.
+         */
+        private boolean isSubscribed() {
+            return state == State.CATCHING_UP || state == State.LIVE;
+        }
+
+        /**
+         * Queues the given {@code revocations} not handed yet to this subscriber.
+         *
+         * @param revocations The {@link TokenRevocation}s to be queued, ordered by sequence number
+         *                    (an empty {@link List} for heartbeats).
+         * @return {@code false} if the queue is full, or {@code true} otherwise.
+         */
+        private boolean queue(final List<TokenRevocation> revocations) {
+            if (revocations.isEmpty()) {
+                return pending.offer(revocations);
+            }
+            final var notHanded = revocations.stream()
+                    .filter(revocation -> revocation.getSequence() > cursor)
+                    .collect(Collectors.toList());
+            if (notHanded.isEmpty()) {
+                return true;
+            }
+            if (!pending.offer(notHanded)) {
+                return false;
+            }
+            cursor = notHanded.get(notHanded.size() - 1).getSequence();
+            return true;
+        }
+    }
+}
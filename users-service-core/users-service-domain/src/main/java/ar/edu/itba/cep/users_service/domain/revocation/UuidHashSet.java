@@ -0,0 +1,246 @@
+package ar.edu.itba.cep.users_service.domain.revocation;
+
+import java.util.UUID;
+
+/**
+ * A compact set of {@link UUID}s backed by two primitive {@code long} arrays (one for the most significant bits,
+ * and the other one for the least significant bits), using open addressing with linear probing.
+ * This avoids allocating an object (plus a node) per element, as a {@link java.util.HashSet} would do.
+ * <p>
+ * The all-zeros {@link UUID} is used to mark empty slots, so it is tracked separately.
+ * <p>
+ * This class is not thread safe.
+ */
+/* package */ class UuidHashSet {
+
+    /**
+     * The initial capacity (must be a power of two).
+     */
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    /**
+     * The maximum load factor before growing the arrays.
+     */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+
+    /**
+     * The most significant bits of the stored {@link UUID}s.
+     */
+    private long[] mostSignificantBits;
+    /**
+     * The least significant bits of the stored {@link UUID}s.
+     */
+    private long[] leastSignificantBits;
+    /**
+     * The amount of stored {@link UUID}s (excluding the all-zeros {@link UUID}).
+     */
+    private int size;
+    /**
+     * Indicates whether the all-zeros {@link UUID} is in this set.
+     */
+    private boolean containsZero;
+
+
+    /**
+     * Constructor.
+     */
+    /* package */ UuidHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize The amount of elements expected to be stored.
+     */
+    /* package */ UuidHashSet(final int expectedSize) {
+        final var capacity = capacityFor(expectedSize);
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.size = 0;
+        this.containsZero = false;
+    }
+
+
+    /**
+     * @return The amount of elements in this set.
+     */
+    /* package */ int size() {
+        return containsZero ? size + 1 : size;
+    }
+
+    /**
+     * Checks whether the given {@code uuid} is in this set.
+     *
+     * @param uuid The {@link UUID} to be checked.
+     * @return {@code true} if it is in this set, or {@code false} otherwise.
+     */
+    /* package */ boolean contains(final UUID uuid) {
+        final var msb = uuid.getMostSignificantBits();
+        final var lsb = uuid.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return containsZero;
+        }
+        final var mask = mostSignificantBits.length - 1;
+        for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+            if (mostSignificantBits[i] == msb && leastSignificantBits[i] == lsb) {
+                return true;
+            }
+            if (isEmpty(i)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds the given {@code uuid} to this set.
+     *
+     * @param uuid The {@link UUID} to be added.
+     * @return {@code true} if the {@link UUID} was not in this set, or {@code false} otherwise.
+     */
+    /* package */ boolean add(final UUID uuid) {
+        final var msb = uuid.getMostSignificantBits();
+        final var lsb = uuid.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            final var added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if (size + 1 > mostSignificantBits.length * MAX_LOAD_FACTOR) {
+            resize(mostSignificantBits.length << 1);
+        }
+        return insert(msb, lsb);
+    }
+
+    /**
+     * Removes the given {@code uuid} from this set.
+     *
+     * @param uuid The {@link UUID} to be removed.
+     * @return {@code true} if the {@link UUID} was in this set, or {@code false} otherwise.
+     */
+    /* package */ boolean remove(final UUID uuid) {
+        final var msb = uuid.getMostSignificantBits();
+        final var lsb = uuid.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            final var removed = containsZero;
+            containsZero = false;
+            return removed;
+        }
+        final var mask = mostSignificantBits.length - 1;
+        for (int i = hash(msb, lsb) & mask; !isEmpty(i); i = (i + 1) & mask) {
+            if (mostSignificantBits[i] == msb && leastSignificantBits[i] == lsb) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Inserts the given pair of {@code long}s, assuming there is room for it.
+     *
+     * @param msb The most significant bits.
+     * @param lsb The least significant bits.
+     * @return {@code true} if the pair was inserted, or {@code false} if it was already in this set.
+     */
+    private boolean insert(final long msb, final long lsb) {
+        final var mask = mostSignificantBits.length - 1;
+        int i = hash(msb, lsb) & mask;
+        while (!isEmpty(i)) {
+            if (mostSignificantBits[i] == msb && leastSignificantBits[i] == lsb) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        mostSignificantBits[i] = msb;
+        leastSignificantBits[i] = lsb;
+        size++;
+        return true;
+    }
+
+    /**
+     * Empties the slot at the given {@code index}, moving back the following elements of the cluster
+     * so that lookups do not stop before reaching them.
+     *
+     * @param index The index of the slot being emptied.
+     */
+    private void shiftBack(final int index) {
+        final var mask = mostSignificantBits.length - 1;
+        int hole = index;
+        for (int i = (hole + 1) & mask; !isEmpty(i); i = (i + 1) & mask) {
+            final var ideal = hash(mostSignificantBits[i], leastSignificantBits[i]) & mask;
+            // Move the element if its ideal slot is not in the (cyclic) range (hole, i]
+            if (((i - ideal) & mask) >= ((i - hole) & mask)) {
+                mostSignificantBits[hole] = mostSignificantBits[i];
+                leastSignificantBits[hole] = leastSignificantBits[i];
+                hole = i;
+            }
+        }
+        mostSignificantBits[hole] = 0;
+        leastSignificantBits[hole] = 0;
+    }
+
+    /**
+     * Grows the arrays to the given {@code capacity}, rehashing all the elements.
+     *
+     * @param capacity The new capacity (must be a power of two).
+     */
+    private void resize(final int capacity) {
+        final var oldMostSignificantBits = mostSignificantBits;
+        final var oldLeastSignificantBits = leastSignificantBits;
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.size = 0;
+        for (int i = 0; i < oldMostSignificantBits.length; i++) {
+            if (oldMostSignificantBits[i] != 0 || oldLeastSignificantBits[i] != 0) {
+                insert(oldMostSignificantBits[i], oldLeastSignificantBits[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the slot at the given {@code index} is empty.
+     *
+     * @param index The index of the slot.
+     * @return {@code true} if the slot is empty, or {@code false} otherwise.
+     */
+    private boolean isEmpty(final int index) {
+        return mostSignificantBits[index] == 0 && leastSignificantBits[index] == 0;
+    }
+
+
+    /**
+     * Calculates the capacity needed to store the given {@code expectedSize} elements
+     * without exceeding the maximum load factor.
+     *
+     * @param expectedSize The amount of elements expected to be stored.
+     * @return The capacity (a power of two).
+     */
+    private static int capacityFor(final int expectedSize) {
+        final var needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD_FACTOR);
+        final var capacity = Long.highestOneBit(Math.max(needed, DEFAULT_CAPACITY) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Too many elements");
+        }
+        return (int) capacity;
+    }
+
+    /**
+     * Hashes the given pair of {@code long}s (using the MurmurHash3 finalizer).
+     *
+     * @param msb The most significant bits.
+     * @param lsb The least significant bits.
+     * @return The hash.
+     */
+    private static int hash(final long msb, final long lsb) {
+        long h = msb * 31 + lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
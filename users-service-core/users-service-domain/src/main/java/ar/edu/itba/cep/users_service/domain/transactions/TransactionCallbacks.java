@@ -0,0 +1,38 @@
+package ar.edu.itba.cep.users_service.domain.transactions;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helper class to perform actions depending on the outcome of the active transaction
+ * (e.g updating in-memory state only once the changes it reflects are committed).
+ */
+public final class TransactionCallbacks {
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private TransactionCallbacks() {
+    }
+
+
+    /**
+     * Performs the given {@code action} after the active transaction commits,
+     * or right away if there is no active transaction.
+     * The {@code action} is not performed if the transaction is rolled back.
+     *
+     * @param action The action to be performed.
+     */
+    public static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package ar.edu.itba.cep.users_service.domain.usernames;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bloom filter of {@link String}s, backed by a {@code long} array used as a bit array.
+ * <p>
+ * Indexes are derived from two 64 bits hashes of each element (i.e the Kirsch-Mitzenmacher technique).
+ * <p>
+ * This class is not thread safe.
+ */
+/* package */ class BloomFilter {
+
+    /**
+     * The bits (each {@code long} holds 64 of them).
+     */
+    private final long[] bits;
+    /**
+     * The amount of bits in the filter.
+     */
+    private final long size;
+    /**
+     * The amount of bits set per element.
+     */
+    private final int hashFunctions;
+
+
+    /**
+     * Constructor.
+     *
+     * @param expectedElements  The amount of elements expected to be stored.
+     * @param falsePositiveRate The expected false positive rate when storing the expected amount of elements.
+     * @throws IllegalArgumentException If any of the arguments is not valid.
+     */
+    /* package */ BloomFilter(final int expectedElements, final double falsePositiveRate)
+            throws IllegalArgumentException {
+        Assert.isTrue(expectedElements > 0, "The expected amount of elements must be positive");
+        Assert.isTrue(
+                falsePositiveRate > 0 && falsePositiveRate < 1,
+                "The false positive rate must be between 0 and 1"
+        );
+        final var ln2 = Math.log(2);
+        final var size = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (ln2 * ln2));
+        Assert.isTrue(size <= (long) (Integer.MAX_VALUE - 8) * Long.SIZE, "Too many expected elements");
+        this.bits = new long[(int) ((size + Long.SIZE - 1) / Long.SIZE)];
+        this.size = size;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) size / expectedElements * ln2));
+    }
+
+
+    /**
+     * Adds the given {@code element} to this filter.
+     *
+     * @param element The element to be added.
+     */
+    /* package */ void add(final String element) {
+        final var hash1 = hash(element, 0);
+        final var hash2 = hash(element, hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            final var index = index(hash1, hash2, i);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * Indicates whether the given {@code element} might be in this filter.
+     *
+     * @param element The element to be checked.
+     * @return {@code false} if the element is definitely not in this filter, or {@code true} if it might be.
+     */
+    /* package */ boolean mightContain(final String element) {
+        final var hash1 = hash(element, 0);
+        final var hash2 = hash(element, hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            final var index = index(hash1, hash2, i);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Calculates the index of the bit for the {@code i}-th hash function.
+     *
+     * @param hash1 The first hash of the element.
+     * @param hash2 The second hash of the element.
+     * @param i     The hash function number.
+     * @return The index of the bit.
+     */
+    private long index(final long hash1, final long hash2, final int i) {
+        return Long.remainderUnsigned(hash1 + i * hash2, size);
+    }
+
+    /**
+     * Hashes the given {@code element} (FNV-1a over its chars, followed by the MurmurHash3 finalizer).
+     *
+     * @param element The element to be hashed.
+     * @param seed    The seed of the hash.
+     * @return The hash.
+     */
+    private static long hash(final String element, final long seed) {
+        var hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < element.length(); i++) {
+            hash ^= element.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,262 @@
+package ar.edu.itba.cep.users_service.domain.usernames;
+
+import ar.edu.itba.cep.users_service.domain.config.KnownUsernamesProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRegisteredEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRegisteredEvent;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index of the usernames of existing {@link User}s, used to reject login attempts with unknown usernames
+ * without (mostly) accessing the database. It is warmed with all the usernames when the application is ready,
+ * kept in sync each time a {@link User} is registered by this application instance,
+ * and periodically re-warmed in order to pick up the usernames registered by other instances.
+ * <p>
+ * Usernames missing from the index are still looked up in the database among the {@link User}s created since the
+ * warming before the last one (i.e those with a greater id than the last one seen by it), so users registered by
+ * other instances are never rejected. Looking back to the previous warming (and not to the last one) covers users
+ * whose registration was still being committed while warming (ids are assigned before committing),
+ * as long as it is committed within a re-warm interval. Usernames found this way are added to the index.
+ * <p>
+ * Note that this index can only be used to state that a username does not exist
+ * (i.e if a username might exist, it must still be checked against the database).
+ * Until it is warmed (or if it is disabled), all usernames might exist.
+ * Usernames of deleted users are not removed right away (they might have been registered by another instance,
+ * in which case removing them could remove other usernames), but dropped in the next re-warming.
+ */
+@Component
+public class KnownUsernamesIndex implements SchedulingConfigurer {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownUsernamesIndex.class);
+
+
+    /**
+     * The {@link UserRepository} used to load the usernames.
+     */
+    private final UserRepository userRepository;
+    /**
+     * The {@link KnownUsernamesProperties} with configuration data.
+     */
+    private final KnownUsernamesProperties properties;
+    /**
+     * Indicates whether the index is used.
+     */
+    private final boolean enabled;
+    /**
+     * A {@link ReadWriteLock} used to synchronize access to the {@link #usernames} filter
+     * and the {@link #registeredWhileWarming} usernames.
+     */
+    private final ReadWriteLock lock;
+    /**
+     * The {@link BloomFilter} holding the usernames ({@code null} if the index is not used).
+     * Replaced each time the index is (re)warmed.
+     */
+    private BloomFilter usernames;
+    /**
+     * The usernames registered while the index is being warmed
+     * (which might not be included in the usernames loaded from the database),
+     * or {@code null} if the index is not being warmed.
+     */
+    private Set<String> registeredWhileWarming;
+    /**
+     * Indicates whether the index has been warmed.
+     */
+    private volatile boolean warmed;
+    /**
+     * The id after which {@link User}s might have been created without being added to the index
+     * (i.e the greatest id seen by the warming before the last one).
+     */
+    private volatile long watermark;
+    /**
+     * The greatest id seen by the last warming (guarded by this index's monitor, as warmings are synchronized).
+     */
+    private long lastWarmedId;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository The {@link UserRepository} used to load the usernames.
+     * @param properties     The {@link KnownUsernamesProperties} with configuration data.
+     */
+    public KnownUsernamesIndex(final UserRepository userRepository, final KnownUsernamesProperties properties) {
+        Assert.isTrue(
+                !properties.getRewarmInterval().isNegative(),
+                "The re-warm interval must not be negative"
+        );
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.enabled = properties.isEnabled();
+        this.lock = new ReentrantReadWriteLock();
+        this.usernames = enabled ? newFilter() : null;
+        this.registeredWhileWarming = null;
+        this.warmed = false;
+        this.watermark = 0;
+        this.lastWarmedId = 0;
+    }
+
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        final var interval = properties.getRewarmInterval().toMillis();
+        if (!enabled || interval == 0) {
+            return;
+        }
+        // The first warming is performed when the application is ready.
+        taskRegistrar.addFixedDelayTask(new IntervalTask(this::warm, interval, interval));
+    }
+
+    /**
+     * Warms this index with the usernames stored in the database,
+     * replacing the usernames it held (if it was already warmed).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        if (!enabled) {
+            return;
+        }
+        final var startTime = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            registeredWhileWarming = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final BloomFilter filter;
+        final List<String> all;
+        final long lastId;
+        try {
+            lastId = userRepository.getLastId(); // Read before the usernames, so no user is missed.
+            all = userRepository.getAllUsernames();
+            filter = newFilter();
+            all.forEach(filter::add);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Could not warm the known usernames index", e);
+            lock.writeLock().lock();
+            try {
+                registeredWhileWarming = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            registeredWhileWarming.forEach(filter::add);
+            registeredWhileWarming = null;
+            usernames = filter;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        this.watermark = lastWarmedId;
+        this.lastWarmedId = lastId;
+        this.warmed = true;
+        LOGGER.debug(
+                "Known usernames index warmed with {} usernames in {}",
+                all.size(),
+                Duration.ofNanos(System.nanoTime() - startTime)
+        );
+    }
+
+    /**
+     * Indicates whether a {@link User} with the given {@code username} might exist.
+     * If the username is not in the index, it is looked up in the database among the recently created {@link User}s.
+     *
+     * @param username The username.
+     * @return {@code false} if there is definitely no {@link User} with the given {@code username},
+     * or {@code true} if it might exist.
+     */
+    public boolean mightExist(final String username) {
+        if (!enabled || !warmed || username == null) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            if (usernames.mightContain(username)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Might have been registered by another application instance since the index was warmed.
+        if (!userRepository.existsWithUsernameAfter(username, watermark)) {
+            return false;
+        }
+        addAll(List.of(username));
+        return true;
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link UserRegisteredEvent}s.
+     * The username is added right away (i.e even if the transaction is rolled back afterwards,
+     * which only makes the username be looked up in the database until the next re-warming).
+     *
+     * @param event The {@link UserRegisteredEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @EventListener(UserRegisteredEvent.class)
+    public void userRegistered(final UserRegisteredEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event is null");
+        addAll(List.of(event.getUser().getUsername()));
+    }
+
+    /**
+     * An {@link EventListener} that can handle {@link BulkUserRegisteredEvent}s
+     * (the same way as {@link #userRegistered(UserRegisteredEvent)} does).
+     *
+     * @param event The {@link BulkUserRegisteredEvent} being handled.
+     * @throws IllegalArgumentException If the {@code event} is {@code null}.
+     */
+    @EventListener(BulkUserRegisteredEvent.class)
+    public void usersRegistered(final BulkUserRegisteredEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "The event is null");
+        addAll(event.getUsernames());
+    }
+
+
+    /**
+     * Adds the given {@code newUsernames} to this index (and to the ones registered while warming, if it is warming).
+     *
+     * @param newUsernames The usernames to be added.
+     */
+    private void addAll(final List<String> newUsernames) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            newUsernames.forEach(usernames::add);
+            if (registeredWhileWarming != null) {
+                registeredWhileWarming.addAll(newUsernames);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return A new (empty) {@link BloomFilter} for the usernames.
+     */
+    private BloomFilter newFilter() {
+        return new BloomFilter(properties.getExpectedUsernames(), properties.getFalsePositiveRate());
+    }
+}
@@ -7,19 +7,33 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
 
 import java.security.KeyFactory;
 import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 
 /**
  * Configuration class for authentication.
  */
 @Configuration
-@EnableConfigurationProperties(JwtEncodingProperties.class)
+@EnableConfigurationProperties({
+        JwtEncodingProperties.class,
+        KeyRingProperties.class,
+        PasswordEncodingProperties.class,
+        PasswordHashingProperties.class,
+        TokenReaperProperties.class,
+})
 @EnableKeyFactory
+@EnableScheduling
 public class AuthenticationConfig {
 
     /**
@@ -29,31 +43,73 @@ public class AuthenticationConfig {
 
 
     /**
-     * @return A {@link PasswordEncoder} to be used across the application,
+     * Creates the {@link PasswordEncoder} to be used across the application,
      * that will be used to hash password before storing them.
-     * @implNote The returned {@link PasswordEncoder} uses the BCrypt strong hashing function.
+     *
+     * @param passwordEncodingProperties The {@link PasswordEncodingProperties} instance with configuration data.
+     * @return An {@link UpgradablePasswordEncoder}.
+     * @implNote The returned {@link UpgradablePasswordEncoder} hashes passwords with the configured algorithm
+     * (BCrypt by default), and is able to match passwords hashed with any of the supported algorithms.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UpgradablePasswordEncoder passwordEncoder(final PasswordEncodingProperties passwordEncodingProperties) {
+        return new DelegatingUpgradablePasswordEncoder(passwordEncodingProperties);
     }
 
     /**
-     * Creates a {@link PrivateKey} from the {@link KeyFactory} and the {@link JwtEncodingProperties}.
+     * Creates the {@link PasswordHashingExecutor} in charge of performing password hashing operations
+     * outside the request threads.
+     *
+     * @param passwordHashingProperties The {@link PasswordHashingProperties} instance with configuration data.
+     * @return The {@link PasswordHashingExecutor}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor passwordHashingExecutor(final PasswordHashingProperties passwordHashingProperties) {
+        return new PasswordHashingExecutor(
+                passwordHashingProperties.getThreads(),
+                passwordHashingProperties.getQueueCapacity(),
+                passwordHashingProperties.getTimeout()
+        );
+    }
+
+    /**
+     * Creates the {@link KeyRing} holding the keys with which issued tokens are signed.
+     * If a keys directory is configured, keys are loaded (and periodically reloaded) from it.
+     * Otherwise, tokens are always signed with the private key in the {@link JwtEncodingProperties}.
      *
-     * @param keyFactory            The {@link KeyFactory} needed to create a {@link PrivateKey} instance.
      * @param jwtEncodingProperties The {@link JwtEncodingProperties} instance with configuration data.
-     * @return The {@link PrivateKey}.
+     * @param keyRingProperties     The {@link KeyRingProperties} instance with configuration data.
+     * @return The {@link KeyRing}.
      */
     @Bean
-    public PrivateKey privateKey(final KeyFactory keyFactory, final JwtEncodingProperties jwtEncodingProperties) {
+    public KeyRing keyRing(
+            final JwtEncodingProperties jwtEncodingProperties,
+            final KeyRingProperties keyRingProperties) {
+        final var algorithm = jwtEncodingProperties.getSigningAlgorithm();
+        if (keyRingProperties.getDirectory() != null) {
+            return KeyRing.fromDirectory(
+                    algorithm,
+                    keyRingProperties.getDirectory(),
+                    keyRingProperties.getReloadInterval(),
+                    keyRingProperties.getVerificationKeyId()
+            );
+        }
+        final var keyFactory = algorithm.keyFactory();
         try {
-            return KeyHelper.generateKey(
+            final var privateKey = KeyHelper.generateKey(
                     keyFactory,
                     jwtEncodingProperties.getPrivateKey(),
                     PKCS8EncodedKeySpec::new,
                     KeyFactory::generatePrivate
             );
+            return KeyRing.fixed(
+                    algorithm,
+                    new SigningKey(
+                            keyRingProperties.getKeyId(),
+                            privateKey,
+                            publicKey(keyFactory, privateKey, jwtEncodingProperties.getPublicKey())
+                    )
+            );
         } catch (final KeyHelper.InvalidKeyException e) {
             LOGGER.error("The key that was set is not valid!", e);
             throw e;
@@ -68,9 +124,41 @@ public class AuthenticationConfig {
      */
     @Bean
     public JwtTokenEncoder.DurationsWrapper durationsWrapper(final JwtEncodingProperties jwtEncodingProperties) {
+        final var threshold = jwtEncodingProperties.getRefreshTokenReissueThreshold();
+        Assert.isTrue(threshold >= 0 && threshold <= 1, "The refresh token reissue threshold must be between 0 and 1");
+        final var refreshTokenDuration = jwtEncodingProperties.getRefreshTokenDuration();
         return new JwtTokenEncoder.DurationsWrapper(
                 jwtEncodingProperties.getAccessTokenDuration(),
-                jwtEncodingProperties.getRefreshTokenDuration()
+                refreshTokenDuration,
+                Duration.ofMillis((long) (refreshTokenDuration.toMillis() * threshold))
         );
     }
+
+
+    /**
+     * Gets the {@link PublicKey} matching the given {@code privateKey}, in order to publish it.
+     *
+     * @param keyFactory   The {@link KeyFactory} used to generate the key.
+     * @param privateKey   The {@link PrivateKey}.
+     * @param encodedValue The configured public key (or {@code null} if it is not configured).
+     * @return The {@link PublicKey}, or {@code null} if it is not configured and can't be derived from the private key.
+     * @throws KeyHelper.InvalidKeyException If the configured public key is not valid.
+     */
+    private static PublicKey publicKey(
+            final KeyFactory keyFactory,
+            final PrivateKey privateKey,
+            final String encodedValue) throws KeyHelper.InvalidKeyException {
+        if (encodedValue != null) {
+            return KeyHelper.generateKey(keyFactory, encodedValue, X509EncodedKeySpec::new, KeyFactory::generatePublic);
+        }
+        if (privateKey instanceof RSAPrivateCrtKey) {
+            final var crtKey = (RSAPrivateCrtKey) privateKey;
+            try {
+                return keyFactory.generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+            } catch (final InvalidKeySpecException e) {
+                LOGGER.warn("Could not derive the public key from the private key", e);
+            }
+        }
+        return null;
+    }
 }
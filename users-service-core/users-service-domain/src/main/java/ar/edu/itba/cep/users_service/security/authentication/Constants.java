@@ -1,7 +1,5 @@
 package ar.edu.itba.cep.users_service.security.authentication;
 
-import io.jsonwebtoken.SignatureAlgorithm;
-
 /**
  * Constants regarding authentication.
  */
@@ -17,11 +15,6 @@ public class Constants {
      */
     public static final String REFRESH_GRANT = "REFRESH";
 
-    /**
-     * Signature algorithm used to sign jwt tokens.
-     */
-    public static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.RS512;
-
 
     /**
      * Private constructor to avoid instantiation.
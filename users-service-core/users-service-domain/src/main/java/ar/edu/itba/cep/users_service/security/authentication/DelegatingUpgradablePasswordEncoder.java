@@ -0,0 +1,143 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * An {@link UpgradablePasswordEncoder} that delegates into a {@link DelegatingPasswordEncoder}.
+ * New passwords are encoded with the configured algorithm (prefixing the hash with the algorithm's id),
+ * while passwords hashed with any supported algorithm can be matched.
+ * Hashes with no prefix (i.e created before this encoder was introduced) are matched using BCrypt.
+ */
+/* package */ class DelegatingUpgradablePasswordEncoder implements UpgradablePasswordEncoder {
+
+    /**
+     * {@link Pattern} that matches a BCrypt hash, capturing its cost factor.
+     */
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$.*");
+    /**
+     * {@link Pattern} that matches an Argon2 hash, capturing its memory, iterations and parallelism parameters.
+     */
+    private static final Pattern ARGON2_PATTERN =
+            Pattern.compile("\\A\\$argon2(?:id|i|d)\\$(?:v=\\d+\\$)?m=(\\d+),t=(\\d+),p=(\\d+)\\$.*");
+
+
+    /**
+     * The {@link DelegatingPasswordEncoder} to which encoding and matching is delegated.
+     */
+    private final DelegatingPasswordEncoder delegate;
+    /**
+     * The prefix of hashes created with the actual settings.
+     */
+    private final String actualPrefix;
+    /**
+     * A {@link Predicate} that tests whether a hash (without prefix) created with the actual algorithm
+     * was created with outdated parameters.
+     */
+    private final Predicate<String> outdatedParameters;
+
+
+    /**
+     * Constructor.
+     *
+     * @param properties The {@link PasswordEncodingProperties} with the encoding settings.
+     */
+    /* package */ DelegatingUpgradablePasswordEncoder(final PasswordEncodingProperties properties) {
+        Assert.notNull(properties, "The properties must not be null");
+        Assert.notNull(properties.getAlgorithm(), "The algorithm must not be null");
+
+        final var bcrypt = properties.getBcrypt();
+        final var pbkdf2 = properties.getPbkdf2();
+        final var argon2 = properties.getArgon2();
+        final var bcryptEncoder = new BCryptPasswordEncoder(bcrypt.getStrength());
+        final var pbkdf2Encoder = new Pbkdf2PasswordEncoder("", pbkdf2.getIterations(), pbkdf2.getHashWidth());
+        pbkdf2Encoder.setAlgorithm(Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        final var argon2Encoder = new Argon2PasswordEncoder(
+                argon2.getSaltLength(),
+                argon2.getHashLength(),
+                argon2.getParallelism(),
+                argon2.getMemory(),
+                argon2.getIterations()
+        );
+        final Map<String, PasswordEncoder> encoders = Map.of(
+                PasswordEncodingProperties.Algorithm.BCRYPT.getId(), bcryptEncoder,
+                PasswordEncodingProperties.Algorithm.PBKDF2.getId(), pbkdf2Encoder,
+                PasswordEncodingProperties.Algorithm.ARGON2.getId(), argon2Encoder
+        );
+
+        final var algorithm = properties.getAlgorithm();
+        this.delegate = new DelegatingPasswordEncoder(algorithm.getId(), encoders);
+        this.delegate.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+        this.actualPrefix = "{" + algorithm.getId() + "}";
+        this.outdatedParameters = outdatedParametersPredicate(properties);
+    }
+
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        return !encodedPassword.startsWith(actualPrefix)
+                || outdatedParameters.test(encodedPassword.substring(actualPrefix.length()));
+    }
+
+
+    /**
+     * Builds a {@link Predicate} that tests whether a hash (without prefix) created with the configured algorithm
+     * was created with parameters different than the configured ones.
+     *
+     * @param properties The {@link PasswordEncodingProperties} with the encoding settings.
+     * @return The {@link Predicate}.
+     * @implNote PBKDF2 hashes do not include their parameters, so they are never considered outdated.
+     */
+    private static Predicate<String> outdatedParametersPredicate(final PasswordEncodingProperties properties) {
+        switch (properties.getAlgorithm()) {
+            case BCRYPT: {
+                final var strength = properties.getBcrypt().getStrength();
+                return hash -> {
+                    final var matcher = BCRYPT_PATTERN.matcher(hash);
+                    return !matcher.matches() || Integer.parseInt(matcher.group(1)) != strength;
+                };
+            }
+            case ARGON2: {
+                final var argon2 = properties.getArgon2();
+                final var expected = new int[]{argon2.getMemory(), argon2.getIterations(), argon2.getParallelism()};
+                return hash -> {
+                    final var matcher = ARGON2_PATTERN.matcher(hash);
+                    if (!matcher.matches()) {
+                        return true;
+                    }
+                    final var actual = new int[]{
+                            Integer.parseInt(matcher.group(1)),
+                            Integer.parseInt(matcher.group(2)),
+                            Integer.parseInt(matcher.group(3)),
+                    };
+                    return !Arrays.equals(expected, actual);
+                };
+            }
+            case PBKDF2:
+            default:
+                return hash -> false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.repositories.AuthTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A component in charge of periodically deleting {@link AuthToken}s whose refresh window has elapsed
+ * (i.e all the jwt issued for them are expired, so they can not be used anymore).
+ * Tokens are deleted in bounded batches, each of them in its own transaction.
+ */
+@Component
+/* package */ class ExpiredTokensReaper implements SchedulingConfigurer {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpiredTokensReaper.class);
+
+
+    /**
+     * The {@link AuthTokenRepository} used to delete the expired {@link AuthToken}s.
+     */
+    private final AuthTokenRepository<AuthToken> authTokenRepository;
+    /**
+     * The {@link RevokedTokensIndex} from which deleted {@link AuthToken}s are removed.
+     */
+    private final RevokedTokensIndex revokedTokensIndex;
+    /**
+     * The {@link TransactionTemplate} used to delete each batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * The {@link TokenReaperProperties} with configuration data.
+     */
+    private final TokenReaperProperties properties;
+    /**
+     * The {@link Duration} after which a token that was not refreshed can be deleted.
+     */
+    private final Duration retention;
+
+
+    /**
+     * Constructor.
+     *
+     * @param authTokenRepository The {@link AuthTokenRepository} used to delete the expired {@link AuthToken}s.
+     * @param revokedTokensIndex  The {@link RevokedTokensIndex} from which deleted {@link AuthToken}s are removed.
+     * @param transactionManager  The {@link PlatformTransactionManager} used to demarcate each batch's transaction.
+     * @param properties          The {@link TokenReaperProperties} with configuration data.
+     * @param durationsWrapper    A {@link JwtTokenEncoder.DurationsWrapper} containing both the {@link Duration}
+     *                            for the access and the refresh tokens.
+     */
+    /* package */ ExpiredTokensReaper(
+            final AuthTokenRepository<AuthToken> authTokenRepository,
+            final RevokedTokensIndex revokedTokensIndex,
+            final PlatformTransactionManager transactionManager,
+            final TokenReaperProperties properties,
+            final JwtTokenEncoder.DurationsWrapper durationsWrapper) {
+        Assert.isTrue(properties.getBatchSize() > 0, "The batch size must be positive");
+        Assert.isTrue(properties.getMaxBatches() > 0, "The maximum amount of batches must be positive");
+        this.authTokenRepository = authTokenRepository;
+        this.revokedTokensIndex = revokedTokensIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.retention = durationsWrapper.getLifetime();
+    }
+
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (!properties.isEnabled()) {
+            LOGGER.info("Expired tokens reaper is disabled");
+            return;
+        }
+        taskRegistrar.addFixedDelayTask(this::reap, properties.getDelay().toMillis());
+    }
+
+    /**
+     * Deletes the {@link AuthToken}s that have not been refreshed during the retention period.
+     * Stops when there are no more tokens to be deleted, or when the maximum amount of batches is reached.
+     *
+     * @return The amount of deleted {@link AuthToken}s.
+     */
+    /* package */ int reap() {
+        final var threshold = Instant.now().minus(retention);
+        final var batchSize = properties.getBatchSize();
+        var total = 0;
+        for (int i = 0; i < properties.getMaxBatches(); i++) {
+            final var deleted = transactionTemplate.execute(status -> deleteBatch(threshold, batchSize));
+            final var amount = deleted == null ? 0 : deleted.size();
+            total += amount;
+            if (amount < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            LOGGER.info("Deleted {} expired tokens", total);
+        }
+        return total;
+    }
+
+    /**
+     * Deletes a batch of tokens not refreshed since the given {@code threshold}.
+     *
+     * @param threshold The {@link Instant} used to select the {@link AuthToken}s to be deleted.
+     * @param batchSize The maximum amount of {@link AuthToken}s to be deleted.
+     * @return The ids of the deleted {@link AuthToken}s.
+     */
+    private List<UUID> deleteBatch(final Instant threshold, final int batchSize) {
+        final var deleted = authTokenRepository.deleteNotRefreshedSince(threshold, batchSize);
+        revokedTokensIndex.forgetAll(deleted);
+        return deleted;
+    }
+}
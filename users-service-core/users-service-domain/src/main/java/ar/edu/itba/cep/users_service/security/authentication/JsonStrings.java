@@ -0,0 +1,36 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+/**
+ * Helper class to write JSON strings when building JSON documents by hand (i.e jwt claims and headers, and jwk).
+ */
+/* package */ final class JsonStrings {
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private JsonStrings() {
+    }
+
+
+    /**
+     * Appends the given {@code value} into the given {@code json} as a JSON string (i.e quoted and escaped).
+     *
+     * @param json  The {@link StringBuilder} in which the value is appended.
+     * @param value The value to be appended.
+     * @return The given {@code json}, for method chaining.
+     */
+    /* package */ static StringBuilder append(final StringBuilder json, final String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,110 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Helper class to serialize {@link SigningKey}s as a JSON Web Key Set (RFC 7517).
+ */
+/* package */ final class Jwks {
+
+    /**
+     * The base64url encoder (with no padding) used to encode key parameters.
+     */
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private Jwks() {
+    }
+
+
+    /**
+     * Serializes the given {@code keys} as a JSON Web Key Set.
+     * Keys with no {@link PublicKey} are not included.
+     *
+     * @param algorithm The {@link SigningAlgorithm} with which the keys are used.
+     * @param keys      The {@link SigningKey}s to be serialized.
+     * @return The JSON Web Key Set.
+     * @throws IllegalArgumentException If any of the keys is not supported.
+     */
+    /* package */ static String keySet(final SigningAlgorithm algorithm, final Collection<SigningKey> keys)
+            throws IllegalArgumentException {
+        final var json = new StringBuilder("{\"keys\":[");
+        var first = true;
+        for (final var key : keys) {
+            if (key.getPublicKey() == null) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            appendKey(json, algorithm, key);
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+
+    /**
+     * Appends the given {@code key} as a JSON Web Key into the given {@code json}.
+     *
+     * @param json      The {@link StringBuilder} in which the key is appended.
+     * @param algorithm The {@link SigningAlgorithm} with which the key is used.
+     * @param key       The {@link SigningKey} to be appended.
+     * @throws IllegalArgumentException If the key is not supported.
+     */
+    private static void appendKey(final StringBuilder json, final SigningAlgorithm algorithm, final SigningKey key)
+            throws IllegalArgumentException {
+        final var publicKey = key.getPublicKey();
+        json.append('{');
+        if (publicKey instanceof RSAPublicKey) {
+            final var rsaKey = (RSAPublicKey) publicKey;
+            json.append("\"kty\":\"RSA\"")
+                    .append(",\"n\":\"").append(encode(rsaKey.getModulus(), 0)).append('"')
+                    .append(",\"e\":\"").append(encode(rsaKey.getPublicExponent(), 0)).append('"');
+        } else if (publicKey instanceof ECPublicKey) {
+            final var ecKey = (ECPublicKey) publicKey;
+            final var fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+            final var length = (fieldSize + 7) / 8;
+            json.append("\"kty\":\"EC\"")
+                    .append(",\"crv\":\"P-").append(fieldSize).append('"')
+                    .append(",\"x\":\"").append(encode(ecKey.getW().getAffineX(), length)).append('"')
+                    .append(",\"y\":\"").append(encode(ecKey.getW().getAffineY(), length)).append('"');
+        } else {
+            throw new IllegalArgumentException("Unsupported key type " + publicKey.getAlgorithm());
+        }
+        json.append(",\"use\":\"sig\",\"alg\":");
+        JsonStrings.append(json, algorithm.getHeaderValue());
+        json.append(",\"kid\":");
+        JsonStrings.append(json, key.getKeyId());
+        json.append('}');
+    }
+
+    /**
+     * Encodes the given {@code value} as a base64url unsigned big-endian integer.
+     *
+     * @param value  The value to be encoded.
+     * @param length The length (in bytes) of the encoded value, or zero to use the minimum length.
+     * @return The encoded value.
+     */
+    private static String encode(final BigInteger value, final int length) {
+        var bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length); // Remove the sign byte.
+        }
+        if (bytes.length < length) {
+            final var padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+}
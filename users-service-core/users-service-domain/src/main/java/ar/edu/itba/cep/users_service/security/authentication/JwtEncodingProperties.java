@@ -16,10 +16,21 @@ import java.time.temporal.ChronoUnit;
 @ConfigurationProperties(prefix = "authentication.jwt.users-service")
 /* package */ class JwtEncodingProperties {
 
+    /**
+     * The {@link SigningAlgorithm} used to sign tokens. Defaults to {@link SigningAlgorithm#RS512}.
+     * The private key must be a key of this algorithm.
+     */
+    private SigningAlgorithm signingAlgorithm = SigningAlgorithm.RS512;
     /**
      * The private key.
      */
     private String privateKey;
+    /**
+     * The public key matching the private key, published so tokens can be verified.
+     * Optional for RSA keys, as it can be derived from the private key.
+     * Not used when keys are loaded from a directory (see {@link KeyRingProperties}).
+     */
+    private String publicKey;
     /**
      * The access token's duration, in seconds.
      */
@@ -30,4 +41,9 @@ import java.time.temporal.ChronoUnit;
      */
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration refreshTokenDuration;
+    /**
+     * The fraction of the refresh token's duration (between 0 and 1) before its expiration from which a new refresh
+     * token is issued when refreshing. Defaults to 1 (i.e a new refresh token is issued each time).
+     */
+    private double refreshTokenReissueThreshold = 1;
 }
@@ -0,0 +1,129 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Base64;
+
+/**
+ * A thread-safe component in charge of creating signed jwt (i.e compact JWS) from already serialized claims.
+ * The header is serialized only once, and {@link Signature} instances (already initialized with the signing key)
+ * are reused by each thread, so signing a token does not require any builder or serializer setup.
+ */
+/* package */ final class JwtSigner {
+
+    /**
+     * The base64url encoder (with no padding) used to encode each part of the token.
+     */
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * The encoded header (including the trailing dot), as ASCII bytes.
+     */
+    private final byte[] encodedHeader;
+    /**
+     * Holds the {@link Signature} instance used by each thread.
+     */
+    private final ThreadLocal<Signature> signatures;
+
+
+    /**
+     * Constructor for a signer that does not include a key id in the tokens' header.
+     *
+     * @param privateKey The {@link PrivateKey} used to sign tokens.
+     * @param algorithm  The {@link SigningAlgorithm} used to sign tokens.
+     * @throws IllegalArgumentException If the key is not valid for the given algorithm.
+     */
+    /* package */ JwtSigner(final PrivateKey privateKey, final SigningAlgorithm algorithm)
+            throws IllegalArgumentException {
+        this(privateKey, algorithm, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param privateKey The {@link PrivateKey} used to sign tokens.
+     * @param algorithm  The {@link SigningAlgorithm} used to sign tokens.
+     * @param keyId      The id of the key, included in the tokens' header as the {@code kid} parameter
+     *                   (or {@code null} if it must not be included).
+     * @throws IllegalArgumentException If the key is not valid for the given algorithm.
+     */
+    /* package */ JwtSigner(final PrivateKey privateKey, final SigningAlgorithm algorithm, final String keyId)
+            throws IllegalArgumentException {
+        Assert.notNull(privateKey, "The private key must not be null");
+        Assert.notNull(algorithm, "The signing algorithm must not be null");
+        Assert.isTrue(algorithm.isValidKey(privateKey), "The private key is not valid for " + algorithm);
+        final var header = new StringBuilder("{\"alg\":");
+        JsonStrings.append(header, algorithm.getHeaderValue());
+        if (keyId != null) {
+            JsonStrings.append(header.append(",\"kid\":"), keyId);
+        }
+        header.append('}');
+        this.encodedHeader = (ENCODER.encodeToString(header.toString().getBytes(StandardCharsets.UTF_8)) + ".")
+                .getBytes(StandardCharsets.US_ASCII);
+        newSignature(algorithm, privateKey); // Fail fast if the signature can't be created.
+        this.signatures = ThreadLocal.withInitial(() -> newSignature(algorithm, privateKey));
+    }
+
+
+    /**
+     * Creates a signed jwt whose payload is the given {@code claims}.
+     *
+     * @param claims The claims of the token, serialized in JSON.
+     * @return The signed jwt, in its compact serialization.
+     */
+    /* package */ String sign(final String claims) {
+        final var encodedPayload = ENCODER.encode(claims.getBytes(StandardCharsets.UTF_8));
+        final var signingInputLength = encodedHeader.length + encodedPayload.length;
+        final var signingInput = new byte[signingInputLength];
+        System.arraycopy(encodedHeader, 0, signingInput, 0, encodedHeader.length);
+        System.arraycopy(encodedPayload, 0, signingInput, encodedHeader.length, encodedPayload.length);
+
+        final var encodedSignature = ENCODER.encode(sign(signingInput));
+        final var token = new byte[signingInputLength + 1 + encodedSignature.length];
+        System.arraycopy(signingInput, 0, token, 0, signingInputLength);
+        token[signingInputLength] = '.';
+        System.arraycopy(encodedSignature, 0, token, signingInputLength + 1, encodedSignature.length);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Signs the given {@code signingInput} using this thread's {@link Signature}.
+     *
+     * @param signingInput The data to be signed.
+     * @return The signature.
+     */
+    private byte[] sign(final byte[] signingInput) {
+        final var signature = signatures.get();
+        try {
+            signature.update(signingInput);
+            return signature.sign(); // Resets the signature, so it can be reused by this thread.
+        } catch (final SignatureException e) {
+            signatures.remove(); // Discard the signature, as its state is unknown.
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    /**
+     * Creates a {@link Signature} for the given algorithm, initialized for signing with the given key.
+     *
+     * @param algorithm  The {@link SigningAlgorithm}.
+     * @param privateKey The {@link PrivateKey} used to sign.
+     * @return The initialized {@link Signature}.
+     * @throws IllegalArgumentException If the {@link Signature} can't be initialized with the given key.
+     */
+    private static Signature newSignature(final SigningAlgorithm algorithm, final PrivateKey privateKey)
+            throws IllegalArgumentException {
+        final var signature = algorithm.signature();
+        try {
+            signature.initSign(privateKey);
+            return signature;
+        } catch (final InvalidKeyException e) {
+            throw new IllegalArgumentException("The private key is not valid for " + algorithm, e);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package ar.edu.itba.cep.users_service.security.authentication;
 
 import ar.edu.itba.cep.users_service.models.AuthToken;
-import io.jsonwebtoken.Jwts;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -9,22 +8,28 @@ import lombok.ToString;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.security.PrivateKey;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
+import java.util.Collection;
 import java.util.Set;
 
 /**
  * A {@link TokenEncoder} that uses the jwt spec.
+ * Claims are serialized directly (with no intermediate claims map), and signed using the actual {@link JwtSigner}
+ * of a {@link KeyRing}.
  */
 @Component
 /* package */ class JwtTokenEncoder implements TokenEncoder {
 
     /**
-     * The {@link PrivateKey} used to sign tokens.
+     * The roles claim of refresh tokens.
      */
-    private final PrivateKey privateKey;
+    private static final Set<String> REFRESH_ROLES = Set.of(Constants.REFRESH_GRANT);
+
+    /**
+     * The {@link KeyRing} holding the key used to sign tokens.
+     */
+    private final KeyRing keyRing;
     /**
      * The {@link Duration} of an access token.
      */
@@ -33,45 +38,130 @@ import java.util.Set;
      * The {@link Duration} of a refresh token.
      */
     private final Duration refreshTokenDuration;
+    /**
+     * The {@link Duration} before a refresh token's expiration from which a new one is issued when refreshing.
+     */
+    private final Duration refreshTokenReissueWindow;
+    /**
+     * The {@link Duration} of an {@link AuthToken} since it was last refreshed.
+     */
+    private final Duration lifetime;
 
 
     /**
      * Constructor.
      *
-     * @param privateKey       The {@link PrivateKey} used to sign tokens.
+     * @param keyRing          The {@link KeyRing} holding the key used to sign tokens.
      * @param durationsWrapper A {@link DurationsWrapper} containing both the {@link Duration}
-     *                         for the access and the refresh tokens.
+     *                         for the access and the refresh tokens (and when refresh tokens are issued again).
      */
     /* package */ JwtTokenEncoder(
-            final PrivateKey privateKey,
+            final KeyRing keyRing,
             final DurationsWrapper durationsWrapper) {
-        this.privateKey = privateKey;
+        this.keyRing = keyRing;
         this.accessTokenDuration = durationsWrapper.getAccessTokenDuration();
         this.refreshTokenDuration = durationsWrapper.getRefreshTokenDuration();
+        this.refreshTokenReissueWindow = durationsWrapper.getRefreshTokenReissueWindow();
+        this.lifetime = durationsWrapper.getLifetime();
     }
 
 
     @Override
     public TokensWrapper encode(final AuthToken authToken) {
+        Assert.notNull(authToken, "The token must not be null");
+        final var now = Instant.now().getEpochSecond();
+        return new TokensWrapper(accessToken(authToken, now), refreshToken(authToken, now));
+    }
+
+    @Override
+    public TokensWrapper refresh(final AuthToken authToken) {
         Assert.notNull(authToken, "The token must not be null");
         final var now = Instant.now();
-        final var accessToken = Jwts.builder()
-                .setId(authToken.getId().toString())
-                .setSubject(authToken.getOwner())
-                .claim(Constants.ROLES_CLAIM, authToken.getRolesAssigned())
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(now.plus(accessTokenDuration)))
-                .signWith(privateKey, Constants.SIGNATURE_ALGORITHM)
-                .compact();
-        final var refreshToken = Jwts.builder()
-                .setId(authToken.getId().toString())
-                .setSubject(authToken.getOwner())
-                .claim(Constants.ROLES_CLAIM, Set.of(Constants.REFRESH_GRANT))
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(now.plus(refreshTokenDuration)))
-                .signWith(privateKey, Constants.SIGNATURE_ALGORITHM)
-                .compact();
-        return new TokensWrapper(accessToken, refreshToken);
+        final var accessToken = accessToken(authToken, now.getEpochSecond());
+        // The last refresh token was issued when the token was last refreshed.
+        final var refreshTokenExpiration = authToken.getRefreshedAt().plus(refreshTokenDuration);
+        if (refreshTokenExpiration.isAfter(now.plus(refreshTokenReissueWindow))) {
+            return new TokensWrapper(accessToken, null);
+        }
+        return new TokensWrapper(accessToken, refreshToken(authToken, now.getEpochSecond()));
+    }
+
+    @Override
+    public Instant expiration(final AuthToken authToken) {
+        Assert.notNull(authToken, "The token must not be null");
+        return authToken.getRefreshedAt().plus(lifetime);
+    }
+
+
+    /**
+     * Creates a signed access token for the given {@code authToken}.
+     *
+     * @param authToken The {@link AuthToken} being encoded.
+     * @param now       The actual epoch second.
+     * @return The access token.
+     */
+    private String accessToken(final AuthToken authToken, final long now) {
+        return keyRing.getSigner().sign(claims(
+                authToken.getId().toString(),
+                authToken.getOwner(),
+                authToken.getRolesAssigned(),
+                now,
+                now + accessTokenDuration.getSeconds()
+        ));
+    }
+
+    /**
+     * Creates a signed refresh token for the given {@code authToken}.
+     *
+     * @param authToken The {@link AuthToken} being encoded.
+     * @param now       The actual epoch second.
+     * @return The refresh token.
+     */
+    private String refreshToken(final AuthToken authToken, final long now) {
+        return keyRing.getSigner().sign(claims(
+                authToken.getId().toString(),
+                authToken.getOwner(),
+                REFRESH_ROLES,
+                now,
+                now + refreshTokenDuration.getSeconds()
+        ));
+    }
+
+    /**
+     * Serializes the claims of a token in JSON.
+     *
+     * @param id        The token id ({@code jti} claim).
+     * @param subject   The token's subject ({@code sub} claim).
+     * @param roles     The roles granted by the token.
+     * @param issuedAt  The epoch second at which the token is issued ({@code iat} claim).
+     * @param expiresAt The epoch second at which the token expires ({@code exp} claim).
+     * @return The serialized claims.
+     */
+    private static String claims(
+            final String id,
+            final String subject,
+            final Collection<?> roles,
+            final long issuedAt,
+            final long expiresAt) {
+        final var json = new StringBuilder(128 + subject.length() + roles.size() * 16);
+        json.append("{\"jti\":");
+        JsonStrings.append(json, id);
+        json.append(",\"sub\":");
+        JsonStrings.append(json, subject);
+        json.append(",\"").append(Constants.ROLES_CLAIM).append("\":[");
+        var first = true;
+        for (final var role : roles) {
+            if (!first) {
+                json.append(',');
+            }
+            // Enums are serialized using their names (as Jackson does).
+            JsonStrings.append(json, role instanceof Enum ? ((Enum<?>) role).name() : role.toString());
+            first = false;
+        }
+        return json.append("],\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(expiresAt)
+                .append('}')
+                .toString();
     }
 
     /**
@@ -91,5 +181,29 @@ import java.util.Set;
          * The {@link Duration} of a refresh token.
          */
         private final Duration refreshTokenDuration;
+        /**
+         * The {@link Duration} before a refresh token's expiration from which a new one is issued when refreshing.
+         */
+        private final Duration refreshTokenReissueWindow;
+
+        /**
+         * Constructor for a wrapper in which refresh tokens are always issued again when refreshing.
+         *
+         * @param accessTokenDuration  The {@link Duration} of an access token.
+         * @param refreshTokenDuration The {@link Duration} of a refresh token.
+         */
+        /* package */ DurationsWrapper(final Duration accessTokenDuration, final Duration refreshTokenDuration) {
+            this(accessTokenDuration, refreshTokenDuration, refreshTokenDuration);
+        }
+
+
+        /**
+         * @return The {@link Duration} of an {@link AuthToken} since it was last refreshed
+         * (i.e the longest of the access and the refresh tokens' {@link Duration}s, just in case access tokens
+         * last longer than refresh tokens).
+         */
+        /* package */ Duration getLifetime() {
+            return accessTokenDuration.compareTo(refreshTokenDuration) > 0 ? accessTokenDuration : refreshTokenDuration;
+        }
     }
 }
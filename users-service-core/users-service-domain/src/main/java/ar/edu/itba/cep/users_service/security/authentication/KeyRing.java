@@ -0,0 +1,466 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.users_service.services.PublishedKeySet;
+import ar.edu.itba.cep.users_service.services.SigningKeysService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the keys with which tokens are signed, and publishes their public keys.
+ * Keys can be loaded from a directory, which is periodically checked for changes, so keys can be rotated
+ * without restarting the service (i.e a new key is added, and the old one can be removed once the tokens signed
+ * with it are expired). Tokens are signed with the key with the greatest {@code kid} having a private key,
+ * and include that {@code kid} in their header.
+ * <p>
+ * As this service verifies tokens with a single key, keys loaded from a directory are only used if the signing key
+ * is the verification key (otherwise, the service would reject the tokens it issues).
+ */
+/* package */ final class KeyRing implements SigningKeysService, SchedulingConfigurer {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyRing.class);
+
+    /**
+     * The extension of files containing public keys.
+     */
+    private static final String PUBLIC_KEY_EXTENSION = ".pub";
+    /**
+     * The extension of files containing private keys.
+     */
+    private static final String PRIVATE_KEY_EXTENSION = ".key";
+
+
+    /**
+     * The {@link SigningAlgorithm} of the keys.
+     */
+    private final SigningAlgorithm algorithm;
+    /**
+     * The directory from where keys are loaded ({@code null} if the keys are fixed).
+     */
+    private final Path directory;
+    /**
+     * How often the directory is checked for changes.
+     */
+    private final Duration reloadInterval;
+    /**
+     * The id of the key with which this service verifies tokens ({@code null} if the keys are fixed).
+     */
+    private final String verificationKeyId;
+    /**
+     * The actual {@link State}.
+     */
+    private volatile State state;
+
+
+    /**
+     * Private constructor.
+     *
+     * @param algorithm      The {@link SigningAlgorithm} of the keys.
+     * @param directory      The directory from where keys are loaded ({@code null} if the keys are fixed).
+     * @param reloadInterval    How often the directory is checked for changes.
+     * @param verificationKeyId The id of the key with which this service verifies tokens
+     *                          ({@code null} if the keys are fixed).
+     * @param state             The initial {@link State}.
+     */
+    private KeyRing(
+            final SigningAlgorithm algorithm,
+            final Path directory,
+            final Duration reloadInterval,
+            final String verificationKeyId,
+            final State state) {
+        this.algorithm = algorithm;
+        this.directory = directory;
+        this.reloadInterval = reloadInterval;
+        this.verificationKeyId = verificationKeyId;
+        this.state = state;
+    }
+
+
+    /**
+     * Creates a {@link KeyRing} that always signs tokens with the given {@code key}.
+     *
+     * @param algorithm The {@link SigningAlgorithm} of the key.
+     * @param key       The {@link SigningKey} (must have a private key).
+     * @return The created {@link KeyRing}.
+     * @throws IllegalArgumentException If the key is not valid.
+     */
+    /* package */ static KeyRing fixed(final SigningAlgorithm algorithm, final SigningKey key)
+            throws IllegalArgumentException {
+        Assert.notNull(key, "The key must not be null");
+        return new KeyRing(algorithm, null, null, null, State.create(algorithm, List.of(key), ""));
+    }
+
+    /**
+     * Creates a {@link KeyRing} whose keys are loaded from the given {@code directory}.
+     *
+     * @param algorithm         The {@link SigningAlgorithm} of the keys.
+     * @param directory         The directory from where keys are loaded.
+     * @param reloadInterval    How often the directory is checked for changes.
+     * @param verificationKeyId The id of the key with which this service verifies tokens.
+     * @return The created {@link KeyRing}.
+     * @throws IllegalArgumentException If the directory does not contain valid keys,
+     *                                  or if tokens would not be signed with the verification key.
+     * @throws UncheckedIOException     If the directory can't be read.
+     */
+    /* package */ static KeyRing fromDirectory(
+            final SigningAlgorithm algorithm,
+            final Path directory,
+            final Duration reloadInterval,
+            final String verificationKeyId) throws IllegalArgumentException, UncheckedIOException {
+        Assert.notNull(directory, "The directory must not be null");
+        Assert.isTrue(Files.isDirectory(directory), "The keys directory " + directory + " does not exist");
+        Assert.isTrue(
+                reloadInterval != null && !reloadInterval.isNegative() && !reloadInterval.isZero(),
+                "The reload interval must be positive"
+        );
+        Assert.hasText(verificationKeyId, "The verification key id must be set when loading keys from a directory");
+        return new KeyRing(
+                algorithm,
+                directory,
+                reloadInterval,
+                verificationKeyId,
+                load(algorithm, directory, fingerprint(directory), verificationKeyId)
+        );
+    }
+
+
+    @Override
+    public PublishedKeySet getPublishedKeys() {
+        return state.publishedKeySet;
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (directory == null) {
+            return;
+        }
+        taskRegistrar.addFixedDelayTask(this::reload, reloadInterval.toMillis());
+    }
+
+
+    /**
+     * @return The {@link JwtSigner} that signs tokens with the actual key.
+     */
+    /* package */ JwtSigner getSigner() {
+        return state.signer;
+    }
+
+    /**
+     * Reloads the keys from the directory, if it has changed since the last time they were loaded.
+     * If the new keys are not valid, the actual ones are kept.
+     *
+     * @return {@code true} if the keys changed, or {@code false} otherwise.
+     */
+    /* package */ boolean reload() {
+        if (directory == null) {
+            return false;
+        }
+        try {
+            final var fingerprint = fingerprint(directory);
+            if (fingerprint.equals(state.fingerprint)) {
+                return false;
+            }
+            final var newState = load(algorithm, directory, fingerprint, verificationKeyId);
+            this.state = newState;
+            LOGGER.info("Loaded signing keys. Tokens are now signed with key {}", newState.keyId);
+            return true;
+        } catch (final IllegalArgumentException | UncheckedIOException e) {
+            LOGGER.error("Could not reload signing keys. Still using the previous ones", e);
+            return false;
+        }
+    }
+
+
+    /**
+     * Loads the keys in the given {@code directory}.
+     *
+     * @param algorithm         The {@link SigningAlgorithm} of the keys.
+     * @param directory         The directory from where keys are loaded.
+     * @param fingerprint       The fingerprint of the directory.
+     * @param verificationKeyId The id of the key with which this service verifies tokens.
+     * @return The {@link State} with the loaded keys.
+     * @throws IllegalArgumentException If the directory does not contain valid keys,
+     *                                  or if tokens would not be signed with the verification key.
+     * @throws UncheckedIOException     If the directory can't be read.
+     */
+    private static State load(
+            final SigningAlgorithm algorithm,
+            final Path directory,
+            final String fingerprint,
+            final String verificationKeyId) throws IllegalArgumentException, UncheckedIOException {
+        final var keyIds = listKeyFiles(directory).stream()
+                .map(KeyRing::keyId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        final var keys = keyIds.stream()
+                .map(keyId -> new SigningKey(
+                        keyId,
+                        readKey(algorithm, directory.resolve(keyId + PRIVATE_KEY_EXTENSION), KeyRing::generatePrivate),
+                        readKey(algorithm, directory.resolve(keyId + PUBLIC_KEY_EXTENSION), KeyRing::generatePublic)
+                ))
+                .collect(Collectors.toList());
+        final var state = State.create(algorithm, keys, fingerprint);
+        if (!state.keyId.equals(verificationKeyId)) {
+            throw new IllegalArgumentException("Tokens would be signed with key " + state.keyId
+                    + ", but this service verifies them with key " + verificationKeyId);
+        }
+        return state;
+    }
+
+    /**
+     * Lists the key files (i.e those with the public or private key extensions) in the given {@code directory}.
+     *
+     * @param directory The directory.
+     * @return The key files, sorted by name.
+     * @throws UncheckedIOException If the directory can't be read.
+     */
+    private static List<Path> listKeyFiles(final Path directory) throws UncheckedIOException {
+        try (final var files = Files.list(directory)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> {
+                        final var name = file.getFileName().toString();
+                        return name.endsWith(PUBLIC_KEY_EXTENSION) || name.endsWith(PRIVATE_KEY_EXTENSION);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not list keys in " + directory, e);
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the key files in the given {@code directory} (names, sizes and modification times),
+     * used to detect changes in it without reading all the keys.
+     *
+     * @param directory The directory.
+     * @return The fingerprint.
+     * @throws UncheckedIOException If the directory can't be read.
+     */
+    private static String fingerprint(final Path directory) throws UncheckedIOException {
+        final var fingerprint = new StringBuilder();
+        for (final var file : listKeyFiles(directory)) {
+            try {
+                fingerprint.append(file.getFileName())
+                        .append(':').append(Files.size(file))
+                        .append(':').append(Files.getLastModifiedTime(file).toMillis())
+                        .append(';');
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Could not read " + file, e);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Returns the key id of the given key {@code file} (i.e its name without the extension).
+     *
+     * @param file The key file.
+     * @return The key id.
+     */
+    private static String keyId(final Path file) {
+        final var name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    /**
+     * Reads the key in the given {@code file}.
+     *
+     * @param algorithm The {@link SigningAlgorithm} of the key.
+     * @param file      The key file.
+     * @param generator A {@link BiFunction} that generates the key with a {@link KeyFactory}
+     *                  and the encoded key.
+     * @param <K>       The concrete type of key.
+     * @return The key, or {@code null} if the file does not exist.
+     * @throws IllegalArgumentException If the file does not contain a valid key.
+     * @throws UncheckedIOException     If the file can't be read.
+     */
+    private static <K> K readKey(
+            final SigningAlgorithm algorithm,
+            final Path file,
+            final BiFunction<KeyFactory, byte[], K> generator)
+            throws IllegalArgumentException, UncheckedIOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return generator.apply(algorithm.keyFactory(), decode(Files.readString(file, StandardCharsets.US_ASCII)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("The key in " + file + " is not valid", e);
+        }
+    }
+
+    /**
+     * Decodes a key stored in PEM or plain base64 format.
+     *
+     * @param content The content of the key file.
+     * @return The encoded key.
+     * @throws IllegalArgumentException If the content is not valid base64.
+     */
+    /* package */ static byte[] decode(final String content) throws IllegalArgumentException {
+        final var base64 = content.lines()
+                .filter(line -> !line.startsWith("-----"))
+                .map(String::strip)
+                .collect(Collectors.joining());
+        return Base64.getMimeDecoder().decode(base64);
+    }
+
+    /**
+     * Generates a {@link PrivateKey} from its PKCS#8 encoding.
+     *
+     * @param factory The {@link KeyFactory}.
+     * @param encoded The encoded key.
+     * @return The {@link PrivateKey}.
+     * @throws IllegalArgumentException If the key is not valid.
+     */
+    private static PrivateKey generatePrivate(final KeyFactory factory, final byte[] encoded)
+            throws IllegalArgumentException {
+        try {
+            return factory.generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Generates a {@link PublicKey} from its X.509 encoding.
+     *
+     * @param factory The {@link KeyFactory}.
+     * @param encoded The encoded key.
+     * @return The {@link PublicKey}.
+     * @throws IllegalArgumentException If the key is not valid.
+     */
+    private static PublicKey generatePublic(final KeyFactory factory, final byte[] encoded)
+            throws IllegalArgumentException {
+        try {
+            return factory.generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+
+    /**
+     * An immutable snapshot of the keys, swapped atomically when keys are reloaded.
+     */
+    private static final class State {
+
+        /**
+         * The id of the key with which tokens are signed.
+         */
+        private final String keyId;
+        /**
+         * The {@link JwtSigner} that signs tokens with the active key.
+         */
+        private final JwtSigner signer;
+        /**
+         * The published keys.
+         */
+        private final PublishedKeySet publishedKeySet;
+        /**
+         * The fingerprint of the directory from where the keys were loaded.
+         */
+        private final String fingerprint;
+
+        /**
+         * Private constructor.
+         *
+         * @param keyId           The id of the key with which tokens are signed.
+         * @param signer          The {@link JwtSigner} that signs tokens with the active key.
+         * @param publishedKeySet The published keys.
+         * @param fingerprint     The fingerprint of the directory from where the keys were loaded.
+         */
+        private State(
+                final String keyId,
+                final JwtSigner signer,
+                final PublishedKeySet publishedKeySet,
+                final String fingerprint) {
+            this.keyId = keyId;
+            this.signer = signer;
+            this.publishedKeySet = publishedKeySet;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Creates a {@link State} from the given {@code keys}.
+         *
+         * @param algorithm   The {@link SigningAlgorithm} of the keys.
+         * @param keys        The {@link SigningKey}s.
+         * @param fingerprint The fingerprint of the directory from where the keys were loaded.
+         * @return The created {@link State}.
+         * @throws IllegalArgumentException If there is no key with which tokens can be signed,
+         *                                  or if any of the keys is not valid.
+         */
+        private static State create(
+                final SigningAlgorithm algorithm,
+                final List<SigningKey> keys,
+                final String fingerprint) throws IllegalArgumentException {
+            final Map<String, SigningKey> sorted = new TreeMap<>();
+            keys.forEach(key -> sorted.put(key.getKeyId(), key));
+            final var active = sorted.values().stream()
+                    .filter(key -> key.getPrivateKey() != null)
+                    .reduce((first, second) -> second) // The greatest kid.
+                    .orElseThrow(() -> new IllegalArgumentException("There is no key with which tokens can be signed"));
+            sorted.values().stream()
+                    .map(SigningKey::getPublicKey)
+                    .filter(publicKey -> publicKey != null && !algorithm.isValidKey(publicKey))
+                    .findAny()
+                    .ifPresent(publicKey -> {
+                        throw new IllegalArgumentException("A public key is not valid for " + algorithm);
+                    });
+            if (active.getPublicKey() == null) {
+                LOGGER.warn("The public key of key {} is unknown. It won't be published", active.getKeyId());
+            }
+            final var jwks = Jwks.keySet(algorithm, sorted.values());
+            return new State(
+                    active.getKeyId(),
+                    new JwtSigner(active.getPrivateKey(), algorithm, active.getKeyId()),
+                    new PublishedKeySet(jwks, version(jwks)),
+                    fingerprint
+            );
+        }
+
+        /**
+         * Computes the version of the given {@code jwks} (i.e the base64url encoded SHA-256 digest of it).
+         *
+         * @param jwks The JSON Web Key Set.
+         * @return The version.
+         */
+        private static String version(final String jwks) {
+            try {
+                final var digest = MessageDigest.getInstance("SHA-256").digest(jwks.getBytes(StandardCharsets.UTF_8));
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not supported", e); // Never happens.
+            }
+        }
+    }
+}
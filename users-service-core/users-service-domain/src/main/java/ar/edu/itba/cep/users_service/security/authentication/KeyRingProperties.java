@@ -0,0 +1,47 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Properties for configuring the keys with which jwt are signed.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "authentication.jwt.users-service.key-ring")
+/* package */ class KeyRingProperties {
+
+    /**
+     * A directory from where keys are loaded (and reloaded when it changes).
+     * Each key is stored in a {@code <kid>.pub} file (X.509 encoded public key) and, if it can still be used to sign,
+     * a {@code <kid>.key} file (PKCS#8 encoded private key), both in PEM or plain base64 format.
+     * Tokens are signed with the key with the greatest {@code kid} having a private key,
+     * which must be the {@link #verificationKeyId verification key}.
+     * If not set, tokens are signed with the private key in the {@link JwtEncodingProperties}.
+     */
+    private Path directory;
+    /**
+     * The {@code kid} of the key whose public key is configured to verify tokens in this service
+     * (i.e the jwt authentication key). Required when keys are loaded from a directory.
+     * As this service verifies tokens with a single key, keys are not loaded if the signing key is another one
+     * (the service fails to start, or the actual keys are kept when reloading). Keys are rotated by publishing the new
+     * key first (i.e without its private key), and then adding its private key while switching both the
+     * authentication key and this property to it.
+     */
+    private String verificationKeyId;
+    /**
+     * How often the directory is checked for changes, in seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration reloadInterval = Duration.ofSeconds(30);
+    /**
+     * The {@code kid} of the key in the {@link JwtEncodingProperties} (i.e when no directory is set).
+     */
+    private String keyId = "users-service";
+}
@@ -0,0 +1,122 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for configuring how passwords are encoded (i.e hashed).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "authentication.password-encoding")
+/* package */ class PasswordEncodingProperties {
+
+    /**
+     * The {@link Algorithm} used to hash new passwords. Defaults to {@link Algorithm#BCRYPT}.
+     */
+    private Algorithm algorithm = Algorithm.BCRYPT;
+    /**
+     * BCrypt configuration.
+     */
+    private final Bcrypt bcrypt = new Bcrypt();
+    /**
+     * PBKDF2 configuration.
+     */
+    private final Pbkdf2 pbkdf2 = new Pbkdf2();
+    /**
+     * Argon2 configuration.
+     */
+    private final Argon2 argon2 = new Argon2();
+
+
+    /**
+     * The supported hashing algorithms.
+     */
+    public enum Algorithm {
+        /**
+         * The BCrypt hashing function.
+         */
+        BCRYPT("bcrypt"),
+        /**
+         * The PBKDF2 key derivation function.
+         */
+        PBKDF2("pbkdf2"),
+        /**
+         * The Argon2 hashing function.
+         */
+        ARGON2("argon2"),
+        ;
+
+        /**
+         * The id with which hashes created with the algorithm are prefixed.
+         */
+        @Getter
+        private final String id;
+
+        /**
+         * Constructor.
+         *
+         * @param id The id with which hashes created with the algorithm are prefixed.
+         */
+        Algorithm(final String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * BCrypt configuration properties.
+     */
+    @Getter
+    @Setter
+    public static class Bcrypt {
+        /**
+         * The log rounds to use (between 4 and 31).
+         */
+        private int strength = 10;
+    }
+
+    /**
+     * PBKDF2 configuration properties.
+     */
+    @Getter
+    @Setter
+    public static class Pbkdf2 {
+        /**
+         * The amount of iterations.
+         */
+        private int iterations = 185_000;
+        /**
+         * The size of the hash, in bits.
+         */
+        private int hashWidth = 256;
+    }
+
+    /**
+     * Argon2 configuration properties.
+     */
+    @Getter
+    @Setter
+    public static class Argon2 {
+        /**
+         * The length of the salt, in bytes.
+         */
+        private int saltLength = 16;
+        /**
+         * The length of the hash, in bytes.
+         */
+        private int hashLength = 32;
+        /**
+         * The parallelism factor.
+         */
+        private int parallelism = 1;
+        /**
+         * The memory cost, in kibibytes.
+         */
+        private int memory = 1 << 12;
+        /**
+         * The amount of iterations.
+         */
+        private int iterations = 3;
+    }
+}
@@ -0,0 +1,152 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * A bounded executor in charge of performing password hashing operations (which are CPU bound)
+ * outside the threads that request them. When its capacity is exceeded, operations are rejected right away
+ * (instead of piling up).
+ * <p>
+ * Background operations (see {@link #submit(Runnable)}) have lower priority than those a caller waits for:
+ * they are only accepted when no operation is waiting in the queue, and at most half of the threads
+ * (or one, if there is only one thread) are used by them, so a burst of them can not make callers be rejected.
+ */
+public class PasswordHashingExecutor {
+
+    /**
+     * The {@link Logger}.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+
+    /**
+     * The {@link ThreadPoolExecutor} that actually performs the operations.
+     */
+    private final ThreadPoolExecutor executor;
+    /**
+     * The maximum amount of time a caller waits for an operation to finish.
+     */
+    private final Duration timeout;
+    /**
+     * A {@link Semaphore} limiting the amount of background operations being performed at the same time.
+     */
+    private final Semaphore backgroundPermits;
+
+
+    /**
+     * Constructor.
+     *
+     * @param threads       The amount of threads that perform hashing operations.
+     * @param queueCapacity The maximum amount of operations that can be waiting for a thread.
+     * @param timeout       The maximum amount of time a caller waits for an operation to finish.
+     * @throws IllegalArgumentException If any value is not a valid one.
+     */
+    public PasswordHashingExecutor(final int threads, final int queueCapacity, final Duration timeout)
+            throws IllegalArgumentException {
+        Assert.isTrue(threads > 0, "The amount of threads must be positive");
+        Assert.isTrue(queueCapacity >= 0, "The queue capacity must not be negative");
+        Assert.notNull(timeout, "The timeout must not be null");
+        Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "The timeout must be positive");
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queueCapacity == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeout = timeout;
+        this.backgroundPermits = new Semaphore(Math.max(1, threads / 2));
+    }
+
+
+    /**
+     * Executes the given {@code operation}, waiting for its result.
+     *
+     * @param operation A {@link Supplier} that performs the hashing operation.
+     * @param <T>       The concrete type of the result.
+     * @return The result of the operation.
+     * @throws ServiceOverloadedException If the operation could not be performed because there is no capacity for it,
+     *                                    or if it took too long to be performed.
+     */
+    public <T> T execute(final Supplier<T> operation) throws ServiceOverloadedException {
+        Assert.notNull(operation, "The operation must not be null");
+        final Callable<T> callable = operation::get;
+        final Future<T> future;
+        try {
+            future = executor.submit(callable);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Password hashing capacity exceeded. Rejecting operation");
+            throw new ServiceOverloadedException("Password hashing capacity exceeded", timeout);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warn("Password hashing operation took more than {}. Aborting it", timeout);
+            throw new ServiceOverloadedException("Password hashing operation took too long", timeout);
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a password hashing operation", e);
+        } catch (final ExecutionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Unexpected exception when performing password hashing", cause);
+        }
+    }
+
+    /**
+     * Submits the given {@code operation} to be executed in background, without waiting for it to finish.
+     * This is a best effort operation: if operations are already waiting in the queue,
+     * or if too many background operations are being performed, it is discarded
+     * (i.e background operations can not fill the queue, taking the place of operations callers wait for).
+     *
+     * @param operation A {@link Runnable} that performs the hashing operation.
+     * @return {@code true} if the operation was accepted, or {@code false} otherwise.
+     */
+    public boolean submit(final Runnable operation) {
+        Assert.notNull(operation, "The operation must not be null");
+        if (!executor.getQueue().isEmpty() || !backgroundPermits.tryAcquire()) {
+            LOGGER.debug("Password hashing capacity is busy. Discarding background operation");
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    operation.run();
+                } catch (final RuntimeException e) {
+                    LOGGER.error("Unexpected exception when performing a background password hashing operation", e);
+                } finally {
+                    backgroundPermits.release();
+                }
+            });
+            return true;
+        } catch (final RejectedExecutionException e) {
+            backgroundPermits.release();
+            LOGGER.debug("Password hashing capacity exceeded. Discarding background operation");
+            return false;
+        }
+    }
+
+    /**
+     * Shuts down this executor. Operations already submitted are still performed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Properties for configuring the execution of password hashing operations.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "authentication.password-hashing")
+/* package */ class PasswordHashingProperties {
+
+    /**
+     * The amount of threads that perform hashing operations. Defaults to the amount of available processors.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * The maximum amount of hashing operations that can be waiting for a thread.
+     * Operations exceeding this value are rejected.
+     */
+    private int queueCapacity = 64;
+    /**
+     * The maximum amount of time a caller waits for a hashing operation to finish, in seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,142 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.Getter;
+
+import java.security.*;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.util.function.Predicate;
+
+/**
+ * The algorithms that can be used to sign issued jwt.
+ * <p>
+ * Only algorithms that can be verified by the jwt library used by this service (and its consumers) are included
+ * (e.g EdDSA is not, as jjwt 0.10 can not verify it).
+ */
+public enum SigningAlgorithm {
+    /**
+     * RSASSA-PKCS1-v1_5 using SHA-512 (with keys of at least 2048 bits).
+     */
+    RS512("RS512", "SHA512withRSA", "RSA",
+            key -> key instanceof RSAKey && ((RSAKey) key).getModulus().bitLength() >= 2048),
+    /**
+     * ECDSA using the P-256 curve (secp256r1) and SHA-256.
+     */
+    ES256("ES256", "SHA256withECDSAinP1363Format", "EC", namedCurve("secp256r1")),
+    /**
+     * ECDSA using the P-384 curve (secp384r1) and SHA-384.
+     */
+    ES384("ES384", "SHA384withECDSAinP1363Format", "EC", namedCurve("secp384r1")),
+    ;
+
+    /**
+     * The value of the {@code alg} header of tokens signed with this algorithm.
+     */
+    @Getter
+    private final String headerValue;
+    /**
+     * The JCA name of the {@link Signature} algorithm.
+     */
+    private final String signatureAlgorithm;
+    /**
+     * The JCA name of the {@link KeyFactory} algorithm for keys of this algorithm.
+     */
+    private final String keyAlgorithm;
+    /**
+     * A {@link Predicate} that checks whether a {@link Key} can be used with this algorithm.
+     */
+    private final Predicate<Key> keyValidator;
+
+
+    /**
+     * Constructor.
+     *
+     * @param headerValue        The value of the {@code alg} header of tokens signed with this algorithm.
+     * @param signatureAlgorithm The JCA name of the {@link Signature} algorithm.
+     * @param keyAlgorithm       The JCA name of the {@link KeyFactory} algorithm for keys of this algorithm.
+     * @param keyValidator       A {@link Predicate} that checks whether a {@link Key} can be used with this algorithm.
+     */
+    SigningAlgorithm(
+            final String headerValue,
+            final String signatureAlgorithm,
+            final String keyAlgorithm,
+            final Predicate<Key> keyValidator) {
+        this.headerValue = headerValue;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.keyAlgorithm = keyAlgorithm;
+        this.keyValidator = keyValidator;
+    }
+
+
+    /**
+     * Indicates whether the given {@code key} can be used with this algorithm.
+     *
+     * @param key The {@link Key} to be checked.
+     * @return {@code true} if the key can be used, or {@code false} otherwise.
+     */
+    public boolean isValidKey(final Key key) {
+        return key != null && keyValidator.test(key);
+    }
+
+    /**
+     * Creates a {@link KeyFactory} for keys of this algorithm.
+     *
+     * @return The {@link KeyFactory}.
+     * @throws IllegalStateException If the {@link KeyFactory} can't be created.
+     */
+    public KeyFactory keyFactory() throws IllegalStateException {
+        try {
+            return KeyFactory.getInstance(keyAlgorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not create a key factory for " + keyAlgorithm, e);
+        }
+    }
+
+    /**
+     * Creates a {@link Signature} of this algorithm.
+     *
+     * @return The (uninitialized) {@link Signature}.
+     * @throws IllegalStateException If the {@link Signature} can't be created.
+     */
+    public Signature signature() throws IllegalStateException {
+        try {
+            return Signature.getInstance(signatureAlgorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not create a signature for " + signatureAlgorithm, e);
+        }
+    }
+
+
+    /**
+     * Creates a {@link Predicate} that checks whether a {@link Key} is an elliptic curve key
+     * on the named curve with the given {@code curveName}.
+     * Curves are compared by their parameters (and not by their field size, which is shared by different curves).
+     *
+     * @param curveName The standard name of the curve (e.g {@code secp256r1}).
+     * @return The {@link Predicate}.
+     * @throws IllegalStateException If the curve is not supported.
+     */
+    private static Predicate<Key> namedCurve(final String curveName) throws IllegalStateException {
+        final ECParameterSpec expected;
+        try {
+            final var parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(curveName));
+            expected = parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("The curve " + curveName + " is not supported", e);
+        }
+        return key -> {
+            if (!(key instanceof ECKey)) {
+                return false;
+            }
+            final var actual = ((ECKey) key).getParams();
+            return actual != null
+                    && expected.getCurve().equals(actual.getCurve())
+                    && expected.getGenerator().equals(actual.getGenerator())
+                    && expected.getOrder().equals(actual.getOrder())
+                    && expected.getCofactor() == actual.getCofactor();
+        };
+    }
+}
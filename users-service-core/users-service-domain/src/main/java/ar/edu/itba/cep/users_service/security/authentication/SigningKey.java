@@ -0,0 +1,30 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * A key of the {@link KeyRing}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(of = "keyId", doNotUseGetters = true)
+/* package */ final class SigningKey {
+
+    /**
+     * The key id (i.e the {@code kid} of tokens signed with this key).
+     */
+    private final String keyId;
+    /**
+     * The {@link PrivateKey} used to sign tokens ({@code null} if the key can only be used to verify tokens).
+     */
+    private final PrivateKey privateKey;
+    /**
+     * The {@link PublicKey} used to verify tokens ({@code null} if it is unknown, in which case it is not published).
+     */
+    private final PublicKey publicKey;
+}
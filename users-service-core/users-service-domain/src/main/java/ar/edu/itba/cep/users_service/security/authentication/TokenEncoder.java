@@ -2,6 +2,8 @@ package ar.edu.itba.cep.users_service.security.authentication;
 
 import ar.edu.itba.cep.users_service.models.AuthToken;
 
+import java.time.Instant;
+
 /**
  * Defines behaviour for an object that can encode {@link AuthToken}s.
  */
@@ -15,4 +17,24 @@ public interface TokenEncoder {
      * encoding the given {@code authToken}.
      */
     TokensWrapper encode(final AuthToken authToken);
+
+    /**
+     * Encodes the given {@code authToken} because it is being refreshed.
+     * A new access token is always encoded, but the refresh token is only encoded again
+     * if the last one issued for the {@code authToken} (i.e at {@link AuthToken#getRefreshedAt()}) is about to expire.
+     *
+     * @param authToken The {@link AuthToken} to be encoded.
+     * @return A {@link TokensWrapper} containing the new access token, and the new refresh token
+     * (or {@code null} if the last issued refresh token is still to be used).
+     */
+    TokensWrapper refresh(final AuthToken authToken);
+
+    /**
+     * Returns the {@link Instant} at which the given {@code authToken} expires (i.e the tokens issued when it was
+     * last refreshed are no longer valid, and it can't be refreshed anymore).
+     *
+     * @param authToken The {@link AuthToken}.
+     * @return The {@link Instant} at which the {@code authToken} expires.
+     */
+    Instant expiration(final AuthToken authToken);
 }
@@ -0,0 +1,36 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Properties for configuring the deletion of expired tokens.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "authentication.token-reaper")
+/* package */ class TokenReaperProperties {
+
+    /**
+     * Indicates whether expired tokens must be deleted.
+     */
+    private boolean enabled = true;
+    /**
+     * The amount of time between the end of a run and the start of the next one, in seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration delay = Duration.ofHours(1);
+    /**
+     * The maximum amount of tokens deleted in a single transaction.
+     */
+    private int batchSize = 1000;
+    /**
+     * The maximum amount of batches deleted in a single run.
+     */
+    private int maxBatches = 100;
+}
@@ -17,7 +17,7 @@ public class TokensWrapper {
     private final String accessToken;
 
     /**
-     * The refresh token.
+     * The refresh token (might be {@code null} if no refresh token was issued when refreshing).
      */
     private final String refreshToken;
 }
@@ -0,0 +1,18 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} that can tell whether an encoded password was hashed with outdated settings
+ * (e.g another algorithm, or a lower cost factor), and thus must be hashed again.
+ */
+public interface UpgradablePasswordEncoder extends PasswordEncoder {
+
+    /**
+     * Indicates whether the given {@code encodedPassword} should be encoded again.
+     *
+     * @param encodedPassword The encoded password to be checked.
+     * @return {@code true} if the password should be encoded again, or {@code false} otherwise.
+     */
+    boolean upgradeEncoding(final String encodedPassword);
+}
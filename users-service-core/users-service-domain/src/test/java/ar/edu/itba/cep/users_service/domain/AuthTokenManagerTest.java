@@ -1,25 +1,42 @@
 package ar.edu.itba.cep.users_service.domain;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.config.CredentialHistoryProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.TokensRevokedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserEvent;
-import ar.edu.itba.cep.users_service.domain.events.UserRoleRemovedEvent;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessage;
+import ar.edu.itba.cep.users_service.domain.outbox.EventMessageBatch;
+import ar.edu.itba.cep.users_service.domain.introspection.TokenIntrospectionIndex;
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.domain.usernames.KnownUsernamesIndex;
 import ar.edu.itba.cep.users_service.models.*;
 import ar.edu.itba.cep.users_service.repositories.*;
+import ar.edu.itba.cep.users_service.security.authentication.PasswordHashingExecutor;
 import ar.edu.itba.cep.users_service.security.authentication.TokenEncoder;
 import ar.edu.itba.cep.users_service.security.authentication.TokensWrapper;
+import ar.edu.itba.cep.users_service.security.authentication.UpgradablePasswordEncoder;
 import com.bellotapps.webapps_commons.exceptions.NoSuchEntityException;
 import com.bellotapps.webapps_commons.exceptions.UnauthenticatedException;
 import com.bellotapps.webapps_commons.exceptions.UnauthorizedException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.*;
 
+import static ar.edu.itba.cep.users_service.security.authentication.Constants.REFRESH_GRANT;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.*;
 
@@ -29,13 +46,23 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AuthTokenManagerTest {
 
+    /**
+     * The authenticated principal, which owns the tokens being accessed.
+     */
+    private static final String OWNER = "owner";
+
     private final UserRepository userRepository;
     private final UserCredentialRepository userCredentialRepository;
     private final AuthTokenRepository<AuthToken> authTokenRepository;
     private final UserAuthTokenRepository userAuthTokenRepository;
     private final SubjectAuthTokenRepository subjectAuthTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UpgradablePasswordEncoder passwordEncoder;
     private final TokenEncoder tokenEncoder;
+    private final RevokedTokensIndex revokedTokensIndex;
+    private final TokenIntrospectionIndex tokenIntrospectionIndex;
+    private final KnownUsernamesIndex knownUsernamesIndex;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final ApplicationEventPublisher publisher;
 
     private final AuthTokenManager authTokenManager;
 
@@ -46,8 +73,13 @@ class AuthTokenManagerTest {
      * @param userRepository           The {@link UserRepository} that is injected to the {@link AuthTokenManager}.
      * @param userCredentialRepository The {@link UserCredentialRepository} that is injected to the {@link AuthTokenManager}.
      * @param authTokenRepository      The {@link AuthTokenRepository} that is injected to the {@link AuthTokenManager}.
-     * @param passwordEncoder          The {@link PasswordEncoder} that is injected to the {@link AuthTokenManager}.
+     * @param passwordEncoder          The {@link UpgradablePasswordEncoder} that is injected to the {@link AuthTokenManager}.
      * @param tokenEncoder             The {@link TokenEncoder} that is injected to the {@link AuthTokenManager}.
+     * @param revokedTokensIndex       The {@link RevokedTokensIndex} that is injected to the {@link AuthTokenManager}.
+     * @param tokenIntrospectionIndex  The {@link TokenIntrospectionIndex} that is injected to the {@link AuthTokenManager}.
+     * @param knownUsernamesIndex      The {@link KnownUsernamesIndex} that is injected to the {@link AuthTokenManager}.
+     * @param publisher                The {@link ApplicationEventPublisher} that is injected to the {@link AuthTokenManager}.
+     * @param transactionManager       The {@link PlatformTransactionManager} that is injected to the {@link AuthTokenManager}.
      */
     AuthTokenManagerTest(
             @Mock(name = "userRepository") final UserRepository userRepository,
@@ -55,8 +87,13 @@ class AuthTokenManagerTest {
             @Mock(name = "authTokenRepository") final AuthTokenRepository<AuthToken> authTokenRepository,
             @Mock(name = "userAuthTokenRepository") final UserAuthTokenRepository userAuthTokenRepository,
             @Mock(name = "subjectAuthTokenRepository") final SubjectAuthTokenRepository subjectAuthTokenRepository,
-            @Mock(name = "passwordEncoder") final PasswordEncoder passwordEncoder,
-            @Mock(name = "tokenEncoder") final TokenEncoder tokenEncoder) {
+            @Mock(name = "passwordEncoder") final UpgradablePasswordEncoder passwordEncoder,
+            @Mock(name = "tokenEncoder") final TokenEncoder tokenEncoder,
+            @Mock(name = "revokedTokensIndex") final RevokedTokensIndex revokedTokensIndex,
+            @Mock(name = "tokenIntrospectionIndex") final TokenIntrospectionIndex tokenIntrospectionIndex,
+            @Mock(name = "knownUsernamesIndex") final KnownUsernamesIndex knownUsernamesIndex,
+            @Mock(name = "publisher") final ApplicationEventPublisher publisher,
+            @Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.userCredentialRepository = userCredentialRepository;
         this.authTokenRepository = authTokenRepository;
@@ -64,6 +101,13 @@ class AuthTokenManagerTest {
         this.subjectAuthTokenRepository = subjectAuthTokenRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenEncoder = tokenEncoder;
+        this.revokedTokensIndex = revokedTokensIndex;
+        this.tokenIntrospectionIndex = tokenIntrospectionIndex;
+        this.knownUsernamesIndex = knownUsernamesIndex;
+        this.publisher = publisher;
+        // By default, all usernames might exist (i.e they are looked up in the database).
+        lenient().when(knownUsernamesIndex.mightExist(anyString())).thenReturn(true);
+        this.passwordHashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
 
         this.authTokenManager = new AuthTokenManager(
                 userRepository,
@@ -72,10 +116,36 @@ class AuthTokenManagerTest {
                 userAuthTokenRepository,
                 subjectAuthTokenRepository,
                 passwordEncoder,
-                tokenEncoder
+                passwordHashingExecutor,
+                tokenEncoder,
+                revokedTokensIndex,
+                tokenIntrospectionIndex,
+                knownUsernamesIndex,
+                new CredentialHistoryProperties(),
+                publisher,
+                transactionManager
         );
     }
 
+    /**
+     * Authenticates an administrator presenting a refresh token (i.e the principal is allowed to perform all the
+     * token operations, and it owns the tokens being accessed in the tests).
+     */
+    @BeforeEach
+    void setUp() {
+        authenticate(OWNER, "ADMIN", REFRESH_GRANT);
+    }
+
+    /**
+     * Shuts down the {@link PasswordHashingExecutor} used by the {@link AuthTokenManager},
+     * and clears the security context.
+     */
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
 
     // ================================================================================================================
     // Happy path tests
@@ -100,22 +170,72 @@ class AuthTokenManagerTest {
         when(user.isActive()).thenReturn(true);
         when(user.getRoles()).thenReturn(userRoles);
         when(userCredential.getHashedPassword()).thenReturn(hashedPassword);
+        when(userCredential.getUser()).thenReturn(user);
         when(passwordEncoder.matches(inputPassword, hashedPassword)).thenReturn(true);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(userCredentialRepository.findLastForUser(user)).thenReturn(Optional.of(userCredential));
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.of(userCredential));
         when(userAuthTokenRepository.save(any(UserAuthToken.class))).then(i -> i.getArgument(0));
         when(tokenEncoder.encode(any(AuthToken.class))).thenReturn(tokensWrapper);
 
         authTokenManager.issueTokenForUser(username, inputPassword);
 
-        verify(userRepository, only()).findByUsername(username);
-        verify(userCredentialRepository, only()).findLastForUser(user);
-        verify(passwordEncoder, only()).matches(inputPassword, hashedPassword);
+        // The user, its roles and its credential must be loaded with a single query.
+        verify(userCredentialRepository, only()).findCurrentWithUserByUsername(username);
+        verifyZeroInteractions(userRepository);
+        verify(passwordEncoder, times(1)).matches(inputPassword, hashedPassword);
+        verify(passwordEncoder, times(1)).upgradeEncoding(hashedPassword);
+        verifyNoMoreInteractions(passwordEncoder);
         verify(userAuthTokenRepository, only()).save(argThat(matchingUserToken(user, userRoles)));
         verify(tokenEncoder, only()).encode(argThat(matchingUserToken(user, userRoles)));
+        verify(tokenIntrospectionIndex, only()).issued(argThat(matchingUserToken(user, userRoles)));
         verifyZeroInteractions(authTokenRepository, tokenEncoder);
     }
 
+    /**
+     * Tests that issuing an {@link AuthToken} for a {@link User} whose password hash is outdated
+     * results in a new {@link UserCredential} being saved (in background).
+     *
+     * @param user           A mocked {@link User} (the one for which a token is being tried to be issued).
+     * @param userCredential A mocked {@link UserCredential} (the one being matched).
+     * @param tokensWrapper  A mocked {@link TokensWrapper} (the one being returned by the manager).
+     */
+    @Test
+    void testIssueUserTokenUpgradesOutdatedCredential(
+            @Mock(name = "user") final User user,
+            @Mock(name = "userCredential") final UserCredential userCredential,
+            @Mock(name = "tokensWrapper") final TokensWrapper tokensWrapper) {
+        final var username = TestHelper.validUsername();
+        final var hashedPassword = TestHelper.validPassword();
+        final var upgradedHashedPassword = TestHelper.validPassword() + "upgraded";
+        final var inputPassword = TestHelper.validPassword() + "another";
+        final Set<Role> userRoles = new HashSet<>(Arrays.asList(Role.values()));
+        when(user.isActive()).thenReturn(true);
+        when(user.getRoles()).thenReturn(userRoles);
+        when(userCredential.getHashedPassword()).thenReturn(hashedPassword);
+        when(passwordEncoder.matches(inputPassword, hashedPassword)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(hashedPassword)).thenReturn(true);
+        when(passwordEncoder.encode(inputPassword)).thenReturn(upgradedHashedPassword);
+        when(userCredential.getUser()).thenReturn(user);
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.of(userCredential));
+        when(userCredentialRepository.findCurrentForUser(user)).thenReturn(Optional.of(userCredential));
+        when(userCredentialRepository.save(any(UserCredential.class))).then(i -> i.getArgument(0));
+        when(userAuthTokenRepository.save(any(UserAuthToken.class))).then(i -> i.getArgument(0));
+        when(tokenEncoder.encode(any(AuthToken.class))).thenReturn(tokensWrapper);
+
+        authTokenManager.issueTokenForUser(username, inputPassword);
+
+        verify(userCredentialRepository, timeout(1000)).compactHistory(eq(user), anyInt());
+        final var inOrder = inOrder(userCredentialRepository);
+        inOrder.verify(userCredentialRepository).retireCurrentForUser(user);
+        inOrder.verify(userCredentialRepository).save(
+                argThat(credential -> credential.getUser() == user
+                        && credential.isCurrent()
+                        && upgradedHashedPassword.equals(credential.getHashedPassword()))
+        );
+        inOrder.verify(userCredentialRepository).compactHistory(eq(user), anyInt());
+        verify(userAuthTokenRepository, only()).save(argThat(matchingUserToken(user, userRoles)));
+        verify(tokenEncoder, only()).encode(argThat(matchingUserToken(user, userRoles)));
+    }
+
     /**
      * Tests that issuing an {@link AuthToken} works as expected.
      *
@@ -134,6 +254,7 @@ class AuthTokenManagerTest {
 
         verify(subjectAuthTokenRepository, only()).save(argThat(matchingSubjectToken(subject, roles)));
         verify(tokenEncoder, only()).encode(argThat(matchingSubjectToken(subject, roles)));
+        verify(tokenIntrospectionIndex, only()).issued(argThat(matchingSubjectToken(subject, roles)));
         verifyZeroInteractions(authTokenRepository, tokenEncoder);
     }
 
@@ -148,16 +269,53 @@ class AuthTokenManagerTest {
             @Mock(name = "token", answer = RETURNS_DEEP_STUBS) final UserAuthToken token,
             @Mock(name = "tokensWrapper") final TokensWrapper tokensWrapper) {
         final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
         when(token.isValid()).thenReturn(true);
         when(token.getUser().isActive()).thenReturn(true);
 
         when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
-        when(tokenEncoder.encode(token)).thenReturn(tokensWrapper);
+        when(authTokenRepository.save(token)).thenReturn(token);
+        when(tokenEncoder.refresh(token)).thenReturn(tokensWrapper);
+        when(tokensWrapper.getRefreshToken()).thenReturn("refresh-token");
 
         authTokenManager.refreshToken(tokenId);
 
+        verify(token, times(1)).refreshed();
+        verify(authTokenRepository, times(1)).findById(tokenId);
+        verify(authTokenRepository, times(1)).save(token);
+        verifyNoMoreInteractions(authTokenRepository);
+        verify(tokenEncoder, only()).refresh(token);
+        verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder);
+    }
+
+    /**
+     * Tests that refreshing an {@link AuthToken} for which no new refresh token is issued
+     * does not register the token as refreshed.
+     *
+     * @param token         A mocked {@link UserAuthToken} (the one being tried to be refreshed).
+     * @param tokensWrapper A mocked {@link TokensWrapper} (the one being returned by the manager).
+     */
+    @Test
+    void testRefreshWithoutNewRefreshToken(
+            @Mock(name = "token", answer = RETURNS_DEEP_STUBS) final UserAuthToken token,
+            @Mock(name = "tokensWrapper") final TokensWrapper tokensWrapper) {
+        final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
+        when(token.isValid()).thenReturn(true);
+        when(token.getUser().isActive()).thenReturn(true);
+
+        when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
+        when(tokenEncoder.refresh(token)).thenReturn(tokensWrapper);
+        when(tokensWrapper.getAccessToken()).thenReturn("access-token");
+        when(tokensWrapper.getRefreshToken()).thenReturn(null);
+
+        final var container = authTokenManager.refreshToken(tokenId);
+
+        Assertions.assertEquals("access-token", container.getAccessToken(), "The access token does not match");
+        Assertions.assertNull(container.getRefreshToken(), "A refresh token is returned when none was issued");
+        verify(token, never()).refreshed();
         verify(authTokenRepository, only()).findById(tokenId);
-        verify(tokenEncoder, only()).encode(token);
+        verify(tokenEncoder, only()).refresh(token);
         verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder);
     }
 
@@ -172,15 +330,21 @@ class AuthTokenManagerTest {
             @Mock(name = "token", answer = RETURNS_DEEP_STUBS) final SubjectAuthToken token,
             @Mock(name = "tokensWrapper") final TokensWrapper tokensWrapper) {
         final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
         when(token.isValid()).thenReturn(true);
 
         when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
-        when(tokenEncoder.encode(token)).thenReturn(tokensWrapper);
+        when(authTokenRepository.save(token)).thenReturn(token);
+        when(tokenEncoder.refresh(token)).thenReturn(tokensWrapper);
+        when(tokensWrapper.getRefreshToken()).thenReturn("refresh-token");
 
         authTokenManager.refreshToken(tokenId);
 
-        verify(authTokenRepository, only()).findById(tokenId);
-        verify(tokenEncoder, only()).encode(token);
+        verify(token, times(1)).refreshed();
+        verify(authTokenRepository, times(1)).findById(tokenId);
+        verify(authTokenRepository, times(1)).save(token);
+        verifyNoMoreInteractions(authTokenRepository);
+        verify(tokenEncoder, only()).refresh(token);
         verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder);
     }
 
@@ -193,6 +357,7 @@ class AuthTokenManagerTest {
     void testBlacklistValidToken(@Mock(name = "token") final AuthToken token) {
         final var tokenId = TestHelper.validTokenId();
         when(token.isValid()).thenReturn(true);
+        when(token.getId()).thenReturn(tokenId);
         doNothing().when(token).invalidate();
         when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
         when(authTokenRepository.save(token)).thenReturn(token);
@@ -201,7 +366,12 @@ class AuthTokenManagerTest {
 
         verify(token, times(1)).isValid();
         verify(token, times(1)).invalidate();
+        verify(token, times(1)).getId();
         verifyNoMoreInteractions(token);
+        verify(revokedTokensIndex, times(1)).isRevoked(tokenId);
+        verify(revokedTokensIndex, times(1)).revoked(tokenId);
+        verifyNoMoreInteractions(revokedTokensIndex);
+        verify(publisher, only()).publishEvent(new TokensRevokedEvent(List.of(tokenId)));
         verify(authTokenRepository, times(1)).findById(tokenId);
         verify(authTokenRepository, times(1)).save(token);
         verifyNoMoreInteractions(authTokenRepository);
@@ -272,91 +442,78 @@ class AuthTokenManagerTest {
     }
 
     /**
-     * Tests that handling a {@link UserRoleRemovedEvent} by the
-     * {@link AuthTokenManager#removeAllUserTokensWithRole(UserRoleRemovedEvent)} method works as expected.
+     * Tests that handling a {@link UserEvent} by the {@link AuthTokenManager#removeAllUserTokens(UserEvent)} method
+     * works as expected, invalidating the tokens in bulk and adding them to the {@link RevokedTokensIndex}.
      *
-     * @param event  A mocked {@link UserRoleRemovedEvent} (the one being passed to the method).
-     * @param user   A mocked {@link User} (the one contained in the event)
-     * @param token1 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
-     * @param token2 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
-     * @param token3 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
+     * @param event A mocked {@link UserEvent} (the one being passed to the method).
+     * @param user  A mocked {@link User} (the one contained in the event)
      */
     @Test
-    void testRemoveAllUserTokensWithRole(
-            @Mock(name = "event") final UserRoleRemovedEvent event,
-            @Mock(name = "user") final User user,
-            @Mock(name = "token1") final UserAuthToken token1,
-            @Mock(name = "token2") final UserAuthToken token2,
-            @Mock(name = "token3") final UserAuthToken token3) {
-        final var role = TestHelper.randomRole();
+    void testRemoveAllUserTokens(
+            @Mock(name = "event") final UserEvent event,
+            @Mock(name = "user") final User user) {
+        final var invalidatedIds = List.of(TestHelper.validTokenId(), TestHelper.validTokenId());
         when(event.getUser()).thenReturn(user);
-        when(event.getRole()).thenReturn(role);
-        when(token1.isValid()).thenReturn(true);
-        when(token2.isValid()).thenReturn(true);
-        when(token3.isValid()).thenReturn(false);
-        doNothing().when(token1).invalidate();
-        doNothing().when(token2).invalidate();
-
-        when(userAuthTokenRepository.getUserTokensWithRole(user, role)).thenReturn(List.of(token1, token2, token3));
-        when(authTokenRepository.save(token1)).thenReturn(token1);
-        when(authTokenRepository.save(token2)).thenReturn(token2);
-
-        authTokenManager.removeAllUserTokensWithRole(event);
-
-        verify(token1, times(1)).isValid();
-        verify(token1, times(1)).invalidate();
-        verify(token2, times(1)).isValid();
-        verify(token2, times(1)).invalidate();
-        verifyNoMoreInteractions(token1, token2);
-        verify(token3, only()).isValid();
-        verify(userAuthTokenRepository, times(1)).getUserTokensWithRole(user, role);
-        verify(authTokenRepository, times(1)).save(token1);
-        verify(authTokenRepository, times(1)).save(token2);
-        verifyNoMoreInteractions(authTokenRepository);
-        verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder, tokenEncoder);
+        when(userAuthTokenRepository.invalidateUserTokens(user)).thenReturn(invalidatedIds);
+
+        authTokenManager.removeAllUserTokens(event);
+
+        verify(userAuthTokenRepository, only()).invalidateUserTokens(user);
+        verify(revokedTokensIndex, only()).revokedAll(invalidatedIds);
+        verify(publisher, only()).publishEvent(new TokensRevokedEvent(invalidatedIds));
+        verifyZeroInteractions(userRepository, userCredentialRepository, authTokenRepository, passwordEncoder, tokenEncoder);
     }
 
     /**
-     * Tests that handling a {@link UserEvent} by the {@link AuthTokenManager#removeAllUserTokens(UserEvent)} method
-     * works as expected.
-     *
-     * @param event  A mocked {@link UserEvent} (the one being passed to the method).
-     * @param user   A mocked {@link User} (the one contained in the event)
-     * @param token1 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
-     * @param token2 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
-     * @param token3 A mocked {@link AuthToken} (one of the {@link AuthToken}s belonging to the {@code user}).
+     * Tests that handling an {@link EventMessageBatch} by the
+     * {@link AuthTokenManager#revokeUsersTokens(EventMessageBatch)} method invalidates, for each message,
+     * the tokens issued before the event occurred, of all the affected {@link User}s in a single pass
+     * (and only those with the removed {@link Role} for role removals),
+     * adding them to the {@link RevokedTokensIndex} and publishing them as revoked.
      */
     @Test
-    void testRemoveAllUserTokens(
-            @Mock(name = "event") final UserEvent event,
-            @Mock(name = "user") final User user,
-            @Mock(name = "token1") final UserAuthToken token1,
-            @Mock(name = "token2") final UserAuthToken token2,
-            @Mock(name = "token3") final UserAuthToken token3) {
-        when(event.getUser()).thenReturn(user);
-        when(token1.isValid()).thenReturn(true);
-        when(token2.isValid()).thenReturn(true);
-        when(token3.isValid()).thenReturn(false);
-        doNothing().when(token1).invalidate();
-        doNothing().when(token2).invalidate();
+    void testRevokeUsersTokens() {
+        final var deactivated = List.of(TestHelper.validUsername(), TestHelper.validUsername());
+        final var withoutRole = List.of(TestHelper.validUsername());
+        final var role = TestHelper.randomRole();
+        final var deactivation = EventMessage.of(BulkUserEvent.deactivated(deactivated));
+        final var roleRemoval = EventMessage.of(BulkUserEvent.roleRemoved(withoutRole, role));
+        final var activation = EventMessage.of(BulkUserEvent.activated(deactivated));
+        final var deactivatedTokenId = TestHelper.validTokenId();
+        final var withRoleTokenId = TestHelper.validTokenId();
+        when(userAuthTokenRepository.invalidateUsersTokens(deactivated, deactivation.getOccurredAt()))
+                .thenReturn(List.of(deactivatedTokenId));
+        when(userAuthTokenRepository.invalidateUsersTokensWithRole(withoutRole, role, roleRemoval.getOccurredAt()))
+                .thenReturn(List.of(withRoleTokenId));
+
+        authTokenManager.revokeUsersTokens(new EventMessageBatch(List.of(deactivation, roleRemoval, activation)));
+
+        final var invalidatedIds = List.of(deactivatedTokenId, withRoleTokenId);
+        verify(userAuthTokenRepository, times(1)).invalidateUsersTokens(deactivated, deactivation.getOccurredAt());
+        verify(userAuthTokenRepository, times(1))
+                .invalidateUsersTokensWithRole(withoutRole, role, roleRemoval.getOccurredAt());
+        verifyNoMoreInteractions(userAuthTokenRepository);
+        verify(revokedTokensIndex, only()).revokedAll(invalidatedIds);
+        verify(publisher, only()).publishEvent(new TokensRevokedEvent(invalidatedIds));
+        verifyZeroInteractions(userRepository, userCredentialRepository, authTokenRepository, passwordEncoder, tokenEncoder);
+    }
 
-        when(userAuthTokenRepository.getUserTokens(user)).thenReturn(List.of(token1, token2, token3));
-        when(authTokenRepository.save(token1)).thenReturn(token1);
-        when(authTokenRepository.save(token2)).thenReturn(token2);
+    /**
+     * Tests that handling an {@link EventMessageBatch} by the
+     * {@link AuthTokenManager#revokeUsersTokens(EventMessageBatch)} method does not publish anything
+     * when there are no tokens to be revoked.
+     */
+    @Test
+    void testRevokeUsersTokensWithNothingToRevoke() {
+        final var usernames = List.of(TestHelper.validUsername());
+        final var deactivation = EventMessage.of(BulkUserEvent.deactivated(usernames));
+        when(userAuthTokenRepository.invalidateUsersTokens(usernames, deactivation.getOccurredAt()))
+                .thenReturn(List.of());
 
-        authTokenManager.removeAllUserTokens(event);
+        authTokenManager.revokeUsersTokens(new EventMessageBatch(List.of(deactivation)));
 
-        verify(token1, times(1)).isValid();
-        verify(token1, times(1)).invalidate();
-        verify(token2, times(1)).isValid();
-        verify(token2, times(1)).invalidate();
-        verifyNoMoreInteractions(token1, token2);
-        verify(token3, only()).isValid();
-        verify(userAuthTokenRepository, times(1)).getUserTokens(user);
-        verify(authTokenRepository, times(1)).save(token1);
-        verify(authTokenRepository, times(1)).save(token2);
-        verifyNoMoreInteractions(authTokenRepository);
-        verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder, tokenEncoder);
+        verify(userAuthTokenRepository, only()).invalidateUsersTokens(usernames, deactivation.getOccurredAt());
+        verifyZeroInteractions(revokedTokensIndex, publisher);
     }
 
 
@@ -368,44 +525,45 @@ class AuthTokenManagerTest {
      * Tests that trying to issue an {@link AuthToken} for a deactivated {@link User}
      * throws an {@link UnauthenticatedException}.
      *
-     * @param user A mocked {@link User} (the one for which a token is being tried to be issued).
+     * @param user           A mocked {@link User} (the one for which a token is being tried to be issued).
+     * @param userCredential A mocked {@link UserCredential} (the one of the deactivated {@link User}).
      */
     @Test
-    void testIssueTokenForNonActiveUser(@Mock(name = "user") final User user) {
+    void testIssueTokenForNonActiveUser(
+            @Mock(name = "user") final User user,
+            @Mock(name = "userCredential") final UserCredential userCredential) {
         final var username = TestHelper.validUsername();
         final var inputPassword = TestHelper.validPassword();
         when(user.isActive()).thenReturn(false);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(userCredential.getUser()).thenReturn(user);
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.of(userCredential));
         Assertions.assertThrows(
                 UnauthenticatedException.class,
                 () -> authTokenManager.issueTokenForUser(username, inputPassword),
                 "Issuing a token for a deactivated user is not failing"
         );
-        verify(userRepository, only()).findByUsername(username);
-        verifyZeroInteractions(userCredentialRepository, passwordEncoder, authTokenRepository, tokenEncoder);
+        verify(userCredentialRepository, only()).findCurrentWithUserByUsername(username);
+        verifyDummyPasswordCheck(inputPassword);
+        verifyZeroInteractions(userRepository, authTokenRepository, tokenEncoder);
     }
 
     /**
      * Tests that trying to issue an {@link AuthToken} for a {@link User} that does not contain {@link UserCredential}s
      * throws an {@link UnauthenticatedException}.
-     *
-     * @param user A mocked {@link User} (the one for which a token is being tried to be issued).
      */
     @Test
-    void testIssueTokenWithUserWithoutCredential(@Mock(name = "user") final User user) {
+    void testIssueTokenWithUserWithoutCredential() {
         final var username = TestHelper.validUsername();
         final var inputPassword = TestHelper.validPassword();
-        when(user.isActive()).thenReturn(true);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(userCredentialRepository.findLastForUser(user)).thenReturn(Optional.empty());
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.empty());
         Assertions.assertThrows(
                 UnauthenticatedException.class,
                 () -> authTokenManager.issueTokenForUser(username, inputPassword),
                 "Issuing a token when there are no credentials for a user is not failing"
         );
-        verify(userRepository, only()).findByUsername(username);
-        verify(userCredentialRepository, only()).findLastForUser(user);
-        verifyZeroInteractions(passwordEncoder, authTokenRepository, tokenEncoder);
+        verify(userCredentialRepository, only()).findCurrentWithUserByUsername(username);
+        verifyDummyPasswordCheck(inputPassword);
+        verifyZeroInteractions(userRepository, authTokenRepository, tokenEncoder);
     }
 
     /**
@@ -424,18 +582,17 @@ class AuthTokenManagerTest {
         final var inputPassword = TestHelper.validPassword() + "another";
         when(user.isActive()).thenReturn(true);
         when(userCredential.getHashedPassword()).thenReturn(hashedPassword);
+        when(userCredential.getUser()).thenReturn(user);
         when(passwordEncoder.matches(inputPassword, hashedPassword)).thenReturn(false);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(userCredentialRepository.findLastForUser(user)).thenReturn(Optional.of(userCredential));
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.of(userCredential));
         Assertions.assertThrows(
                 UnauthenticatedException.class,
                 () -> authTokenManager.issueTokenForUser(username, inputPassword),
                 "Issuing a token with an invalid password is not failing"
         );
-        verify(userRepository, only()).findByUsername(username);
-        verify(userCredentialRepository, only()).findLastForUser(user);
+        verify(userCredentialRepository, only()).findCurrentWithUserByUsername(username);
         verify(passwordEncoder, only()).matches(inputPassword, hashedPassword);
-        verifyZeroInteractions(authTokenRepository, tokenEncoder);
+        verifyZeroInteractions(userRepository, authTokenRepository, tokenEncoder);
     }
 
     /**
@@ -446,6 +603,7 @@ class AuthTokenManagerTest {
     @Test
     void testRefreshTokenForBlacklistedToken(@Mock(name = "token") final AuthToken token) {
         final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
         when(token.isValid()).thenReturn(false);
         when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
         Assertions.assertThrows(
@@ -453,11 +611,27 @@ class AuthTokenManagerTest {
                 () -> authTokenManager.refreshToken(tokenId),
                 "Issuing a token for a deactivated user is not failing"
         );
-        verify(token, only()).isValid();
+        verify(token, times(1)).isValid();
         verify(authTokenRepository, only()).findById(tokenId);
         verifyZeroInteractions(userRepository, userCredentialRepository, passwordEncoder, tokenEncoder);
     }
 
+    /**
+     * Tests that trying to refresh an {@link AuthToken} that is known to be revoked
+     * throws an {@link UnauthorizedException}, without accessing the database.
+     */
+    @Test
+    void testRefreshTokenForIndexedRevokedToken() {
+        final var tokenId = TestHelper.validTokenId();
+        when(revokedTokensIndex.isRevoked(tokenId)).thenReturn(true);
+        Assertions.assertThrows(
+                UnauthorizedException.class,
+                () -> authTokenManager.refreshToken(tokenId),
+                "Refreshing a token known to be revoked is not failing"
+        );
+        verifyNoInteractionsWithMocks();
+    }
+
     /**
      * Tests that trying to refresh an {@link AuthToken} that belongs to a deactivated {@link User}
      * throws an {@link UnauthenticatedException}.
@@ -467,6 +641,7 @@ class AuthTokenManagerTest {
     @Test
     void testRefreshTokenForNonActiveUser(@Mock(name = "token", answer = RETURNS_DEEP_STUBS) final UserAuthToken token) {
         final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
         when(token.isValid()).thenReturn(true);
         when(token.getUser().isActive()).thenReturn(false);
         when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
@@ -481,6 +656,77 @@ class AuthTokenManagerTest {
     }
 
 
+    // ================================================================================================================
+    // Authorization tests
+    // ================================================================================================================
+
+    /**
+     * Tests that trying to refresh an {@link AuthToken} owned by someone else throws an {@link AccessDeniedException},
+     * loading the token only once.
+     *
+     * @param token A mocked {@link AuthToken} (the one being tried to be refreshed).
+     */
+    @Test
+    void testRefreshTokenOwnedBySomeoneElse(@Mock(name = "token") final AuthToken token) {
+        final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn("someone-else");
+        when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
+        Assertions.assertThrows(
+                AccessDeniedException.class,
+                () -> authTokenManager.refreshToken(tokenId),
+                "Refreshing a token owned by someone else is not failing"
+        );
+        verify(token, only()).getOwner();
+        verifyOnlyTokenSearch(tokenId);
+    }
+
+    /**
+     * Tests that a non administrator can blacklist its own {@link AuthToken}, loading it only once.
+     *
+     * @param token A mocked {@link AuthToken} (the one being blacklisted).
+     */
+    @Test
+    void testBlacklistOwnTokenAsNonAdmin(@Mock(name = "token") final AuthToken token) {
+        authenticate(OWNER);
+        final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn(OWNER);
+        when(token.isValid()).thenReturn(true);
+        when(token.getId()).thenReturn(tokenId);
+        when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
+        when(authTokenRepository.save(token)).thenReturn(token);
+
+        authTokenManager.blacklistToken(tokenId);
+
+        verify(token, times(1)).invalidate();
+        verify(revokedTokensIndex, only()).revoked(tokenId);
+        verify(authTokenRepository, times(1)).findById(tokenId);
+        verify(authTokenRepository, times(1)).save(token);
+        verifyNoMoreInteractions(authTokenRepository);
+    }
+
+    /**
+     * Tests that a non administrator trying to blacklist an {@link AuthToken} owned by someone else
+     * gets an {@link AccessDeniedException}.
+     *
+     * @param token A mocked {@link AuthToken} (the one being tried to be blacklisted).
+     */
+    @Test
+    void testBlacklistTokenOwnedBySomeoneElse(@Mock(name = "token") final AuthToken token) {
+        authenticate(OWNER);
+        final var tokenId = TestHelper.validTokenId();
+        when(token.getOwner()).thenReturn("someone-else");
+        when(authTokenRepository.findById(tokenId)).thenReturn(Optional.of(token));
+        Assertions.assertThrows(
+                AccessDeniedException.class,
+                () -> authTokenManager.blacklistToken(tokenId),
+                "Blacklisting a token owned by someone else is not failing"
+        );
+        verify(token, only()).getOwner();
+        verifyOnlyTokenSearch(tokenId);
+        verifyZeroInteractions(revokedTokensIndex, publisher);
+    }
+
+
     // ================================================================================================================
     // Non existence tests
     // ================================================================================================================
@@ -492,13 +738,35 @@ class AuthTokenManagerTest {
     @Test
     void testIssueTokenForNonExistenceUserThrowsUnauthenticatedException() {
         final var username = TestHelper.validUsername();
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
+        final var inputPassword = TestHelper.validPassword();
+        when(userCredentialRepository.findCurrentWithUserByUsername(username)).thenReturn(Optional.empty());
         Assertions.assertThrows(
                 UnauthenticatedException.class,
-                () -> authTokenManager.issueTokenForUser(username, TestHelper.validPassword()),
+                () -> authTokenManager.issueTokenForUser(username, inputPassword),
                 "Issuing a token for a non existence user is not failing"
         );
-        verifyOnlyUserSearch(username);
+        verify(userCredentialRepository, only()).findCurrentWithUserByUsername(username);
+        verifyDummyPasswordCheck(inputPassword);
+        verifyZeroInteractions(userRepository, authTokenRepository, tokenEncoder);
+    }
+
+    /**
+     * Tests that trying to issue an {@link AuthToken} for a username that is known not to exist
+     * throws an {@link UnauthenticatedException} without accessing the database,
+     * but still checking the password (against a dummy one).
+     */
+    @Test
+    void testIssueTokenForUnknownUsernameDoesNotAccessDatabase() {
+        final var username = TestHelper.validUsername();
+        final var inputPassword = TestHelper.validPassword();
+        when(knownUsernamesIndex.mightExist(username)).thenReturn(false);
+        Assertions.assertThrows(
+                UnauthenticatedException.class,
+                () -> authTokenManager.issueTokenForUser(username, inputPassword),
+                "Issuing a token for an unknown username is not failing"
+        );
+        verifyDummyPasswordCheck(inputPassword);
+        verifyZeroInteractions(userRepository, userCredentialRepository, authTokenRepository, tokenEncoder);
     }
 
     /**
@@ -549,55 +817,15 @@ class AuthTokenManagerTest {
     // ================================================================================================================
 
     /**
-     * Tests that passing {@code null} to {@link AuthTokenManager#removeAllUserTokensWithRole(UserRoleRemovedEvent)}
+     * Tests that passing {@code null} to {@link AuthTokenManager#revokeUsersTokens(EventMessageBatch)}
      * throws an {@link IllegalArgumentException}.
      */
     @Test
-    void testRemoveAllUserTokensWithRoleWithNullEvent() {
-        Assertions.assertThrows(
-                IllegalArgumentException.class,
-                () -> authTokenManager.removeAllUserTokensWithRole(null),
-                "Passing a null event to the remove all user tokens with role method is being allowed"
-        );
-        verifyNoInteractionsWithMocks();
-    }
-
-    /**
-     * Tests that the {@link AuthTokenManager#removeAllUserTokensWithRole(UserRoleRemovedEvent)} method throws
-     * an {@link IllegalArgumentException} when the event contains a {@code null} {@link User}.
-     *
-     * @param event A mocked {@link UserRoleRemovedEvent} (the one being passed to the method).
-     */
-    @Test
-    void testRemoveAllUserTokensWithRoleWithEventWithNullUser(@Mock(name = "event") final UserRoleRemovedEvent event) {
-        when(event.getUser()).thenReturn(null);
-        when(event.getRole()).thenReturn(TestHelper.randomRole());
+    void testRevokeUsersTokensWithNullBatch() {
         Assertions.assertThrows(
                 IllegalArgumentException.class,
-                () -> authTokenManager.removeAllUserTokensWithRole(event),
-                "Passing an event with a null user to the remove all user tokens with role method is being allowed"
-        );
-        verifyNoInteractionsWithMocks();
-    }
-
-    /**
-     * Tests that the {@link AuthTokenManager#removeAllUserTokensWithRole(UserRoleRemovedEvent)} method throws
-     * an {@link IllegalArgumentException} when the event contains a {@code null} {@link Role}.
-     *
-     * @param event A mocked {@link UserRoleRemovedEvent} (the one being passed to the method).
-     * @param user  A mocked {@link User}
-     *              (the one contained in the event, included to avoid failure due to the lack of a {@link User})
-     */
-    @Test
-    void testRemoveAllUserTokensWithRoleWithEventWithNullRole(
-            @Mock(name = "event") final UserRoleRemovedEvent event,
-            @Mock(name = "user") final User user) {
-        when(event.getUser()).thenReturn(user);
-        when(event.getRole()).thenReturn(null);
-        Assertions.assertThrows(
-                IllegalArgumentException.class,
-                () -> authTokenManager.removeAllUserTokensWithRole(event),
-                "Passing an event with a null user to the remove all user tokens with role method is being allowed"
+                () -> authTokenManager.revokeUsersTokens(null),
+                "Passing a null batch to the revoke users tokens method is being allowed"
         );
         verifyNoInteractionsWithMocks();
     }
@@ -662,6 +890,17 @@ class AuthTokenManagerTest {
         return (final SubjectAuthToken t) -> t.getSubject().equals(subject) && t.getRolesAssigned().equals(roles);
     }
 
+    /**
+     * Convenient method to verify that the given {@code password} was only checked against a dummy hashed password.
+     *
+     * @param password The password that was checked.
+     */
+    private void verifyDummyPasswordCheck(final String password) {
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, times(1)).matches(eq(password), any());
+        verifyNoMoreInteractions(passwordEncoder);
+    }
+
     /**
      * Convenient method to verify that interactions with mocks only implies searching for a {@link User}
      * using the {@link UserRepository}.
@@ -694,6 +933,17 @@ class AuthTokenManagerTest {
         );
     }
 
+    /**
+     * Sets an authenticated principal in the security context.
+     *
+     * @param principal   The principal.
+     * @param authorities The principal's authorities.
+     */
+    private static void authenticate(final String principal, final String... authorities) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken(principal, null, authorities));
+    }
+
     /**
      * Convenient method to verify there is no interaction with any mock.
      */
@@ -703,7 +953,8 @@ class AuthTokenManagerTest {
                 userCredentialRepository,
                 authTokenRepository,
                 passwordEncoder,
-                tokenEncoder
+                tokenEncoder,
+                publisher
         );
     }
 }
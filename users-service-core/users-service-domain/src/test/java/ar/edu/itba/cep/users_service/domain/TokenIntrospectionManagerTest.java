@@ -0,0 +1,354 @@
+package ar.edu.itba.cep.users_service.domain;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.config.TokenIntrospectionProperties;
+import ar.edu.itba.cep.users_service.domain.introspection.TokenIntrospectionIndex;
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.domain.revocation.TokenRevocationFeed;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.SubjectAuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.models.UserAuthToken;
+import ar.edu.itba.cep.users_service.repositories.SubjectAuthTokenRepository;
+import ar.edu.itba.cep.users_service.repositories.UserAuthTokenRepository;
+import ar.edu.itba.cep.users_service.security.authentication.TokenEncoder;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import ar.edu.itba.cep.users_service.services.TokenIntrospection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link TokenIntrospectionManager}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionManagerTest {
+
+    /**
+     * The maximum amount of tokens introspected at once.
+     */
+    private static final int MAX_BATCH_SIZE = 3;
+
+
+    private final UserAuthTokenRepository userAuthTokenRepository;
+    private final SubjectAuthTokenRepository subjectAuthTokenRepository;
+    private final RevokedTokensIndex revokedTokensIndex;
+    private final TokenRevocationFeed tokenRevocationFeed;
+    private final TokenEncoder tokenEncoder;
+    private final TokenIntrospectionIndex tokenIntrospectionIndex;
+
+    private final TokenIntrospectionManager tokenIntrospectionManager;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userAuthTokenRepository    The {@link UserAuthTokenRepository}
+     *                                   that is injected to the {@link TokenIntrospectionManager}.
+     * @param subjectAuthTokenRepository The {@link SubjectAuthTokenRepository}
+     *                                   that is injected to the {@link TokenIntrospectionManager}.
+     * @param revokedTokensIndex         The {@link RevokedTokensIndex}
+     *                                   that is injected to the {@link TokenIntrospectionManager}.
+     * @param tokenRevocationFeed        The {@link TokenRevocationFeed}
+     *                                   that is injected to the {@link TokenIntrospectionIndex}.
+     * @param tokenEncoder               The {@link TokenEncoder}
+     *                                   that is injected to the {@link TokenIntrospectionManager}
+     *                                   and to the {@link TokenIntrospectionIndex}.
+     * @param transactionManager         The {@link PlatformTransactionManager}
+     *                                   that is injected to the {@link TokenIntrospectionManager}.
+     */
+    TokenIntrospectionManagerTest(
+            @Mock(name = "userAuthTokenRepository") final UserAuthTokenRepository userAuthTokenRepository,
+            @Mock(name = "subjectAuthTokenRepository") final SubjectAuthTokenRepository subjectAuthTokenRepository,
+            @Mock(name = "revokedTokensIndex") final RevokedTokensIndex revokedTokensIndex,
+            @Mock(name = "tokenRevocationFeed") final TokenRevocationFeed tokenRevocationFeed,
+            @Mock(name = "tokenEncoder") final TokenEncoder tokenEncoder,
+            @Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
+        this.userAuthTokenRepository = userAuthTokenRepository;
+        this.subjectAuthTokenRepository = subjectAuthTokenRepository;
+        this.revokedTokensIndex = revokedTokensIndex;
+        this.tokenRevocationFeed = tokenRevocationFeed;
+        this.tokenEncoder = tokenEncoder;
+        final var properties = new TokenIntrospectionProperties();
+        properties.setMaxBatchSize(MAX_BATCH_SIZE);
+        this.tokenIntrospectionIndex = new TokenIntrospectionIndex(
+                properties,
+                tokenRevocationFeed,
+                tokenEncoder,
+                new SimpleMeterRegistry()
+        );
+        this.tokenIntrospectionManager = new TokenIntrospectionManager(
+                userAuthTokenRepository,
+                subjectAuthTokenRepository,
+                tokenIntrospectionIndex,
+                revokedTokensIndex,
+                tokenEncoder,
+                properties,
+                transactionManager
+        );
+    }
+
+
+    // ================================================================================================================
+    // Happy path tests
+    // ================================================================================================================
+
+    /**
+     * Tests that tokens are loaded (all of them at once) only the first time they are introspected,
+     * that the introspections are returned in the requested order (stating when active tokens expire),
+     * and that non existing tokens are not active.
+     *
+     * @param userToken    A mocked {@link UserAuthToken} (an existing one).
+     * @param subjectToken A mocked {@link SubjectAuthToken} (another existing one).
+     */
+    @Test
+    void testTokensAreLoadedOnce(
+            @Mock(name = "userToken") final UserAuthToken userToken,
+            @Mock(name = "subjectToken") final SubjectAuthToken subjectToken) {
+        final var userTokenId = UUID.randomUUID();
+        final var subjectTokenId = UUID.randomUUID();
+        final var nonExistingId = UUID.randomUUID();
+        mockValidToken(userToken, userTokenId, "user");
+        mockValidToken(subjectToken, subjectTokenId, "subject");
+        when(userAuthTokenRepository.findAllByIds(anyCollection())).thenReturn(List.of(userToken));
+        when(subjectAuthTokenRepository.findAllByIds(Set.of(subjectTokenId, nonExistingId)))
+                .thenReturn(List.of(subjectToken));
+        final var tokenIds = List.of(nonExistingId, userTokenId, subjectTokenId);
+        followRevocations();
+
+        for (int i = 0; i < 2; i++) {
+            final var introspections = tokenIntrospectionManager.introspect(tokenIds);
+            Assertions.assertAll(
+                    "The introspections are not the expected",
+                    () -> Assertions.assertEquals(TokenIntrospection.inactive(nonExistingId), introspections.get(0)),
+                    () -> Assertions.assertEquals(introspectionOf(userToken), introspections.get(1)),
+                    () -> Assertions.assertEquals(introspectionOf(subjectToken), introspections.get(2)),
+                    () -> Assertions.assertTrue(introspections.get(1).isActive()),
+                    () -> Assertions.assertEquals("subject", introspections.get(2).getOwner()),
+                    () -> Assertions.assertEquals(
+                            tokenEncoder.expiration(userToken),
+                            introspections.get(1).getExpiresAt()
+                    )
+            );
+        }
+        verify(userAuthTokenRepository, only()).findAllByIds(Set.copyOf(tokenIds));
+        verify(subjectAuthTokenRepository, only()).findAllByIds(Set.of(subjectTokenId, nonExistingId));
+    }
+
+    /**
+     * Tests that tokens issued by this application instance are introspected without accessing the database.
+     *
+     * @param token A mocked {@link SubjectAuthToken} (the one being issued).
+     */
+    @Test
+    void testIssuedTokensAreNotLoaded(@Mock(name = "token") final SubjectAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        mockValidToken(token, tokenId, "subject");
+        followRevocations();
+
+        tokenIntrospectionIndex.issued(token);
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(List.of(introspectionOf(token)), introspections, "Unexpected introspection");
+        verifyZeroInteractions(userAuthTokenRepository, subjectAuthTokenRepository);
+    }
+
+    /**
+     * Tests that revocations read from the revocations log are applied to the indexed tokens
+     * (i.e they are not active anymore, without being loaded again).
+     *
+     * @param token A mocked {@link SubjectAuthToken} (the one being revoked).
+     */
+    @Test
+    void testRevocationsFromTheLogAreApplied(@Mock(name = "token") final SubjectAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        mockValidToken(token, tokenId, "subject");
+        @SuppressWarnings("unchecked") final ArgumentCaptor<Consumer<List<TokenRevocation>>> subscriber =
+                ArgumentCaptor.forClass(Consumer.class);
+        when(tokenRevocationFeed.subscribe(eq(0L), subscriber.capture(), any())).thenReturn(() -> {
+        });
+
+        tokenIntrospectionIndex.followRevocations();
+        tokenIntrospectionIndex.issued(token);
+        subscriber.getValue().accept(List.of(new TokenRevocation(1, tokenId, Instant.now())));
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(
+                List.of(TokenIntrospection.inactive(tokenId)),
+                introspections,
+                "A revoked token is being introspected as active"
+        );
+        verifyZeroInteractions(userAuthTokenRepository, subjectAuthTokenRepository);
+    }
+
+    /**
+     * Tests that tokens revoked by this application instance are not active,
+     * even before the revocation is read from the revocations log.
+     *
+     * @param token A mocked {@link SubjectAuthToken} (the one being revoked).
+     */
+    @Test
+    void testLocallyRevokedTokensAreNotActive(@Mock(name = "token") final SubjectAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        mockValidToken(token, tokenId, "subject");
+        when(revokedTokensIndex.isRevoked(tokenId)).thenReturn(true);
+        followRevocations();
+
+        tokenIntrospectionIndex.issued(token);
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(
+                List.of(TokenIntrospection.inactive(tokenId)),
+                introspections,
+                "A revoked token is being introspected as active"
+        );
+    }
+
+
+    /**
+     * Tests that tokens that have expired (i.e were not refreshed for a while) are not active,
+     * even if they were not revoked.
+     *
+     * @param token A mocked {@link UserAuthToken} (the expired one).
+     */
+    @Test
+    void testExpiredTokensAreNotActive(@Mock(name = "token") final UserAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        when(token.getId()).thenReturn(tokenId);
+        when(token.isValid()).thenReturn(true);
+        when(tokenEncoder.expiration(token)).thenReturn(Instant.now().minusSeconds(1));
+        when(userAuthTokenRepository.findAllByIds(Set.of(tokenId))).thenReturn(List.of(token));
+
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(
+                List.of(TokenIntrospection.inactive(tokenId)),
+                introspections,
+                "An expired token is being introspected as active"
+        );
+    }
+
+    /**
+     * Tests that indexed tokens are loaded again while the revocations log can't be followed
+     * (as they might have been revoked by other application instances).
+     *
+     * @param token A mocked {@link SubjectAuthToken} (the one being introspected).
+     */
+    @Test
+    void testActiveTokensAreLoadedWhenRevocationsCantBeFollowed(@Mock(name = "token") final SubjectAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        mockValidToken(token, tokenId, "subject");
+        when(tokenRevocationFeed.subscribe(eq(0L), any(), any()))
+                .thenThrow(new ServiceOverloadedException("Too many subscribers", Duration.ofSeconds(1)));
+        when(userAuthTokenRepository.findAllByIds(Set.of(tokenId))).thenReturn(List.of());
+        when(subjectAuthTokenRepository.findAllByIds(Set.of(tokenId))).thenReturn(List.of(token));
+
+        tokenIntrospectionIndex.followRevocations();
+        tokenIntrospectionIndex.issued(token);
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(List.of(introspectionOf(token)), introspections, "Unexpected introspection");
+        verify(subjectAuthTokenRepository, only()).findAllByIds(Set.of(tokenId));
+    }
+
+    /**
+     * Tests that indexed tokens are loaded again once the revocations feed stops delivering revocations to the index.
+     *
+     * @param token A mocked {@link SubjectAuthToken} (the one being introspected).
+     */
+    @Test
+    void testActiveTokensAreLoadedOnceRevocationsAreNotFollowed(@Mock(name = "token") final SubjectAuthToken token) {
+        final var tokenId = UUID.randomUUID();
+        mockValidToken(token, tokenId, "subject");
+        final var onDropped = ArgumentCaptor.forClass(Runnable.class);
+        when(tokenRevocationFeed.subscribe(eq(0L), any(), onDropped.capture())).thenReturn(() -> {
+        });
+        when(userAuthTokenRepository.findAllByIds(Set.of(tokenId))).thenReturn(List.of());
+        when(subjectAuthTokenRepository.findAllByIds(Set.of(tokenId))).thenReturn(List.of(token));
+
+        tokenIntrospectionIndex.followRevocations();
+        tokenIntrospectionIndex.issued(token);
+        onDropped.getValue().run();
+        final var introspections = tokenIntrospectionManager.introspect(List.of(tokenId));
+
+        Assertions.assertEquals(List.of(introspectionOf(token)), introspections, "Unexpected introspection");
+        verify(subjectAuthTokenRepository, only()).findAllByIds(Set.of(tokenId));
+    }
+
+
+    // ================================================================================================================
+    // Validation tests
+    // ================================================================================================================
+
+    /**
+     * Tests that introspecting too many tokens at once is not allowed.
+     */
+    @Test
+    void testTooManyTokens() {
+        final var tokenIds = new ArrayList<UUID>();
+        for (int i = 0; i <= MAX_BATCH_SIZE; i++) {
+            tokenIds.add(UUID.randomUUID());
+        }
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> tokenIntrospectionManager.introspect(tokenIds),
+                "Introspecting more tokens than the maximum is being allowed"
+        );
+        verifyZeroInteractions(userAuthTokenRepository, subjectAuthTokenRepository);
+    }
+
+
+    // ================================================================================================================
+    // Helpers
+    // ================================================================================================================
+
+    /**
+     * Makes the {@link TokenIntrospectionIndex} follow the revocations log (with a feed that accepts it).
+     */
+    private void followRevocations() {
+        when(tokenRevocationFeed.subscribe(eq(0L), any(), any())).thenReturn(() -> {
+        });
+        tokenIntrospectionIndex.followRevocations();
+    }
+
+    /**
+     * Configures the given {@code token} mock to behave as a valid {@link AuthToken} (expiring in an hour).
+     *
+     * @param token   The mocked {@link AuthToken}.
+     * @param tokenId The id of the {@link AuthToken}.
+     * @param owner   The owner of the {@link AuthToken}.
+     */
+    private void mockValidToken(final AuthToken token, final UUID tokenId, final String owner) {
+        when(token.getId()).thenReturn(tokenId);
+        when(token.isValid()).thenReturn(true);
+        when(token.getOwner()).thenReturn(owner);
+        when(token.getRolesAssigned()).thenReturn(Set.of(Role.USER));
+        when(token.getCreatedAt()).thenReturn(Instant.now());
+        when(tokenEncoder.expiration(token)).thenReturn(Instant.now().plus(Duration.ofHours(1)));
+    }
+
+    /**
+     * Creates the expected {@link TokenIntrospection} of the given {@code token}.
+     *
+     * @param token The {@link AuthToken}.
+     * @return The {@link TokenIntrospection}.
+     */
+    private TokenIntrospection introspectionOf(final AuthToken token) {
+        return TokenIntrospection.of(token, tokenEncoder.expiration(token));
+    }
+}
@@ -0,0 +1,211 @@
+package ar.edu.itba.cep.users_service.domain;
+
+import ar.edu.itba.cep.users_service.domain.config.UserImportProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRegisteredEvent;
+import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import ar.edu.itba.cep.users_service.services.UserImportEntry;
+import ar.edu.itba.cep.users_service.services.UserImportResult;
+import ar.edu.itba.cep.users_service.services.UserImportResult.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link UserImportManager}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserImportManagerTest {
+
+    /**
+     * The {@link UserRepository} that is injected to the {@link UserImportManager}.
+     * This reference is saved in order to configure its behaviour in each test.
+     */
+    private final UserRepository userRepository;
+    /**
+     * The {@link PasswordEncoder} that is injected to the {@link UserImportManager}.
+     * This reference is saved in order to configure its behaviour in each test.
+     */
+    private final PasswordEncoder passwordEncoder;
+    /**
+     * The {@link ApplicationEventPublisher} that is injected to the {@link UserImportManager}.
+     * This reference is saved in order to configure its behaviour in each test.
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * The {@link UserImportManager} to be tested.
+     */
+    private final UserImportManager userImportManager;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository     A mocked {@link UserRepository}
+     *                           to be injected into a {@link UserImportManager} that will be tested.
+     * @param passwordEncoder    A mocked {@link PasswordEncoder}
+     *                           to be injected into a {@link UserImportManager} that will be tested.
+     * @param publisher          A mocked {@link ApplicationEventPublisher}
+     *                           to be injected into a {@link UserImportManager} that will be tested.
+     * @param transactionManager A mocked {@link PlatformTransactionManager}
+     *                           to be injected into a {@link UserImportManager} that will be tested.
+     */
+    UserImportManagerTest(
+            @Mock(name = "userRepository") final UserRepository userRepository,
+            @Mock(name = "passwordEncoder") final PasswordEncoder passwordEncoder,
+            @Mock(name = "publisher") final ApplicationEventPublisher publisher,
+            @Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.publisher = publisher;
+        final var properties = new UserImportProperties();
+        properties.setBatchSize(2); // Small batches, so more than one is processed.
+        properties.setHashingThreads(2);
+        this.userImportManager = new UserImportManager(
+                userRepository,
+                passwordEncoder,
+                publisher,
+                properties,
+                transactionManager
+        );
+    }
+
+    /**
+     * Shuts down the {@link UserImportManager}.
+     */
+    @AfterEach
+    void tearDown() {
+        userImportManager.destroy();
+    }
+
+
+    /**
+     * Tests that each entry gets the expected {@link Status}, that results are reported in order,
+     * and that a {@link BulkUserRegisteredEvent} is published for each batch with created users.
+     */
+    @Test
+    void testImportReportsEachEntry() {
+        final var valid = TestHelper.validPassword();
+        final var entries = List.of(
+                new UserImportEntry(1, "first", valid),
+                new UserImportEntry(2, "taken", valid),
+                new UserImportEntry(3, "first", valid),
+                new UserImportEntry(4, null, valid),
+                new UserImportEntry(5, "second", "invalid"),
+                new UserImportEntry(6, "third", valid)
+        );
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("taken"));
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.saveAllWithCredentials(anyList())).then(invocation -> invocation.getArgument(0));
+
+        final var results = new ArrayList<UserImportResult>();
+        userImportManager.importUsers(entries.iterator(), results::add);
+
+        Assertions.assertEquals(
+                List.of(1L, 2L, 3L, 4L, 5L, 6L),
+                results.stream().map(UserImportResult::getPosition).collect(Collectors.toList()),
+                "Results are not reported for each entry, in order"
+        );
+        Assertions.assertEquals(
+                List.of(
+                        Status.CREATED,
+                        Status.USERNAME_IN_USE,
+                        Status.DUPLICATED,
+                        Status.INVALID,
+                        Status.INVALID,
+                        Status.CREATED
+                ),
+                results.stream().map(UserImportResult::getStatus).collect(Collectors.toList()),
+                "Unexpected statuses"
+        );
+        verify(userRepository, times(3)).findExistingUsernames(anyCollection());
+        verify(publisher, times(1)).publishEvent(BulkUserEvent.registered(List.of("first")));
+        verify(publisher, times(1)).publishEvent(BulkUserEvent.registered(List.of("third")));
+        verifyNoMoreInteractions(publisher);
+    }
+
+    /**
+     * Tests that a single {@link BulkUserRegisteredEvent} is published for all the users created in a batch
+     * (i.e a single message is written into the outbox, instead of one per user).
+     */
+    @Test
+    void testASingleEventIsPublishedPerBatch() {
+        final var valid = TestHelper.validPassword();
+        final var entries = List.of(
+                new UserImportEntry(1, "first", valid),
+                new UserImportEntry(2, "second", valid)
+        );
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.saveAllWithCredentials(anyList())).then(invocation -> invocation.getArgument(0));
+
+        final var results = new ArrayList<UserImportResult>();
+        userImportManager.importUsers(entries.iterator(), results::add);
+
+        verify(publisher, only()).publishEvent(BulkUserEvent.registered(List.of("first", "second")));
+    }
+
+    /**
+     * Tests that entries that are not submitted for saving (e.g because their password is not valid)
+     * do not make later entries with the same username be reported as {@link Status#DUPLICATED}.
+     */
+    @Test
+    void testOnlySubmittedUsernamesAreDuplicated() {
+        final var valid = TestHelper.validPassword();
+        final var entries = List.of(
+                new UserImportEntry(1, "fixed", "invalid"),
+                new UserImportEntry(2, "fixed", valid),
+                new UserImportEntry(3, "fixed", valid)
+        );
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.saveAllWithCredentials(anyList())).then(invocation -> invocation.getArgument(0));
+
+        final var results = new ArrayList<UserImportResult>();
+        userImportManager.importUsers(entries.iterator(), results::add);
+
+        Assertions.assertEquals(
+                List.of(Status.INVALID, Status.CREATED, Status.DUPLICATED),
+                results.stream().map(UserImportResult::getStatus).collect(Collectors.toList()),
+                "Unexpected statuses"
+        );
+        verify(publisher, only()).publishEvent(BulkUserEvent.registered(List.of("fixed")));
+    }
+
+    /**
+     * Tests that users that are not saved (i.e their username was taken after checking uniqueness)
+     * are reported as {@link Status#USERNAME_IN_USE}, and that no event is published for them.
+     */
+    @Test
+    void testUsernameTakenWhileImporting() {
+        final var entries = List.of(new UserImportEntry(1, "racing", TestHelper.validPassword()));
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.saveAllWithCredentials(anyList())).thenReturn(List.<UserCredential>of());
+
+        final var results = new ArrayList<UserImportResult>();
+        userImportManager.importUsers(entries.iterator(), results::add);
+
+        Assertions.assertEquals(
+                List.of(Status.USERNAME_IN_USE),
+                results.stream().map(UserImportResult::getStatus).collect(Collectors.toList()),
+                "A user that was not saved is not reported as username in use"
+        );
+        verifyZeroInteractions(publisher);
+    }
+}
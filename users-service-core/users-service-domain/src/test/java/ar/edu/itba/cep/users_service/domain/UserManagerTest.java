@@ -1,26 +1,40 @@
 package ar.edu.itba.cep.users_service.domain;
 
 import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.cache.UserWithRolesCache;
+import ar.edu.itba.cep.users_service.domain.config.CredentialHistoryProperties;
 import ar.edu.itba.cep.users_service.domain.config.FirstUserConfigurationProperties;
+import ar.edu.itba.cep.users_service.domain.config.UserCacheProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserRoleRemovedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserActivatedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserDeactivatedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserDeletedEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRegisteredEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserRoleAddedEvent;
 import ar.edu.itba.cep.users_service.domain.events.UserRoleRemovedEvent;
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.models.UserSelection;
 import ar.edu.itba.cep.users_service.repositories.UserCredentialRepository;
 import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import ar.edu.itba.cep.users_service.services.UserSeekOrder;
+import ar.edu.itba.cep.users_service.services.UserWithNoRoles;
 import ar.edu.itba.cep.users_service.services.UserWithRoles;
 import com.bellotapps.webapps_commons.exceptions.NoSuchEntityException;
 import com.bellotapps.webapps_commons.exceptions.UnauthorizedException;
 import com.bellotapps.webapps_commons.exceptions.UniqueViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -54,6 +68,11 @@ class UserManagerTest {
      */
     private final PasswordEncoder passwordEncoder;
 
+    /**
+     * The {@link CredentialHistoryProperties} that are injected into the {@link UserManager}.
+     */
+    private final CredentialHistoryProperties credentialHistoryProperties;
+
     /**
      * The {@link UserManager} to be tested.
      */
@@ -81,12 +100,15 @@ class UserManagerTest {
         this.userCredentialRepository = userCredentialRepository;
         this.publisher = publisher;
         this.passwordEncoder = passwordEncoder;
+        this.credentialHistoryProperties = new CredentialHistoryProperties();
         this.userManager = new UserManager(
                 userRepository,
                 userCredentialRepository,
                 publisher,
                 passwordEncoder,
-                new FirstUserConfigurationProperties()
+                new FirstUserConfigurationProperties(),
+                credentialHistoryProperties,
+                new UserWithRolesCache(new UserCacheProperties(), new SimpleMeterRegistry())
         );
     }
 
@@ -112,6 +134,23 @@ class UserManagerTest {
         verifyZeroInteractions(publisher);
     }
 
+    /**
+     * Tests that searching for a {@link User} that exists more than once only accesses the database the first time.
+     */
+    @Test
+    void testSearchForUserIsCached() {
+        final var username = TestHelper.validUsername();
+        final var user = new User(username);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        userManager.getByUsername(username);
+        Assertions.assertEquals(
+                username,
+                userManager.getByUsername(username).map(UserWithRoles::getUsername).orElse(null),
+                "The cached user's username does not match the one used to search."
+        );
+        verify(userRepository, only()).findByUsername(username);
+    }
+
     /**
      * Tests that searching for a {@link User} that does not exist returns an empty {@link Optional}.
      */
@@ -127,9 +166,66 @@ class UserManagerTest {
         verifyZeroInteractions(publisher);
     }
 
+    /**
+     * Tests that seeking {@link User}s returns a continuation token when there are more of them,
+     * and that the said token makes the next page start after the last {@link User} of the previous one.
+     */
+    @Test
+    void testSeekingUsersByUsername() {
+        final var first = new User("user1");
+        final var second = new User("user2");
+        final var third = new User("user3");
+        when(userRepository.findFilteringAfterUsername(null, true, null, 3))
+                .thenReturn(List.of(first, second, third));
+        when(userRepository.findFilteringAfterUsername(null, true, second.getUsername(), 3))
+                .thenReturn(List.of(third));
+
+        final var firstPage = userManager.findMatching(null, true, UserSeekOrder.USERNAME, null, 2);
+        Assertions.assertEquals(
+                List.of(first.getUsername(), second.getUsername()),
+                firstPage.map(UserWithNoRoles::getUsername).getContent(),
+                "The first page does not contain the expected users"
+        );
+        Assertions.assertNotNull(firstPage.getContinuationToken(), "No continuation token when there are more users");
+
+        final var secondPage = userManager.findMatching(null, true, null, firstPage.getContinuationToken(), 2);
+        Assertions.assertEquals(
+                List.of(third.getUsername()),
+                secondPage.map(UserWithNoRoles::getUsername).getContent(),
+                "The second page does not contain the expected users"
+        );
+        Assertions.assertNull(secondPage.getContinuationToken(), "There is a continuation token in the last page");
+        verify(userRepository, never()).findFiltering(any(), any(), any());
+    }
+
+    /**
+     * Tests that seeking {@link User}s with a continuation token issued for another order,
+     * or with an invalid page size, throws an {@link IllegalArgumentException}.
+     */
+    @Test
+    void testSeekingUsersWithInvalidArguments() {
+        final var user = new User("user1");
+        when(userRepository.findFilteringAfterId(null, null, null, 2)).thenReturn(List.of(user, new User("user2")));
+        final var token = userManager.findMatching(null, null, UserSeekOrder.ID, null, 1).getContinuationToken();
+        Assertions.assertAll(
+                "Invalid arguments are accepted when seeking users",
+                () -> Assertions.assertThrows(
+                        IllegalArgumentException.class,
+                        () -> userManager.findMatching(null, null, UserSeekOrder.USERNAME, token, 1),
+                        "A token for another order is accepted"
+                ),
+                () -> Assertions.assertThrows(
+                        IllegalArgumentException.class,
+                        () -> userManager.findMatching(null, null, UserSeekOrder.USERNAME, null, 0),
+                        "A page size of zero is accepted"
+                )
+        );
+    }
+
     /**
      * Tests that creating a {@link User} with a username that is not used does not fail,
-     * and that {@link UserRepository#save(Object)} is called at least once (which effectively saves the user).
+     * that {@link UserRepository#save(Object)} is called at least once (which effectively saves the user),
+     * and that a {@link UserRegisteredEvent} is published.
      */
     @Test
     void testUserIsCreatedIfUsernameIsUnique() {
@@ -143,8 +239,13 @@ class UserManagerTest {
         );
         verify(userRepository, times(1)).save(argThat(u -> u.getUsername().equals(username)));
         verify(passwordEncoder, only()).encode(password);
-        verify(userCredentialRepository, only()).save(argThat(uc -> uc.getUser().getUsername().equals(username)));
-        verifyZeroInteractions(publisher);
+        verifyCredentialIsReplaced(username);
+        verifyNoMoreInteractions(userCredentialRepository);
+        verify(publisher, only()).publishEvent(
+                argThat(
+                        (final UserRegisteredEvent e) -> e.getUser().getUsername().equals(username)
+                )
+        );
     }
 
 
@@ -187,15 +288,15 @@ class UserManagerTest {
         final var currentPassword = TestHelper.validPassword();
         when(credential.getHashedPassword()).thenReturn(hashing.apply(currentPassword));
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(userCredentialRepository.findLastForUser(user)).thenReturn(Optional.of(credential));
+        when(userCredentialRepository.findCurrentForUser(user)).thenReturn(Optional.of(credential));
         when(user.getUsername()).thenReturn(username);
         final var newPassword = TestHelper.validPassword() + "another";
         Assertions.assertDoesNotThrow(
                 () -> userManager.changePassword(username, currentPassword, newPassword),
                 "Changing the password is failing."
         );
-        verify(userCredentialRepository, times(1)).findLastForUser(user);
-        verify(userCredentialRepository, times(1)).save(argThat(uc -> uc.getUser().getUsername().equals(username)));
+        verify(userCredentialRepository, times(1)).findCurrentForUser(user);
+        verifyCredentialIsReplaced(username);
         verifyNoMoreInteractions(userCredentialRepository);
         verify(passwordEncoder, times(1)).encode(newPassword);
         verify(passwordEncoder, times(1)).matches(currentPassword, hashing.apply(credential.getHashedPassword()));
@@ -221,7 +322,7 @@ class UserManagerTest {
         final var currentPassword = TestHelper.validPassword();
         when(credential.getHashedPassword()).thenReturn(hashing.apply(currentPassword));
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(userCredentialRepository.findLastForUser(user)).thenReturn(Optional.of(credential));
+        when(userCredentialRepository.findCurrentForUser(user)).thenReturn(Optional.of(credential));
         final var newPassword = TestHelper.validPassword() + "another";
         final var wrongPassword = currentPassword + "Wrong!";
         Assertions.assertThrows(
@@ -229,11 +330,29 @@ class UserManagerTest {
                 () -> userManager.changePassword(username, wrongPassword, newPassword),
                 "Changing the password with a wrong password is not throwing UnauthorizedException."
         );
-        verify(userCredentialRepository, only()).findLastForUser(user);
+        verify(userCredentialRepository, only()).findCurrentForUser(user);
         verify(passwordEncoder, only()).matches(wrongPassword, hashing.apply(credential.getHashedPassword()));
         verifyZeroInteractions(publisher);
     }
 
+    /**
+     * Verifies that a credential replacing the current one is saved for the {@link User} with the given
+     * {@code username}, retiring the current one before, and compacting the credentials history after.
+     *
+     * @param username The username of the {@link User} owning the new credential.
+     */
+    private void verifyCredentialIsReplaced(final String username) {
+        final var inOrder = inOrder(userCredentialRepository);
+        inOrder.verify(userCredentialRepository, times(1))
+                .retireCurrentForUser(argThat(u -> u.getUsername().equals(username)));
+        inOrder.verify(userCredentialRepository, times(1))
+                .save(argThat(uc -> uc.getUser().getUsername().equals(username) && uc.isCurrent()));
+        inOrder.verify(userCredentialRepository, times(1)).compactHistory(
+                argThat(u -> u.getUsername().equals(username)),
+                eq(credentialHistoryProperties.getSize())
+        );
+    }
+
     /**
      * Tests that changing the password of a non existence {@link User} throws {@link NoSuchEntityException}.
      */
@@ -267,7 +386,11 @@ class UserManagerTest {
         verify(userRepository, times(1)).save(user);
         verifyNoMoreInteractions(userRepository);
         verify(user, only()).addRole(role);
-        verifyZeroInteractions(publisher);
+        verify(publisher, only()).publishEvent(
+                argThat(
+                        (final UserRoleAddedEvent e) -> e.getUser() == user && e.getRole() == role
+                )
+        );
     }
 
     /**
@@ -342,7 +465,11 @@ class UserManagerTest {
         verify(userRepository, times(1)).findByUsername(username);
         verify(userRepository, times(1)).save(user);
         verifyZeroInteractions(userCredentialRepository);
-        verifyZeroInteractions(publisher);
+        verify(publisher, only()).publishEvent(
+                argThat(
+                        (final UserActivatedEvent e) -> e.getUser() == user
+                )
+        );
     }
 
     /**
@@ -395,6 +522,93 @@ class UserManagerTest {
         );
     }
 
+    /**
+     * Tests that removing a {@link Role} from many {@link User}s is performed in a single bulk operation
+     * (i.e no {@link User} is loaded nor saved), and that a single {@link BulkUserRoleRemovedEvent}
+     * is published with the {@link User}s that were actually changed.
+     */
+    @Test
+    void testBulkRoleRemoval() {
+        final var changed = List.of(TestHelper.validUsername(), TestHelper.validUsername());
+        final var selection = UserSelection.ofUsernames(changed);
+        final var role = TestHelper.randomRole();
+        when(userRepository.removeRoleFromAll(selection, role)).thenReturn(changed);
+        Assertions.assertEquals(
+                changed.size(),
+                userManager.removeRole(selection, role),
+                "The amount of changed users is not the one returned by the repository"
+        );
+        verify(userRepository, only()).removeRoleFromAll(selection, role);
+        verifyZeroInteractions(userCredentialRepository);
+        verify(publisher, only()).publishEvent(
+                argThat(
+                        (final BulkUserRoleRemovedEvent e) -> e.getUsernames().equals(changed) && e.getRole() == role
+                )
+        );
+    }
+
+    /**
+     * Tests that no event is published when a bulk operation does not change any {@link User}.
+     */
+    @Test
+    void testBulkDeactivationWithNoChanges() {
+        final var selection = UserSelection.matching(TestHelper.validUsername(), true);
+        when(userRepository.setActiveToAll(selection, false)).thenReturn(List.of());
+        Assertions.assertEquals(
+                0,
+                userManager.deactivate(selection),
+                "Deactivating users that are already deactivated is changing users"
+        );
+        verify(userRepository, only()).setActiveToAll(selection, false);
+        verifyZeroInteractions(publisher);
+    }
+
+    /**
+     * Tests that removing a {@link Role} from an unrestricted selection (i.e all the {@link User}s) is rejected.
+     */
+    @Test
+    void testBulkRoleRemovalFromAllUsersIsRejected() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> userManager.removeRole(UserSelection.matching(null, null), TestHelper.randomRole()),
+                "Removing a role from all the users is not being rejected"
+        );
+        verifyZeroInteractions(userRepository);
+        verifyZeroInteractions(publisher);
+    }
+
+    /**
+     * Tests that deactivating an unrestricted selection (i.e all the {@link User}s) is rejected.
+     */
+    @Test
+    void testBulkDeactivationOfAllUsersIsRejected() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> userManager.deactivate(UserSelection.matching("", null)),
+                "Deactivating all the users is not being rejected"
+        );
+        verifyZeroInteractions(userRepository);
+        verifyZeroInteractions(publisher);
+    }
+
+    /**
+     * Tests that the authenticated {@link User} is excluded from the {@link UserSelection}
+     * over which a bulk operation is performed.
+     */
+    @Test
+    void testBulkOperationsExcludeTheAuthenticatedUser() {
+        final var principal = TestHelper.validUsername();
+        final var selection = UserSelection.matching(null, true);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+        try {
+            when(userRepository.setActiveToAll(selection.excluding(principal), false)).thenReturn(List.of());
+            userManager.deactivate(selection);
+            verify(userRepository, only()).setActiveToAll(selection.excluding(principal), false);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
     /**
      * Tests that deleting a {@link User} that exists does not fail, and that {@link UserRepository#delete(Object)}
      * is called at least once (which effectively deletes the user).
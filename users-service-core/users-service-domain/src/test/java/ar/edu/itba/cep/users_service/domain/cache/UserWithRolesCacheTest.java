@@ -0,0 +1,141 @@
+package ar.edu.itba.cep.users_service.domain.cache;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.domain.config.UserCacheProperties;
+import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.services.UserWithRoles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the {@link UserWithRolesCache}.
+ */
+class UserWithRolesCacheTest {
+
+    /**
+     * The username used in the tests.
+     */
+    private static final String USERNAME = "cached-user";
+
+    /**
+     * The {@link SimpleMeterRegistry} in which the cache metrics are published.
+     */
+    private final SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The {@link UserWithRolesCache} to be tested.
+     */
+    private final UserWithRolesCache cache;
+
+
+    /**
+     * Constructor.
+     */
+    UserWithRolesCacheTest() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.cache = new UserWithRolesCache(new UserCacheProperties(), meterRegistry);
+    }
+
+
+    /**
+     * Tests that existing users are loaded only once, and that hits and misses are published.
+     */
+    @Test
+    void testExistingUsersAreCached() {
+        final var user = new User(USERNAME);
+        final var loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            final var cached = cache.get(user.getUsername(), username -> {
+                loads.incrementAndGet();
+                return Optional.of(new UserWithRoles(user));
+            });
+            Assertions.assertEquals(
+                    user.getUsername(),
+                    cached.map(UserWithRoles::getUsername).orElse(null),
+                    "The cache is not returning the loaded user"
+            );
+        }
+        Assertions.assertEquals(1, loads.get(), "The user is loaded more than once");
+        Assertions.assertEquals(2, requests("hit"), "Cache hits are not being published");
+        Assertions.assertEquals(1, requests("miss"), "Cache misses are not being published");
+    }
+
+    /**
+     * Tests that non existing users are not cached.
+     */
+    @Test
+    void testNonExistingUsersAreNotCached() {
+        final var loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertTrue(
+                    cache.get(USERNAME, ignored -> {
+                        loads.incrementAndGet();
+                        return Optional.empty();
+                    }).isEmpty(),
+                    "The cache is returning a non existing user"
+            );
+        }
+        Assertions.assertEquals(2, loads.get(), "Non existing users are being cached");
+    }
+
+    /**
+     * Tests that users are invalidated when a {@link UserEvent} is published for them.
+     */
+    @Test
+    void testUsersAreInvalidatedOnEvents() {
+        final var user = new User(USERNAME);
+        final var loads = new AtomicInteger();
+        cache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return Optional.of(new UserWithRoles(user));
+        });
+        user.deactivate();
+        cache.userChanged(UserEvent.deactivated(user));
+        final var reloaded = cache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return Optional.of(new UserWithRoles(user));
+        });
+        Assertions.assertEquals(2, loads.get(), "The user is not loaded again after being invalidated");
+        Assertions.assertFalse(
+                reloaded.map(UserWithRoles::isActive).orElse(true),
+                "The cache is not returning the reloaded user"
+        );
+    }
+
+    /**
+     * Tests that the cached users are snapshots (i.e changes performed to the loaded {@link User}
+     * are not seen through the cache until it is invalidated).
+     */
+    @Test
+    void testCachedUsersAreSnapshots() {
+        final var user = new User(USERNAME);
+        cache.get(user.getUsername(), username -> Optional.of(new UserWithRoles(user)));
+        final var roles = Set.copyOf(user.getRoles());
+        user.deactivate();
+        user.addRole(Role.ADMIN);
+        final var cached = cache.get(user.getUsername(), username -> Optional.of(new UserWithRoles(user)))
+                .orElseThrow();
+        Assertions.assertAll(
+                "Changes performed to the loaded user are seen through the cache",
+                () -> Assertions.assertTrue(cached.isActive(), "The active flag changed"),
+                () -> Assertions.assertEquals(roles, cached.getRoles(), "The roles changed")
+        );
+    }
+
+
+    /**
+     * Returns the amount of cache requests with the given {@code result} published in the {@link #meterRegistry}.
+     *
+     * @param result The result of the requests (i.e {@code hit} or {@code miss}).
+     * @return The amount of requests.
+     */
+    private long requests(final String result) {
+        return (long) meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,223 @@
+package ar.edu.itba.cep.users_service.domain.outbox;
+
+import ar.edu.itba.cep.users_service.domain.config.EventOutboxProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.TokensRevokedEvent;
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import ar.edu.itba.cep.users_service.repositories.OutboxMessageRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link EventOutboxDispatcher}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventOutboxDispatcherTest {
+
+    /**
+     * The batch size.
+     */
+    private static final int BATCH_SIZE = 2;
+    /**
+     * The maximum amount of attempts.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ApplicationEventPublisher publisher;
+    private final EventBroker eventBroker;
+
+    private final EventOutboxDispatcher dispatcher;
+
+
+    /**
+     * Constructor.
+     *
+     * @param outboxMessageRepository The {@link OutboxMessageRepository} that is injected to the
+     *                                {@link EventOutboxDispatcher}.
+     * @param publisher               The {@link ApplicationEventPublisher} that is injected to the
+     *                                {@link EventOutboxDispatcher}.
+     * @param eventBroker             The {@link EventBroker} that is injected to the {@link EventOutboxDispatcher}.
+     * @param transactionManager      The {@link PlatformTransactionManager} that is injected to the
+     *                                {@link EventOutboxDispatcher}.
+     */
+    EventOutboxDispatcherTest(
+            @Mock(name = "outboxMessageRepository") final OutboxMessageRepository outboxMessageRepository,
+            @Mock(name = "publisher") final ApplicationEventPublisher publisher,
+            @Mock(name = "eventBroker") final EventBroker eventBroker,
+            @Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.publisher = publisher;
+        this.eventBroker = eventBroker;
+        final var properties = new EventOutboxProperties();
+        properties.setBatchSize(BATCH_SIZE);
+        properties.setMaxBatches(10);
+        properties.setMaxAttempts(MAX_ATTEMPTS);
+        this.dispatcher = new EventOutboxDispatcher(
+                outboxMessageRepository,
+                publisher,
+                eventBroker,
+                transactionManager,
+                properties
+        );
+    }
+
+
+    /**
+     * Tests that messages are dispatched in batches until there are no more messages to be dispatched,
+     * publishing each batch in-process and to the {@link EventBroker}, and then removing it from the outbox.
+     */
+    @Test
+    void testDispatchInBatches() {
+        final var deactivation = EventMessage.of(BulkUserEvent.deactivated(List.of("user1", "user2")));
+        final var revocation = EventMessage.of(new TokensRevokedEvent(List.of(UUID.randomUUID())));
+        final var activation = EventMessage.of(BulkUserEvent.activated(List.of("user1")));
+        final var first = outboxMessage(1, deactivation);
+        final var second = outboxMessage(2, revocation);
+        final var third = outboxMessage(3, activation);
+        when(outboxMessageRepository.lockOldest(BATCH_SIZE))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        final var dispatched = dispatcher.dispatch();
+
+        Assertions.assertEquals(3, dispatched, "The amount of dispatched messages is not the expected");
+        verify(outboxMessageRepository, times(2)).lockOldest(BATCH_SIZE);
+        verify(outboxMessageRepository, times(1)).deleteByIds(List.of(1L, 2L));
+        verify(outboxMessageRepository, times(1)).deleteByIds(List.of(3L));
+        verifyNoMoreInteractions(outboxMessageRepository);
+        final var batches = ArgumentCaptor.forClass(Object.class);
+        verify(publisher, times(2)).publishEvent(batches.capture());
+        final var firstBatch = ((EventMessageBatch) batches.getAllValues().get(0)).getMessages();
+        final var secondBatch = ((EventMessageBatch) batches.getAllValues().get(1)).getMessages();
+        Assertions.assertAll(
+                "The dispatched batches are not the expected",
+                () -> Assertions.assertEquals(List.of(1L, 2L), ids(firstBatch)),
+                () -> Assertions.assertEquals(deactivation.getUsernames(), firstBatch.get(0).getUsernames()),
+                () -> Assertions.assertEquals(revocation.getTokenIds(), firstBatch.get(1).getTokenIds()),
+                () -> Assertions.assertEquals(List.of(3L), ids(secondBatch)),
+                () -> Assertions.assertEquals(EventMessage.Type.USERS_ACTIVATED, secondBatch.get(0).getType())
+        );
+        verify(eventBroker, times(1)).publish(firstBatch);
+        verify(eventBroker, times(1)).publish(secondBatch);
+    }
+
+    /**
+     * Tests that a message is not removed from the outbox when the {@link EventBroker} fails to publish it
+     * (i.e it is dispatched again in the next run), and that the failed attempt is registered.
+     */
+    @Test
+    void testFailedAttemptIsRegisteredWhenBrokerFails() {
+        final var message = outboxMessage(1, EventMessage.of(BulkUserEvent.activated(List.of("user1"))));
+        when(outboxMessageRepository.lockOldest(BATCH_SIZE)).thenReturn(List.of(message));
+        doThrow(new RuntimeException()).when(eventBroker).publish(anyList());
+
+        Assertions.assertEquals(0, dispatcher.dispatch(), "The amount of dispatched messages is not the expected");
+
+        verify(outboxMessageRepository, times(1)).lockOldest(BATCH_SIZE);
+        verify(outboxMessageRepository, times(1)).registerFailedAttempt(1L);
+        verify(outboxMessageRepository, times(1)).deadLetterIfExhausted(1L, MAX_ATTEMPTS);
+        verifyNoMoreInteractions(outboxMessageRepository);
+    }
+
+    /**
+     * Tests that when a batch fails, its messages are dispatched one by one,
+     * so those before the failing one are dispatched, and the failed attempt is only registered for the latter.
+     */
+    @Test
+    void testFailingMessageDoesNotBlockThePreviousOnes() {
+        final var first = outboxMessage(1, EventMessage.of(BulkUserEvent.activated(List.of("user1"))));
+        final var poison = outboxMessage(2, EventMessage.of(BulkUserEvent.deactivated(List.of("user2"))));
+        when(outboxMessageRepository.lockOldest(BATCH_SIZE)).thenReturn(List.of(first, poison));
+        when(outboxMessageRepository.lockOldest(1))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(poison));
+        doAnswer(invocation -> {
+            final List<EventMessage> messages = invocation.getArgument(0);
+            if (messages.stream().anyMatch(message -> message.getId() == 2L)) {
+                throw new RuntimeException();
+            }
+            return null;
+        }).when(eventBroker).publish(anyList());
+
+        Assertions.assertEquals(1, dispatcher.dispatch(), "The amount of dispatched messages is not the expected");
+
+        verify(outboxMessageRepository, times(1)).lockOldest(BATCH_SIZE);
+        verify(outboxMessageRepository, times(2)).lockOldest(1);
+        verify(outboxMessageRepository, times(1)).deleteByIds(List.of(1L));
+        verify(outboxMessageRepository, times(1)).registerFailedAttempt(2L);
+        verify(outboxMessageRepository, times(1)).deadLetterIfExhausted(2L, MAX_ATTEMPTS);
+        verifyNoMoreInteractions(outboxMessageRepository);
+    }
+
+    /**
+     * Tests that a failure reading the outbox is propagated (i.e no failed attempt can be registered).
+     */
+    @Test
+    void testOutboxFailureIsPropagated() {
+        when(outboxMessageRepository.lockOldest(BATCH_SIZE)).thenThrow(new RuntimeException());
+
+        Assertions.assertThrows(
+                RuntimeException.class,
+                dispatcher::dispatch,
+                "The outbox failure is not being propagated"
+        );
+
+        verify(outboxMessageRepository, only()).lockOldest(BATCH_SIZE);
+        verifyZeroInteractions(publisher, eventBroker);
+    }
+
+    /**
+     * Tests that nothing is published when the outbox is empty.
+     */
+    @Test
+    void testDispatchEmptyOutbox() {
+        when(outboxMessageRepository.lockOldest(BATCH_SIZE)).thenReturn(List.of());
+
+        Assertions.assertEquals(0, dispatcher.dispatch(), "The amount of dispatched messages is not the expected");
+
+        verify(outboxMessageRepository, only()).lockOldest(BATCH_SIZE);
+        verifyZeroInteractions(publisher, eventBroker);
+    }
+
+
+    /**
+     * Returns the ids of the given {@code messages}.
+     *
+     * @param messages The {@link EventMessage}s.
+     * @return The ids of the {@code messages}, in the same order.
+     */
+    private static List<Long> ids(final List<EventMessage> messages) {
+        return messages.stream().map(EventMessage::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a mocked {@link OutboxMessage} in which the given {@code message} is written with the given {@code id}.
+     *
+     * @param id      The {@link OutboxMessage}'s id.
+     * @param message The {@link EventMessage} written in the {@link OutboxMessage}.
+     * @return The mocked {@link OutboxMessage}.
+     */
+    private static OutboxMessage outboxMessage(final long id, final EventMessage message) {
+        final var written = message.toOutboxMessage();
+        final var outboxMessage = mock(OutboxMessage.class);
+        lenient().when(outboxMessage.getId()).thenReturn(id);
+        lenient().when(outboxMessage.getType()).thenReturn(written.getType());
+        lenient().when(outboxMessage.getPayload()).thenReturn(written.getPayload());
+        lenient().when(outboxMessage.getCreatedAt()).thenReturn(written.getCreatedAt());
+        return outboxMessage;
+    }
+}
@@ -0,0 +1,85 @@
+package ar.edu.itba.cep.users_service.domain.paging;
+
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.services.UserSeekOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Test class for the {@link UserContinuationToken}.
+ */
+class UserContinuationTokenTest {
+
+    /**
+     * Tests that a token created for the username order can be decoded, returning the same username.
+     */
+    @Test
+    void testUsernameTokenRoundTrip() {
+        final var user = new User("some.user");
+        final var token = UserContinuationToken.after(UserSeekOrder.USERNAME, user).encode();
+        final var decoded = UserContinuationToken.decode(token);
+        Assertions.assertAll(
+                "The decoded token does not match the encoded one",
+                () -> Assertions.assertEquals(UserSeekOrder.USERNAME, decoded.getOrder(), "Order does not match"),
+                () -> Assertions.assertEquals(user.getUsername(), decoded.getUsername(), "Username does not match"),
+                () -> Assertions.assertThrows(
+                        IllegalStateException.class,
+                        decoded::getId,
+                        "An id can be retrieved from a token for the username order"
+                )
+        );
+    }
+
+    /**
+     * Tests that a token created for the id order can be decoded, returning the same id.
+     */
+    @Test
+    void testIdTokenRoundTrip() {
+        final var user = new User("some.user");
+        final var token = UserContinuationToken.after(UserSeekOrder.ID, user).encode();
+        final var decoded = UserContinuationToken.decode(token);
+        Assertions.assertAll(
+                "The decoded token does not match the encoded one",
+                () -> Assertions.assertEquals(UserSeekOrder.ID, decoded.getOrder(), "Order does not match"),
+                () -> Assertions.assertEquals(user.getId(), decoded.getId(), "Id does not match"),
+                () -> Assertions.assertThrows(
+                        IllegalStateException.class,
+                        decoded::getUsername,
+                        "A username can be retrieved from a token for the id order"
+                )
+        );
+    }
+
+    /**
+     * Tests that decoding invalid tokens throws an {@link IllegalArgumentException}.
+     *
+     * @param raw The (not encoded) content of the invalid token.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", "USERNAME", ":some.user", "NAME:some.user", "ID:not-a-number"})
+    void testInvalidTokens(final String raw) {
+        final var token = Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> UserContinuationToken.decode(token),
+                "Decoding an invalid token does not fail"
+        );
+    }
+
+    /**
+     * Tests that decoding something that is not base64 throws an {@link IllegalArgumentException}.
+     */
+    @Test
+    void testNonBase64Token() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> UserContinuationToken.decode("not base64!"),
+                "Decoding a non base64 token does not fail"
+        );
+    }
+}
@@ -0,0 +1,311 @@
+package ar.edu.itba.cep.users_service.domain.revocation;
+
+import ar.edu.itba.cep.users_service.domain.config.TokenRevocationFeedProperties;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+import ar.edu.itba.cep.users_service.repositories.TokenRevocationRepository;
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the {@link TokenRevocationFeed}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationFeedTest {
+
+    /**
+     * The page size (small, so reads span many pages).
+     */
+    private static final int PAGE_SIZE = 2;
+    /**
+     * The maximum amount of pending deliveries per subscriber.
+     */
+    private static final int QUEUE_SIZE = 3;
+    /**
+     * A {@link Runnable} that does nothing (for subscribers that do not care about being dropped).
+     */
+    private static final Runnable NOTHING = () -> {
+    };
+
+
+    private final InMemoryTokenRevocationRepository repository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * The {@link TokenRevocationFeed} being tested, which delivers in the thread that queues
+     * (so deliveries are performed before {@link TokenRevocationFeed#poll()} returns).
+     */
+    private final TokenRevocationFeed feed;
+
+
+    /**
+     * Constructor.
+     *
+     * @param transactionManager The {@link PlatformTransactionManager} that is injected to the
+     *                           {@link TokenRevocationFeed}.
+     */
+    TokenRevocationFeedTest(@Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
+        this.repository = new InMemoryTokenRevocationRepository();
+        this.transactionManager = transactionManager;
+        this.feed = newFeed(Runnable::run, 2);
+    }
+
+
+    /**
+     * Tests that a subscriber first receives the revocations already logged after the requested sequence number,
+     * and then those logged afterwards, each of them once and in order.
+     */
+    @Test
+    void testSubscriberCatchesUpAndFollows() {
+        repository.appendAll(tokenIds(5));
+        final var received = new ArrayList<TokenRevocation>();
+
+        feed.subscribe(1, received::addAll, NOTHING);
+        Assertions.assertEquals(List.of(2L, 3L, 4L, 5L), sequences(received), "The catch-up is not the expected");
+
+        repository.appendAll(tokenIds(3));
+        feed.poll();
+        feed.poll();
+        Assertions.assertEquals(
+                List.of(2L, 3L, 4L, 5L, 6L, 7L, 8L),
+                sequences(received),
+                "The revocations logged after subscribing are not the expected"
+        );
+    }
+
+    /**
+     * Tests that a subscriber that subscribes after others (and thus has a cursor ahead of the feed's one)
+     * does not receive revocations twice, while the others do not miss any.
+     */
+    @Test
+    void testLateSubscriberDoesNotReceiveDuplicates() {
+        final var first = new ArrayList<TokenRevocation>();
+        final var second = new ArrayList<TokenRevocation>();
+        feed.subscribe(0, first::addAll, NOTHING);
+        repository.appendAll(tokenIds(2));
+        feed.subscribe(0, second::addAll, NOTHING);
+        repository.appendAll(tokenIds(1));
+
+        feed.poll();
+
+        Assertions.assertAll(
+                "The subscribers did not receive the expected revocations",
+                () -> Assertions.assertEquals(List.of(1L, 2L, 3L), sequences(first)),
+                () -> Assertions.assertEquals(List.of(1L, 2L, 3L), sequences(second))
+        );
+    }
+
+    /**
+     * Tests that subscribers that fail, or that are unsubscribed, do not receive revocations anymore.
+     */
+    @Test
+    void testFailingAndUnsubscribedSubscribersAreRemoved() {
+        final var received = new ArrayList<TokenRevocation>();
+        final var dropped = new AtomicBoolean(false);
+        feed.subscribe(0, revocations -> {
+            throw new IllegalStateException();
+        }, () -> dropped.set(true));
+        final var unsubscribe = feed.subscribe(0, received::addAll, NOTHING);
+        repository.appendAll(tokenIds(1));
+        feed.poll();
+        unsubscribe.run();
+        repository.appendAll(tokenIds(1));
+        feed.poll();
+
+        Assertions.assertEquals(List.of(1L), sequences(received), "The unsubscribed subscriber received revocations");
+        Assertions.assertTrue(dropped.get(), "The failing subscriber was not notified that it was dropped");
+        // Both subscribers are gone, so there is room for two new ones.
+        feed.subscribe(0, revocations -> {
+        }, NOTHING);
+        feed.subscribe(0, revocations -> {
+        }, NOTHING);
+    }
+
+    /**
+     * Tests that subscribing is rejected when there are too many subscribers.
+     */
+    @Test
+    void testTooManySubscribers() {
+        feed.subscribe(0, revocations -> {
+        }, NOTHING);
+        feed.subscribe(0, revocations -> {
+        }, NOTHING);
+        Assertions.assertThrows(
+                ServiceOverloadedException.class,
+                () -> feed.subscribe(0, revocations -> {
+                }, NOTHING),
+                "Subscribing beyond the maximum amount of subscribers is being allowed"
+        );
+    }
+
+
+    /**
+     * Tests that subscribing does not read the log (i.e it is read and delivered by the delivery task).
+     */
+    @Test
+    void testCatchUpIsPerformedByTheDeliveryTask() {
+        final var tasks = new LinkedList<Runnable>();
+        final var lazyFeed = newFeed(tasks::add, 1);
+        repository.appendAll(tokenIds(3));
+        final var received = new ArrayList<TokenRevocation>();
+
+        lazyFeed.subscribe(0, received::addAll, NOTHING);
+        Assertions.assertAll(
+                "The log was read when subscribing",
+                () -> Assertions.assertEquals(0, repository.reads, "The log was read"),
+                () -> Assertions.assertTrue(received.isEmpty(), "Revocations were delivered")
+        );
+
+        runAll(tasks);
+        Assertions.assertEquals(List.of(1L, 2L, 3L), sequences(received), "The catch-up is not the expected");
+    }
+
+    /**
+     * Tests that a subscriber requesting a sequence number past the end of the log does not make the feed skip
+     * the revocations logged afterwards for other subscribers.
+     */
+    @Test
+    void testFeedCursorIsNotMovedPastTheLog() {
+        repository.appendAll(tokenIds(3));
+        final var ahead = new ArrayList<TokenRevocation>();
+        final var received = new ArrayList<TokenRevocation>();
+        feed.subscribe(1000, ahead::addAll, NOTHING);
+        feed.subscribe(3, received::addAll, NOTHING);
+        repository.appendAll(tokenIds(1));
+
+        feed.poll();
+
+        Assertions.assertAll(
+                "The subscribers did not receive the expected revocations",
+                () -> Assertions.assertTrue(ahead.isEmpty(), "Revocations before the requested one were received"),
+                () -> Assertions.assertEquals(List.of(4L), sequences(received), "Revocations were skipped")
+        );
+    }
+
+    /**
+     * Tests that a subscriber that does not keep up with the log is dropped (i.e its queue gets full),
+     * and that it is notified by its delivery task (not by the thread reading the log).
+     */
+    @Test
+    void testSlowSubscribersAreDropped() {
+        final var tasks = new LinkedList<Runnable>();
+        final var slowFeed = newFeed(tasks::add, 1);
+        final var dropped = new AtomicBoolean(false);
+        final var received = new ArrayList<TokenRevocation>();
+        slowFeed.subscribe(0, received::addAll, () -> dropped.set(true));
+        runAll(tasks); // Catches up (i.e it becomes live).
+
+        // Its delivery task is not executed (i.e as if it were blocked writing), so its queue gets full.
+        repository.appendAll(tokenIds(PAGE_SIZE * (QUEUE_SIZE + 1)));
+        slowFeed.poll();
+        Assertions.assertFalse(dropped.get(), "The subscriber was notified by the thread reading the log");
+
+        runAll(tasks);
+        Assertions.assertAll(
+                "The slow subscriber was not dropped",
+                () -> Assertions.assertTrue(dropped.get(), "The subscriber was not notified that it was dropped"),
+                () -> Assertions.assertTrue(received.isEmpty(), "The subscriber received revocations once dropped")
+        );
+        // There is room for a new subscriber.
+        slowFeed.subscribe(0, received::addAll, NOTHING);
+    }
+
+
+    /**
+     * Creates a {@link TokenRevocationFeed} reading the {@link #repository}.
+     *
+     * @param deliveryExecutor The {@link Executor} in which the {@link TokenRevocationFeed} delivers.
+     * @param maxSubscribers   The maximum amount of subscribers.
+     * @return The created {@link TokenRevocationFeed}.
+     */
+    private TokenRevocationFeed newFeed(final Executor deliveryExecutor, final int maxSubscribers) {
+        final var properties = new TokenRevocationFeedProperties();
+        properties.setPageSize(PAGE_SIZE);
+        properties.setMaxSubscribers(maxSubscribers);
+        properties.setSubscriberQueueSize(QUEUE_SIZE);
+        properties.setHeartbeatInterval(Duration.ofDays(1));
+        return new TokenRevocationFeed(repository, transactionManager, properties, deliveryExecutor);
+    }
+
+    /**
+     * Runs (and removes) the given {@code tasks}, including those added while running them.
+     *
+     * @param tasks The tasks to be run.
+     */
+    private static void runAll(final Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Creates the given {@code amount} of random token ids.
+     *
+     * @param amount The amount of token ids.
+     * @return The created token ids.
+     */
+    private static List<UUID> tokenIds(final int amount) {
+        final var tokenIds = new ArrayList<UUID>();
+        for (int i = 0; i < amount; i++) {
+            tokenIds.add(UUID.randomUUID());
+        }
+        return tokenIds;
+    }
+
+    /**
+     * Returns the sequence numbers of the given {@code revocations}.
+     *
+     * @param revocations The {@link TokenRevocation}s.
+     * @return Their sequence numbers, in the same order.
+     */
+    private static List<Long> sequences(final List<TokenRevocation> revocations) {
+        return revocations.stream().map(TokenRevocation::getSequence).collect(Collectors.toList());
+    }
+
+
+    /**
+     * A {@link TokenRevocationRepository} that keeps the log in memory.
+     */
+    private static final class InMemoryTokenRevocationRepository implements TokenRevocationRepository {
+
+        /**
+         * The logged {@link TokenRevocation}s, ordered by sequence number (starting at 1).
+         */
+        private final List<TokenRevocation> log = new ArrayList<>();
+        /**
+         * The amount of times the log was read.
+         */
+        private int reads = 0;
+
+        @Override
+        public void appendAll(final Collection<UUID> tokenIds) {
+            tokenIds.forEach(tokenId -> log.add(new TokenRevocation(log.size() + 1, tokenId, Instant.now())));
+        }
+
+        @Override
+        public List<TokenRevocation> findSince(final long sequence, final int limit) {
+            reads++;
+            return log.stream()
+                    .filter(revocation -> revocation.getSequence() > sequence)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+}
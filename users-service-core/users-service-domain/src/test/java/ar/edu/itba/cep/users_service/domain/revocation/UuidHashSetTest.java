@@ -0,0 +1,82 @@
+package ar.edu.itba.cep.users_service.domain.revocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test class for the {@link UuidHashSet}.
+ */
+class UuidHashSetTest {
+
+    /**
+     * Tests that added elements are contained, and removed elements are not.
+     */
+    @Test
+    void testAddContainsAndRemove() {
+        final var set = new UuidHashSet();
+        final var uuid = UUID.randomUUID();
+        Assertions.assertAll(
+                "The set is not behaving as expected",
+                () -> Assertions.assertFalse(set.contains(uuid), "Non added elements are contained"),
+                () -> Assertions.assertTrue(set.add(uuid), "Adding a new element is not reported"),
+                () -> Assertions.assertFalse(set.add(uuid), "Adding an existing element is reported"),
+                () -> Assertions.assertTrue(set.contains(uuid), "Added elements are not contained"),
+                () -> Assertions.assertEquals(1, set.size(), "The size is not the expected"),
+                () -> Assertions.assertTrue(set.remove(uuid), "Removing an existing element is not reported"),
+                () -> Assertions.assertFalse(set.contains(uuid), "Removed elements are still contained"),
+                () -> Assertions.assertEquals(0, set.size(), "The size is not the expected")
+        );
+    }
+
+    /**
+     * Tests that the all-zeros {@link UUID} (which marks empty slots) is handled as any other element.
+     */
+    @Test
+    void testZeroUuid() {
+        final var set = new UuidHashSet();
+        final var zero = new UUID(0, 0);
+        Assertions.assertAll(
+                "The all-zeros UUID is not being handled as expected",
+                () -> Assertions.assertFalse(set.contains(zero), "The all-zeros UUID is contained before adding it"),
+                () -> Assertions.assertTrue(set.add(zero), "Adding the all-zeros UUID is not reported"),
+                () -> Assertions.assertTrue(set.contains(zero), "The all-zeros UUID is not contained"),
+                () -> Assertions.assertEquals(1, set.size(), "The size is not the expected"),
+                () -> Assertions.assertTrue(set.remove(zero), "Removing the all-zeros UUID is not reported"),
+                () -> Assertions.assertFalse(set.contains(zero), "The all-zeros UUID is still contained")
+        );
+    }
+
+    /**
+     * Tests that the set behaves as a {@link java.util.Set} when growing and removing colliding elements.
+     */
+    @Test
+    void testBehavesAsHashSet() {
+        final var random = new Random(0);
+        final var set = new UuidHashSet(1);
+        final var reference = new HashSet<UUID>();
+        // Small values to force collisions
+        final var pool = Stream.generate(() -> new UUID(random.nextInt(64), random.nextInt(64)))
+                .limit(4096)
+                .collect(Collectors.toList());
+        for (int i = 0; i < 50_000; i++) {
+            final var uuid = pool.get(random.nextInt(pool.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    Assertions.assertEquals(reference.add(uuid), set.add(uuid), "Add is not behaving as expected");
+                    break;
+                case 1:
+                    Assertions.assertEquals(reference.remove(uuid), set.remove(uuid), "Remove is not behaving as expected");
+                    break;
+                default:
+                    Assertions.assertEquals(reference.contains(uuid), set.contains(uuid), "Contains is not behaving as expected");
+            }
+            Assertions.assertEquals(reference.size(), set.size(), "The size is not the expected");
+        }
+    }
+}
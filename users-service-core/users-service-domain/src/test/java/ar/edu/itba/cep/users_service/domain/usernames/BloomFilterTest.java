@@ -0,0 +1,49 @@
+package ar.edu.itba.cep.users_service.domain.usernames;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test class for the {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    /**
+     * Tests that added elements might be contained, and that non added elements are not.
+     */
+    @Test
+    void testAddAndContains() {
+        final var filter = new BloomFilter(100, 0.01);
+        final var element = "some-username";
+        Assertions.assertFalse(filter.mightContain(element), "Non added elements might be contained");
+        filter.add(element);
+        Assertions.assertTrue(filter.mightContain(element), "Added elements are not contained");
+    }
+
+    /**
+     * Tests that there are no false negatives, and that the false positive rate is close to the expected one.
+     */
+    @Test
+    void testNoFalseNegativesAndBoundedFalsePositives() {
+        final var expected = 10_000;
+        final var filter = new BloomFilter(expected, 0.01);
+        final var added = IntStream.range(0, expected)
+                .mapToObj(i -> "user-" + i)
+                .collect(Collectors.toList());
+        added.forEach(filter::add);
+
+        added.forEach(element -> Assertions.assertTrue(filter.mightContain(element), "There are false negatives"));
+        final var falsePositives = IntStream.range(0, expected)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .filter(filter::mightContain)
+                .count();
+        Assertions.assertTrue(
+                falsePositives < expected * 0.02,
+                "The false positive rate is too high (" + falsePositives + " of " + expected + ")"
+        );
+    }
+}
@@ -0,0 +1,210 @@
+package ar.edu.itba.cep.users_service.domain.usernames;
+
+import ar.edu.itba.cep.users_service.domain.config.KnownUsernamesProperties;
+import ar.edu.itba.cep.users_service.domain.events.BulkUserEvent;
+import ar.edu.itba.cep.users_service.domain.events.UserEvent;
+import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.repositories.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link KnownUsernamesIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class KnownUsernamesIndexTest {
+
+    /**
+     * The usernames stored in the (mocked) database, with the id of their users.
+     */
+    private final Map<String, Long> storedUsernames;
+    /**
+     * A mocked {@link UserRepository}, shared by the indexes (as if they were in different application instances).
+     */
+    private final UserRepository userRepository;
+
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository A mocked {@link UserRepository} returning the {@link #storedUsernames}.
+     */
+    KnownUsernamesIndexTest(@Mock(name = "userRepository") final UserRepository userRepository) {
+        this.storedUsernames = new LinkedHashMap<>();
+        this.userRepository = userRepository;
+        store("alice");
+        store("bob");
+        when(userRepository.getAllUsernames()).thenAnswer(invocation -> List.copyOf(storedUsernames.keySet()));
+        when(userRepository.getLastId()).thenAnswer(invocation -> lastId());
+        lenient().when(userRepository.existsWithUsernameAfter(anyString(), anyLong())).thenAnswer(invocation -> {
+            final var id = storedUsernames.get(invocation.<String>getArgument(0));
+            return id != null && id > invocation.<Long>getArgument(1);
+        });
+    }
+
+
+    /**
+     * Tests that all usernames might exist until the index is warmed,
+     * and that only stored usernames might exist afterwards.
+     */
+    @Test
+    void testWarming() {
+        final var index = newIndex();
+        Assertions.assertTrue(index.mightExist("unknown"), "Usernames are rejected before warming the index");
+        index.warm();
+        Assertions.assertAll(
+                "The warmed index is not the expected",
+                () -> Assertions.assertTrue(index.mightExist("alice"), "A stored username is rejected"),
+                () -> Assertions.assertTrue(index.mightExist("bob"), "A stored username is rejected"),
+                () -> Assertions.assertFalse(index.mightExist("unknown"), "An unknown username is not rejected")
+        );
+    }
+
+    /**
+     * Tests that usernames registered through an instance are not rejected by another one before it is re-warmed
+     * (i.e they are looked up in the database once, and added to the index).
+     */
+    @Test
+    void testUsernamesRegisteredByOtherInstancesAreNotRejected() {
+        final var registeringInstance = newIndex();
+        final var otherInstance = newIndex();
+        registeringInstance.warm();
+        otherInstance.warm();
+
+        store("carol");
+        registeringInstance.userRegistered(UserEvent.registered(new User("carol")));
+        Assertions.assertAll(
+                "The username was rejected",
+                () -> Assertions.assertTrue(registeringInstance.mightExist("carol"), "Rejected by the registering one"),
+                () -> Assertions.assertTrue(otherInstance.mightExist("carol"), "Rejected by the other one"),
+                () -> Assertions.assertTrue(otherInstance.mightExist("carol"), "Not added by the other one")
+        );
+        verify(userRepository, times(1)).existsWithUsernameAfter(anyString(), anyLong());
+    }
+
+    /**
+     * Tests that only the users created since the warming before the last one are looked up in the database
+     * for usernames not in the index.
+     */
+    @Test
+    void testOnlyRecentlyCreatedUsersAreLookedUp() {
+        final var index = newIndex();
+        index.warm();
+        final var lastIdBeforeRewarming = lastId();
+        store("carol");
+        index.warm();
+        store("dave");
+
+        Assertions.assertAll(
+                "The index is not the expected",
+                () -> Assertions.assertTrue(index.mightExist("dave"), "A recently created user is rejected"),
+                () -> Assertions.assertFalse(index.mightExist("unknown"), "An unknown username is not rejected")
+        );
+        verify(userRepository).existsWithUsernameAfter("dave", lastIdBeforeRewarming);
+        verify(userRepository).existsWithUsernameAfter("unknown", lastIdBeforeRewarming);
+    }
+
+    /**
+     * Tests that all the usernames of a bulk registration (e.g an import) are added.
+     */
+    @Test
+    void testBulkRegisteredUsernamesAreAdded() {
+        final var index = newIndex();
+        index.warm();
+        index.usersRegistered(BulkUserEvent.registered(List.of("carol", "dave")));
+        Assertions.assertAll(
+                "The bulk registered usernames were not added",
+                () -> Assertions.assertTrue(index.mightExist("carol"), "The first username was not added"),
+                () -> Assertions.assertTrue(index.mightExist("dave"), "The second username was not added")
+        );
+    }
+
+    /**
+     * Tests that the usernames of deleted users are dropped when re-warming.
+     */
+    @Test
+    void testDeletedUsernamesAreDroppedWhenRewarming() {
+        final var index = newIndex();
+        index.warm();
+        storedUsernames.remove("bob");
+        Assertions.assertTrue(index.mightExist("bob"), "The username was dropped before re-warming");
+        index.warm();
+        Assertions.assertFalse(index.mightExist("bob"), "The username was not dropped when re-warming");
+    }
+
+    /**
+     * Tests that usernames registered while warming the index (i.e that might not be loaded from the database)
+     * are not lost.
+     */
+    @Test
+    void testUsernamesRegisteredWhileWarmingAreKept() {
+        final var index = newIndex();
+        index.warm();
+        doAnswer(invocation -> {
+            final var loaded = List.copyOf(storedUsernames.keySet());
+            index.userRegistered(UserEvent.registered(new User("dave")));
+            return loaded;
+        }).when(userRepository).getAllUsernames();
+        index.warm();
+        Assertions.assertTrue(index.mightExist("dave"), "A username registered while warming was lost");
+    }
+
+    /**
+     * Tests that the usernames are kept when the index can not be re-warmed.
+     */
+    @Test
+    void testUsernamesAreKeptWhenRewarmingFails() {
+        final var index = newIndex();
+        index.warm();
+        when(userRepository.getAllUsernames()).thenThrow(new IllegalStateException("Database is down"));
+        index.warm();
+        Assertions.assertAll(
+                "The usernames were not kept",
+                () -> Assertions.assertTrue(index.mightExist("alice"), "A stored username is rejected"),
+                () -> Assertions.assertFalse(index.mightExist("unknown"), "An unknown username is not rejected")
+        );
+    }
+
+
+    /**
+     * Stores the given {@code username} in the (mocked) database, with the next user id.
+     *
+     * @param username The username to be stored.
+     */
+    private void store(final String username) {
+        storedUsernames.put(username, lastId() + 1);
+    }
+
+    /**
+     * @return The greatest user id in the (mocked) database.
+     */
+    private long lastId() {
+        return storedUsernames.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * @return A new, enabled, {@link KnownUsernamesIndex} (with a low false positive rate so results are stable).
+     */
+    private KnownUsernamesIndex newIndex() {
+        final var properties = new KnownUsernamesProperties();
+        properties.setEnabled(true);
+        properties.setExpectedUsernames(100);
+        properties.setFalsePositiveRate(0.000_001);
+        return new KnownUsernamesIndex(userRepository, properties);
+    }
+}
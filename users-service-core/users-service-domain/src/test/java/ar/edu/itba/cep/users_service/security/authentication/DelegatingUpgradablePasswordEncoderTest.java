@@ -0,0 +1,125 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Test class for the {@link DelegatingUpgradablePasswordEncoder}.
+ */
+class DelegatingUpgradablePasswordEncoderTest {
+
+    /**
+     * A raw password used across tests.
+     */
+    private static final String PASSWORD = "Some Password 1!";
+
+
+    /**
+     * Tests that hashes created before prefixes were introduced (i.e plain BCrypt hashes) can be matched,
+     * and that they are considered outdated.
+     */
+    @Test
+    void testLegacyHashesAreMatchedAndUpgraded() {
+        final var encoder = new DelegatingUpgradablePasswordEncoder(bcryptProperties(4));
+        final var legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        Assertions.assertAll(
+                "Legacy hashes are not being handled as expected",
+                () -> Assertions.assertTrue(
+                        encoder.matches(PASSWORD, legacyHash),
+                        "Legacy hashes are not being matched"
+                ),
+                () -> Assertions.assertTrue(
+                        encoder.upgradeEncoding(legacyHash),
+                        "Legacy hashes are not being considered outdated"
+                )
+        );
+    }
+
+    /**
+     * Tests that hashes created with the actual settings are not considered outdated.
+     */
+    @Test
+    void testActualHashesAreNotUpgraded() {
+        final var encoder = new DelegatingUpgradablePasswordEncoder(bcryptProperties(4));
+        final var hash = encoder.encode(PASSWORD);
+        Assertions.assertAll(
+                "Hashes created with the actual settings are not being handled as expected",
+                () -> Assertions.assertTrue(
+                        encoder.matches(PASSWORD, hash),
+                        "Hashes created with the actual settings are not being matched"
+                ),
+                () -> Assertions.assertFalse(
+                        encoder.upgradeEncoding(hash),
+                        "Hashes created with the actual settings are being considered outdated"
+                )
+        );
+    }
+
+    /**
+     * Tests that BCrypt hashes created with another cost factor are considered outdated.
+     */
+    @Test
+    void testBcryptCostChangeIsUpgraded() {
+        final var oldHash = new DelegatingUpgradablePasswordEncoder(bcryptProperties(4)).encode(PASSWORD);
+        final var encoder = new DelegatingUpgradablePasswordEncoder(bcryptProperties(5));
+        Assertions.assertAll(
+                "Hashes created with another cost factor are not being handled as expected",
+                () -> Assertions.assertTrue(
+                        encoder.matches(PASSWORD, oldHash),
+                        "Hashes created with another cost factor are not being matched"
+                ),
+                () -> Assertions.assertTrue(
+                        encoder.upgradeEncoding(oldHash),
+                        "Hashes created with another cost factor are not being considered outdated"
+                )
+        );
+    }
+
+    /**
+     * Tests that hashes created with another algorithm are matched, and considered outdated.
+     */
+    @Test
+    void testAlgorithmChangeIsUpgraded() {
+        final var oldHash = new DelegatingUpgradablePasswordEncoder(bcryptProperties(4)).encode(PASSWORD);
+        final var properties = new PasswordEncodingProperties();
+        properties.setAlgorithm(PasswordEncodingProperties.Algorithm.ARGON2);
+        properties.getArgon2().setMemory(1 << 6);
+        properties.getArgon2().setIterations(1);
+        final var encoder = new DelegatingUpgradablePasswordEncoder(properties);
+        final var newHash = encoder.encode(PASSWORD);
+        Assertions.assertAll(
+                "Hashes created with another algorithm are not being handled as expected",
+                () -> Assertions.assertTrue(
+                        encoder.matches(PASSWORD, oldHash),
+                        "Hashes created with another algorithm are not being matched"
+                ),
+                () -> Assertions.assertTrue(
+                        encoder.upgradeEncoding(oldHash),
+                        "Hashes created with another algorithm are not being considered outdated"
+                ),
+                () -> Assertions.assertTrue(
+                        encoder.matches(PASSWORD, newHash),
+                        "Hashes created with the actual algorithm are not being matched"
+                ),
+                () -> Assertions.assertFalse(
+                        encoder.upgradeEncoding(newHash),
+                        "Hashes created with the actual algorithm are being considered outdated"
+                )
+        );
+    }
+
+
+    /**
+     * Creates a {@link PasswordEncodingProperties} using BCrypt with the given {@code strength}.
+     *
+     * @param strength The BCrypt strength.
+     * @return The created {@link PasswordEncodingProperties}.
+     */
+    private static PasswordEncodingProperties bcryptProperties(final int strength) {
+        final var properties = new PasswordEncodingProperties();
+        properties.setAlgorithm(PasswordEncodingProperties.Algorithm.BCRYPT);
+        properties.getBcrypt().setStrength(strength);
+        return properties;
+    }
+}
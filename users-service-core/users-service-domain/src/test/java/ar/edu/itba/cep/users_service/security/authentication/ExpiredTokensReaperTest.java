@@ -0,0 +1,109 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.users_service.domain.revocation.RevokedTokensIndex;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.repositories.AuthTokenRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link ExpiredTokensReaper}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpiredTokensReaperTest {
+
+    /**
+     * The refresh tokens duration.
+     */
+    private static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(1);
+    /**
+     * The batch size.
+     */
+    private static final int BATCH_SIZE = 2;
+
+
+    private final AuthTokenRepository<AuthToken> authTokenRepository;
+    private final RevokedTokensIndex revokedTokensIndex;
+
+    private final ExpiredTokensReaper reaper;
+
+
+    /**
+     * Constructor.
+     *
+     * @param authTokenRepository The {@link AuthTokenRepository} that is injected to the {@link ExpiredTokensReaper}.
+     * @param revokedTokensIndex  The {@link RevokedTokensIndex} that is injected to the {@link ExpiredTokensReaper}.
+     * @param transactionManager  The {@link PlatformTransactionManager} that is injected to the
+     *                            {@link ExpiredTokensReaper}.
+     */
+    ExpiredTokensReaperTest(
+            @Mock(name = "authTokenRepository") final AuthTokenRepository<AuthToken> authTokenRepository,
+            @Mock(name = "revokedTokensIndex") final RevokedTokensIndex revokedTokensIndex,
+            @Mock(name = "transactionManager") final PlatformTransactionManager transactionManager) {
+        this.authTokenRepository = authTokenRepository;
+        this.revokedTokensIndex = revokedTokensIndex;
+        final var properties = new TokenReaperProperties();
+        properties.setBatchSize(BATCH_SIZE);
+        properties.setMaxBatches(10);
+        this.reaper = new ExpiredTokensReaper(
+                authTokenRepository,
+                revokedTokensIndex,
+                transactionManager,
+                properties,
+                new JwtTokenEncoder.DurationsWrapper(Duration.ofMinutes(15), REFRESH_TOKEN_DURATION)
+        );
+    }
+
+
+    /**
+     * Tests that tokens are deleted in batches until there are no more tokens to be deleted,
+     * and that the deleted tokens are removed from the {@link RevokedTokensIndex}.
+     */
+    @Test
+    void testReapInBatches() {
+        final var firstBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        final var secondBatch = List.of(UUID.randomUUID());
+        when(authTokenRepository.deleteNotRefreshedSince(any(Instant.class), eq(BATCH_SIZE)))
+                .thenReturn(firstBatch)
+                .thenReturn(secondBatch);
+
+        final var lowerBound = Instant.now().minus(REFRESH_TOKEN_DURATION);
+        final var deleted = reaper.reap();
+        final var upperBound = Instant.now().minus(REFRESH_TOKEN_DURATION);
+
+        Assertions.assertEquals(3, deleted, "The amount of deleted tokens is not the expected");
+        verify(authTokenRepository, times(2)).deleteNotRefreshedSince(
+                argThat(instant -> !instant.isBefore(lowerBound) && !instant.isAfter(upperBound)),
+                eq(BATCH_SIZE)
+        );
+        verifyNoMoreInteractions(authTokenRepository);
+        verify(revokedTokensIndex, times(1)).forgetAll(firstBatch);
+        verify(revokedTokensIndex, times(1)).forgetAll(secondBatch);
+        verifyNoMoreInteractions(revokedTokensIndex);
+    }
+
+    /**
+     * Tests that a run stops when the maximum amount of batches is reached.
+     */
+    @Test
+    void testReapStopsAfterMaxBatches() {
+        when(authTokenRepository.deleteNotRefreshedSince(any(Instant.class), eq(BATCH_SIZE)))
+                .thenAnswer(invocation -> List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        final var deleted = reaper.reap();
+
+        Assertions.assertEquals(10 * BATCH_SIZE, deleted, "The amount of deleted tokens is not the expected");
+        verify(authTokenRepository, times(10)).deleteNotRefreshedSince(any(Instant.class), eq(BATCH_SIZE));
+    }
+}
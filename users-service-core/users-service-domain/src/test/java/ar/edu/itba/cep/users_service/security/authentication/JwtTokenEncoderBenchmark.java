@@ -0,0 +1,184 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the {@link JwtTokenEncoder} (with each of the {@link SigningAlgorithm}s) against building
+ * both tokens with {@link Jwts#builder()} and RS512 (i.e how tokens were encoded before the {@link JwtSigner} existed).
+ * <p>
+ * This is not executed as part of the test suite. Run it with the {@link #main(String[])} method
+ * (from the IDE, or with the {@code exec:java} goal using test classpath scope).
+ * The {@link GCProfiler} is enabled in order to report allocations per operation
+ * ({@code gc.alloc.rate.norm}) together with the latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenEncoderBenchmark {
+
+    private static final Duration ACCESS_TOKEN_DURATION = Duration.ofMinutes(15);
+    private static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(1);
+
+
+    /**
+     * Encodes the tokens using the {@link JwtTokenEncoder}.
+     *
+     * @param state The {@link SignerState}.
+     * @return The encoded tokens.
+     */
+    @Benchmark
+    @Threads(4)
+    public TokensWrapper cachedSigner(final SignerState state) {
+        return state.jwtTokenEncoder.encode(state.authToken);
+    }
+
+    /**
+     * Encodes the tokens using a {@link Jwts#builder()} for each of them.
+     *
+     * @param state The {@link BuilderState}.
+     * @return The encoded tokens.
+     */
+    @Benchmark
+    @Threads(4)
+    public TokensWrapper jwtsBuilder(final BuilderState state) {
+        final var authToken = state.authToken;
+        final var now = Instant.now();
+        final var accessToken = Jwts.builder()
+                .setId(authToken.getId().toString())
+                .setSubject(authToken.getOwner())
+                .claim(Constants.ROLES_CLAIM, authToken.getRolesAssigned())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ACCESS_TOKEN_DURATION)))
+                .signWith(state.privateKey, SignatureAlgorithm.RS512)
+                .compact();
+        final var refreshToken = Jwts.builder()
+                .setId(authToken.getId().toString())
+                .setSubject(authToken.getOwner())
+                .claim(Constants.ROLES_CLAIM, Set.of(Constants.REFRESH_GRANT))
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(REFRESH_TOKEN_DURATION)))
+                .signWith(state.privateKey, SignatureAlgorithm.RS512)
+                .compact();
+        return new TokensWrapper(accessToken, refreshToken);
+    }
+
+
+    /**
+     * State for the {@link #cachedSigner(SignerState)} benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class SignerState {
+
+        /**
+         * The {@link SigningAlgorithm} used to sign tokens (RS512 uses a 4096 bits key).
+         */
+        @Param({"RS512", "ES256", "ES384"})
+        private SigningAlgorithm algorithm;
+
+        private AuthToken authToken;
+        private JwtTokenEncoder jwtTokenEncoder;
+
+        @Setup
+        public void setup() throws GeneralSecurityException {
+            final KeyPairGenerator generator;
+            switch (algorithm) {
+                case RS512:
+                    generator = KeyPairGenerator.getInstance("RSA");
+                    generator.initialize(4096);
+                    break;
+                case ES256:
+                    generator = KeyPairGenerator.getInstance("EC");
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                    break;
+                case ES384:
+                    generator = KeyPairGenerator.getInstance("EC");
+                    generator.initialize(new ECGenParameterSpec("secp384r1"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+            }
+            final var keyPair = generator.generateKeyPair();
+            this.authToken = new BenchmarkAuthToken();
+            this.jwtTokenEncoder = new JwtTokenEncoder(
+                    KeyRing.fixed(algorithm, new SigningKey("benchmark", keyPair.getPrivate(), keyPair.getPublic())),
+                    new JwtTokenEncoder.DurationsWrapper(ACCESS_TOKEN_DURATION, REFRESH_TOKEN_DURATION)
+            );
+        }
+    }
+
+    /**
+     * State for the {@link #jwtsBuilder(BuilderState)} benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class BuilderState {
+
+        private PrivateKey privateKey;
+        private AuthToken authToken;
+
+        @Setup
+        public void setup() throws GeneralSecurityException {
+            final var generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(4096);
+            this.privateKey = generator.generateKeyPair().getPrivate();
+            this.authToken = new BenchmarkAuthToken();
+        }
+    }
+
+    /**
+     * An {@link AuthToken} with an id (i.e as if it was already saved).
+     */
+    private static final class BenchmarkAuthToken extends AuthToken {
+
+        private final UUID id = UUID.randomUUID();
+
+        private BenchmarkAuthToken() {
+            super(Set.of(Role.USER));
+        }
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getOwner() {
+            return "benchmark";
+        }
+    }
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Ignored.
+     * @throws RunnerException If the benchmark fails.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenEncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,303 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link JwtTokenEncoder}.
+ */
+class JwtTokenEncoderTest {
+
+    /**
+     * The access tokens duration.
+     */
+    private static final Duration ACCESS_TOKEN_DURATION = Duration.ofMinutes(15);
+    /**
+     * The refresh tokens duration.
+     */
+    private static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(1);
+    /**
+     * The id of the key with which tokens are signed.
+     */
+    private static final String KEY_ID = "test-key";
+
+
+    /**
+     * Tests that the encoded tokens can be verified with the public key, and that they contain the expected claims.
+     *
+     * @param algorithm The {@link SigningAlgorithm} used to sign the tokens.
+     * @throws GeneralSecurityException Never.
+     */
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    void testEncodedTokensAreVerifiable(final SigningAlgorithm algorithm) throws GeneralSecurityException {
+        final var keyPair = generateKeyPair(algorithm);
+        final var id = UUID.randomUUID();
+        final var owner = "some \"special\" \\ owner\n";
+        final var authToken = mockAuthToken(id, owner, Set.of(Role.USER, Role.ADMIN));
+
+        final var tokens = encoder(keyPair, algorithm).encode(authToken);
+
+        final var accessClaims = parse(keyPair, tokens.getAccessToken());
+        assertClaims(accessClaims, id, owner, ACCESS_TOKEN_DURATION);
+        Assertions.assertEquals(
+                Set.of(Role.USER.name(), Role.ADMIN.name()),
+                Set.copyOf(accessClaims.get(Constants.ROLES_CLAIM, List.class)),
+                "The access token does not contain the token's roles."
+        );
+        final var refreshClaims = parse(keyPair, tokens.getRefreshToken());
+        assertClaims(refreshClaims, id, owner, REFRESH_TOKEN_DURATION);
+        Assertions.assertEquals(
+                List.of(Constants.REFRESH_GRANT),
+                refreshClaims.get(Constants.ROLES_CLAIM, List.class),
+                "The refresh token does not contain the refresh grant."
+        );
+    }
+
+    /**
+     * Tests that elliptic curve keys are only accepted for the algorithm of their named curve,
+     * even if other curves have the same field size.
+     *
+     * @throws GeneralSecurityException Never.
+     */
+    @Test
+    void testEcdsaKeysMustBeOnTheAlgorithmCurve() throws GeneralSecurityException {
+        final var p256 = generateKeyPair(SigningAlgorithm.ES256);
+        final var p384 = generateKeyPair(SigningAlgorithm.ES384);
+        // secp256k1 has a 256 bits field too, but it is not P-256 (and it is not supported by the JDK).
+        final var generator = KeyPairGenerator.getInstance("EC", new BouncyCastleProvider());
+        generator.initialize(new ECGenParameterSpec("secp256k1"));
+        final var secp256k1 = generator.generateKeyPair();
+
+        Assertions.assertAll(
+                "Elliptic curve keys are not checked by their curve",
+                () -> Assertions.assertTrue(SigningAlgorithm.ES256.isValidKey(p256.getPrivate())),
+                () -> Assertions.assertTrue(SigningAlgorithm.ES256.isValidKey(p256.getPublic())),
+                () -> Assertions.assertTrue(SigningAlgorithm.ES384.isValidKey(p384.getPrivate())),
+                () -> Assertions.assertFalse(SigningAlgorithm.ES256.isValidKey(p384.getPrivate())),
+                () -> Assertions.assertFalse(SigningAlgorithm.ES384.isValidKey(p256.getPrivate())),
+                () -> Assertions.assertFalse(SigningAlgorithm.ES256.isValidKey(secp256k1.getPrivate())),
+                () -> Assertions.assertFalse(SigningAlgorithm.ES256.isValidKey(secp256k1.getPublic())),
+                () -> Assertions.assertFalse(SigningAlgorithm.RS512.isValidKey(p256.getPrivate()))
+        );
+    }
+
+    /**
+     * Tests that the same {@link JwtSigner} can be used by several threads at the same time.
+     *
+     * @throws GeneralSecurityException Never.
+     */
+    @Test
+    void testEncodingIsThreadSafe() throws GeneralSecurityException {
+        final var keyPair = generateKeyPair(SigningAlgorithm.ES256);
+        final var encoder = encoder(keyPair, SigningAlgorithm.ES256);
+        final var id = UUID.randomUUID();
+        final var authToken = mockAuthToken(id, "owner", Set.of(Role.USER));
+
+        List.of(1, 2, 3, 4, 5, 6, 7, 8).parallelStream()
+                .map(ignored -> encoder.encode(authToken))
+                .forEach(tokens -> assertClaims(
+                        parse(keyPair, tokens.getAccessToken()),
+                        id,
+                        "owner",
+                        ACCESS_TOKEN_DURATION
+                ));
+    }
+
+    /**
+     * Tests that refreshing only issues a new refresh token when the last one is about to expire
+     * (i.e within the reissue window), while a new access token is always issued.
+     *
+     * @throws GeneralSecurityException Never.
+     */
+    @Test
+    void testRefreshTokenIsReissuedOnlyWhenAboutToExpire() throws GeneralSecurityException {
+        final var keyPair = generateKeyPair(SigningAlgorithm.ES256);
+        final var encoder = new JwtTokenEncoder(
+                keyRing(keyPair, SigningAlgorithm.ES256),
+                new JwtTokenEncoder.DurationsWrapper(
+                        ACCESS_TOKEN_DURATION,
+                        REFRESH_TOKEN_DURATION,
+                        REFRESH_TOKEN_DURATION.dividedBy(2)
+                )
+        );
+        final var id = UUID.randomUUID();
+        final var authToken = mockAuthToken(id, "owner", Set.of(Role.USER));
+
+        when(authToken.getRefreshedAt()).thenReturn(Instant.now().minus(REFRESH_TOKEN_DURATION.dividedBy(4)));
+        final var recentlyRefreshed = encoder.refresh(authToken);
+        assertClaims(parse(keyPair, recentlyRefreshed.getAccessToken()), id, "owner", ACCESS_TOKEN_DURATION);
+        Assertions.assertNull(
+                recentlyRefreshed.getRefreshToken(),
+                "A refresh token is issued when the last one is not about to expire."
+        );
+
+        final var longAgo = Instant.now().minus(REFRESH_TOKEN_DURATION.multipliedBy(3).dividedBy(4));
+        when(authToken.getRefreshedAt()).thenReturn(longAgo);
+        final var aboutToExpire = encoder.refresh(authToken);
+        assertClaims(parse(keyPair, aboutToExpire.getAccessToken()), id, "owner", ACCESS_TOKEN_DURATION);
+        assertClaims(parse(keyPair, aboutToExpire.getRefreshToken()), id, "owner", REFRESH_TOKEN_DURATION);
+    }
+
+    /**
+     * Tests that tokens expire when the refresh token issued the last time they were refreshed expires.
+     *
+     * @throws GeneralSecurityException Never.
+     */
+    @Test
+    void testExpirationIsBasedOnTheLastRefresh() throws GeneralSecurityException {
+        final var keyPair = generateKeyPair(SigningAlgorithm.ES256);
+        final var encoder = encoder(keyPair, SigningAlgorithm.ES256);
+        final var authToken = mock(AuthToken.class);
+        final var refreshedAt = Instant.now().minus(Duration.ofHours(1));
+        when(authToken.getRefreshedAt()).thenReturn(refreshedAt);
+
+        Assertions.assertEquals(
+                refreshedAt.plus(REFRESH_TOKEN_DURATION),
+                encoder.expiration(authToken),
+                "The expiration is not based on the last refresh."
+        );
+    }
+
+    /**
+     * Tests that a {@link JwtSigner} can't be created with a key that does not match the algorithm.
+     *
+     * @throws GeneralSecurityException Never.
+     */
+    @Test
+    void testKeyMustMatchAlgorithm() throws GeneralSecurityException {
+        final var privateKey = generateKeyPair(SigningAlgorithm.ES384).getPrivate();
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new JwtSigner(privateKey, SigningAlgorithm.ES256),
+                "Creating a signer with a key of another curve must not be allowed."
+        );
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new JwtSigner(privateKey, SigningAlgorithm.RS512),
+                "Creating a signer with a key of another type must not be allowed."
+        );
+    }
+
+
+    /**
+     * Creates a {@link JwtTokenEncoder} that signs tokens with the given {@code keyPair} and {@code algorithm}.
+     *
+     * @param keyPair   The {@link KeyPair} whose private key is used to sign tokens.
+     * @param algorithm The {@link SigningAlgorithm}.
+     * @return The created {@link JwtTokenEncoder}.
+     */
+    private static JwtTokenEncoder encoder(final KeyPair keyPair, final SigningAlgorithm algorithm) {
+        return new JwtTokenEncoder(
+                keyRing(keyPair, algorithm),
+                new JwtTokenEncoder.DurationsWrapper(ACCESS_TOKEN_DURATION, REFRESH_TOKEN_DURATION)
+        );
+    }
+
+    /**
+     * Creates a {@link KeyRing} that always signs tokens with the given {@code keyPair} and {@code algorithm}.
+     *
+     * @param keyPair   The {@link KeyPair} used to sign tokens.
+     * @param algorithm The {@link SigningAlgorithm}.
+     * @return The created {@link KeyRing}.
+     */
+    private static KeyRing keyRing(final KeyPair keyPair, final SigningAlgorithm algorithm) {
+        return KeyRing.fixed(algorithm, new SigningKey(KEY_ID, keyPair.getPrivate(), keyPair.getPublic()));
+    }
+
+    /**
+     * Creates a mocked {@link AuthToken}.
+     *
+     * @param id    The token's id.
+     * @param owner The token's owner.
+     * @param roles The roles assigned to the token.
+     * @return The mocked {@link AuthToken}.
+     */
+    private static AuthToken mockAuthToken(final UUID id, final String owner, final Set<Role> roles) {
+        final var authToken = mock(AuthToken.class);
+        when(authToken.getId()).thenReturn(id);
+        when(authToken.getOwner()).thenReturn(owner);
+        when(authToken.getRolesAssigned()).thenReturn(roles);
+        return authToken;
+    }
+
+    /**
+     * Generates a {@link KeyPair} for the given {@code algorithm}.
+     *
+     * @param algorithm The {@link SigningAlgorithm}.
+     * @return The generated {@link KeyPair}.
+     * @throws GeneralSecurityException Never.
+     */
+    private static KeyPair generateKeyPair(final SigningAlgorithm algorithm) throws GeneralSecurityException {
+        final KeyPairGenerator generator;
+        switch (algorithm) {
+            case RS512:
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                break;
+            case ES256:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                break;
+            case ES384:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp384r1"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Parses the given {@code token}, verifying its signature.
+     *
+     * @param keyPair The {@link KeyPair} whose public key is used to verify the token.
+     * @param token   The token to be parsed.
+     * @return The token's {@link Claims}.
+     */
+    private static Claims parse(final KeyPair keyPair, final String token) {
+        return Jwts.parser()
+                .setSigningKey(keyPair.getPublic())
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /**
+     * Asserts that the given {@code claims} contain the expected registered claims.
+     *
+     * @param claims   The {@link Claims} to be checked.
+     * @param id       The expected token id.
+     * @param owner    The expected subject.
+     * @param duration The expected {@link Duration} of the token.
+     */
+    private static void assertClaims(final Claims claims, final UUID id, final String owner, final Duration duration) {
+        Assertions.assertEquals(id.toString(), claims.getId(), "The token id does not match.");
+        Assertions.assertEquals(owner, claims.getSubject(), "The subject does not match.");
+        Assertions.assertEquals(
+                duration.toMillis(),
+                claims.getExpiration().getTime() - claims.getIssuedAt().getTime(),
+                "The token duration does not match."
+        );
+    }
+}
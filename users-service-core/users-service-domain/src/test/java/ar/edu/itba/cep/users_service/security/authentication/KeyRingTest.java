@@ -0,0 +1,268 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Test class for the {@link KeyRing}.
+ */
+class KeyRingTest {
+
+    /**
+     * The {@link SigningAlgorithm} of the keys.
+     */
+    private static final SigningAlgorithm ALGORITHM = SigningAlgorithm.ES256;
+    /**
+     * The reload interval of the {@link KeyRing}s being tested (not used, as reloads are triggered manually).
+     */
+    private static final Duration RELOAD_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The directory from where keys are loaded.
+     */
+    private Path directory;
+
+
+    /**
+     * Creates the keys directory.
+     *
+     * @throws IOException If the directory can't be created.
+     */
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("key-ring-test");
+    }
+
+    /**
+     * Deletes the keys directory.
+     *
+     * @throws IOException If the directory can't be deleted.
+     */
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (final var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+
+    /**
+     * Tests that tokens are signed with the key with the greatest {@code kid} having a private key,
+     * and that all the public keys are published.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testSignsWithGreatestKeyIdAndPublishesAll() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        writeKeyPair("2019-02", generateKeyPair(), true);
+        writeKeyPair("2019-03", generateKeyPair(), false); // Not yet active (no private key).
+
+        final var keyRing = KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-02");
+
+        Assertions.assertEquals("2019-02", signingKeyId(keyRing), "Tokens are not signed with the expected key.");
+        final var jwks = keyRing.getPublishedKeys().getJwks();
+        Assertions.assertAll(
+                "Not all the public keys are published",
+                () -> Assertions.assertTrue(jwks.contains("\"kid\":\"2019-01\"")),
+                () -> Assertions.assertTrue(jwks.contains("\"kid\":\"2019-02\"")),
+                () -> Assertions.assertTrue(jwks.contains("\"kid\":\"2019-03\""))
+        );
+        Assertions.assertTrue(jwks.contains("\"kty\":\"EC\",\"crv\":\"P-256\""), "The keys are not EC P-256 keys.");
+    }
+
+    /**
+     * Tests that reloading the key ring picks up a new published key, changing the published keys' version,
+     * and that reloading an unchanged directory has no effect.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testReloadPicksUpNewKeys() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        final var keyRing = KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-01");
+        final var previousVersion = keyRing.getPublishedKeys().getVersion();
+        Assertions.assertFalse(keyRing.reload(), "Reloading an unchanged directory must have no effect.");
+
+        writeKeyPair("2019-02", generateKeyPair(), false);
+
+        Assertions.assertTrue(keyRing.reload(), "The new key was not loaded.");
+        Assertions.assertEquals("2019-01", signingKeyId(keyRing), "Tokens are not signed with the actual key.");
+        Assertions.assertTrue(
+                keyRing.getPublishedKeys().getJwks().contains("\"kid\":\"2019-02\""),
+                "The new key is not published."
+        );
+        Assertions.assertNotEquals(
+                previousVersion,
+                keyRing.getPublishedKeys().getVersion(),
+                "The version did not change when the keys changed."
+        );
+    }
+
+    /**
+     * Tests that reloading does not switch to a new signing key that is not the verification key
+     * (i.e the service keeps issuing tokens it can verify).
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testReloadDoesNotSignWithKeysThatAreNotVerified() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        final var keyRing = KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-01");
+        final var keySet = keyRing.getPublishedKeys();
+
+        writeKeyPair("2019-02", generateKeyPair(), true);
+
+        Assertions.assertFalse(keyRing.reload(), "A signing key that is not verified must not be loaded.");
+        Assertions.assertEquals("2019-01", signingKeyId(keyRing), "The actual key was not kept.");
+        Assertions.assertEquals(keySet, keyRing.getPublishedKeys(), "The published keys changed.");
+    }
+
+    /**
+     * Tests that a {@link KeyRing} can't be created from a directory whose signing key is not the verification key.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testSigningKeyMustBeTheVerificationKey() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        writeKeyPair("2019-02", generateKeyPair(), true);
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-01"),
+                "Creating a key ring that signs with a key that is not verified must not be allowed."
+        );
+    }
+
+    /**
+     * Tests that once a key is rotated (i.e its private key is added, and the verification key is switched to it),
+     * tokens are signed with it and are accepted when verified with its public key,
+     * while the previous key is still published.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testTokensSignedWithRotatedKeyAreAccepted() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        final var rotated = generateKeyPair();
+        writeKeyPair("2019-02", rotated, true);
+
+        final var keyRing = KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-02");
+        final var token = keyRing.getSigner().sign("{\"sub\":\"owner\"}");
+
+        final var jws = Jwts.parser().setSigningKey(rotated.getPublic()).parseClaimsJws(token);
+        Assertions.assertEquals("2019-02", jws.getHeader().getKeyId(), "The token is not signed with the new key.");
+        Assertions.assertEquals("owner", jws.getBody().getSubject(), "The token's claims do not match.");
+        Assertions.assertTrue(
+                keyRing.getPublishedKeys().getJwks().contains("\"kid\":\"2019-01\""),
+                "The previous key is not published anymore."
+        );
+    }
+
+    /**
+     * Tests that the actual keys are kept if the directory contains invalid keys when reloading.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testInvalidKeysAreNotLoaded() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), true);
+        final var keyRing = KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-01");
+        final var keySet = keyRing.getPublishedKeys();
+
+        Files.writeString(directory.resolve("2019-02.key"), "not a key");
+
+        Assertions.assertFalse(keyRing.reload(), "Invalid keys must not be loaded.");
+        Assertions.assertEquals("2019-01", signingKeyId(keyRing), "The actual key was not kept.");
+        Assertions.assertEquals(keySet, keyRing.getPublishedKeys(), "The published keys changed.");
+    }
+
+    /**
+     * Tests that a {@link KeyRing} can't be created from a directory with no key that can sign tokens.
+     *
+     * @throws Exception Never.
+     */
+    @Test
+    void testDirectoryWithoutPrivateKeys() throws Exception {
+        writeKeyPair("2019-01", generateKeyPair(), false);
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> KeyRing.fromDirectory(ALGORITHM, directory, RELOAD_INTERVAL, "2019-01"),
+                "Creating a key ring with no private keys must not be allowed."
+        );
+    }
+
+
+    /**
+     * Returns the {@code kid} header of tokens signed by the given {@code keyRing}.
+     *
+     * @param keyRing The {@link KeyRing}.
+     * @return The {@code kid} header.
+     */
+    private static String signingKeyId(final KeyRing keyRing) {
+        final var token = keyRing.getSigner().sign("{}");
+        final var header = new String(
+                Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8
+        );
+        final var prefix = "\"kid\":\"";
+        final var start = header.indexOf(prefix) + prefix.length();
+        return header.substring(start, header.indexOf('"', start));
+    }
+
+    /**
+     * Writes the given {@code keyPair} into the keys directory, in PEM format.
+     *
+     * @param keyId          The id of the key.
+     * @param keyPair        The {@link KeyPair} to be written.
+     * @param withPrivateKey Whether the private key must be written.
+     * @throws IOException If the keys can't be written.
+     */
+    private void writeKeyPair(final String keyId, final KeyPair keyPair, final boolean withPrivateKey)
+            throws IOException {
+        Files.writeString(directory.resolve(keyId + ".pub"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            Files.writeString(directory.resolve(keyId + ".key"), pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        }
+    }
+
+    /**
+     * Encodes the given {@code key} in PEM format.
+     *
+     * @param type The PEM type.
+     * @param key  The encoded key.
+     * @return The PEM.
+     */
+    private static String pem(final String type, final byte[] key) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(key)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    /**
+     * Generates an ES256 {@link KeyPair}.
+     *
+     * @return The generated {@link KeyPair}.
+     * @throws GeneralSecurityException Never.
+     */
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        final var generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
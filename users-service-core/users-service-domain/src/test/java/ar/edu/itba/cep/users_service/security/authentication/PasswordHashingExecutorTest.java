@@ -0,0 +1,180 @@
+package ar.edu.itba.cep.users_service.security.authentication;
+
+import ar.edu.itba.cep.users_service.services.ServiceOverloadedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for the {@link PasswordHashingExecutor}.
+ */
+class PasswordHashingExecutorTest {
+
+    /**
+     * Tests that the result of the operation is returned to the caller.
+     */
+    @Test
+    void testResultIsReturned() {
+        final var executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
+        try {
+            Assertions.assertTrue(
+                    executor.execute(() -> true),
+                    "The result of the operation is not being returned"
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that runtime exceptions thrown by the operation are propagated to the caller.
+     */
+    @Test
+    void testExceptionIsPropagated() {
+        final var executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
+        try {
+            Assertions.assertThrows(
+                    IllegalStateException.class,
+                    () -> executor.execute(() -> {
+                        throw new IllegalStateException();
+                    }),
+                    "Exceptions thrown by the operation are not being propagated"
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that operations are rejected when there is no capacity to perform them.
+     *
+     * @throws InterruptedException Never.
+     */
+    @Test
+    void testOperationsAreRejectedWhenSaturated() throws InterruptedException {
+        final var executor = new PasswordHashingExecutor(1, 0, Duration.ofSeconds(5));
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var blocker = new Thread(() -> executor.execute(() -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        try {
+            blocker.start();
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS), "The blocking operation did not start");
+            Assertions.assertThrows(
+                    ServiceOverloadedException.class,
+                    () -> executor.execute(() -> true),
+                    "Operations are not being rejected when there is no capacity for them"
+            );
+        } finally {
+            release.countDown();
+            blocker.join();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that callers stop waiting for operations that take too long.
+     */
+    @Test
+    void testOperationsTimeout() {
+        final var executor = new PasswordHashingExecutor(1, 0, Duration.ofMillis(50));
+        try {
+            Assertions.assertThrows(
+                    ServiceOverloadedException.class,
+                    () -> executor.execute(() -> {
+                        try {
+                            Thread.sleep(5_000);
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return true;
+                    }),
+                    "Callers are waiting for operations more than the configured timeout"
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that background operations are discarded when other background operations are being performed
+     * (with only one thread), so they do not pile up in the queue.
+     *
+     * @throws InterruptedException Never.
+     */
+    @Test
+    void testBackgroundOperationsAreDiscardedWhenBusy() throws InterruptedException {
+        final var executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        try {
+            Assertions.assertTrue(
+                    executor.submit(() -> awaitRelease(started, release)),
+                    "A background operation was discarded with an idle executor"
+            );
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS), "The background operation did not start");
+            Assertions.assertFalse(
+                    executor.submit(() -> {
+                    }),
+                    "Background operations are piling up"
+            );
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that background operations never take more than half of the threads.
+     *
+     * @throws InterruptedException Never.
+     */
+    @Test
+    void testBackgroundOperationsAreLimited() throws InterruptedException {
+        final var executor = new PasswordHashingExecutor(2, 1, Duration.ofSeconds(5));
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        try {
+            Assertions.assertTrue(
+                    executor.submit(() -> awaitRelease(started, release)),
+                    "A background operation was discarded with idle threads"
+            );
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS), "The background operation did not start");
+            Assertions.assertFalse(
+                    executor.submit(() -> {
+                    }),
+                    "Background operations are taking more than half of the threads"
+            );
+            Assertions.assertTrue(executor.execute(() -> true), "The remaining thread is not performing operations");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+
+    /**
+     * Signals that an operation started, and waits until it is released.
+     *
+     * @param started The {@link CountDownLatch} used to signal that the operation started.
+     * @param release The {@link CountDownLatch} used to release the operation.
+     */
+    private static void awaitRelease(final CountDownLatch started, final CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
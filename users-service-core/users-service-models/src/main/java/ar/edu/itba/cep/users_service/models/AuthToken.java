@@ -29,6 +29,10 @@ public abstract class AuthToken {
      * The {@link Instant} in which this token is created.
      */
     private final Instant createdAt;
+    /**
+     * The {@link Instant} in which this token was last refreshed (i.e the last time a refresh token was issued for it).
+     */
+    private Instant refreshedAt;
     /**
      * A flag indicating whether this token is valid.
      */
@@ -50,8 +54,11 @@ public abstract class AuthToken {
         assertRoles(rolesAssigned);
 
         this.id = null;
-        this.rolesAssigned = Optional.ofNullable(rolesAssigned).map(HashSet::new).orElseGet(HashSet::new);
+        this.rolesAssigned = Objects.isNull(rolesAssigned) || rolesAssigned.isEmpty() ?
+                EnumSet.noneOf(Role.class) :
+                EnumSet.copyOf(rolesAssigned);
         this.createdAt = Instant.now();
+        this.refreshedAt = this.createdAt;
         this.valid = true;
     }
 
@@ -64,6 +71,13 @@ public abstract class AuthToken {
         return Collections.unmodifiableSet(rolesAssigned);
     }
 
+    /**
+     * Registers that this token has been refreshed (i.e a new refresh token was issued for it).
+     */
+    public void refreshed() {
+        this.refreshedAt = Instant.now();
+    }
+
     /**
      * Makes this token invalid.
      */
@@ -0,0 +1,67 @@
+package ar.edu.itba.cep.users_service.models;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+
+/**
+ * Represents an event that must be dispatched asynchronously (i.e a message in the transactional outbox).
+ * It is saved in the same transaction as the change it describes, so it is dispatched if and only if
+ * the said change is committed.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(of = "id", doNotUseGetters = true)
+public class OutboxMessage {
+
+    /**
+     * The message id (taken from a sequence, so it does not indicate the order in which messages were committed).
+     */
+    private final long id;
+
+    /**
+     * The type of event.
+     */
+    private final String type;
+
+    /**
+     * The event's data (encoded according to its {@code type}).
+     */
+    private final String payload;
+
+    /**
+     * {@link Instant} at which this message is created.
+     */
+    private final Instant createdAt;
+
+
+    /**
+     * Default constructor for Hibernate
+     */
+    /* package */ OutboxMessage() {
+        // Initialize final fields with default values. They will be overridden by Hibernate on initialization.
+        this.id = 0;
+        this.type = null;
+        this.payload = null;
+        this.createdAt = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param type    The type of event.
+     * @param payload The event's data (encoded according to its {@code type}).
+     * @throws IllegalArgumentException If any argument is {@code null}.
+     */
+    public OutboxMessage(final String type, final String payload) throws IllegalArgumentException {
+        Assert.notNull(type, "The type must not be null");
+        Assert.notNull(payload, "The payload must not be null");
+        this.id = 0;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+}
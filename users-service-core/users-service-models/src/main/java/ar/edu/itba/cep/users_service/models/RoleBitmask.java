@@ -0,0 +1,98 @@
+package ar.edu.itba.cep.users_service.models;
+
+import ar.edu.itba.cep.roles.Role;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Helper class to encode sets of {@link Role}s as bitmasks (i.e a {@code long} value in which the bit assigned to
+ * each {@link Role} is set), so they can be stored in a single column.
+ * <p>
+ * Bits are assigned to {@link Role}s by name in the {@link #BITMASKS} table (and not derived from the {@link Role}s
+ * declaration order, which is owned by another library), as the encoded values are stored in the database.
+ * Assigned bits must never change (the migrations that created the bitmask columns have the same values frozen),
+ * and new {@link Role}s must be assigned bits not used before.
+ */
+public final class RoleBitmask {
+
+    /**
+     * The bitmask assigned to each {@link Role}, by name (it must contain every {@link Role} declared by the library,
+     * as the migrations refuse to drop roles they can't encode).
+     */
+    private static final Map<String, Long> BITMASKS = Map.of(
+            "ADMIN", 1L,
+            "USER", 1L << 1,
+            "TEACHER", 1L << 2,
+            "STUDENT", 1L << 3
+    );
+
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private RoleBitmask() {
+    }
+
+
+    /**
+     * Returns the bitmask of the given {@code role} (i.e a value with only the said {@link Role}'s bit set).
+     *
+     * @param role The {@link Role}.
+     * @return The bitmask.
+     * @throws IllegalArgumentException If the {@code role} is {@code null}.
+     * @throws IllegalStateException    If there is no bit assigned to the {@code role}.
+     */
+    public static long of(final Role role) throws IllegalArgumentException, IllegalStateException {
+        Assert.notNull(role, "The role must not be null");
+        return find(role).orElseThrow(() -> new IllegalStateException("There is no bit assigned to role " + role));
+    }
+
+    /**
+     * Encodes the given {@code roles} as a bitmask.
+     *
+     * @param roles The {@link Role}s to be encoded ({@code null} is encoded as an empty bitmask).
+     * @return The bitmask.
+     * @throws IllegalArgumentException If any of the {@code roles} is {@code null}.
+     * @throws IllegalStateException    If there is no bit assigned to any of the {@code roles}.
+     */
+    public static long encode(final Collection<Role> roles) throws IllegalArgumentException, IllegalStateException {
+        if (roles == null) {
+            return 0;
+        }
+        Assert.isTrue(roles.stream().noneMatch(Objects::isNull), "The roles must not contain nulls");
+        return roles.stream().mapToLong(RoleBitmask::of).reduce(0, (left, right) -> left | right);
+    }
+
+    /**
+     * Decodes the given {@code bitmask} into the {@link Role}s it contains.
+     * Bits not matching any {@link Role} are ignored.
+     *
+     * @param bitmask The bitmask to be decoded.
+     * @return An {@link EnumSet} with the {@link Role}s in the {@code bitmask}.
+     */
+    public static EnumSet<Role> decode(final long bitmask) {
+        final var roles = EnumSet.noneOf(Role.class);
+        for (final var role : Role.values()) {
+            if (find(role).filter(roleBitmask -> (bitmask & roleBitmask) != 0).isPresent()) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+
+    /**
+     * Finds the bitmask assigned to the given {@code role}.
+     *
+     * @param role The {@link Role}.
+     * @return An {@link Optional} with the bitmask, or empty if there is no bit assigned to the {@code role}.
+     */
+    private static Optional<Long> find(final Role role) {
+        return Optional.ofNullable(BITMASKS.get(role.name()));
+    }
+}
@@ -0,0 +1,63 @@
+package ar.edu.itba.cep.users_service.models;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Represents the revocation of an {@link AuthToken}, as an entry of the revocations log
+ * (which other services read to learn which tokens must be rejected).
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(of = "sequence", doNotUseGetters = true)
+public class TokenRevocation {
+
+    /**
+     * The sequence number of the revocation in the log (i.e entries are appended with increasing sequence numbers).
+     */
+    private final long sequence;
+
+    /**
+     * The id of the revoked {@link AuthToken}.
+     */
+    private final UUID tokenId;
+
+    /**
+     * {@link Instant} at which the {@link AuthToken} was revoked (i.e at which the revocation was logged).
+     */
+    private final Instant revokedAt;
+
+
+    /**
+     * Default constructor for Hibernate
+     */
+    /* package */ TokenRevocation() {
+        // Initialize final fields with default values. They will be overridden by Hibernate on initialization.
+        this.sequence = 0;
+        this.tokenId = null;
+        this.revokedAt = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sequence  The sequence number of the revocation in the log.
+     * @param tokenId   The id of the revoked {@link AuthToken}.
+     * @param revokedAt {@link Instant} at which the {@link AuthToken} was revoked.
+     * @throws IllegalArgumentException If the {@code tokenId} or the {@code revokedAt} {@link Instant}
+     *                                  are {@code null}.
+     */
+    public TokenRevocation(final long sequence, final UUID tokenId, final Instant revokedAt)
+            throws IllegalArgumentException {
+        Assert.notNull(tokenId, "The token id must not be null");
+        Assert.notNull(revokedAt, "The revocation instant must not be null");
+        this.sequence = sequence;
+        this.tokenId = tokenId;
+        this.revokedAt = revokedAt;
+    }
+}
@@ -7,7 +7,7 @@ import lombok.ToString;
 import org.springframework.util.Assert;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 import static ar.edu.itba.cep.users_service.models.ValidationConstants.USERNAME_MAX_LENGTH;
@@ -33,8 +33,10 @@ public class User {
 
     /**
      * Set containing the {@link Role}s this user has.
+     * It is never modified (a new one is set each time the {@link Role}s change),
+     * so it can be safely shared, and changes are detected by comparing it with the loaded one.
      */
-    private final Set<Role> roles;
+    private Set<Role> roles;
 
     /**
      * A flag indicating whether this user is active (i.e can operate on the application).
@@ -49,7 +51,7 @@ public class User {
         // Initialize final fields with default values. They will be overridden by Hibernate on initialization.
         this.id = 0;
         this.username = null;
-        this.roles = new HashSet<>();
+        this.roles = EnumSet.noneOf(Role.class);
     }
 
     /**
@@ -64,7 +66,7 @@ public class User {
         this.id = 0;
         this.username = username;
         this.active = true;
-        this.roles = new HashSet<>();
+        this.roles = EnumSet.noneOf(Role.class);
     }
 
 
@@ -83,7 +85,9 @@ public class User {
      */
     public void addRole(final Role role) {
         assertRole(role);
-        this.roles.add(role);
+        final var newRoles = EnumSet.copyOf(roles);
+        newRoles.add(role);
+        this.roles = newRoles;
     }
 
     /**
@@ -92,7 +96,9 @@ public class User {
      * @param role The {@link Role} to be removed.
      */
     public void removeRole(final Role role) {
-        this.roles.remove(role);
+        final var newRoles = EnumSet.copyOf(roles);
+        newRoles.remove(role);
+        this.roles = newRoles;
     }
 
 
@@ -38,6 +38,13 @@ public class UserCredential {
      */
     private final Instant createdAt;
 
+    /**
+     * Indicates whether this credential is the current one of its {@link User}
+     * (i.e the one that must be used to authenticate it).
+     * Credentials stop being current when a new one is created for the same {@link User}.
+     */
+    private final boolean current;
+
 
     /**
      * Default constructor for Hibernate
@@ -48,6 +55,7 @@ public class UserCredential {
         this.user = null;
         this.hashedPassword = null;
         this.createdAt = null;
+        this.current = false;
     }
 
     /**
@@ -62,6 +70,7 @@ public class UserCredential {
         this.user = user;
         this.hashedPassword = hashedPassword;
         this.createdAt = Instant.now();
+        this.current = true;
     }
 
 
@@ -0,0 +1,120 @@
+package ar.edu.itba.cep.users_service.models;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Selects a set of {@link User}s over which a bulk operation is performed,
+ * either by listing their usernames, or by applying the same filters used to search {@link User}s
+ * (i.e a username pattern, matched anywhere, and the active flag).
+ * A single {@link User} can be excluded from the selection (e.g the one performing the operation).
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public final class UserSelection {
+
+    /**
+     * The usernames of the selected {@link User}s, or {@code null} if they are selected by filters.
+     */
+    private final List<String> usernames;
+    /**
+     * A filter for the {@link User}'s username, or {@code null} if it must not be taken into account.
+     */
+    private final String username;
+    /**
+     * The {@link User}'s active flag state, or {@code null} if it must not be taken into account.
+     */
+    private final Boolean active;
+    /**
+     * The username of the {@link User} that is excluded from the selection,
+     * or {@code null} if no {@link User} is excluded.
+     */
+    private final String excluded;
+
+
+    /**
+     * Private constructor. Use the static factory methods.
+     *
+     * @param usernames The usernames of the selected {@link User}s.
+     * @param username  A filter for the {@link User}'s username.
+     * @param active    The {@link User}'s active flag state.
+     * @param excluded  The username of the {@link User} that is excluded from the selection.
+     */
+    private UserSelection(
+            final List<String> usernames,
+            final String username,
+            final Boolean active,
+            final String excluded) {
+        this.usernames = usernames;
+        this.username = username;
+        this.active = active;
+        this.excluded = excluded;
+    }
+
+
+    /**
+     * @return {@code true} if the {@link User}s are selected by their usernames,
+     * or {@code false} if they are selected by filters.
+     */
+    public boolean isByUsernames() {
+        return usernames != null;
+    }
+
+    /**
+     * @return {@code true} if this selection does not restrict the {@link User}s in any way
+     * (i.e it has no usernames nor filters, so all the {@link User}s are selected),
+     * or {@code false} otherwise.
+     * @apiNote The excluded {@link User} is not taken into account.
+     */
+    public boolean isUnrestricted() {
+        return usernames == null && (username == null || username.isEmpty()) && active == null;
+    }
+
+    /**
+     * Creates a copy of this {@link UserSelection} that excludes the {@link User} with the given {@code username}.
+     *
+     * @param username The username of the {@link User} to be excluded.
+     * @return The created {@link UserSelection}.
+     * @throws IllegalArgumentException If the {@code username} is {@code null}.
+     */
+    public UserSelection excluding(final String username) throws IllegalArgumentException {
+        Assert.notNull(username, "The excluded username must not be null");
+        return new UserSelection(this.usernames, this.username, this.active, username);
+    }
+
+
+    /**
+     * Creates a {@link UserSelection} of the {@link User}s with the given {@code usernames}.
+     *
+     * @param usernames The usernames of the {@link User}s to be selected.
+     * @return The created {@link UserSelection}.
+     * @throws IllegalArgumentException If the {@code usernames} is {@code null} or contains {@code null}s.
+     */
+    public static UserSelection ofUsernames(final Collection<String> usernames) throws IllegalArgumentException {
+        Assert.notNull(usernames, "The usernames must not be null");
+        Assert.isTrue(usernames.stream().noneMatch(Objects::isNull), "The usernames must not contain nulls");
+        return new UserSelection(List.copyOf(usernames), null, null, null);
+    }
+
+    /**
+     * Creates a {@link UserSelection} of the {@link User}s matching the given filters.
+     *
+     * @param username A filter for the {@link User}'s username (compared as with the "like" keyword,
+     *                 matching anywhere).
+     * @param active   The {@link User}'s active flag state.
+     * @return The created {@link UserSelection}.
+     * @apiNote Those parameter that are {@code null} will not be taken into account (they are
+     * optional). If both are {@code null}, all the {@link User}s are selected
+     * (see {@link #isUnrestricted()}).
+     */
+    public static UserSelection matching(final String username, final Boolean active) {
+        return new UserSelection(null, username, active, null);
+    }
+}
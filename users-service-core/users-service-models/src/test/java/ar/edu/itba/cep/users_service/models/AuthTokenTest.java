@@ -48,6 +48,19 @@ abstract class AuthTokenTest<T extends AuthToken> {
         Assertions.assertTrue(buildToken().isValid(), "The token is not valid upon creation");
     }
 
+    /**
+     * Test that an {@link AuthToken} is considered refreshed when created.
+     */
+    @Test
+    void testTokenIsRefreshedUponCreation() {
+        final var token = buildToken();
+        Assertions.assertEquals(
+                token.getCreatedAt(),
+                token.getRefreshedAt(),
+                "The token is not considered refreshed upon creation"
+        );
+    }
+
     /**
      * Tests that the returned owner of a created {@link AuthToken} is the expected.
      */
@@ -72,6 +85,21 @@ abstract class AuthTokenTest<T extends AuthToken> {
     }
 
 
+    /**
+     * Test that refreshing an {@link AuthToken} updates its last refresh {@link java.time.Instant}.
+     */
+    @Test
+    void testRefresh() {
+        final var token = buildToken();
+        final var previous = token.getRefreshedAt();
+        token.refreshed();
+        Assertions.assertFalse(
+                token.getRefreshedAt().isBefore(previous),
+                "The refresh operation did not update the last refresh instant"
+        );
+    }
+
+
     // ================================================================================================================
     // Constraint testing
     // ================================================================================================================
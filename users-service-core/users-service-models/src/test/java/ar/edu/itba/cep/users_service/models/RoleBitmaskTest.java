@@ -0,0 +1,94 @@
+package ar.edu.itba.cep.users_service.models;
+
+import ar.edu.itba.cep.roles.Role;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Test class for {@link RoleBitmask}.
+ */
+class RoleBitmaskTest {
+
+    /**
+     * Tests that each subset of {@link Role}s is decoded into the same subset after being encoded.
+     */
+    @Test
+    void testEncodeAndDecode() {
+        final var roles = List.of(Role.values());
+        for (long subset = 0; subset < 1L << roles.size(); subset++) {
+            final var expected = EnumSet.noneOf(Role.class);
+            for (int i = 0; i < roles.size(); i++) {
+                if ((subset & (1L << i)) != 0) {
+                    expected.add(roles.get(i));
+                }
+            }
+            Assertions.assertEquals(
+                    expected,
+                    RoleBitmask.decode(RoleBitmask.encode(expected)),
+                    "Decoding an encoded set of roles is not returning the same roles"
+            );
+        }
+    }
+
+    /**
+     * Tests that each {@link Role} is encoded in the bit assigned to it
+     * (i.e the values stored in the database, and frozen in the migrations, do not change).
+     */
+    @Test
+    void testRolesBitsDoNotChange() {
+        Assertions.assertAll(
+                "Roles bits changed",
+                () -> Assertions.assertEquals(1L, RoleBitmask.of(Role.ADMIN), "The ADMIN bit changed"),
+                () -> Assertions.assertEquals(2L, RoleBitmask.of(Role.USER), "The USER bit changed")
+        );
+    }
+
+    /**
+     * Tests that every {@link Role} has a bit assigned
+     * (i.e new {@link Role}s are noticed when upgrading the library that declares them).
+     */
+    @Test
+    void testAllRolesHaveABit() {
+        for (final var role : Role.values()) {
+            Assertions.assertDoesNotThrow(() -> RoleBitmask.of(role), "There is no bit assigned to role " + role);
+        }
+    }
+
+    /**
+     * Tests that each {@link Role} is encoded in a different bit.
+     */
+    @Test
+    void testRolesAreEncodedInDifferentBits() {
+        final var bitmasks = new HashSet<Long>();
+        for (final var role : Role.values()) {
+            final var bitmask = RoleBitmask.of(role);
+            Assertions.assertEquals(1, Long.bitCount(bitmask), "A role is not encoded in a single bit");
+            Assertions.assertTrue(bitmasks.add(bitmask), "Two roles are encoded in the same bit");
+        }
+    }
+
+    /**
+     * Tests that a {@code null} collection is encoded as an empty bitmask.
+     */
+    @Test
+    void testNullIsEncodedAsEmpty() {
+        Assertions.assertEquals(0, RoleBitmask.encode(null), "Null roles are not encoded as an empty bitmask");
+    }
+
+    /**
+     * Tests that encoding a collection with {@code null}s throws an {@link IllegalArgumentException}.
+     */
+    @Test
+    void testEncodingNullRolesIsNotAllowed() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> RoleBitmask.encode(new HashSet<>(Arrays.asList(Role.USER, null))),
+                "Encoding null roles is not failing"
+        );
+    }
+}
@@ -38,6 +38,17 @@ class UserCredentialTest {
         this.mockedHashingFunction = mockedHashingFunction;
     }
 
+    /**
+     * Tests that a newly created {@link UserCredential} is the current one of its {@link User}.
+     */
+    @Test
+    void testCredentialIsCurrentUponCreation() {
+        final var password = generateAcceptedPassword();
+        Mockito.when(mockedHashingFunction.apply(password)).thenReturn(password);
+        final var credential = UserCredential.buildCredential(mockedUser, password, mockedHashingFunction);
+        Assertions.assertTrue(credential.isCurrent(), "A newly created credential must be the current one.");
+    }
+
     /**
      * Tests that an {@link IllegalArgumentException} is thrown when trying to create a {@link UserCredential}
      * with a {@code null} {@link User}.
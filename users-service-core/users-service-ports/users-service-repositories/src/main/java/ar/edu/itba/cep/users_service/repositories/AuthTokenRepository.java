@@ -3,10 +3,37 @@ package ar.edu.itba.cep.users_service.repositories;
 import ar.edu.itba.cep.users_service.models.AuthToken;
 import com.bellotapps.webapps_commons.persistence.repository_utils.repositories.BasicRepository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * A port out of the application that allows {@link AuthToken} persistence.
  */
 public interface AuthTokenRepository<T extends AuthToken> extends BasicRepository<T, UUID> {
+
+    /**
+     * Retrieves the {@link AuthToken}s with the given {@code ids} at once (those that exist).
+     *
+     * @param ids The ids of the {@link AuthToken}s to be retrieved.
+     * @return A {@link List} containing the existing {@link AuthToken}s with the given {@code ids}, in no order.
+     */
+    List<T> findAllByIds(final Collection<UUID> ids);
+
+    /**
+     * Lists the ids of all the {@link AuthToken}s that are not valid (i.e were revoked).
+     *
+     * @return A {@link List} containing the ids of the revoked {@link AuthToken}s.
+     */
+    List<UUID> getRevokedTokenIds();
+
+    /**
+     * Deletes up to {@code limit} {@link AuthToken}s that have not been refreshed since the given {@code instant}.
+     *
+     * @param instant The {@link Instant} used to select the {@link AuthToken}s to be deleted.
+     * @param limit   The maximum amount of {@link AuthToken}s to be deleted.
+     * @return A {@link List} containing the ids of the deleted {@link AuthToken}s.
+     */
+    List<UUID> deleteNotRefreshedSince(final Instant instant, final int limit);
 }
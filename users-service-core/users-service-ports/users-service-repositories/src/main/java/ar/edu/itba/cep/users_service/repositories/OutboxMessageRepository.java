@@ -0,0 +1,47 @@
+package ar.edu.itba.cep.users_service.repositories;
+
+import ar.edu.itba.cep.users_service.models.OutboxMessage;
+import com.bellotapps.webapps_commons.persistence.repository_utils.repositories.BasicRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A port out of the application that allows {@link OutboxMessage} persistence.
+ */
+public interface OutboxMessageRepository extends BasicRepository<OutboxMessage, Long> {
+
+    /**
+     * Retrieves (and locks until the active transaction ends) up to {@code limit} {@link OutboxMessage}s,
+     * ordered by id. Messages being locked by other transactions are skipped,
+     * so concurrent dispatchers do not retrieve the same messages.
+     *
+     * @param limit The maximum amount of {@link OutboxMessage}s to be retrieved.
+     * @return A {@link List} containing the locked {@link OutboxMessage}s.
+     */
+    List<OutboxMessage> lockOldest(final int limit);
+
+    /**
+     * Deletes the {@link OutboxMessage}s with the given {@code ids} in a single operation.
+     *
+     * @param ids The ids of the {@link OutboxMessage}s to be deleted.
+     */
+    void deleteByIds(final Collection<Long> ids);
+
+    /**
+     * Registers a failed attempt of dispatching the {@link OutboxMessage} with the given {@code id}.
+     *
+     * @param id The id of the {@link OutboxMessage} that could not be dispatched.
+     */
+    void registerFailedAttempt(final long id);
+
+    /**
+     * Moves the {@link OutboxMessage} with the given {@code id} out of the outbox (i.e to the dead letters),
+     * if it failed to be dispatched at least {@code maxAttempts} times.
+     *
+     * @param id          The id of the {@link OutboxMessage}.
+     * @param maxAttempts The amount of failed attempts after which the {@link OutboxMessage} is moved.
+     * @return {@code true} if the {@link OutboxMessage} was moved, or {@code false} otherwise.
+     */
+    boolean deadLetterIfExhausted(final long id, final int maxAttempts);
+}
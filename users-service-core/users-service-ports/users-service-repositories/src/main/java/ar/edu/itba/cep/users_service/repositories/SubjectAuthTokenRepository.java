@@ -5,6 +5,7 @@ import ar.edu.itba.cep.users_service.models.SubjectAuthToken;
 import ar.edu.itba.cep.users_service.models.UserAuthToken;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A port out of the application that allows {@link UserAuthToken} persistence.
@@ -27,4 +28,22 @@ public interface SubjectAuthTokenRepository extends AuthTokenRepository<SubjectA
      * @return A {@link List} containing the matched {@link SubjectAuthToken}s.
      */
     List<SubjectAuthToken> getSubjectTokensWithRole(final String subject, final Role role);
+
+    /**
+     * Invalidates all the given {@code subject}'s valid {@link SubjectAuthToken}s in a single operation.
+     *
+     * @param subject The {@code subject} owning the {@link SubjectAuthToken}s to be invalidated.
+     * @return A {@link List} containing the ids of the invalidated {@link SubjectAuthToken}s.
+     */
+    List<UUID> invalidateSubjectTokens(final String subject);
+
+    /**
+     * Invalidates all the given {@code subject}'s valid {@link SubjectAuthToken}s that contain the given {@code role}
+     * in a single operation.
+     *
+     * @param subject The {@code subject} owning the {@link SubjectAuthToken}s to be invalidated.
+     * @param role    The {@link Role} to be matched.
+     * @return A {@link List} containing the ids of the invalidated {@link SubjectAuthToken}s.
+     */
+    List<UUID> invalidateSubjectTokensWithRole(final String subject, final Role role);
 }
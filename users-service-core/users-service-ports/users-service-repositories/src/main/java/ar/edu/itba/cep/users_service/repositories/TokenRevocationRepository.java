@@ -0,0 +1,34 @@
+package ar.edu.itba.cep.users_service.repositories;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A port out of the application that allows {@link TokenRevocation} persistence (i.e the revocations log).
+ */
+public interface TokenRevocationRepository {
+
+    /**
+     * Appends the revocations of the {@link AuthToken}s with the given {@code tokenIds} to the log.
+     * Tokens whose revocation was already logged are skipped.
+     * Concurrent appenders are serialized until the active transaction ends, so entries become visible
+     * in the order of their sequence numbers (i.e a reader never skips an entry committed later).
+     *
+     * @param tokenIds The ids of the revoked {@link AuthToken}s.
+     */
+    void appendAll(final Collection<UUID> tokenIds);
+
+    /**
+     * Retrieves up to {@code limit} {@link TokenRevocation}s logged after the one with the given {@code sequence},
+     * ordered by sequence number.
+     *
+     * @param sequence The sequence number after which {@link TokenRevocation}s are retrieved.
+     * @param limit    The maximum amount of {@link TokenRevocation}s to be retrieved.
+     * @return A {@link List} containing the retrieved {@link TokenRevocation}s.
+     */
+    List<TokenRevocation> findSince(final long sequence, final int limit);
+}
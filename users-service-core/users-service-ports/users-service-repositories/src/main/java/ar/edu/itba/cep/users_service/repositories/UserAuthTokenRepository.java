@@ -4,7 +4,10 @@ import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.User;
 import ar.edu.itba.cep.users_service.models.UserAuthToken;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A port out of the application that allows {@link UserAuthToken} persistence.
@@ -27,4 +30,48 @@ public interface UserAuthTokenRepository extends AuthTokenRepository<UserAuthTok
      * @return A {@link List} containing the matched {@link UserAuthToken}s.
      */
     List<UserAuthToken> getUserTokensWithRole(final User user, final Role role);
+
+    /**
+     * Invalidates all the given {@link User}'s valid {@link UserAuthToken}s in a single operation.
+     *
+     * @param user The {@link User} owning the {@link UserAuthToken}s to be invalidated.
+     * @return A {@link List} containing the ids of the invalidated {@link UserAuthToken}s.
+     */
+    List<UUID> invalidateUserTokens(final User user);
+
+    /**
+     * Invalidates all the given {@link User}'s valid {@link UserAuthToken}s that contain the given {@code role}
+     * in a single operation.
+     *
+     * @param user The {@link User} owning the {@link UserAuthToken}s to be invalidated.
+     * @param role The {@link Role} to be matched.
+     * @return A {@link List} containing the ids of the invalidated {@link UserAuthToken}s.
+     */
+    List<UUID> invalidateUserTokensWithRole(final User user, final Role role);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s of the {@link User}s with the given {@code usernames}
+     * that were issued before the given {@link Instant}, in a single pass.
+     *
+     * @param usernames    The usernames of the {@link User}s owning the {@link UserAuthToken}s to be invalidated.
+     * @param issuedBefore The {@link Instant} until which matching {@link UserAuthToken}s are invalidated
+     *                     (i.e those issued afterwards are kept).
+     * @return A {@link List} containing the ids of the invalidated {@link UserAuthToken}s.
+     */
+    List<UUID> invalidateUsersTokens(final Collection<String> usernames, final Instant issuedBefore);
+
+    /**
+     * Invalidates all the valid {@link UserAuthToken}s of the {@link User}s with the given {@code usernames}
+     * that contain the given {@code role}, and that were issued before the given {@link Instant}, in a single pass.
+     *
+     * @param usernames    The usernames of the {@link User}s owning the {@link UserAuthToken}s to be invalidated.
+     * @param role         The {@link Role} to be matched.
+     * @param issuedBefore The {@link Instant} until which matching {@link UserAuthToken}s are invalidated
+     *                     (i.e those issued afterwards are kept).
+     * @return A {@link List} containing the ids of the invalidated {@link UserAuthToken}s.
+     */
+    List<UUID> invalidateUsersTokensWithRole(
+            final Collection<String> usernames,
+            final Role role,
+            final Instant issuedBefore);
 }
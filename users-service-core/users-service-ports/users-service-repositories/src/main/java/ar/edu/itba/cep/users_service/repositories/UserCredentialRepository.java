@@ -12,13 +12,40 @@ import java.util.Optional;
 public interface UserCredentialRepository extends BasicRepository<UserCredential, Long> {
 
     /**
-     * Retrieves the last {@link UserCredential} created for the given {@code user}.
+     * Retrieves the current {@link UserCredential} of the given {@code user}.
      *
      * @param user The {@link User} owning the {@link UserCredential}.
      * @return An {@link Optional} containing
-     * the lastly created {@link UserCredential} created for the given {@code user}, if it exists, or empty otherwise.
+     * the current {@link UserCredential} of the given {@code user}, if it exists, or empty otherwise.
      */
-    Optional<UserCredential> findLastForUser(final User user);
+    Optional<UserCredential> findCurrentForUser(final User user);
+
+    /**
+     * Retrieves the current {@link UserCredential} of the {@link User} with the given {@code username},
+     * together with the said {@link User} and its roles, in a single round trip (e.g to be used when logging in).
+     *
+     * @param username The username of the {@link User} owning the {@link UserCredential}.
+     * @return An {@link Optional} containing the current {@link UserCredential} of the {@link User}
+     * with the given {@code username} (with its {@link User} and roles initialized), if it exists, or empty otherwise.
+     */
+    Optional<UserCredential> findCurrentWithUserByUsername(final String username);
+
+    /**
+     * Marks the current {@link UserCredential} of the given {@code user} (if any) as not current.
+     * This must be performed before a new {@link UserCredential} is saved for the {@code user}.
+     *
+     * @param user The {@link User} owning the {@link UserCredential}.
+     */
+    void retireCurrentForUser(final User user);
+
+    /**
+     * Removes the oldest {@link UserCredential}s of the given {@code user},
+     * keeping only the lastly created {@code historySize} ones (which always include the current one).
+     *
+     * @param user        The {@link User} owning the {@link UserCredential}s.
+     * @param historySize The amount of {@link UserCredential}s to be kept (negative values are treated as zero).
+     */
+    void compactHistory(final User user, final int historySize);
 
     /**
      * Removes all {@link UserCredential} of a given {@link User}.
@@ -2,11 +2,16 @@ package ar.edu.itba.cep.users_service.repositories;
 
 import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserCredential;
+import ar.edu.itba.cep.users_service.models.UserSelection;
 import com.bellotapps.webapps_commons.persistence.repository_utils.paging_and_sorting.Page;
 import com.bellotapps.webapps_commons.persistence.repository_utils.paging_and_sorting.PagingRequest;
 import com.bellotapps.webapps_commons.persistence.repository_utils.repositories.WriterRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * A port out of the application that allows {@link User} persistence.
@@ -30,6 +35,48 @@ public interface UserRepository extends WriterRepository<User, Long> {
      */
     boolean existsByUsername(final String username);
 
+    /**
+     * Retrieves which of the given {@code usernames} are in use.
+     *
+     * @param usernames The usernames to be checked.
+     * @return A {@link Set} containing those of the given {@code usernames} that are in use.
+     */
+    Set<String> findExistingUsernames(final Collection<String> usernames);
+
+    /**
+     * Saves the given new {@link User}s together with their initial {@link UserCredential}s
+     * (i.e the {@link UserCredential#getUser()} of each of them), in batches.
+     * {@link User}s whose username is already in use are skipped (together with their {@link UserCredential}).
+     *
+     * @param credentials The {@link UserCredential}s of the {@link User}s to be saved.
+     * @return A {@link List} containing those of the given {@code credentials} that were saved.
+     */
+    List<UserCredential> saveAllWithCredentials(final List<UserCredential> credentials);
+
+    /**
+     * Lists the usernames of all the {@link User}s.
+     *
+     * @return A {@link List} containing the usernames of all the {@link User}s.
+     */
+    List<String> getAllUsernames();
+
+    /**
+     * Returns the greatest id of the existing {@link User}s.
+     *
+     * @return The greatest id, or zero if there are no {@link User}s.
+     */
+    long getLastId();
+
+    /**
+     * Checks if a {@link User} exists with the given {@code username}, and an id greater than the given {@code id}
+     * (i.e it was created after the said id was assigned).
+     *
+     * @param username The username to check if a {@link User} exists with.
+     * @param id       The id after which the {@link User} must have been created.
+     * @return {@code true} if such a {@link User} exists, or {@code false} otherwise.
+     */
+    boolean existsWithUsernameAfter(final String username, final long id);
+
     /**
      * Searches for {@link User}s applying "like" username and active flag filters, returning data in a {@link Page}.
      *
@@ -40,6 +87,37 @@ public interface UserRepository extends WriterRepository<User, Long> {
      */
     Page<User> findFiltering(final String username, final Boolean active, final PagingRequest pagingRequest);
 
+    /**
+     * Searches for {@link User}s applying "like" username and active flag filters,
+     * returning at most {@code limit} of them, ordered by username,
+     * starting right after the given {@code afterUsername} (i.e keyset pagination).
+     *
+     * @param username      A username pattern.
+     * @param active        The active flag.
+     * @param afterUsername The username after which the results start, or {@code null} to start from the first one.
+     * @param limit         The maximum amount of {@link User}s to be returned.
+     * @return A {@link List} containing the {@link User}s matching.
+     */
+    List<User> findFilteringAfterUsername(
+            final String username,
+            final Boolean active,
+            final String afterUsername,
+            final int limit
+    );
+
+    /**
+     * Searches for {@link User}s applying "like" username and active flag filters,
+     * returning at most {@code limit} of them, ordered by id,
+     * starting right after the given {@code afterId} (i.e keyset pagination).
+     *
+     * @param username A username pattern.
+     * @param active   The active flag.
+     * @param afterId  The id after which the results start, or {@code null} to start from the first one.
+     * @param limit    The maximum amount of {@link User}s to be returned.
+     * @return A {@link List} containing the {@link User}s matching.
+     */
+    List<User> findFilteringAfterId(final String username, final Boolean active, final Long afterId, final int limit);
+
     /**
      * Indicates whether a {@link User} exists with the given {@code role}.
      *
@@ -47,4 +125,34 @@ public interface UserRepository extends WriterRepository<User, Long> {
      * @return {@code true} if there is a {@link User} with the given {@code role}, or {@code false} otherwise.
      */
     boolean existsWithRole(final Role role);
+
+    /**
+     * Adds the given {@code role} to all the selected {@link User}s in a single operation.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param role      The {@link Role} to be added.
+     * @return A {@link List} containing the usernames of the {@link User}s that did not have the {@code role}
+     * (i.e those that were actually changed).
+     */
+    List<String> addRoleToAll(final UserSelection selection, final Role role);
+
+    /**
+     * Removes the given {@code role} from all the selected {@link User}s in a single operation.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param role      The {@link Role} to be removed.
+     * @return A {@link List} containing the usernames of the {@link User}s that had the {@code role}
+     * (i.e those that were actually changed).
+     */
+    List<String> removeRoleFromAll(final UserSelection selection, final Role role);
+
+    /**
+     * Sets the active flag of all the selected {@link User}s to the given {@code active} value in a single operation.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param active    The new value of the active flag.
+     * @return A {@link List} containing the usernames of the {@link User}s whose active flag had another value
+     * (i.e those that were actually changed).
+     */
+    List<String> setActiveToAll(final UserSelection selection, final boolean active);
 }
@@ -27,9 +27,11 @@ public interface AuthTokenService {
      * @return A {@link RawTokenContainer} with the information generated by this action.
      * Will include the access token, together with a refresh token (is another token that can only be used to
      * refresh a token through the {@link AuthTokenService#refreshToken(UUID)} method).
-     * @throws UnauthenticatedException If the given credentials do not match.
+     * @throws UnauthenticatedException   If the given credentials do not match.
+     * @throws ServiceOverloadedException If the credentials could not be checked because the service is overloaded.
      */
-    RawTokenContainer issueTokenForUser(final String username, final String password) throws UnauthenticatedException;
+    RawTokenContainer issueTokenForUser(final String username, final String password)
+            throws UnauthenticatedException, ServiceOverloadedException;
 
     /**
      * Creates a new {@link SubjectAuthToken} for the given {@code subject}.
@@ -0,0 +1,26 @@
+package ar.edu.itba.cep.users_service.services;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A Data Transfer Object that wraps the set of public keys with which issued tokens can be verified,
+ * already serialized as a JSON Web Key Set (RFC 7517).
+ */
+@Getter
+@AllArgsConstructor
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public class PublishedKeySet {
+
+    /**
+     * The JSON Web Key Set.
+     */
+    private final String jwks;
+    /**
+     * A value that changes each time the key set changes (i.e it can be used as an entity tag).
+     */
+    private final String version;
+}
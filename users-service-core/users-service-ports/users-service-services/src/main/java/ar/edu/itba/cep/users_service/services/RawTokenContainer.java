@@ -24,7 +24,8 @@ public class RawTokenContainer {
      */
     private final String accessToken;
     /**
-     * A token to be used to refresh the access token.
+     * A token to be used to refresh the access token
+     * ({@code null} if no new refresh token was issued, in which case the previous one must still be used).
      */
     private final String refreshToken;
 
@@ -34,7 +35,8 @@ public class RawTokenContainer {
      *
      * @param authToken    The {@link AuthToken} from where data is taken.
      * @param accessToken  The access token (in {@link String} format).
-     * @param refreshToken A token to be used to refresh the access token (in {@link String} format).
+     * @param refreshToken A token to be used to refresh the access token (in {@link String} format),
+     *                     or {@code null} if no new refresh token was issued.
      */
     public RawTokenContainer(
             final AuthToken authToken,
@@ -0,0 +1,61 @@
+package ar.edu.itba.cep.users_service.services;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of results retrieved using keyset (i.e seek) pagination.
+ * Instead of a page number, it holds an opaque continuation token from which the next page can be retrieved,
+ * so retrieving any page costs the same as retrieving the first one, and no count query is needed.
+ *
+ * @param <T> The concrete type of the elements in the page.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public class SeekPage<T> {
+
+    /**
+     * The elements in the page.
+     */
+    private final List<T> content;
+    /**
+     * The token from which the next page can be retrieved, or {@code null} if this is the last page.
+     */
+    private final String continuationToken;
+
+
+    /**
+     * Constructor.
+     *
+     * @param content           The elements in the page.
+     * @param continuationToken The token from which the next page can be retrieved,
+     *                          or {@code null} if this is the last page.
+     * @throws IllegalArgumentException If the {@code content} is {@code null}.
+     */
+    public SeekPage(final List<T> content, final String continuationToken) throws IllegalArgumentException {
+        Assert.notNull(content, "The content must not be null");
+        this.content = Collections.unmodifiableList(content);
+        this.continuationToken = continuationToken;
+    }
+
+
+    /**
+     * Creates a new {@link SeekPage} with the same continuation token,
+     * whose elements are the result of applying the given {@code mapper} to the elements of this one.
+     *
+     * @param mapper The {@link Function} used to map the elements.
+     * @param <R>    The concrete type of the elements in the new page.
+     * @return The new {@link SeekPage}.
+     */
+    public <R> SeekPage<R> map(final Function<? super T, ? extends R> mapper) {
+        return new SeekPage<>(content.stream().map(mapper).collect(Collectors.toList()), continuationToken);
+    }
+}
@@ -0,0 +1,31 @@
+package ar.edu.itba.cep.users_service.services;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when an operation can not be performed because the service has not enough capacity to handle it
+ * at the moment (e.g too many CPU bound operations are being performed).
+ * The operation can be retried later.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * A hint of how much time the client should wait before retrying the operation.
+     */
+    private final Duration retryAfter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param message    The detail message.
+     * @param retryAfter A hint of how much time the client should wait before retrying the operation.
+     */
+    public ServiceOverloadedException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
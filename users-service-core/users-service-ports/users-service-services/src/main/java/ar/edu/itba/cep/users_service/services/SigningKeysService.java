@@ -0,0 +1,14 @@
+package ar.edu.itba.cep.users_service.services;
+
+/**
+ * A port into the application that allows publishing the keys with which issued tokens can be verified.
+ */
+public interface SigningKeysService {
+
+    /**
+     * Retrieves the set of public keys with which issued tokens can be verified.
+     *
+     * @return A {@link PublishedKeySet} with the actual keys.
+     */
+    PublishedKeySet getPublishedKeys();
+}
@@ -0,0 +1,129 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.roles.Role;
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The state of an {@link AuthToken}, as seen by other services that introspect it.
+ * Only active tokens (i.e those that exist, were not revoked and have not expired) expose their state;
+ * for any other token, it is only stated that it is not active.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public final class TokenIntrospection {
+
+    /**
+     * The {@link AuthToken}'s id.
+     */
+    private final UUID tokenId;
+    /**
+     * Whether the {@link AuthToken} is active (i.e it exists, was not revoked and has not expired).
+     */
+    private final boolean active;
+    /**
+     * The {@link AuthToken}'s owner (e.g username, subject, etc), or {@code null} if it is not active.
+     */
+    private final String owner;
+    /**
+     * The {@link Role}s assigned to the {@link AuthToken} (empty if it is not active).
+     */
+    private final Set<Role> roles;
+    /**
+     * The {@link Instant} in which the {@link AuthToken} was created, or {@code null} if it is not active.
+     */
+    private final Instant issuedAt;
+    /**
+     * The {@link Instant} at which the {@link AuthToken} expires, or {@code null} if it is not active.
+     */
+    private final Instant expiresAt;
+
+
+    /**
+     * Private constructor.
+     *
+     * @param tokenId   The {@link AuthToken}'s id.
+     * @param active    Whether the {@link AuthToken} is active.
+     * @param owner     The {@link AuthToken}'s owner.
+     * @param roles     The {@link Role}s assigned to the {@link AuthToken}.
+     * @param issuedAt  The {@link Instant} in which the {@link AuthToken} was created.
+     * @param expiresAt The {@link Instant} at which the {@link AuthToken} expires.
+     */
+    private TokenIntrospection(
+            final UUID tokenId,
+            final boolean active,
+            final String owner,
+            final Set<Role> roles,
+            final Instant issuedAt,
+            final Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.active = active;
+        this.owner = owner;
+        this.roles = roles.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(roles));
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+
+    /**
+     * Indicates whether this introspection is stale at the given {@code instant}
+     * (i.e it states that the {@link AuthToken} is active, but it has already expired).
+     *
+     * @param instant The {@link Instant} to check.
+     * @return {@code true} if the {@link AuthToken} is stated as active but expired at the given {@code instant},
+     * or {@code false} otherwise.
+     */
+    public boolean isStaleAt(final Instant instant) {
+        return active && !expiresAt.isAfter(instant);
+    }
+
+
+    /**
+     * Creates the {@link TokenIntrospection} of the given {@code authToken}
+     * (which is active only if the {@code authToken} is valid and has not expired yet).
+     *
+     * @param authToken The {@link AuthToken}.
+     * @param expiresAt The {@link Instant} at which the {@link AuthToken} expires.
+     * @return The created {@link TokenIntrospection}.
+     * @throws IllegalArgumentException If any argument is {@code null}.
+     */
+    public static TokenIntrospection of(final AuthToken authToken, final Instant expiresAt)
+            throws IllegalArgumentException {
+        Assert.notNull(authToken, "The token must not be null");
+        Assert.notNull(expiresAt, "The expiration must not be null");
+        if (!authToken.isValid() || !expiresAt.isAfter(Instant.now())) {
+            return inactive(authToken.getId());
+        }
+        return new TokenIntrospection(
+                authToken.getId(),
+                true,
+                authToken.getOwner(),
+                authToken.getRolesAssigned(),
+                authToken.getCreatedAt(),
+                expiresAt
+        );
+    }
+
+    /**
+     * Creates the {@link TokenIntrospection} of a token that is not active
+     * (i.e it does not exist, it was revoked, or it has expired).
+     *
+     * @param tokenId The token's id.
+     * @return The created {@link TokenIntrospection}.
+     * @throws IllegalArgumentException If the {@code tokenId} is {@code null}.
+     */
+    public static TokenIntrospection inactive(final UUID tokenId) throws IllegalArgumentException {
+        Assert.notNull(tokenId, "The token id must not be null");
+        return new TokenIntrospection(tokenId, false, null, Set.of(), null, null);
+    }
+}
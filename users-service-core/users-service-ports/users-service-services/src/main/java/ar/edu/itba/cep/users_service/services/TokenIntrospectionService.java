@@ -0,0 +1,28 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A port into the application that allows other services to check whether {@link AuthToken}s are still active,
+ * and which roles they carry, without having to decode (and trust) the issued tokens.
+ */
+public interface TokenIntrospectionService {
+
+    /**
+     * Introspects the {@link AuthToken}s with the given {@code tokenIds}.
+     *
+     * @param tokenIds The ids of the {@link AuthToken}s to be introspected.
+     * @return A {@link List} containing a {@link TokenIntrospection} for each of the given {@code tokenIds}
+     * (in the same order, and with one for each repeated id).
+     * Those of non existing {@link AuthToken}s are not active.
+     * @throws IllegalArgumentException If the {@code tokenIds} are {@code null}, contain {@code null}s,
+     *                                  or if there are too many of them.
+     * @apiNote Revocations performed by other application instances might take a while to be seen
+     * (up to the revocations log polling delay).
+     */
+    List<TokenIntrospection> introspect(final Collection<UUID> tokenIds) throws IllegalArgumentException;
+}
@@ -0,0 +1,52 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.AuthToken;
+import ar.edu.itba.cep.users_service.models.TokenRevocation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A port into the application that allows other services to learn which {@link AuthToken}s were revoked
+ * (i.e to read the revocations log), so they can reject them while validating tokens locally.
+ * Each {@link TokenRevocation} has a sequence number, which is used to resume reading the log.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Retrieves the {@link TokenRevocation}s logged after the one with the given {@code sequence} number.
+     *
+     * @param sequence The sequence number after which {@link TokenRevocation}s are retrieved
+     *                 ({@code 0} to start from the beginning of the log).
+     * @param limit    The maximum amount of {@link TokenRevocation}s to be retrieved.
+     * @return A {@link List} containing the retrieved {@link TokenRevocation}s, ordered by sequence number.
+     * @throws IllegalArgumentException If the {@code sequence} is negative, or if the {@code limit} is out of range.
+     * @apiNote Revocations of expired tokens are eventually removed from the log, so there might be gaps between
+     * sequence numbers.
+     */
+    List<TokenRevocation> getRevocationsSince(final long sequence, final int limit) throws IllegalArgumentException;
+
+    /**
+     * Subscribes the given {@code subscriber} to the revocations log, starting after the given {@code sequence}.
+     * The {@code subscriber} first receives the {@link TokenRevocation}s already logged (in pages),
+     * and then those logged from now on, as they are logged. It is called from another thread
+     * (i.e this method returns right away, without reading the log).
+     * It also receives an empty {@link List} from time to time when nothing is logged (i.e a heartbeat).
+     * <p>
+     * If the {@code subscriber} throws an exception, or if it falls too far behind, it is unsubscribed,
+     * and the {@code onDropped} {@link Runnable} is executed.
+     *
+     * @param sequence   The sequence number after which {@link TokenRevocation}s are received
+     *                   ({@code 0} to start from the beginning of the log).
+     * @param subscriber A {@link Consumer} that receives the {@link TokenRevocation}s, ordered by sequence number.
+     * @param onDropped  A {@link Runnable} executed if the {@code subscriber} is unsubscribed by the service.
+     * @return A {@link Runnable} that unsubscribes the {@code subscriber} when executed.
+     * @throws IllegalArgumentException   If the {@code sequence} is negative, or if the {@code subscriber}
+     *                                    or the {@code onDropped} {@link Runnable} are {@code null}.
+     * @throws ServiceOverloadedException If there are too many subscribers at the moment.
+     */
+    Runnable subscribe(
+            final long sequence,
+            final Consumer<List<TokenRevocation>> subscriber,
+            final Runnable onDropped) throws IllegalArgumentException, ServiceOverloadedException;
+}
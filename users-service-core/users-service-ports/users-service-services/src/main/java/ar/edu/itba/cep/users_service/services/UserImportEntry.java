@@ -0,0 +1,28 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A Data Transfer Object holding the data needed to create a {@link User} as part of a bulk import.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(doNotUseGetters = true, exclude = "password")
+public class UserImportEntry {
+
+    /**
+     * The position of this entry in the imported data (e.g the line number), used to report its result.
+     */
+    private final long position;
+    /**
+     * The username for the {@link User}.
+     */
+    private final String username;
+    /**
+     * The password for the {@link User}.
+     */
+    private final String password;
+}
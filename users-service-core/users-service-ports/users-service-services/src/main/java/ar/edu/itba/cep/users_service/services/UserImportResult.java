@@ -0,0 +1,59 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.User;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A Data Transfer Object holding the result of importing a {@link UserImportEntry}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(doNotUseGetters = true)
+@EqualsAndHashCode(doNotUseGetters = true)
+public class UserImportResult {
+
+    /**
+     * The position of the imported {@link UserImportEntry}.
+     */
+    private final long position;
+    /**
+     * The username of the imported {@link UserImportEntry}.
+     */
+    private final String username;
+    /**
+     * The {@link Status} of the import.
+     */
+    private final Status status;
+    /**
+     * A message explaining why the {@link User} was not created ({@code null} if it was created).
+     */
+    private final String message;
+
+
+    /**
+     * The possible outcomes of importing a {@link UserImportEntry}.
+     */
+    public enum Status {
+        /**
+         * The {@link User} was created.
+         */
+        CREATED,
+        /**
+         * The {@link User} was not created because the username or the password are not valid ones.
+         */
+        INVALID,
+        /**
+         * The {@link User} was not created because the username is already in use.
+         */
+        USERNAME_IN_USE,
+        /**
+         * The {@link User} was not created because the username appears more than once in the imported data
+         * (only the first appearance is imported).
+         */
+        DUPLICATED,
+        ;
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.User;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * A port into the application that allows importing {@link User}s in bulk.
+ */
+public interface UserImportService {
+
+    /**
+     * Creates a {@link User} for each of the given {@code entries}, reporting the result of each of them
+     * to the given {@code resultHandler} as soon as it is known.
+     * <p>
+     * Entries are processed in batches: each batch is validated and checked for uniqueness at once,
+     * passwords are hashed in parallel, and the {@link User}s are saved in a transaction of their own.
+     * Hence, a failure does not discard the {@link User}s already reported as created.
+     *
+     * @param entries       An {@link Iterator} of the {@link UserImportEntry}s to be imported.
+     *                      It is consumed lazily (i.e as batches are processed).
+     * @param resultHandler A {@link Consumer} of the {@link UserImportResult} of each entry.
+     * @throws IllegalArgumentException If any argument is {@code null}.
+     * @apiNote Results are reported in the same order as the entries.
+     */
+    void importUsers(final Iterator<UserImportEntry> entries, final Consumer<UserImportResult> resultHandler)
+            throws IllegalArgumentException;
+}
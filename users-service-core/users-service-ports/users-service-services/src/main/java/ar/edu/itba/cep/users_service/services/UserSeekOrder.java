@@ -0,0 +1,19 @@
+package ar.edu.itba.cep.users_service.services;
+
+import ar.edu.itba.cep.users_service.models.User;
+
+/**
+ * The orderings in which {@link User}s can be retrieved using keyset (i.e seek) pagination.
+ * Each of them is backed by a unique key, so the last {@link User} of a page identifies where the next one starts.
+ */
+public enum UserSeekOrder {
+    /**
+     * {@link User}s are ordered by username.
+     */
+    USERNAME,
+    /**
+     * {@link User}s are ordered by id (i.e by creation order).
+     */
+    ID,
+    ;
+}
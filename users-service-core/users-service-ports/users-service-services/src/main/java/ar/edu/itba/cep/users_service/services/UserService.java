@@ -2,6 +2,7 @@ package ar.edu.itba.cep.users_service.services;
 
 import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.User;
+import ar.edu.itba.cep.users_service.models.UserSelection;
 import com.bellotapps.webapps_commons.exceptions.NoSuchEntityException;
 import com.bellotapps.webapps_commons.exceptions.UnauthorizedException;
 import com.bellotapps.webapps_commons.exceptions.UniqueViolationException;
@@ -32,6 +33,34 @@ public interface UserService {
             final PagingRequest pagingRequest
     );
 
+    /**
+     * Finds {@link User}s, applying optional filters and keyset (i.e seek) pagination. String filters are compared as
+     * with the "like" keyword, matching anywhere.
+     * Pages are retrieved by continuation tokens instead of page numbers,
+     * so retrieving any page costs the same as retrieving the first one.
+     *
+     * @param username          A filter for the {@link User}'s username.
+     * @param active            The {@link User}'s active flag state.
+     * @param order             The {@link UserSeekOrder} in which the {@link User}s are retrieved.
+     * @param continuationToken The continuation token of the previous page (i.e from which the page starts).
+     * @param size              The maximum amount of {@link User}s in the page.
+     * @return The resulting {@link SeekPage}.
+     * @throws IllegalArgumentException If the {@code continuationToken} is not a valid one
+     *                                  (or was issued for another {@link UserSeekOrder}),
+     *                                  or if the {@code size} is out of range.
+     * @apiNote Those parameter that are {@code null} will not be taken into account (they are
+     * optional). If the {@code order} is {@code null}, the one of the {@code continuationToken} is used,
+     * or {@link UserSeekOrder#USERNAME} when starting from the first page.
+     * The same filters must be used to retrieve all the pages.
+     */
+    SeekPage<UserWithNoRoles> findMatching(
+            final String username,
+            final Boolean active,
+            final UserSeekOrder order,
+            final String continuationToken,
+            final int size
+    ) throws IllegalArgumentException;
+
     /**
      * Retrieves the {@link User} with the given {@code username}.
      *
@@ -117,6 +146,54 @@ public interface UserService {
      */
     void deactivate(final String username) throws NoSuchEntityException;
 
+    /**
+     * Adds a {@link Role} to all the selected {@link User}s at once.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param role      The {@link Role} to be added.
+     * @return The amount of {@link User}s to which the {@link Role} was added (i.e those that did not have it).
+     * @throws IllegalArgumentException If the {@code selection} or the {@link Role} are invalid.
+     * @apiNote This is an idempotent operation. Non existing usernames are ignored,
+     * and the authenticated {@link User} is never affected.
+     */
+    int addRole(final UserSelection selection, final Role role) throws IllegalArgumentException;
+
+    /**
+     * Removes a {@link Role} from all the selected {@link User}s at once.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be affected.
+     * @param role      The {@link Role} to be removed.
+     * @return The amount of {@link User}s from which the {@link Role} was removed (i.e those that had it).
+     * @throws IllegalArgumentException If the {@code selection} or the {@link Role} are invalid,
+     *                                  or if the {@code selection} is unrestricted (i.e it selects all the {@link User}s).
+     * @apiNote This is an idempotent operation. Non existing usernames are ignored,
+     * and the authenticated {@link User} is never affected.
+     */
+    int removeRole(final UserSelection selection, final Role role) throws IllegalArgumentException;
+
+    /**
+     * Activates all the selected {@link User}s at once.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be activated.
+     * @return The amount of {@link User}s that were activated (i.e those that were not active).
+     * @throws IllegalArgumentException If the {@code selection} is invalid.
+     * @apiNote This is an idempotent operation. Non existing usernames are ignored,
+     * and the authenticated {@link User} is never affected.
+     */
+    int activate(final UserSelection selection) throws IllegalArgumentException;
+
+    /**
+     * Deactivates all the selected {@link User}s at once.
+     *
+     * @param selection The {@link UserSelection} indicating the {@link User}s to be deactivated.
+     * @return The amount of {@link User}s that were deactivated (i.e those that were active).
+     * @throws IllegalArgumentException If the {@code selection} is invalid,
+     *                                  or if it is unrestricted (i.e it selects all the {@link User}s).
+     * @apiNote This is an idempotent operation. Non existing usernames are ignored,
+     * and the authenticated {@link User} is never affected.
+     */
+    int deactivate(final UserSelection selection) throws IllegalArgumentException;
+
     /**
      * Deletes the {@link User} with the given {@code username}.
      *
@@ -2,50 +2,63 @@ package ar.edu.itba.cep.users_service.services;
 
 import ar.edu.itba.cep.roles.Role;
 import ar.edu.itba.cep.users_service.models.User;
-import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.util.Set;
+
 /**
- * A Data Transfer Object that wraps a {@link User}, exposing the {@link User#getRoles()} method.
+ * A Data Transfer Object with an immutable snapshot of a {@link User}, including its {@link User#getRoles()}.
+ * Changes performed to the {@link User} after creating the snapshot are not reflected by it,
+ * so it can be safely kept (e.g cached) out of the persistence context in which the {@link User} was loaded.
  */
 @ToString(doNotUseGetters = true)
-@EqualsAndHashCode(doNotUseGetters = true, of = "user")
+@EqualsAndHashCode(doNotUseGetters = true)
 public class UserWithRoles {
 
     /**
-     * The {@link User} being wrapped.
+     * The {@link User}'s username.
+     */
+    private final String username;
+    /**
+     * Whether the {@link User} is active.
+     */
+    private final boolean active;
+    /**
+     * The {@link User}'s {@link Role}s.
      */
-    private final User user;
+    private final Set<Role> roles;
 
 
     /**
      * Constructor.
      *
-     * @param user The {@link User} to be wrapped.
+     * @param user The {@link User} whose snapshot is taken.
      */
     public UserWithRoles(final User user) {
-        this.user = user;
+        this.username = user.getUsername();
+        this.active = user.isActive();
+        this.roles = Set.copyOf(user.getRoles());
     }
 
     /**
-     * @return The wrapped {@link User}'s username.
+     * @return The {@link User}'s username.
      */
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     /**
-     * @return Whether the wrapped {@link User} is active.
+     * @return Whether the {@link User} is active.
      */
     public boolean isActive() {
-        return user.isActive();
+        return active;
     }
 
     /**
-     * @return The {@link User}'s {@link Role}s.
+     * @return The {@link User}'s {@link Role}s (an unmodifiable {@link Set}).
      */
     public Set<Role> getRoles() {
-        return user.getRoles();
+        return roles;
     }
 }